@@ -2,7 +2,13 @@ package com.excape;
 
 import java.io.IOException;
 
+import com.model.EscapeGameFacade;
+import com.model.GameClock;
+import com.model.PuzzleCatalog;
+import com.model.PuzzleCatalogWatcher;
+
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -16,6 +22,8 @@ public class App extends Application {
 
     private static Scene scene;
 
+    private PuzzleCatalogWatcher roomsWatcher;
+
     @Override
     public void start(Stage stage) throws IOException {
         Font.loadFont(getClass().getResourceAsStream("/fonts/AveriaSerifLibre-Regular.ttf"), 12);
@@ -26,6 +34,18 @@ public class App extends Application {
         scene = new Scene(loadFXML("landing"), 640, 480);
         stage.setScene(scene);
         stage.show();
+
+        roomsWatcher = new PuzzleCatalogWatcher(PuzzleCatalog.getInstance(), Platform::runLater);
+        roomsWatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        if (roomsWatcher != null) {
+            roomsWatcher.stop();
+        }
+        GameClock.getInstance().shutdown();
+        EscapeGameFacade.getInstance().flushProgress();
     }
 
     static void setRoot(String fxml) throws IOException {
@@ -67,6 +67,9 @@ public class CreateAccController {
             case 2:
                 errorLabel.setText("Account already exists");
                 return;
+            case 4:
+                errorLabel.setText("Username cannot be empty");
+                return;
         }
         App.setRoot("gameEntry");
     }
@@ -1,66 +1,125 @@
 package com.excape;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
-import com.model.EscapeGameFacade;
+import com.model.Game;
 import com.model.Leaderboard;
 import com.model.Leaderboard.LeaderboardEntry;
+import com.model.LeaderboardPages;
 
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+/**
+ * Shows the leaderboard as a scrollable table, filtered by time window and
+ * difficulty.
+ * <p>
+ * The table is backed by a {@link LeaderboardPages} list over one
+ * leaderboard snapshot. The {@code TableView} only builds cells for the rows
+ * on screen and the list only loads the pages those rows fall in, so the
+ * screen opens and scrolls at the same speed however many entries there are.
+ * Changing a filter swaps in a new list over a fresh snapshot.
+ */
 public class LeaderboardController {
 
+    /** Label of the difficulty filter's "every difficulty" choice. */
+    private static final String ALL_DIFFICULTIES = "ALL";
+
     @FXML
     private Button menuButton;
 
     @FXML
-    private Label player1;
+    private ComboBox<Leaderboard.Window> windowFilter;
+
+    @FXML
+    private ComboBox<String> difficultyFilter;
 
     @FXML
-    private Label player2;
+    private TableView<LeaderboardEntry> table;
 
     @FXML
-    private Label player3;
+    private TableColumn<LeaderboardEntry, LeaderboardEntry> rankColumn;
 
     @FXML
-    private Label player4;
+    private TableColumn<LeaderboardEntry, String> playerColumn;
 
     @FXML
-    private Label score1;
+    private TableColumn<LeaderboardEntry, Number> scoreColumn;
 
     @FXML
-    private Label score2;
+    private TableColumn<LeaderboardEntry, Number> puzzlesColumn;
 
     @FXML
-    private Label score3;
+    private TableColumn<LeaderboardEntry, String> timeColumn;
 
     @FXML
-    private Label score4;
+    private TableColumn<LeaderboardEntry, Game.Difficulty> difficultyColumn;
 
-    EscapeGameFacade facade = EscapeGameFacade.getInstance();
+    @FXML
+    private Label countLabel;
 
     @FXML
     public void initialize() {
-        facade.loadProgress();
-        Leaderboard leaderboard = Leaderboard.getInstance();
-        ArrayList<LeaderboardEntry> allEntries = leaderboard.getAllEntries();
-        if(allEntries.size() >= 4){
-            ArrayList<LeaderboardEntry> top4 = leaderboard.getTopEntries(4);
-            player1.setText(top4.get(0).getPlayerName());
-            score1.setText("" + top4.get(0).getScore());
-            player2.setText(top4.get(1).getPlayerName());
-            score2.setText("" + top4.get(1).getScore());
-            player3.setText(top4.get(2).getPlayerName());
-            score3.setText("" + top4.get(2).getScore());
-            player4.setText(top4.get(3).getPlayerName());
-            score4.setText("" + top4.get(3).getScore());
-        } else {
-            System.out.println(allEntries.size());
+        windowFilter.getItems().setAll(Leaderboard.Window.values());
+        windowFilter.setValue(Leaderboard.Window.ALL_TIME);
+        difficultyFilter.getItems().add(ALL_DIFFICULTIES);
+        for (Game.Difficulty difficulty : Game.Difficulty.values()) {
+            difficultyFilter.getItems().add(difficulty.name());
+        }
+        difficultyFilter.setValue(ALL_DIFFICULTIES);
+
+        rankColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        rankColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(LeaderboardEntry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                setText(empty || entry == null ? null : String.valueOf(getIndex() + 1));
+            }
+        });
+        playerColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getPlayerName()));
+        scoreColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getScore()));
+        puzzlesColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getPuzzlesCompleted()));
+        timeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(formatTime(cell.getValue().getTimeTaken())));
+        difficultyColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getDifficulty()));
+        // the rows come in leaderboard order; sorting would read every page
+        for (TableColumn<LeaderboardEntry, ?> column : table.getColumns()) {
+            column.setSortable(false);
         }
+
+        refresh();
+    }
+
+    /**
+     * Shows the entries for the selected filters from the latest snapshot.
+     */
+    @FXML
+    void refresh() {
+        String selected = difficultyFilter.getValue();
+        Game.Difficulty difficulty = selected == null || ALL_DIFFICULTIES.equals(selected)
+                ? null : Game.Difficulty.valueOf(selected);
+        LeaderboardPages rows = new LeaderboardPages(Leaderboard.getInstance().snapshot(),
+                windowFilter.getValue(), difficulty);
+        table.setItems(FXCollections.observableList(rows));
+        table.scrollTo(0);
+        countLabel.setText(rows.size() + (rows.size() == 1 ? " score" : " scores"));
+    }
+
+    /**
+     * Formats a time (in seconds) into a MM:SS string.
+     *
+     * @param seconds total seconds elapsed
+     * @return formatted string in mm:ss format
+     */
+    private static String formatTime(long seconds) {
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
     }
 
     @FXML
@@ -6,15 +6,12 @@ import java.util.ArrayList;
 import com.model.EscapeGameFacade;
 import com.model.Item;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.util.Duration;
 
 public class RoomScreenController {
 
@@ -44,8 +41,6 @@ public class RoomScreenController {
 
     @FXML
     private Label timerLabel;
-    private Timeline timeline;
-    private int secondsLeft = 0;
     EscapeGameFacade facade = EscapeGameFacade.getInstance();
     ArrayList<Item> inventoryL = facade.getCurrentPlayer().getProgress().get(facade.getCurrentPlayer().getProgress().size()-1).getInventory();
     Boolean invOpen = false;
@@ -53,61 +48,9 @@ public class RoomScreenController {
     @FXML
     public void initialize() {
         Sfx.play("/audio/teleport.wav");
-        startTimer((int) facade.getRemainingTime());
+        ScreenTimer.attach(timerLabel);
     }
 
-    public void startTimer(int seconds) {
-        stopTimerIfRunning();
-
-        this.secondsLeft = Math.max(0, seconds);
-        updateLabel(secondsLeft);
-
-        timeline = new Timeline(
-            new KeyFrame(Duration.seconds(1), ev -> {
-                secondsLeft = (int) facade.getRemainingTime();
-                if (secondsLeft <= 0) {
-                    updateLabel(0);
-                    stopTimerIfRunning();
-                    try {
-                        onTimerEnded();
-                    } catch (IOException ex) {
-                    }
-                } else {
-                    updateLabel(secondsLeft);
-                }
-            })
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
-    }
-
-    public void pauseTimer() {
-        if (timeline != null) timeline.pause();
-    }
-
-    public void resumeTimer() {
-        if (timeline != null) timeline.play();
-    }
-
-    public void stopTimerIfRunning() {
-        if (timeline != null) {
-            timeline.stop();
-            timeline = null;
-        }
-    }
-
-    private void updateLabel(int totalSeconds) {
-        int mins = totalSeconds / 60;
-        int secs = totalSeconds % 60;
-        String text = String.format("%02d:%02d", mins, secs);
-        timerLabel.setText(text);
-    }
-
-    private void onTimerEnded() throws IOException {
-        App.setRoot("YouLoseScreen");
-    }
-
-
     @FXML
     void openInventory(MouseEvent event) throws IOException {
         System.out.println(invOpen);
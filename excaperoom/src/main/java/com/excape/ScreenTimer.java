@@ -0,0 +1,70 @@
+package com.excape;
+
+import java.io.IOException;
+
+import com.model.EscapeGameFacade;
+import com.model.GameClock;
+
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+
+/**
+ * Shows the game's countdown in a screen's timer label.
+ * <p>
+ * The label follows the shared {@link GameClock} rather than running a
+ * timeline of its own. The subscription ends as soon as the label leaves
+ * the scene, so replacing the screen with {@code App.setRoot} leaves nothing
+ * ticking behind it. When the time is up the player is sent to the losing
+ * screen.
+ */
+final class ScreenTimer {
+
+    private ScreenTimer() {
+    }
+
+    /**
+     * Starts showing the countdown in a label.
+     *
+     * @param label the timer label of the current screen
+     * @return the subscription, already cancelled once the label leaves its scene
+     */
+    static GameClock.Subscription attach(Label label) {
+        GameClock.Subscription subscription = EscapeGameFacade.getInstance().subscribeToClock(
+                new GameClock.Listener() {
+                    @Override
+                    public void onTick(long remainingSeconds) {
+                        label.setText(format(remainingSeconds));
+                    }
+
+                    @Override
+                    public void onTimeUp() {
+                        label.setText(format(0));
+                        // only the screen still showing should move on
+                        if (label.getScene() == null) {
+                            return;
+                        }
+                        try {
+                            App.setRoot("YouLoseScreen");
+                        } catch (IOException e) {
+                            System.out.println("Warning: could not show the losing screen: " + e.getMessage());
+                        }
+                    }
+                }, Platform::runLater);
+        label.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                subscription.cancel();
+            }
+        });
+        return subscription;
+    }
+
+    /**
+     * Formats a number of seconds as MM:SS.
+     *
+     * @param totalSeconds the seconds
+     * @return the formatted time
+     */
+    static String format(long totalSeconds) {
+        return String.format("%02d:%02d", totalSeconds / 60, totalSeconds % 60);
+    }
+}
@@ -0,0 +1,333 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crash-safe replacement of whole data files.
+ * <p>
+ * Writing a file in place with a {@code FileWriter} truncates it first, so a
+ * crash or kill in the middle of a save leaves a partial or empty file. Every
+ * write made through this class instead:
+ * <ol>
+ *     <li>Writes the new content to {@code <name>.tmp} in the same directory.</li>
+ *     <li>Forces it to disk ({@code fsync}).</li>
+ *     <li>Optionally keeps the previous content as a numbered generation
+ *         ({@code <name>.1}, {@code <name>.2}, ...), rotated at most once per
+ *         generation interval.</li>
+ *     <li>Renames the temp file over the target atomically, then forces the
+ *         directory so the rename itself survives a crash.</li>
+ * </ol>
+ * Readers therefore always see either the old or the new file, never a mix.
+ * <p>
+ * Durability is grouped per target file: while one save is being written and
+ * synced, later saves of the same file wait and only the newest content is
+ * written by the next round, so a burst of saves costs one {@code fsync}
+ * rather than one each. An optional group window (see {@link #setGroupWindow(long)})
+ * makes each round wait briefly for more saves to join; it is off by default,
+ * so a lone save is written immediately.
+ */
+public class AtomicFileWriter {
+
+    /** Default number of previous generations kept for files that keep any. */
+    public static final int DEFAULT_GENERATIONS = 3;
+
+    /** Default minimum time, in milliseconds, between two generation rotations of a file. */
+    public static final long DEFAULT_GENERATION_INTERVAL_MILLIS = 60_000;
+
+    /** Default time, in milliseconds, a save waits for others to join its round. */
+    public static final long DEFAULT_GROUP_WINDOW_MILLIS = 0;
+
+    /** Write state of every file written so far, keyed by absolute path. */
+    private static final ConcurrentHashMap<String, Target> targets = new ConcurrentHashMap<>();
+
+    /** Time a save waits for others to join its round. */
+    private static volatile long groupWindowMillis = DEFAULT_GROUP_WINDOW_MILLIS;
+
+    /** Minimum time between two generation rotations of a file. */
+    private static volatile long generationIntervalMillis = DEFAULT_GENERATION_INTERVAL_MILLIS;
+
+    /**
+     * Private constructor; this class only has static members.
+     */
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Write state of one target file.
+     */
+    private static final class Target {
+        private final File file;
+        /** Newest content not yet picked up by a round. */
+        private byte[] pending;
+        /** Sequence number of the newest save requested. */
+        private long requested;
+        /** Sequence number of the newest save made durable. */
+        private long committed;
+        /** Whether a round is currently writing this file. */
+        private boolean busy;
+        /** Outcome of the last round. */
+        private boolean lastResult = true;
+        /** Time of the last generation rotation, or {@code 0} if none yet. */
+        private long lastRotation;
+        /** Number of rounds that synced data to disk. */
+        private int syncCount;
+
+        private Target(File file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Replaces a file's content durably, without keeping previous generations.
+     *
+     * @param file    the file to replace
+     * @param content the new content
+     * @return {@code true} if the content (or newer content) is on disk; {@code false} otherwise
+     */
+    public static boolean write(File file, byte[] content) {
+        return write(file, content, 0);
+    }
+
+    /**
+     * Replaces a file's content durably, keeping up to {@code generations}
+     * previous versions next to it.
+     * <p>
+     * Blocks until a round that includes this content, or newer content for the
+     * same file, has been synced and renamed into place.
+     *
+     * @param file        the file to replace
+     * @param content     the new content
+     * @param generations how many previous versions to keep; {@code 0} for none
+     * @return {@code true} if the content (or newer content) is on disk; {@code false} otherwise
+     */
+    public static boolean write(File file, byte[] content, int generations) {
+        Target target = targets.computeIfAbsent(file.getAbsolutePath(), path -> new Target(new File(path)));
+        long seq;
+        synchronized (target) {
+            seq = ++target.requested;
+            target.pending = content;
+            while (true) {
+                if (target.committed >= seq) {
+                    return target.lastResult;
+                }
+                if (!target.busy) {
+                    target.busy = true;
+                    break;
+                }
+                try {
+                    target.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+
+        // this caller leads the next round
+        long window = groupWindowMillis;
+        if (window > 0) {
+            try {
+                Thread.sleep(window);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] data;
+        long batch;
+        synchronized (target) {
+            data = target.pending;
+            batch = target.requested;
+            target.pending = null;
+        }
+
+        boolean ok;
+        try {
+            replace(target, data, generations);
+            ok = true;
+        } catch (IOException e) {
+            System.out.println("Warning: could not write " + target.file.getPath() + ": " + e.getMessage());
+            ok = false;
+        }
+
+        synchronized (target) {
+            target.committed = batch;
+            target.lastResult = ok;
+            target.busy = false;
+            if (ok) target.syncCount++;
+            target.notifyAll();
+        }
+        return ok;
+    }
+
+    /**
+     * Writes, syncs, rotates and renames one round's content.
+     *
+     * @param target      the target state
+     * @param data        the content to write
+     * @param generations how many previous versions to keep
+     * @throws IOException if any step fails; the target is then left untouched
+     */
+    private static void replace(Target target, byte[] data, int generations) throws IOException {
+        Path path = target.file.toPath();
+        Path dir = path.toAbsolutePath().getParent();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        long now = System.currentTimeMillis();
+        if (generations > 0 && Files.exists(path)
+                && (target.lastRotation == 0 || now - target.lastRotation >= generationIntervalMillis)) {
+            rotate(path, generations);
+            target.lastRotation = now;
+        }
+
+        try {
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(dir);
+    }
+
+    /**
+     * Shifts the numbered generations of a file up by one and makes the current
+     * file generation 1. The current file stays in place.
+     *
+     * @param path        the file
+     * @param generations how many generations to keep
+     * @throws IOException if a generation cannot be moved
+     */
+    private static void rotate(Path path, int generations) throws IOException {
+        Files.deleteIfExists(generationPath(path, generations));
+        for (int n = generations - 1; n >= 1; n--) {
+            Path from = generationPath(path, n);
+            if (Files.exists(from)) {
+                Files.move(from, generationPath(path, n + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path first = generationPath(path, 1);
+        try {
+            // the current file is about to be replaced by a rename, so a hard link keeps it without copying
+            Files.createLink(first, path);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(path, first, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces a directory's entries to disk where the platform allows it.
+     *
+     * @param dir the directory; may be {@code null}
+     */
+    private static void syncDirectory(Path dir) {
+        if (dir == null) return;
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform (e.g. Windows); the rename is still atomic
+        }
+    }
+
+    /**
+     * Returns the path of a numbered generation of a file.
+     *
+     * @param path the file
+     * @param n    the generation, {@code 1} being the most recent
+     * @return the generation's path
+     */
+    private static Path generationPath(Path path, int n) {
+        return path.resolveSibling(path.getFileName() + "." + n);
+    }
+
+    /**
+     * Returns a numbered generation of a file.
+     *
+     * @param file the file
+     * @param n    the generation, {@code 1} being the most recent
+     * @return the generation file, which may not exist
+     */
+    public static File generation(File file, int n) {
+        return generationPath(file.toPath(), n).toFile();
+    }
+
+    /**
+     * Returns the existing generations of a file, most recent first.
+     *
+     * @param file the file
+     * @return the generation files; empty if there are none
+     */
+    public static ArrayList<File> generations(File file) {
+        ArrayList<File> found = new ArrayList<>();
+        for (int n = 1; ; n++) {
+            File generation = generation(file, n);
+            if (!generation.exists()) return found;
+            found.add(generation);
+        }
+    }
+
+    /**
+     * Sets how long a save waits for others to join its round.
+     * {@code 0} writes immediately; saves still share a round when they
+     * arrive while another one is being synced.
+     *
+     * @param millis the group window in milliseconds
+     */
+    public static void setGroupWindow(long millis) {
+        groupWindowMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Sets the minimum time between two generation rotations of a file, so
+     * frequent saves do not push every useful backup out within seconds.
+     *
+     * @param millis the interval in milliseconds; {@code 0} rotates on every save
+     */
+    public static void setGenerationInterval(long millis) {
+        generationIntervalMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Returns how many rounds have synced data to a file since startup.
+     *
+     * @param file the file
+     * @return the number of syncs
+     */
+    public static int getSyncCount(File file) {
+        Target target = targets.get(file.getAbsolutePath());
+        if (target == null) return 0;
+        synchronized (target) {
+            return target.syncCount;
+        }
+    }
+
+    /**
+     * Forgets the rotation time of a file, so its next save rotates generations.
+     * Intended for tests and tools.
+     *
+     * @param file the file
+     */
+    static void resetRotation(File file) {
+        Target target = targets.get(file.getAbsolutePath());
+        if (target == null) return;
+        synchronized (target) {
+            target.lastRotation = 0;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact, versioned binary format for {@link Player} data.
+ * <p>
+ * Used when the storage mode is {@link StorageMode#BINARY}, and recognized by
+ * {@link DataLoader} whatever the mode, since every snapshot starts with the
+ * magic bytes {@code VHSB}. Layout (all counters are unsigned LEB128 varints,
+ * signed numbers are zigzag varints):
+ * <pre>
+ * magic        'V' 'H' 'S' 'B'
+ * version      varint (currently 1)
+ * strings      varint count, then per string: varint byte length + UTF-8 bytes
+ * players      varint count, then per player:
+ *   flags        1 byte (bit 0: has UUID)
+ *   uuid         16 bytes, most significant half first (if flagged)
+ *   displayName  string ref
+ *   password     string ref
+ *   strikes      zigzag varint
+ *   currentScore zigzag varint
+ *   inventory    varint count, then per item: name, description, location string refs
+ *   storedHints  varint count, then per hint: id, text string refs, zigzag cost, 1 byte used
+ * </pre>
+ * A string ref is a varint: {@code 0} for {@code null}, otherwise one more than
+ * the index in the string table. The table stores every distinct string once,
+ * so item and hint texts shared by many players are decoded only once on load.
+ * <p>
+ * As with {@code players.json}, only a player's first {@link Progress} is
+ * stored, and completed/current puzzles are not.
+ * <p>
+ * Snapshots are read through a memory-mapped {@link FileChannel}.
+ */
+public class BinarySnapshot {
+
+    /** Magic bytes at the start of every snapshot. */
+    private static final byte[] MAGIC = { 'V', 'H', 'S', 'B' };
+
+    /** Format version written by this class. */
+    public static final int VERSION = 1;
+
+    /**
+     * Private constructor; this class only has static members.
+     */
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Indicates whether a file is a binary snapshot, by checking its magic bytes.
+     *
+     * @param file the file to check
+     * @return {@code true} if the file starts with the snapshot magic; {@code false} otherwise
+     */
+    public static boolean isSnapshot(File file) {
+        if (!file.isFile() || file.length() < MAGIC.length) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] head = in.readNBytes(MAGIC.length);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (head[i] != MAGIC[i]) return false;
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes players to a snapshot file, replacing it.
+     *
+     * @param file    the file to write
+     * @param players the players to write; may be {@code null}
+     * @throws IOException if writing fails
+     */
+    public static void write(File file, List<Player> players) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            write(out, players);
+        }
+    }
+
+    /**
+     * Writes players in snapshot format to a stream.
+     *
+     * @param stream  the stream to write to; not closed by this method
+     * @param players the players to write; may be {@code null}
+     * @throws IOException if writing fails
+     */
+    public static void write(OutputStream stream, List<Player> players) throws IOException {
+        List<Player> list = players == null ? new ArrayList<>() : players;
+
+        // copy each player under its stripe, so both passes see the same data
+        ArrayList<Row> rows = new ArrayList<>(list.size());
+        for (Player player : list) {
+            if (player == null) continue;
+            synchronized (PlayerStore.getInstance().lockFor(player)) {
+                rows.add(new Row(player));
+            }
+        }
+
+        // first pass: collect every distinct string
+        StringTable table = new StringTable();
+        for (Row row : rows) {
+            table.add(row.displayName);
+            table.add(row.password);
+            for (Item item : row.inventory) {
+                table.add(item.getName());
+                table.add(item.getDescription());
+                table.add(item.getLocation());
+            }
+            for (Hint hint : row.hints) {
+                table.add(hint.getId());
+                table.add(hint.getText());
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        writeVarint(out, VERSION);
+        writeVarint(out, table.strings.size());
+        for (String s : table.strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarint(out, rows.size());
+        for (Row row : rows) {
+            out.writeByte(row.id != null ? 1 : 0);
+            if (row.id != null) {
+                out.writeLong(row.id.getMostSignificantBits());
+                out.writeLong(row.id.getLeastSignificantBits());
+            }
+            writeVarint(out, table.ref(row.displayName));
+            writeVarint(out, table.ref(row.password));
+            writeVarint(out, zigzag(row.strikes));
+            writeVarint(out, zigzag(row.score));
+
+            writeVarint(out, row.inventory.size());
+            for (Item item : row.inventory) {
+                writeVarint(out, table.ref(item.getName()));
+                writeVarint(out, table.ref(item.getDescription()));
+                writeVarint(out, table.ref(item.getLocation()));
+            }
+
+            writeVarint(out, row.hints.size());
+            for (Hint hint : row.hints) {
+                writeVarint(out, table.ref(hint.getId()));
+                writeVarint(out, table.ref(hint.getText()));
+                writeVarint(out, zigzag(hint.getCost()));
+                out.writeByte(hint.isUsed() ? 1 : 0);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads every player from a snapshot file through a memory-mapped channel.
+     *
+     * @param file the snapshot file
+     * @return the players; never {@code null}
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static ArrayList<Player> read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads every player from a snapshot held in a buffer.
+     *
+     * @param in the snapshot bytes, positioned at the magic
+     * @return the players; never {@code null}
+     * @throws IOException if the content is not a valid snapshot
+     */
+    public static ArrayList<Player> read(ByteBuffer in) throws IOException {
+        try {
+            for (byte b : MAGIC) {
+                if (in.get() != b) throw new IOException("not a binary player snapshot");
+            }
+            int version = readVarint(in);
+            if (version != VERSION) {
+                throw new IOException("unsupported binary snapshot version " + version);
+            }
+
+            int stringCount = readVarint(in);
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < stringCount; i++) {
+                int length = readVarint(in);
+                if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                in.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int playerCount = readVarint(in);
+            ArrayList<Player> players = new ArrayList<>(playerCount);
+            for (int p = 0; p < playerCount; p++) {
+                byte flags = in.get();
+                UUID id = (flags & 1) != 0 ? new UUID(in.getLong(), in.getLong()) : null;
+                String displayName = string(strings, readVarint(in));
+                String password = string(strings, readVarint(in));
+
+                Progress progress = new Progress();
+                int strikes = unzigzag(readVarint(in));
+                int score = unzigzag(readVarint(in));
+
+                int itemCount = readVarint(in);
+                ArrayList<Item> inventory = new ArrayList<>(itemCount);
+                for (int i = 0; i < itemCount; i++) {
+                    Item item = new Item();
+                    String name = string(strings, readVarint(in));
+                    String description = string(strings, readVarint(in));
+                    String location = string(strings, readVarint(in));
+                    if (name != null) item.setName(name);
+                    if (description != null) item.setDescription(description);
+                    if (location != null) item.setLocation(location);
+                    inventory.add(item);
+                }
+
+                int hintCount = readVarint(in);
+                ArrayList<Hint> hints = new ArrayList<>(hintCount);
+                for (int i = 0; i < hintCount; i++) {
+                    Hint hint = new Hint();
+                    String hintId = string(strings, readVarint(in));
+                    String text = string(strings, readVarint(in));
+                    if (hintId != null) hint.setId(hintId);
+                    if (text != null) hint.setText(text);
+                    hint.setCost(unzigzag(readVarint(in)));
+                    in.get(); // used flag: kept in the format, not restored (same as players.json)
+                    hints.add(hint);
+                }
+
+                progress.setInventory(inventory);
+                progress.setStoredHints(hints);
+                progress.setStrikes(strikes);
+                progress.setScore(score);
+
+                ArrayList<Progress> progressList = new ArrayList<>();
+                progressList.add(progress);
+                String pw = password == null ? "" : password;
+                players.add(id != null
+                        ? new Player(id, displayName, progressList, pw)
+                        : new Player(displayName, progressList, pw));
+            }
+            return players;
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, bad string refs, ...
+            throw new IOException("corrupt binary player snapshot", e);
+        }
+    }
+
+    /**
+     * The fields of one player that go into a snapshot, copied so the player
+     * can keep changing while the snapshot is encoded.
+     */
+    private static final class Row {
+        private final UUID id;
+        private final String displayName;
+        private final String password;
+        private final int strikes;
+        private final int score;
+        private final List<Item> inventory;
+        private final List<Hint> hints;
+
+        private Row(Player player) {
+            this.id = player.getId();
+            this.displayName = player.getDisplayName();
+            this.password = player.getPassword();
+            Progress progress = firstProgress(player);
+            this.strikes = progress != null ? progress.getStrikes() : 0;
+            this.score = progress != null ? progress.getCurrentScore() : 0;
+            this.inventory = progress != null && progress.getInventory() != null
+                    ? new ArrayList<>(progress.getInventory()) : new ArrayList<>();
+            this.hints = progress != null && progress.getStoredHints() != null
+                    ? new ArrayList<>(progress.getStoredHints()) : new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns the first progress record of a player, which is the one persisted.
+     */
+    private static Progress firstProgress(Player player) {
+        ArrayList<Progress> progress = player.getProgress();
+        return progress != null && !progress.isEmpty() ? progress.get(0) : null;
+    }
+
+    /**
+     * Resolves a string ref against the string table.
+     */
+    private static String string(String[] strings, int ref) {
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint.
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     */
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("malformed varint");
+    }
+
+    /**
+     * Maps a signed int to an unsigned one so small negatives stay short.
+     */
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Reverses {@link #zigzag(int)}.
+     */
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Distinct strings in first-seen order, with their refs.
+     */
+    private static final class StringTable {
+        private final ArrayList<String> strings = new ArrayList<>();
+        private final HashMap<String, Integer> refs = new HashMap<>();
+
+        void add(String s) {
+            if (s != null && !refs.containsKey(s)) {
+                strings.add(s);
+                refs.put(s, strings.size());
+            }
+        }
+
+        int ref(String s) {
+            return s == null ? 0 : refs.get(s);
+        }
+    }
+}
@@ -2,6 +2,13 @@ package com.model;
 
 public abstract class DataConstants {
     protected static final String USER_FILE_NAME = "json/players.json";
+    protected static final String PLAYER_SHARD_DIR = "json/players";
+    protected static final String PLAYER_INDEX_FILE = "json/players/index.json";
+    protected static final String JOURNAL_FILE = "json/players.journal";
+    protected static final String PLAYER_BINARY_FILE = "json/players.bin";
+    protected static final String LEADERBOARD_FILE = "json/leaderboard.jsonl";
+    protected static final String SESSIONS_FILE = "json/sessions.jsonl";
+    protected static final String JOURNAL_SEQ = "journalSeq";
     protected static final String PUZZLES_FILE = "json/rooms.json";
     protected static final String PUZZLES_STATE_FILE = "json/puzzles_state.json";
     protected static final String USER_ID = "uuid";
@@ -1,18 +1,16 @@
 package com.model;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
 /**
  * Utility class responsible for loading persistent game data from JSON files.
@@ -22,8 +20,7 @@ import org.json.simple.parser.JSONParser;
  *     <li>{@code players.json} – player accounts, progress, inventory, hints, etc.</li>
  *     <li>{@code rooms.json} – puzzle definitions and metadata.</li>
  * </ul>
- * The class is designed to be tolerant of multiple JSON schemas and legacy shapes,
- * using reflection to populate model objects when possible.
+ * The class is designed to be tolerant of multiple JSON schemas and legacy shapes.
  */
 public class DataLoader extends DataConstants {
 
@@ -32,588 +29,255 @@ public class DataLoader extends DataConstants {
      * <p>
      * Behavior:
      * <ul>
+     *     <li>In {@link StorageMode#SHARDED} mode, reads the per-player shards
+     *         through {@link PlayerShardStore}; if no shards exist yet, falls back
+     *         to {@code players.json} so existing data is migrated on the next save.</li>
+     *     <li>In {@link StorageMode#JOURNAL} mode, replays the records in
+     *         {@code players.journal} that are newer than the snapshot's
+     *         {@code journalSeq} on top of the loaded players.</li>
+     *     <li>In {@link StorageMode#BINARY} mode, reads {@code players.bin}
+     *         if it exists, and {@code players.json} otherwise.</li>
+     *     <li>Whatever the mode, a file starting with the {@link BinarySnapshot}
+     *         magic is decoded as a binary snapshot rather than as JSON.</li>
+     *     <li>If the file cannot be read or parsed, loads the newest readable
+     *         generation kept by {@link AtomicFileWriter} instead.</li>
      *     <li>If the file does not exist, returns an empty list.</li>
      *     <li>Supports root being either a JSON array, a wrapper object with
      *         {@code users} or {@code players}, or a single player object.</li>
      *     <li>Attempts to read UUID, display name, password, progress, inventory,
      *         stored hints, strikes, and score, while being robust to missing
      *         or legacy fields.</li>
+     *     <li>Streams the file through {@link PlayerStreamHandler}, so players are
+     *         built straight from the tokens without holding the whole document
+     *         as a {@code JSONObject} tree.</li>
      * </ul>
      *
      * @return a list of loaded {@link Player} instances, or an empty list if none
      *         can be loaded
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Player> getPlayers() {
+        if (DataWriter.getStorageMode() == StorageMode.SHARDED && PlayerShardStore.getInstance().exists()) {
+            return PlayerShardStore.getInstance().loadAll();
+        }
+
         ArrayList<Player> players = new ArrayList<Player>();
+        long journalSeq = 0;
 
         File f = new File(USER_FILE_NAME);
+        if (DataWriter.getStorageMode() == StorageMode.BINARY && new File(PLAYER_BINARY_FILE).exists()) {
+            f = new File(PLAYER_BINARY_FILE);
+        }
         if (!f.exists()) {
+            if (DataWriter.getStorageMode() == StorageMode.JOURNAL) {
+                ProgressJournal.getInstance().replay(players, journalSeq);
+            }
             return players;
         }
 
-        try (FileReader reader = new FileReader(f)) {
-            Object parsed = new JSONParser().parse(reader);
-
-            // normalize to a JSONArray called peopleJSON
-            JSONArray peopleJSON = null;
-            if (parsed instanceof JSONArray) {
-                peopleJSON = (JSONArray) parsed;
-            } else if (parsed instanceof JSONObject) {
-                JSONObject root = (JSONObject) parsed;
-
-                // NEW: check schemaVersion if present
-                try {
-                    Object sv = root.get("schemaVersion");
-                    if (sv != null) {
-                        int svn = -1;
-                        try {
-                            if (sv instanceof Number) svn = ((Number) sv).intValue();
-                            else svn = Integer.parseInt(sv.toString());
-                        } catch (Exception ignore) {}
-                        if (svn != -1 && svn != 1) {
-                            System.out.println("Warning: players.json schemaVersion=" + svn + " (expected 1). Proceeding to parse 'users'/'players'.");
-                        }
-                    }
-                } catch (Throwable ignore) {}
-
-                // FIRST: accept "users" (preferred wrapper)
-                Object maybeUsers = root.get("users");
-                if (maybeUsers instanceof JSONArray) {
-                    peopleJSON = (JSONArray) maybeUsers;
-                } else {
-                    // SECOND: accept "players" wrapper (other variants)
-                    Object maybePlayers = root.get("players");
-                    if (maybePlayers instanceof JSONArray) {
-                        peopleJSON = (JSONArray) maybePlayers;
-                    } else {
-                        // If root *looks like* a single player (has displayName/uuid/progress),
-                        // treat it as a single-player object. Otherwise produce an empty array.
-                        if (root.containsKey(USER_NAME) || root.containsKey("uuid") || root.containsKey("progress")) {
-                            peopleJSON = new JSONArray();
-                            peopleJSON.add(root);
-                        } else {
-                            peopleJSON = new JSONArray(); // empty
-                        }
-                    }
-                }
-            } else {
-                // unexpected structure -> empty list
-                peopleJSON = new JSONArray();
-            }
-
-            for (int i = 0; i < peopleJSON.size(); i++) {
-                Object entry = peopleJSON.get(i);
-                if (!(entry instanceof JSONObject)) continue;
-                JSONObject personJSON = (JSONObject) entry;
-
-                // id/uuid (support both "uuid" and USER_ID)
-                UUID id = null;
-                try {
-                    Object maybeUuid = personJSON.get("uuid");
-                    if (maybeUuid == null) maybeUuid = personJSON.get(USER_ID);
-                    if (maybeUuid != null) {
-                        id = UUID.fromString(maybeUuid.toString());
-                    }
-                } catch (Exception ex) {
-                    // ignore; leave id null
-                }
-
-                String displayName = personJSON.get(USER_NAME) == null ? "" : personJSON.get(USER_NAME).toString();
-
-                // Prefer top-level password. If missing, fall back to progress.password (legacy).
-                String password = "";
-                try {
-                    Object pwTop = personJSON.get("password");
-                    if (pwTop != null) password = pwTop.toString();
-                } catch (Throwable ignored) {}
-
-                if (password == null || password.length() == 0) {
-                    // fallback: check inside progress object (legacy shape some files had)
-                    try {
-                        Object progRaw = personJSON.get("progress");
-                        if (progRaw instanceof JSONObject) {
-                            JSONObject progJ = (JSONObject) progRaw;
-                            Object pwProg = progJ.get("password");
-                            if (pwProg != null) password = pwProg.toString();
-                        }
-                    } catch (Throwable ignored) {}
-                }
-
-                // Build Progress object (use no-arg constructor and setters for robustness)
-                Progress progress = new Progress();
-
-                // inventory: parse into Item objects (accept simple string or object)
-                ArrayList<Item> inventory = new ArrayList<>();
-
-                try {
-                    Object progObj = personJSON.get("progress");
-                    if (progObj instanceof JSONObject) {
-                        JSONObject progJ = (JSONObject) progObj;
-
-                        // inventory
-                        try {
-                            Object inv = progJ.get(USER_INVENTORY);
-                            if (inv instanceof JSONArray) {
-                                JSONArray invA = (JSONArray) inv;
-                                for (Object itRaw : invA) {
-                                    if (itRaw instanceof JSONObject) {
-                                        JSONObject itJ = (JSONObject) itRaw;
-                                        Item it = new Item();
-                                        try { if (itJ.get("name") != null) it.setName(itJ.get("name").toString()); } catch (Throwable ignore) {}
-                                        try { if (itJ.get("description") != null) it.setDescription(itJ.get("description").toString()); } catch (Throwable ignore) {}
-                                        try { if (itJ.get("location") != null) it.setLocation(itJ.get("location").toString()); } catch (Throwable ignore) {}
-                                        inventory.add(it);
-                                    }
-                                }
-                            }
-                        } catch (Throwable ignored) {}
-                        progress.setInventory(inventory);
-
-                        // storedHints
-                        ArrayList<Hint> stored = new ArrayList<>();
-                        try {
-                            Object sh = progJ.get(USER_STORED_HINTS);
-                            if (sh instanceof JSONArray) {
-                                for (Object hj : (JSONArray) sh) {
-                                    if (!(hj instanceof JSONObject)) continue;
-                                    JSONObject hjo = (JSONObject) hj;
-                                    Hint hint = new Hint();
-                                    try { if (hjo.get("text") != null) hint.setText(hjo.get("text").toString()); } catch (Throwable ignore) {}
-                                    try { if (hjo.get("cost") != null) hint.setCost(((Long) hjo.get("cost")).intValue()); } catch (Throwable ignore) {}
-                                    try {
-                                        if (hjo.get("used") != null) {
-                                            Method setUsed = hint.getClass().getMethod("setUsed", boolean.class);
-                                            setUsed.invoke(hint, ((Boolean) hjo.get("used")).booleanValue());
-                                        }
-                                    } catch (Throwable ignore) {}
-                                    stored.add(hint);
-                                }
-                            }
-                        } catch (Throwable ignored) {}
-                        progress.setStoredHints(stored);
-
-                        // strikes / score
-                        try { if (progJ.get(USER_STRIKES) != null) progress.setStrikes(((Long) progJ.get(USER_STRIKES)).intValue()); } catch (Exception ignored) {}
-                        try { if (progJ.get(USER_CURRENT_SCORE) != null) progress.setScore(((Long) progJ.get(USER_CURRENT_SCORE)).intValue()); } catch (Exception ignored) {}
-
-                        // currentPuzzle and completedPuzzles left empty (loader does not instantiate puzzles here)
-                        // completed puzzles could be read if needed (but the original loader leaves them out)
-                    }
-                } catch (Throwable ignored) {}
-
-                ArrayList<Progress> progressList = new ArrayList<>();
-                progressList.add(progress);
+        PlayerFile loaded = readWithFallback(f);
+        if (loaded == null) {
+            return new ArrayList<Player>();
+        }
+        players = loaded.players;
+        journalSeq = loaded.journalSeq;
 
-                Player player;
-                if (id != null) {
-                    // Use constructor with id if available
-                    try {
-                        player = new Player(id, displayName, progressList, password);
-                    } catch (NoSuchMethodError | NoClassDefFoundError ex) {
-                        player = new Player(displayName, progressList, password);
-                        try { player.setId(id); } catch (Exception ignore) {}
-                    }
-                } else {
-                    player = new Player(displayName, progressList, password);
-                }
+        if (DataWriter.getStorageMode() == StorageMode.JOURNAL) {
+            ProgressJournal.getInstance().replay(players, journalSeq);
+        }
+        return players;
+    }
 
-                players.add(player);
-            }
+    /**
+     * Players read from one file, with the journal sequence number it records.
+     */
+    private static final class PlayerFile {
+        private final ArrayList<Player> players;
+        private final long journalSeq;
 
-            return players;
+        private PlayerFile(ArrayList<Player> players, long journalSeq) {
+            this.players = players;
+            this.journalSeq = journalSeq;
+        }
+    }
 
+    /**
+     * Reads a players file, falling back to its previous generations (see
+     * {@link AtomicFileWriter}) if it cannot be read or parsed.
+     *
+     * @param file the players file
+     * @return the players of the newest readable version, or {@code null} if none is readable
+     */
+    private static PlayerFile readWithFallback(File file) {
+        try {
+            return read(file);
         } catch (Exception e) {
             e.printStackTrace();
         }
+        for (File generation : AtomicFileWriter.generations(file)) {
+            try {
+                PlayerFile loaded = read(generation);
+                System.out.println("Warning: " + file.getPath() + " is unreadable; loaded players from " + generation.getPath() + ".");
+                return loaded;
+            } catch (Exception ignored) {
+                // try the next older generation
+            }
+        }
+        return null;
+    }
 
-        return players;
+    /**
+     * Reads a players file in either format, detected from its first bytes.
+     *
+     * @param file the file to read
+     * @return the players and journal sequence number
+     * @throws IOException    if the file cannot be read
+     * @throws ParseException if a JSON file is invalid
+     */
+    private static PlayerFile read(File file) throws IOException, ParseException {
+        if (BinarySnapshot.isSnapshot(file)) {
+            return new PlayerFile(BinarySnapshot.read(file), 0);
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file), 1 << 16)) {
+            PlayerStreamHandler handler = PlayerStreamHandler.read(reader);
+            return new PlayerFile(handler.getPlayers(), handler.getJournalSeq());
+        }
     }
 
     /**
-     * Attempts to invoke a setter method on the target object using reflection.
-     * <p>
-     * This method:
-     * <ul>
-     *     <li>Searches for a public method with the given name and a single parameter.</li>
-     *     <li>Converts the provided value to the required parameter type when possible.</li>
-     *     <li>Invokes the method if a suitable conversion is found.</li>
-     * </ul>
+     * Reads every player from a file in either the JSON or the binary snapshot
+     * format, detected from the file's first bytes. Used by {@link SnapshotConverter}.
      *
-     * @param target     the object on which to invoke the setter
-     * @param setterName the name of the setter method to call
-     * @param value      the value to pass to the setter
-     * @return {@code true} if a setter was found and invoked successfully;
-     *         {@code false} otherwise
+     * @param file the file to read
+     * @return the loaded players; never {@code null}
+     * @throws IOException if the file cannot be read or parsed
      */
-    private static boolean trySet(Object target, String setterName, Object value) {
-        if (target == null || setterName == null || value == null) return false;
-        Class<?> cls = target.getClass();
+    static ArrayList<Player> readPlayerFile(File file) throws IOException {
         try {
-            // direct match first
-            Method m = null;
-            for (Method mm : cls.getMethods()) {
-                if (mm.getName().equals(setterName) && mm.getParameterCount() == 1) {
-                    m = mm;
-                    break;
-                }
-            }
-            if (m == null) {
-                return false;
-            }
-            Class<?> param = m.getParameterTypes()[0];
-            Object arg = convertArg(param, value);
-            if (arg == null && value != null) {
-                // if conversion failed, try passing the raw string (if param is String)
-                if (param == String.class) arg = value.toString();
-                else return false;
-            }
-            m.invoke(target, arg);
-            return true;
-        } catch (Throwable t) {
-            return false;
+            return read(file).players;
+        } catch (ParseException e) {
+            throw new IOException("invalid players file " + file.getPath(), e);
         }
     }
 
     /**
-     * Attempts to convert a raw JSON value into an instance of the desired parameter type.
+     * Builds a single {@link Player} from its JSON object.
      * <p>
-     * Supported conversions include:
-     * <ul>
-     *     <li>Strings, integers, longs, booleans</li>
-     *     <li>Lists from {@link JSONArray}</li>
-     *     <li>Maps from {@link JSONObject}</li>
-     *     <li>Enum types via {@code Enum.valueOf}</li>
-     * </ul>
+     * Reads the UUID, display name, password (falling back to the legacy
+     * {@code progress.password}), inventory, stored hints, strikes and score,
+     * tolerating missing or malformed fields.
      *
-     * @param param the target parameter type
-     * @param value the raw value parsed from JSON
-     * @return an object of type {@code param}, or {@code null} if conversion is not possible
+     * @param personJSON the JSON object describing one player
+     * @return the player built from the object; never {@code null}
      */
-    private static Object convertArg(Class<?> param, Object value) {
-        if (value == null) return null;
-        if (param.isInstance(value)) return value;
-        String s = value.toString();
-        try {
-            if (param == String.class) return s;
-            if (param == int.class || param == Integer.class) return Integer.parseInt(s);
-            if (param == long.class || param == Long.class) return Long.parseLong(s);
-            if (param == boolean.class || param == Boolean.class) {
-                if (value instanceof Boolean) return value;
-                return Boolean.parseBoolean(s);
+    static Player parsePlayer(JSONObject personJSON) {
+        PlayerBuilder builder = new PlayerBuilder();
+        for (Object k : personJSON.keySet()) {
+            builder.playerField(k.toString(), personJSON.get(k));
+        }
+
+        Object progObj = personJSON.get("progress");
+        if (progObj instanceof JSONObject) {
+            JSONObject progJ = (JSONObject) progObj;
+            builder.startProgress();
+            for (Object k : progJ.keySet()) {
+                builder.progressField(k.toString(), progJ.get(k));
             }
-            if (param == List.class || param == java.util.List.class) {
-                if (value instanceof JSONArray) {
-                    // convert JSONArray to List<String> or List<Object>
-                    JSONArray a = (JSONArray) value;
-                    List<Object> lst = new ArrayList<>();
-                    for (Object o : a) lst.add(o);
-                    return lst;
+
+            Object inv = progJ.get(USER_INVENTORY);
+            if (inv instanceof JSONArray) {
+                for (Object itRaw : (JSONArray) inv) {
+                    if (!(itRaw instanceof JSONObject)) continue;
+                    JSONObject itJ = (JSONObject) itRaw;
+                    builder.startItem();
+                    for (Object k : itJ.keySet()) {
+                        builder.itemField(k.toString(), itJ.get(k));
+                    }
                 }
             }
-            if (param == Map.class || param == java.util.Map.class) {
-                if (value instanceof JSONObject) {
-                    JSONObject jo = (JSONObject) value;
-                    Map<String,Object> map = new HashMap<>();
-                    for (Object k : jo.keySet()) map.put(k.toString(), jo.get(k));
-                    return map;
+
+            Object sh = progJ.get(USER_STORED_HINTS);
+            if (sh instanceof JSONArray) {
+                for (Object hj : (JSONArray) sh) {
+                    if (!(hj instanceof JSONObject)) continue;
+                    JSONObject hjo = (JSONObject) hj;
+                    builder.startHint();
+                    for (Object k : hjo.keySet()) {
+                        builder.hintField(k.toString(), hjo.get(k));
+                    }
                 }
             }
-            // if param is enum, try valueOf
-            if (param.isEnum()) {
-                @SuppressWarnings({ "unchecked", "rawtypes" })
-                Enum ev = Enum.valueOf((Class<Enum>) param, s);
-                return ev;
-            }
-        } catch (Throwable ignored) {}
-        // Last resort: try common boxed types
-        if ((param == Integer.class || param == int.class) && value instanceof Number) return ((Number) value).intValue();
-        if ((param == Long.class || param == long.class) && value instanceof Number) return ((Number) value).longValue();
-        if ((param == Double.class || param == double.class) && value instanceof Number) return ((Number) value).doubleValue();
-        return null;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads all {@link Puzzle} objects from the {@code rooms.json} file and
+     * registers them with {@link PuzzlesManager}.
+     * <p>
+     * Puzzles are served from {@link PuzzleCatalog}, so calling this method
+     * repeatedly (every login, account creation or leaderboard visit does) only
+     * re-reads the file when it has changed, and never registers the same
+     * puzzle twice.
+     *
+     * @return a list of the loaded {@link Puzzle} instances; never {@code null}
+     */
+    public static ArrayList<Puzzle> loadPuzzles() {
+        return PuzzleCatalog.getInstance().refresh();
     }
 
     /**
-     * Loads all {@link Puzzle} objects from the {@code rooms.json} file.
+     * Parses every {@link Puzzle} in a puzzles document, without registering them anywhere.
      * <p>
      * Behavior:
      * <ul>
-     *     <li>If the file does not exist, returns an empty list.</li>
      *     <li>Supports root being a JSON array, a wrapper object with {@code puzzles},
      *         or a single puzzle object.</li>
      *     <li>Instantiates concrete puzzle subclasses based on the {@code type} field
      *         (e.g., Trivia, Riddle, PixelHunt, MultipleChoice, Cipher, ItemPuzzle).</li>
-     *     <li>Loads hints, metadata, and common puzzle fields using reflection where possible.</li>
-     *     <li>Attempts to register loaded puzzles with {@link PuzzlesManager} if available.</li>
+     *     <li>Binds hints and puzzle fields through the per-type {@link PuzzleCodec}s
+     *         in {@link PuzzleCodecs}, without reflection.</li>
      * </ul>
      *
-     * @return a list of loaded {@link Puzzle} instances; never {@code null}
+     * @param reader the source of the {@code rooms.json} document; not closed by this method
+     * @return a list of the parsed {@link Puzzle} instances; never {@code null}
+     * @throws IOException    if reading fails
+     * @throws ParseException if the document is not valid JSON
      */
-    @SuppressWarnings("unchecked")
-    public static ArrayList<Puzzle> loadPuzzles() {
+    static ArrayList<Puzzle> parsePuzzles(Reader reader) throws IOException, ParseException {
+        JSONArray puzzlesJSON = parsePuzzleEntries(reader);
         ArrayList<Puzzle> loaded = new ArrayList<>();
-        File pf = new File(PUZZLES_FILE);
-        if (!pf.exists()) return loaded;
-
-        try (FileReader reader = new FileReader(pf)) {
-            Object parsed = new JSONParser().parse(reader);
-            JSONArray puzzlesJSON;
-            if (parsed instanceof JSONArray) {
-                puzzlesJSON = (JSONArray) parsed;
-            } else if (parsed instanceof JSONObject) {
-                JSONObject root = (JSONObject) parsed;
-                Object maybe = root.get("puzzles");
-                if (maybe instanceof JSONArray) {
-                    puzzlesJSON = (JSONArray) maybe;
-                } else {
-                    puzzlesJSON = new JSONArray();
-                    puzzlesJSON.add(root);
-                }
-            } else {
-                puzzlesJSON = new JSONArray();
-            }
-
-            for (Object obj : puzzlesJSON) {
-                if (!(obj instanceof JSONObject)) continue;
-                JSONObject pj = (JSONObject) obj;
-
-                // Determine puzzle type (check several common keys)
-                String typeStr = null;
-                try {
-                    Object t = pj.get("type");
-                    if (t == null) t = pj.get("puzzleType");
-                    if (t == null) t = pj.get("puzzle_type");
-                    if (t != null) typeStr = t.toString();
-                } catch (Throwable ignored) {}
-
-                // Instantiate a concrete subclass based on type
-                Puzzle puzzle;
-                if (typeStr != null) {
-                    switch (typeStr) {
-                        case "Trivia":
-                            puzzle = new Trivia();
-                            break;
-                        case "Riddle":
-                            puzzle = new Riddle();
-                            break;
-                        case "PixelHunt":
-                            puzzle = new PixelHunt();
-                            break;
-                        case "MultipleChoice":
-                            puzzle = new MultipleChoice();
-                            break;
-                        case "Cipher":
-                            puzzle = new Cipher();
-                            break;
-                        case "ItemPuzzle":
-                            puzzle = new ItemPuzzle();
-                            break;
-                        default:
-                            puzzle = new Puzzle();
-                            break;
-                    }
-                } else {
-                    puzzle = new Puzzle();
-                }
-
-                // set type on object
-                try { puzzle.setType(typeStr == null ? "" : typeStr); } catch (Throwable ignored) {}
-
-                // set ID if present (puzzleID, id, uuid, puzzleID)
-                try {
-                    Object idVal = pj.get("puzzleID");
-                    if (idVal == null) idVal = pj.get("id");
-                    if (idVal == null) idVal = pj.get("uuid");
-                    if (idVal != null) {
-                        try { puzzle.setID(UUID.fromString(idVal.toString())); } catch (Throwable ignored) {}
-                    }
-                } catch (Throwable ignored) {}
-
-                // HINTS: parse to Hint objects
-                ArrayList<Hint> hints = new ArrayList<>();
-                try {
-                    Object hObj = pj.get("hints");
-                    if (hObj instanceof JSONArray) {
-                        JSONArray hArr = (JSONArray) hObj;
-                        for (Object hh : hArr) {
-                            if (!(hh instanceof JSONObject)) continue;
-                            JSONObject hJ = (JSONObject) hh;
-                            Hint hint = new Hint();
-                            try { if (hJ.get("id") != null) hint.setId(hJ.get("id").toString()); } catch (Throwable ignored) {}
-                            try { if (hJ.get("text") != null) hint.setText(hJ.get("text").toString()); } catch (Throwable ignored) {}
-                            try { if (hJ.get("cost") != null) hint.setCost(((Number) hJ.get("cost")).intValue()); } catch (Throwable ignored) {}
-                            try {
-                                if (hJ.get("used") != null) {
-                                    Method setUsed = hint.getClass().getMethod("setUsed", boolean.class);
-                                    setUsed.invoke(hint, ((Boolean) hJ.get("used")).booleanValue());
-                                }
-                            } catch (Throwable ignore) {}
-                            hints.add(hint);
-                        }
-                    }
-                } catch (Throwable ignored) {}
-
-                // Attach hints to puzzle (prefer setHints, else addHint)
-                try {
-                    Method setHints = puzzle.getClass().getMethod("setHints", java.util.List.class);
-                    setHints.invoke(puzzle, hints);
-                } catch (Throwable t) {
-                    try {
-                        Method addHint = puzzle.getClass().getMethod("addHint", Hint.class);
-                        for (Hint hh : hints) {
-                            try { addHint.invoke(puzzle, hh); } catch (Throwable ignored) {}
-                        }
-                    } catch (Throwable ignored) {}
-                }
-
-                // Map common fields from JSON to puzzle via trySet (uses reflection)
-                // define mapping of jsonKey -> candidate setter names (tries each)
-                Map<String, String[]> mapping = new LinkedHashMap<>();
-                mapping.put("question", new String[] {"setQuestion", "setPrompt", "setTriviaText", "setRiddleText"});
-                mapping.put("triviaText", new String[] {"setTriviaText", "setPrompt", "setQuestion"});
-                mapping.put("riddleText", new String[] {"setRiddleText", "setPrompt", "setQuestion"});
-                mapping.put("cipherText", new String[] {"setCipherText", "setPrompt", "setQuestion"});
-                mapping.put("correctAnswer", new String[] {"setCorrectAnswer", "setAnswer", "setSolution"});
-                mapping.put("correctChoice", new String[] {"setCorrectChoice", "setCorrectIndex"});
-                mapping.put("choices", new String[] {"setChoices", "setOptions"});
-                mapping.put("choicesList", new String[] {"setChoices", "setOptions"});
-                mapping.put("meta", new String[] {"setMeta", "setProperties"});
-                mapping.put("correctSound", new String[] {"setCorrectSound"});
-                mapping.put("incorrectSound", new String[] {"setIncorrectSound"});
-                mapping.put("combination", new String[] {"setCombination"});
-                mapping.put("questionText", new String[] {"setQuestion", "setPrompt"});
-                mapping.put("answer", new String[] {"setAnswer", "setCorrectAnswer", "setSolution"});
-                mapping.put("prompt", new String[] {"setPrompt", "setQuestion"});
-                mapping.put("promptText", new String[] {"setPrompt", "setQuestion"});
-                mapping.put("puzzleText", new String[] {"setPrompt", "setQuestion"});
-                mapping.put("correct", new String[] {"setCorrect", "setSolved"});
-                mapping.put("correctAnswer", new String[] {"setCorrectAnswer", "setAnswer"});
-                // Also include 'question' synonyms like 'triviaText' or 'riddleText' above
-
-                // For each json key, try to set using the candidate setter names
-                for (Map.Entry<String,String[]> me : mapping.entrySet()) {
-                    String jsonKey = me.getKey();
-                    Object jsonVal = pj.get(jsonKey);
-                    if (jsonVal == null) continue;
-                    for (String setter : me.getValue()) {
-                        if (trySet(puzzle, setter, jsonVal)) break;
-                    }
-                }
-
-                // special handling for 'choices' to ensure list conversion
-                try {
-                    Object choicesObj = pj.get("choices");
-                    if (choicesObj instanceof JSONArray) {
-                        List<String> choices = new ArrayList<>();
-                        for (Object c : (JSONArray) choicesObj) choices.add(c == null ? null : c.toString());
-                        // try setter names
-                        trySet(puzzle, "setChoices", choices);
-                        trySet(puzzle, "setOptions", choices);
-                    }
-                } catch (Throwable ignored) {}
-
-                // special handling for meta (JSONObject) - try setMeta(Map) or setMethod/setShift etc.
-                try {
-                    Object metaObj = pj.get("meta");
-                    if (metaObj instanceof JSONObject) {
-                        JSONObject metaJ = (JSONObject) metaObj;
-                        // try setMeta(Map)
-                        Map<String,Object> metaMap = new HashMap<>();
-                        for (Object k : metaJ.keySet()) metaMap.put(k.toString(), metaJ.get(k));
-                        trySet(puzzle, "setMeta", metaMap);
-                        // also try specific meta fields
-                        if (metaJ.get("method") != null) trySet(puzzle, "setMethod", metaJ.get("method").toString());
-                        if (metaJ.get("shift") != null) trySet(puzzle, "setShift", metaJ.get("shift"));
-                        if (metaJ.get("note") != null) trySet(puzzle, "setNote", metaJ.get("note").toString());
-                    }
-                } catch (Throwable ignored) {}
-
-                // some puzzles use 'correctAnswer' key vs 'correctChoice' -> attempt to set both
-                try {
-                    Object ca = pj.get("correctAnswer");
-                    if (ca != null) {
-                        trySet(puzzle, "setCorrectAnswer", ca);
-                        trySet(puzzle, "setAnswer", ca);
-                        trySet(puzzle, "setSolution", ca);
-                    }
-                } catch (Throwable ignored) {}
-
-                // attempt to set correctChoice (int) if present
-                try {
-                    Object cc = pj.get("correctChoice");
-                    if (cc != null) {
-                        trySet(puzzle, "setCorrectChoice", cc);
-                        trySet(puzzle, "setCorrectIndex", cc);
-                    }
-                } catch (Throwable ignored) {}
-
-                // attempt to set sound files
-                try {
-                    if (pj.get("correctSound") != null) trySet(puzzle, "setCorrectSound", pj.get("correctSound").toString());
-                    if (pj.get("incorrectSound") != null) trySet(puzzle, "setIncorrectSound", pj.get("incorrectSound").toString());
-                } catch (Throwable ignored) {}
-
-                // Attempt to set other likely fields directly
-                String[] directKeys = new String[] {"question", "triviaText", "riddleText", "cipherText", "prompt", "answer", "combination"};
-                for (String k : directKeys) {
-                    try {
-                        Object val = pj.get(k);
-                        if (val != null) {
-                            trySet(puzzle, "set" + capitalize(k), val);
-                        }
-                    } catch (Throwable ignored) {}
-                }
-
-                // Add puzzle to loaded list
-                loaded.add(puzzle);
-
-                // try to register with PuzzlesManager (best-effort)
-                try {
-                    PuzzlesManager pm = PuzzlesManager.getInstance();
-                    try {
-                        Method addM = pm.getClass().getMethod("addPuzzle", Puzzle.class);
-                        addM.invoke(pm, puzzle);
-                    } catch (NoSuchMethodException nsme) {
-                        try {
-                            Method getList = pm.getClass().getMethod("getPuzzles");
-                            Object listObj = getList.invoke(pm);
-                            if (listObj instanceof java.util.List) {
-                                ((java.util.List) listObj).add(puzzle);
-                            }
-                        } catch (Exception ignore) {
-                            if (pj.get("current") instanceof Boolean && ((Boolean) pj.get("current"))) {
-                                try {
-                                    Method setCurrent = pm.getClass().getMethod("setCurrentPuzzle", Puzzle.class);
-                                    setCurrent.invoke(pm, puzzle);
-                                } catch (Exception ignored) {}
-                            }
-                        }
-                    }
-                } catch (Throwable t) {
-                    // ignore if PuzzlesManager is not present or incompatible
-                }
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
+        for (Object obj : puzzlesJSON) {
+            if (!(obj instanceof JSONObject)) continue;
+            loaded.add(PuzzleCodecs.decode((JSONObject) obj));
         }
-
         return loaded;
     }
 
     /**
-     * Capitalizes the first character of the given string.
-     * <p>
-     * If the string is {@code null} or empty, it is returned unchanged.
+     * Parses a puzzles document into its raw puzzle entries, normalizing the
+     * accepted root shapes (array, {@code puzzles} wrapper, single puzzle).
      *
-     * @param s the string to capitalize
-     * @return the input string with its first character uppercased, or the
-     *         original value if {@code s} is {@code null} or empty
+     * @param reader the source of the {@code rooms.json} document; not closed by this method
+     * @return the puzzle entries; never {@code null}
+     * @throws IOException    if reading fails
+     * @throws ParseException if the document is not valid JSON
      */
-    private static String capitalize(String s) {
-        if (s == null || s.length() == 0) return s;
-        if (s.length() == 1) return s.toUpperCase();
-        return s.substring(0,1).toUpperCase() + s.substring(1);
+    @SuppressWarnings("unchecked")
+    static JSONArray parsePuzzleEntries(Reader reader) throws IOException, ParseException {
+        Object parsed = new JSONParser().parse(reader);
+        if (parsed instanceof JSONArray) {
+            return (JSONArray) parsed;
+        }
+        JSONArray puzzlesJSON = new JSONArray();
+        if (parsed instanceof JSONObject) {
+            JSONObject root = (JSONObject) parsed;
+            Object maybe = root.get("puzzles");
+            if (maybe instanceof JSONArray) {
+                return (JSONArray) maybe;
+            }
+            puzzlesJSON.add(root);
+        }
+        return puzzlesJSON;
     }
 
     /**
@@ -1,8 +1,12 @@
 package com.model;
 
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Set;
 import java.util.UUID;
 
 import org.json.simple.JSONArray;
@@ -23,11 +27,42 @@ import org.json.simple.JSONObject;
  *   ]
  * }
  * </pre>
+ * When the storage mode is {@link StorageMode#SHARDED}, players are written to
+ * per-player files through {@link PlayerShardStore} instead. When it is
+ * {@link StorageMode#JOURNAL}, routine saves only commit the
+ * {@link ProgressJournal}, and the file above becomes its compacted snapshot
+ * (with an extra {@code journalSeq} field). When it is
+ * {@link StorageMode#BINARY}, players are written to {@code json/players.bin}
+ * in the format described by {@link BinarySnapshot}.
+ * <p>
+ * Whole-file saves go through {@link AtomicFileWriter}: the new content is
+ * synced to a temp file and renamed over the old one, so a crash mid-save
+ * never leaves a truncated file, and the last few versions are kept as
+ * {@code players.json.1}, {@code players.json.2}, ...
  */
-public class DataWriter {
+public class DataWriter extends DataConstants {
 
-    /** Path to the JSON file where player data is stored. */
-    private static final String USER_FILE_NAME = "json/players.json";
+    /** Storage layout used for player data. */
+    private static volatile StorageMode storageMode = StorageMode.fromSystemProperty();
+
+    /**
+     * Returns the storage layout currently used for player data.
+     *
+     * @return the active {@link StorageMode}
+     */
+    public static StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Sets the storage layout used for player data by both this writer
+     * and {@link DataLoader}.
+     *
+     * @param mode the storage mode to use; {@code null} selects {@link StorageMode#SINGLE_FILE}
+     */
+    public static void setStorageMode(StorageMode mode) {
+        storageMode = mode == null ? StorageMode.SINGLE_FILE : mode;
+    }
 
     /**
      * Saves the given list of players to the {@code players.json} file.
@@ -62,164 +97,289 @@ public class DataWriter {
      * @return {@code true} if the data was written successfully;
      *         {@code false} if an error occurred
      */
-    @SuppressWarnings("unchecked")
     public static boolean savePlayers(ArrayList<Player> players) {
+        if (storageMode == StorageMode.SHARDED) {
+            return PlayerShardStore.getInstance().save(players, null);
+        }
+        if (storageMode == StorageMode.JOURNAL) {
+            return ProgressJournal.getInstance().compact(players);
+        }
+        if (storageMode == StorageMode.BINARY) {
+            return saveBinary(players, new File(PLAYER_BINARY_FILE));
+        }
+        return saveSingleFile(players, -1, new File(USER_FILE_NAME));
+    }
+
+    /**
+     * Saves the given players, writing only the data of the players that changed
+     * when the storage layout allows it.
+     * <p>
+     * In {@link StorageMode#SHARDED} mode only the shards of players in
+     * {@code dirty} (and of newly added or removed players) are touched. In
+     * {@link StorageMode#JOURNAL} mode the journal is made durable and only
+     * compacted once it has grown large enough. In
+     * {@link StorageMode#SINGLE_FILE} and {@link StorageMode#BINARY} modes the
+     * whole file is rewritten, exactly
+     * like {@link #savePlayers(ArrayList)}.
+     *
+     * @param players the full list of players; may be {@code null}
+     * @param dirty   IDs of players whose data changed since the last save
+     * @return {@code true} if the data was written successfully;
+     *         {@code false} if an error occurred
+     */
+    public static boolean savePlayers(ArrayList<Player> players, Set<UUID> dirty) {
+        if (storageMode == StorageMode.SHARDED) {
+            return PlayerShardStore.getInstance().save(players, dirty);
+        }
+        if (storageMode == StorageMode.JOURNAL) {
+            return ProgressJournal.getInstance().commit(players);
+        }
+        if (storageMode == StorageMode.BINARY) {
+            return saveBinary(players, new File(PLAYER_BINARY_FILE));
+        }
+        return saveSingleFile(players, -1, new File(USER_FILE_NAME));
+    }
+
+    /**
+     * Writes a compacted snapshot of every player to {@code players.json},
+     * recording the last journal sequence number it contains.
+     *
+     * @param players    the list of players to be saved; may be {@code null}
+     * @param journalSeq the sequence number of the last journal record folded in
+     * @return {@code true} if the data was written successfully;
+     *         {@code false} if an error occurred
+     */
+    static boolean saveSnapshot(ArrayList<Player> players, long journalSeq) {
+        return saveSingleFile(players, journalSeq, new File(USER_FILE_NAME));
+    }
+
+    /**
+     * Writes every player to a JSON file in the {@code players.json} format,
+     * whatever the storage mode. Used by {@link SnapshotConverter}.
+     *
+     * @param players the list of players to be saved; may be {@code null}
+     * @param target  the file to write
+     * @return {@code true} if the data was written successfully;
+     *         {@code false} if an error occurred
+     */
+    static boolean saveJSON(ArrayList<Player> players, File target) {
+        return saveSingleFile(players, -1, target);
+    }
+
+    /**
+     * Writes every player to a binary snapshot file (see {@link BinarySnapshot}).
+     *
+     * @param players the list of players to be saved; may be {@code null}
+     * @param target  the file to write
+     * @return {@code true} if the data was written successfully;
+     *         {@code false} if an error occurred
+     */
+    static boolean saveBinary(ArrayList<Player> players, File target) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinarySnapshot.write(out, players);
+            return AtomicFileWriter.write(target, out.toByteArray(), AtomicFileWriter.DEFAULT_GENERATIONS);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Writes every player to the single {@code players.json} file.
+     *
+     * @param players    the list of players to be saved; may be {@code null}
+     * @param journalSeq the journal sequence number to record, or {@code -1} for none
+     * @param target     the file to write
+     * @return {@code true} if the data was written successfully;
+     *         {@code false} if an error occurred
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean saveSingleFile(ArrayList<Player> players, long journalSeq, File target) {
         JSONArray out = new JSONArray();
         try {
             if (players != null) {
                 for (Player p : players) {
-                    JSONObject jo = new JSONObject();
+                    // journal snapshots hold the journal's compaction lock, which already orders them
+                    // against every journaled change; taking stripes there could deadlock
+                    out.add(journalSeq >= 0 ? buildJSON(p) : toJSON(p));
+                }
+            }
 
-                    // --- uuid ---
-                    try {
-                        UUID id = null;
-                        try { id = p.getId(); } catch (Throwable ignored) {}
-                        if (id != null) {
-                            jo.put("uuid", id.toString());
-                        }
-                    } catch (Throwable ignored) {}
+            // --- NEW: preserve wrapper with schemaVersion and users ---
+            JSONObject root = new JSONObject();
+            root.put("schemaVersion", 1);
+            root.put("users", out);
+            if (journalSeq >= 0) root.put(JOURNAL_SEQ, journalSeq);
 
-                    // --- displayName ---
-                    try {
-                        String name = null;
-                        try { name = p.getDisplayName(); } catch (Throwable ignored) {}
-                        if (name != null) jo.put("displayName", name);
-                    } catch (Throwable ignored) {}
+            // write players file (wrapped) through a synced temp file and an atomic rename
+            return AtomicFileWriter.write(target, root.toJSONString().getBytes(Charset.defaultCharset()),
+                    AtomicFileWriter.DEFAULT_GENERATIONS);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            return false;
+        }
+    }
 
-                    // --- top-level password ---
-                    try {
-                        String password = "";
-                        try {
-                            Method gp = p.getClass().getMethod("getPassword");
-                            Object pw = gp.invoke(p);
-                            if (pw != null) password = pw.toString();
-                        } catch (NoSuchMethodException nsme) {
-                            // no getter: leave empty string
-                        } catch (Throwable ignored) {}
-                        jo.put("password", password == null ? "" : password);
-                    } catch (Throwable ignored) {
-                        try { jo.put("password", ""); } catch (Throwable ignored2) {}
-                    }
+    /**
+     * Converts a single player into the JSON object stored for it in
+     * {@code players.json} (and in per-player shard files).
+     * <p>
+     * Is tolerant of missing getters and null values, filling in reasonable
+     * defaults, exactly like {@link #savePlayers(ArrayList)}.
+     * <p>
+     * Holds the player's {@link PlayerStore} stripe while reading it, so a
+     * session changing the player at the same time cannot be seen half-done.
+     *
+     * @param p the player to convert; must not be {@code null}
+     * @return the JSON object describing the player
+     */
+    static JSONObject toJSON(Player p) {
+        synchronized (PlayerStore.getInstance().lockFor(p)) {
+            return buildJSON(p);
+        }
+    }
 
-                    // --- progress object (kept shape) ---
-                    JSONObject progressObj = new JSONObject();
-                    try {
-                        ArrayList<Progress> progs = null;
-                        try { progs = p.getProgress(); } catch (Throwable ignored) {}
-                        Progress prog = (progs != null && progs.size() > 0) ? progs.get(0) : null;
-
-                        // hintsUsed
-                        try { progressObj.put("hintsUsed", prog != null ? prog.getHintsUsed() : 0); } catch (Throwable ignored) { progressObj.put("hintsUsed", 0); }
-
-                        // inventory
-                        JSONArray invArr = new JSONArray();
-                        System.out.println("Saving player: " + p.getDisplayName()); //
-                        System.out.println("Progress object: " + prog); //
-                        System.out.println("Inventory size: " + (prog != null && prog.getInventory() != null ? prog.getInventory().size() : "null")); //
-                        try {
-                            if (prog != null && prog.getInventory() != null) {
-                                for (Item it : prog.getInventory()) {
-                                    JSONObject itemObj = new JSONObject();
-                                    try { itemObj.put("uuid", ""); } catch (Throwable ignored) {}
-                                    try { itemObj.put("name", it.getName()); } catch (Throwable ignored) {}
-                                    try { itemObj.put("description", it.getDescription()); } catch (Throwable ignored) {}
-                                    try { itemObj.put("location", it.getLocation()); } catch (Throwable ignored) {}
-                                    invArr.add(itemObj);
-                                }
-                            }
-                        } catch (Throwable ignored) {}
-                        progressObj.put("inventory", invArr);
+    /**
+     * Converts a player into JSON without locking it. For callers that hold the
+     * player's stripe, or the {@link ProgressJournal} compaction lock in journal mode.
+     *
+     * @param p the player to convert
+     * @return the JSON object describing the player
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject buildJSON(Player p) {
+        JSONObject jo = new JSONObject();
 
-                        // storedHints
-                        JSONArray shArr = new JSONArray();
-                        try {
-                            if (prog != null && prog.getStoredHints() != null) {
-                                for (Hint h : prog.getStoredHints()) {
-                                    JSONObject hj = new JSONObject();
-                                    try { hj.put("id", ""); } catch (Throwable ignored) {}
-                                    try { hj.put("text", h.getText()); } catch (Throwable ignored) {}
-                                    try { hj.put("cost", h.getCost()); } catch (Throwable ignored) {}
-                                    try {
-                                        Method isUsedM = h.getClass().getMethod("isUsed");
-                                        Object used = isUsedM.invoke(h);
-                                        if (used instanceof Boolean) hj.put("used", (Boolean) used);
-                                    } catch (NoSuchMethodException nsme) {
-                                        // ignore
-                                    } catch (Throwable ignored) {}
-                                    shArr.add(hj);
-                                }
-                            }
-                        } catch (Throwable ignored) {}
-                        progressObj.put("storedHints", shArr);
+        // --- uuid ---
+        try {
+            UUID id = null;
+            try { id = p.getId(); } catch (Throwable ignored) {}
+            if (id != null) {
+                jo.put("uuid", id.toString());
+            }
+        } catch (Throwable ignored) {}
+
+        // --- displayName ---
+        try {
+            String name = null;
+            try { name = p.getDisplayName(); } catch (Throwable ignored) {}
+            if (name != null) jo.put("displayName", name);
+        } catch (Throwable ignored) {}
+
+        // --- top-level password ---
+        try {
+            String password = "";
+            try {
+                Method gp = p.getClass().getMethod("getPassword");
+                Object pw = gp.invoke(p);
+                if (pw != null) password = pw.toString();
+            } catch (NoSuchMethodException nsme) {
+                // no getter: leave empty string
+            } catch (Throwable ignored) {}
+            jo.put("password", password == null ? "" : password);
+        } catch (Throwable ignored) {
+            try { jo.put("password", ""); } catch (Throwable ignored2) {}
+        }
+
+        // --- progress object (kept shape) ---
+        JSONObject progressObj = new JSONObject();
+        try {
+            ArrayList<Progress> progs = null;
+            try { progs = p.getProgress(); } catch (Throwable ignored) {}
+            Progress prog = (progs != null && progs.size() > 0) ? progs.get(0) : null;
 
-                        // completedPuzzles
-                        JSONArray completedArr = new JSONArray();
+            // hintsUsed
+            try { progressObj.put("hintsUsed", prog != null ? prog.getHintsUsed() : 0); } catch (Throwable ignored) { progressObj.put("hintsUsed", 0); }
+
+            // inventory
+            JSONArray invArr = new JSONArray();
+            System.out.println("Saving player: " + p.getDisplayName()); //
+            System.out.println("Progress object: " + prog); //
+            System.out.println("Inventory size: " + (prog != null && prog.getInventory() != null ? prog.getInventory().size() : "null")); //
+            try {
+                if (prog != null && prog.getInventory() != null) {
+                    for (Item it : prog.getInventory()) {
+                        JSONObject itemObj = new JSONObject();
+                        try { itemObj.put("uuid", ""); } catch (Throwable ignored) {}
+                        try { itemObj.put("name", it.getName()); } catch (Throwable ignored) {}
+                        try { itemObj.put("description", it.getDescription()); } catch (Throwable ignored) {}
+                        try { itemObj.put("location", it.getLocation()); } catch (Throwable ignored) {}
+                        invArr.add(itemObj);
+                    }
+                }
+            } catch (Throwable ignored) {}
+            progressObj.put("inventory", invArr);
+
+            // storedHints
+            JSONArray shArr = new JSONArray();
+            try {
+                if (prog != null && prog.getStoredHints() != null) {
+                    for (Hint h : prog.getStoredHints()) {
+                        JSONObject hj = new JSONObject();
+                        try { hj.put("id", ""); } catch (Throwable ignored) {}
+                        try { hj.put("text", h.getText()); } catch (Throwable ignored) {}
+                        try { hj.put("cost", h.getCost()); } catch (Throwable ignored) {}
                         try {
-                            if (prog != null && prog.getCompletedPuzzles() != null) {
-                                for (Object cp : prog.getCompletedPuzzles()) {
-                                    try {
-                                        Method gid = cp.getClass().getMethod("getID");
-                                        Object idv = gid.invoke(cp);
-                                        completedArr.add(idv != null ? idv.toString() : cp.toString());
-                                    } catch (Throwable t) {
-                                        completedArr.add(cp.toString());
-                                    }
-                                }
-                            }
+                            Method isUsedM = h.getClass().getMethod("isUsed");
+                            Object used = isUsedM.invoke(h);
+                            if (used instanceof Boolean) hj.put("used", (Boolean) used);
+                        } catch (NoSuchMethodException nsme) {
+                            // ignore
                         } catch (Throwable ignored) {}
-                        progressObj.put("completedPuzzles", completedArr);
+                        shArr.add(hj);
+                    }
+                }
+            } catch (Throwable ignored) {}
+            progressObj.put("storedHints", shArr);
 
-                        // currentPuzzle
+            // completedPuzzles
+            JSONArray completedArr = new JSONArray();
+            try {
+                if (prog != null && prog.getCompletedPuzzles() != null) {
+                    for (Object cp : prog.getCompletedPuzzles()) {
                         try {
-                            Object curr = (prog != null) ? prog.getCurrentPuzzle() : null;
-                            if (curr == null) progressObj.put("currentPuzzle", null);
-                            else {
-                                JSONObject currObj = new JSONObject();
-                                try {
-                                    Method gid = curr.getClass().getMethod("getID");
-                                    Object idv = gid.invoke(curr);
-                                    if (idv != null) currObj.put("puzzleID", idv.toString());
-                                } catch (Throwable ignored) {}
-                                progressObj.put("currentPuzzle", currObj);
-                            }
-                        } catch (Throwable ignored) { progressObj.put("currentPuzzle", null); }
-
-                        // strikes & currentScore
-                        try { progressObj.put("strikes", prog != null ? prog.getStrikes() : 0); } catch (Throwable ignored) { progressObj.put("strikes", 0); }
-                        try { progressObj.put("currentScore", prog != null ? prog.getCurrentScore() : 0); } catch (Throwable ignored) { progressObj.put("currentScore", 0); }
-
-                    } catch (Throwable ignored) {
-                        progressObj.put("hintsUsed", 0);
-                        progressObj.put("inventory", new JSONArray());
-                        progressObj.put("storedHints", new JSONArray());
-                        progressObj.put("completedPuzzles", new JSONArray());
-                        progressObj.put("currentPuzzle", null);
-                        progressObj.put("strikes", 0);
-                        progressObj.put("currentScore", 0);
+                            Method gid = cp.getClass().getMethod("getID");
+                            Object idv = gid.invoke(cp);
+                            completedArr.add(idv != null ? idv.toString() : cp.toString());
+                        } catch (Throwable t) {
+                            completedArr.add(cp.toString());
+                        }
                     }
-
-                    jo.put("progress", progressObj);
-
-                    out.add(jo);
                 }
-            }
+            } catch (Throwable ignored) {}
+            progressObj.put("completedPuzzles", completedArr);
 
-            // --- NEW: preserve wrapper with schemaVersion and users ---
-            JSONObject root = new JSONObject();
-            root.put("schemaVersion", 1);
-            root.put("users", out);
+            // currentPuzzle
+            try {
+                Object curr = (prog != null) ? prog.getCurrentPuzzle() : null;
+                if (curr == null) progressObj.put("currentPuzzle", null);
+                else {
+                    JSONObject currObj = new JSONObject();
+                    try {
+                        Method gid = curr.getClass().getMethod("getID");
+                        Object idv = gid.invoke(curr);
+                        if (idv != null) currObj.put("puzzleID", idv.toString());
+                    } catch (Throwable ignored) {}
+                    progressObj.put("currentPuzzle", currObj);
+                }
+            } catch (Throwable ignored) { progressObj.put("currentPuzzle", null); }
 
-            // write players file (wrapped)
-            try (FileWriter fw = new FileWriter(USER_FILE_NAME)) {
-                fw.write(root.toJSONString());
-                fw.flush();
-            }
+            // strikes & currentScore
+            try { progressObj.put("strikes", prog != null ? prog.getStrikes() : 0); } catch (Throwable ignored) { progressObj.put("strikes", 0); }
+            try { progressObj.put("currentScore", prog != null ? prog.getCurrentScore() : 0); } catch (Throwable ignored) { progressObj.put("currentScore", 0); }
 
-            return true;
-        } catch (Throwable t) {
-            t.printStackTrace();
-            return false;
+        } catch (Throwable ignored) {
+            progressObj.put("hintsUsed", 0);
+            progressObj.put("inventory", new JSONArray());
+            progressObj.put("storedHints", new JSONArray());
+            progressObj.put("completedPuzzles", new JSONArray());
+            progressObj.put("currentPuzzle", null);
+            progressObj.put("strikes", 0);
+            progressObj.put("currentScore", 0);
         }
+
+        jo.put("progress", progressObj);
+        return jo;
     }
 }
-
@@ -21,13 +21,13 @@ public class DataWriterTester {
 
         Path playersPath = Paths.get("json/players.json");
         Path roomsPath = Paths.get("json/rooms.json");
-        Path backup = Paths.get("json/players_backup.json");
+        // the first save of this run keeps the current players.json as generation 1
+        Path backup = AtomicFileWriter.generation(playersPath.toFile(), 1).toPath();
+        boolean hadPlayers = Files.exists(playersPath);
 
         try {
-            // --- Back up players.json ---
-            if (Files.exists(playersPath)) {
-                Files.copy(playersPath, backup, StandardCopyOption.REPLACE_EXISTING);
-                System.out.println("Backed up existing players.json -> players_backup.json");
+            if (hadPlayers) {
+                System.out.println("Existing players.json will be kept as " + backup.getFileName());
             }
 
             // --- Read rooms.json before ---
@@ -169,10 +169,10 @@ public class DataWriterTester {
             }
 
             // --- Restore original players.json ---
-            if (Files.exists(backup)) {
+            if (hadPlayers && Files.exists(backup)) {
                 // Ensure file handles closed, then replace
                 Files.move(backup, playersPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-                System.out.println("Restored original players.json from backup.");
+                System.out.println("Restored original players.json from " + backup.getFileName() + ".");
             }
 
             System.out.println("\nPASS: DataWriter test completed successfully.");
@@ -180,7 +180,7 @@ public class DataWriterTester {
             System.err.println("ERROR during DataWriter test:");
             t.printStackTrace();
             try {
-                if (Files.exists(backup)) {
+                if (hadPlayers && Files.exists(backup)) {
                     Files.move(backup, playersPath, StandardCopyOption.REPLACE_EXISTING);
                     System.out.println("Restored original players.json after error.");
                 }
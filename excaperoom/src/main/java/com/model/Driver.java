@@ -328,6 +328,9 @@ public class Driver {
                 if (rank > 0) {
                     System.out.println("\n🎯 Leni's Rank: #" + rank + " out of " + 
                                      Leaderboard.getInstance().size() + " players");
+                    double beaten = Leaderboard.getInstance().getPlayerPercentile(
+                            Players.getCurrentPlayer().getDisplayName());
+                    System.out.printf("   You beat %.0f%% of players!%n", beaten);
                 }
                 
                 // Generate certificate of completion
@@ -378,6 +381,10 @@ public class Driver {
      */
     private static void setupLeaderboard() {
         Leaderboard leaderboard = Leaderboard.getInstance();
+        if (leaderboard.size() > 0) {
+            // scores are stored now, so only seed an empty leaderboard
+            return;
+        }
         
         // Add at least 3 existing players to leaderboard
         leaderboard.addScore("Alex Martinez", 1450, 10, 780, Game.Difficulty.HARD);
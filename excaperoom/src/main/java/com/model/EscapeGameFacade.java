@@ -1,6 +1,7 @@
 package com.model;
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 import com.model.Leaderboard.LeaderboardEntry;
 
@@ -112,6 +113,17 @@ public class EscapeGameFacade {
         return game.getRemainingTime();
     }
 
+    /**
+     * Subscribes to the current game's countdown on the shared {@link GameClock}.
+     *
+     * @param listener receives the remaining time and the time-up event
+     * @param executor where to run the listener, e.g. {@code Platform::runLater}
+     * @return the subscription; cancel it when the listener goes away
+     */
+    public GameClock.Subscription subscribeToClock(GameClock.Listener listener, Executor executor) {
+        return GameClock.getInstance().subscribe(game, listener, executor);
+    }
+
     /**
      * Returns the elapsed time in the current game session.
      *
@@ -262,13 +274,18 @@ public class EscapeGameFacade {
      */
     public void addStrike() {
         players.addStrike();
+        game.record(SessionLog.Type.STRIKE, null);
     }
 
     /**
      * Resets the current player's strikes back to zero.
      */
     public void resetStrikes() {
+        int strikes = players.getStrikes();
         players.resetStrikes();
+        if (strikes > 0) {
+            game.record(SessionLog.Type.STRIKE, Integer.toString(-strikes));
+        }
     }
 
     /**
@@ -332,6 +349,17 @@ public class EscapeGameFacade {
         players.saveProgress();
     }
 
+    /**
+     * Writes any pending player saves to persistent storage immediately.
+     * Should be called before the application exits.
+     *
+     * @return {@code true} if nothing was pending or the write succeeded;
+     *         {@code false} otherwise
+     */
+    public boolean flushProgress() {
+        return players.flushProgress();
+    }
+
     /**
      * Returns the current leaderboard entries.
      *
@@ -348,6 +376,9 @@ public class EscapeGameFacade {
      */
     public void addItem(Item item) {
         players.addItem(item);
+        if (item != null) {
+            game.record(SessionLog.Type.ITEM, item.getName());
+        }
     }
 
     /**
@@ -390,6 +421,6 @@ public class EscapeGameFacade {
      * @param item the {@link Item} to grant to the player
      */
     public void giveItem(Item item) {
-        players.addItem(item);
+        addItem(item);
     }
 }
@@ -1,6 +1,5 @@
 package com.model;
  
-import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.UUID;
@@ -17,8 +16,24 @@ import java.util.UUID;
  *     <li>Association with a {@link Player} and their {@link Progress}</li>
  * </ul>
  * <p>
+ * Play time is measured by a {@link GameTimer} on a monotonic clock, to the
+ * nanosecond and unaffected by changes to the computer's clock. The start
+ * and end {@link Instant}s are kept for display only. Tests and simulations
+ * can run a game in virtual time with {@link #setTimeSource(GameTimer.TimeSource)}.
+ * <p>
+ * With {@link #setRecording(boolean) recording} on, each game's steps are
+ * kept in a {@link SessionLog}: the start, completed puzzles, moves to the
+ * next puzzle, pauses and the end are recorded here, and hints, strikes,
+ * items and answers by the {@link PuzzlesManager}, {@link EscapeGameFacade}
+ * or {@link GameEngine} that makes them. Each of the game's own steps reads
+ * the clock once and sees only that reading while it runs, so the time in
+ * the log is exactly the time the game used. The singleton and every
+ * {@link GameSession}'s game record, and write each log to the
+ * {@link SessionStore} when the game ends.
+ * <p>
  * This class is implemented as a singleton. Use {@link #getInstance()} to obtain
- * the active game instance.
+ * the active game instance. Each {@link GameSession} additionally owns a
+ * separate {@code Game} bound to its own puzzles and player.
  */
 public class Game {
 
@@ -43,17 +58,27 @@ public class Game {
     /** Multiplier for remaining time when calculating time bonus. */
     private static final int TIME_BONUS_MULTIPLIER = 10;
 
+    /** Score penalty applied for each strike. */
+    private static final int STRIKE_PENALTY = 25;
+
+    /** The scoring formula with the constants above. */
+    private static final ScoreRules SCORE_RULES = new ScoreRules(
+            BASE_SCORE, PUZZLE_COMPLETION_BONUS, HINT_PENALTY, STRIKE_PENALTY, TIME_BONUS_MULTIPLIER);
+
     /** Unique identifier for this game instance. */
     private String gameID;
 
     /** The player currently associated with this game session. */
     private Player currentPlayer;
 
-    /** Timestamp when the game started. */
-    private Instant startTime;
+    /** Wall-clock time when the game started, for display. */
+    private volatile Instant startTime;
 
-    /** Timestamp when the game ended. */
-    private Instant endTime;
+    /** Wall-clock time when the game ended, for display. */
+    private volatile Instant endTime;
+
+    /** Measures active play time; the source of every elapsed and remaining time. */
+    private final GameTimer timer;
 
     /** Current difficulty setting for the game. */
     private Difficulty difficulty;
@@ -62,7 +87,7 @@ public class Game {
     private int score;
 
     /** Flag indicating whether the game is currently paused. */
-    private boolean isPaused;
+    private volatile boolean isPaused;
 
     /** Flag indicating whether the game has ended. */
     private boolean isOver;
@@ -80,13 +105,40 @@ public class Game {
     private Progress progress;
 
     /**
-     * Total accumulated pause time in seconds. Used so pauses don't count
-     * against the time limit.
+     * Puzzle manager of the {@link GameSession} this game belongs to, or
+     * {@code null} for the singleton, which uses the shared {@link PuzzlesManager}.
      */
-    private long pausedDuration;
+    private final PuzzlesManager sessionPuzzles;
+
+    /** Where the game's time comes from; the timer reads it through {@link #clock()}. */
+    private volatile GameTimer.TimeSource source;
+
+    /** Source set by {@link #setTimeSource(GameTimer.TimeSource)}, used from the next game. */
+    private volatile GameTimer.TimeSource pendingSource;
+
+    /** Whether games are recorded. */
+    private boolean recording;
 
-    /** Timestamp when the game was last paused (if currently paused). */
-    private Instant pauseStartTime;
+    /** Where the logs of ended games are written, or {@code null} to keep them in memory only. */
+    private SessionStore sessionStore;
+
+    /** The current game's log, or {@code null} if it is not recorded. */
+    private SessionLog log;
+
+    /** Whether the current game's log has been written to the store. */
+    private boolean logStored;
+
+    /** Clock reading when the current game started. */
+    private long originNanos;
+
+    /** Nesting depth of the running step; steps run inside other steps, such as an end inside a completion. */
+    private int stepDepth;
+
+    /** Whether a recorded step is running, and the clock reads {@link #stepNanos}. */
+    private volatile boolean inStep;
+
+    /** Clock reading of the running step. */
+    private volatile long stepNanos;
 
     /** Singleton instance of the {@code Game}. */
     private static Game instance;
@@ -133,6 +185,19 @@ public class Game {
      * default difficulty (MEDIUM), and default story text.
      */
     private Game() {
+        this(null);
+        this.recording = true;
+        this.sessionStore = SessionStore.getInstance();
+    }
+
+    /**
+     * Creates the game of one {@link GameSession}, which plays the session's
+     * puzzles and scores the session's player instead of the facade's.
+     *
+     * @param sessionPuzzles the session's puzzle manager; {@code null} for the singleton
+     */
+    Game(PuzzlesManager sessionPuzzles) {
+        this.sessionPuzzles = sessionPuzzles;
         this.gameID = UUID.randomUUID().toString();
         this.score = BASE_SCORE;
         this.isPaused = false;
@@ -141,7 +206,9 @@ public class Game {
         this.completedCount = 0;
         this.story = "Welcome to the VHS Escape Room! You've discovered a mysterious VHS tape that transports you into a retro world. Solve the puzzles to escape before time runs out!";
         this.difficulty = Difficulty.MEDIUM; 
-        this.pausedDuration = 0;
+        this.source = GameTimer.TimeSource.SYSTEM;
+        this.timer = new GameTimer(this::clock);
+        puzzlesManager().setGame(this);
     }
 
     /**
@@ -171,16 +238,41 @@ public class Game {
      * @param difficulty the selected difficulty level
      */
     public void initializeGame(Player player, Difficulty difficulty) {
+        GameTimer.TimeSource next = pendingSource;
+        if (next != null) {
+            source = next;
+            pendingSource = null;
+        }
+        if (recording) {
+            stepNanos = source.nanoTime();
+            inStep = true;
+            stepDepth = 1;
+        }
+        try {
+            startGame(player, difficulty);
+        } finally {
+            endStep();
+        }
+    }
+
+    /**
+     * Sets up a new game, and its log if games are recorded.
+     *
+     * @param player     the player starting the game
+     * @param difficulty the selected difficulty level
+     */
+    private void startGame(Player player, Difficulty difficulty) {
         this.currentPlayer = player;
         this.difficulty = difficulty;
         this.startTime = Instant.now();
+        this.endTime = null;
+        this.timer.start();
         this.score = BASE_SCORE;
         this.isPaused = false;
         this.isOver = false;
         this.completedCount = 0;
-        this.pausedDuration = 0;
         
-        this.puzzles = PuzzlesManager.getInstance().getPuzzles();
+        this.puzzles = puzzlesManager().getPuzzles();
         
         if (player.getProgress() != null && !player.getProgress().isEmpty()) {
             this.progress = player.getProgress().get(0);
@@ -190,6 +282,41 @@ public class Game {
             player.setProgress(progressList);
             this.progress = progressList.get(0);
         }
+
+        if (recording) {
+            startLog(player, difficulty);
+        } else {
+            log = null;
+        }
+    }
+
+    /**
+     * Starts the current game's log. Hints and strikes the player already
+     * carries count against this game's score too, so they are recorded at
+     * the start.
+     *
+     * @param player     the player starting the game
+     * @param difficulty the selected difficulty level
+     */
+    private void startLog(Player player, Difficulty difficulty) {
+        ArrayList<UUID> ids = new ArrayList<>(puzzles.size());
+        for (Puzzle puzzle : puzzles) {
+            ids.add(puzzle.getID());
+        }
+        log = new SessionLog(player.getDisplayName(), ids);
+        log.setStartedAt(startTime.toString());
+        logStored = false;
+        originNanos = stepNanos;
+        log.add(0, SessionLog.Type.START, difficulty.name());
+        ArrayList<Progress> list = player.getProgress();
+        int hints = list.get(list.size() - 1).getHintsUsed();
+        if (hints > 0) {
+            log.add(0, SessionLog.Type.HINT, Integer.toString(hints));
+        }
+        int strikes = list.get(0).getStrikes();
+        if (strikes > 0) {
+            log.add(0, SessionLog.Type.STRIKE, Integer.toString(strikes));
+        }
     }
 
     /**
@@ -206,29 +333,41 @@ public class Game {
      * @return the computed final score
      */
     public int calculateScore() {
-        int finalScore = BASE_SCORE;
-        
-        finalScore += (completedCount * PUZZLE_COMPLETION_BONUS);
-        EscapeGameFacade facade = EscapeGameFacade.getInstance();
-        if (facade != null) {
-            finalScore -= (facade.getHintsUsed() * HINT_PENALTY);
-            finalScore -= (facade.getStrikes() * 25); // 25 points per strike
-        }
-
-        if (isOver && completedCount == puzzles.size()) {
-            long elapsedSeconds = getElapsedTime();
-            long remainingSeconds = difficulty.getTimeLimit() - elapsedSeconds;
-            if (remainingSeconds > 0) {
-                finalScore += (int)(remainingSeconds * TIME_BONUS_MULTIPLIER);
+        int hints = 0;
+        int strikes = 0;
+        if (sessionPuzzles != null) {
+            hints = sessionPuzzles.getHintsUsed();
+            if (progress != null) {
+                strikes = progress.getStrikes();
+            }
+        } else {
+            EscapeGameFacade facade = EscapeGameFacade.getInstance();
+            if (facade != null) {
+                hints = facade.getHintsUsed();
+                strikes = facade.getStrikes();
             }
         }
-        // not negative score
-        finalScore = Math.max(0, finalScore);
+
+        boolean finishedAll = isOver && completedCount == puzzles.size();
+        int finalScore = SCORE_RULES.score(completedCount, hints, strikes, finishedAll,
+                finishedAll ? getRemainingNanos() : 0);
         
         this.score = finalScore;
+        if (log != null) {
+            log.setScore(finalScore);
+        }
         return finalScore;
     }
 
+    /**
+     * Returns the scoring formula {@link #calculateScore()} uses.
+     *
+     * @return the score rules
+     */
+    public static ScoreRules getScoreRules() {
+        return SCORE_RULES;
+    }
+
     /**
      * Returns the elapsed active game time in seconds.
      * <p>
@@ -237,19 +376,16 @@ public class Game {
      * @return elapsed time in seconds, excluding paused durations
      */
     public long getElapsedTime() {
-        if (startTime == null) {
-            return 0;
-        }
-        
-        Instant endPoint = (endTime != null) ? endTime : Instant.now();
-        long totalSeconds = Duration.between(startTime, endPoint).getSeconds();
-        
-        long activePausedTime = pausedDuration;
-        if (isPaused && pauseStartTime != null) {
-            activePausedTime += Duration.between(pauseStartTime, Instant.now()).getSeconds();
-        }
-        
-        return totalSeconds - activePausedTime;
+        return timer.elapsedSeconds();
+    }
+
+    /**
+     * Returns the elapsed active game time in nanoseconds.
+     *
+     * @return elapsed time in nanoseconds, excluding paused durations
+     */
+    public long getElapsedNanos() {
+        return timer.elapsedNanos();
     }
 
     /**
@@ -258,8 +394,17 @@ public class Game {
      * @return remaining time in seconds; will not be negative
      */
     public long getRemainingTime() {
-        long elapsed = getElapsedTime();
-        long remaining = difficulty.getTimeLimit() - elapsed;
+        long remaining = difficulty.getTimeLimit() - getElapsedTime();
+        return Math.max(0, remaining);
+    }
+
+    /**
+     * Returns the remaining time in nanoseconds before the time limit is reached.
+     *
+     * @return remaining time in nanoseconds; will not be negative
+     */
+    public long getRemainingNanos() {
+        long remaining = difficulty.getTimeLimit() * GameTimer.NANOS_PER_SECOND - getElapsedNanos();
         return Math.max(0, remaining);
     }
 
@@ -269,7 +414,7 @@ public class Game {
      * @return {@code true} if no time remains; {@code false} otherwise
      */
     public boolean isTimeUp() {
-        return getRemainingTime() <= 0;
+        return getRemainingNanos() <= 0;
     }
 
     /**
@@ -288,22 +433,29 @@ public class Game {
      */
     public void pause() {
         if (!isPaused && !isOver) {
-            isPaused = true;
-            pauseStartTime = Instant.now();
+            beginStep(SessionLog.Type.PAUSE, null);
+            try {
+                isPaused = true;
+                timer.pause();
+            } finally {
+                endStep();
+            }
         }
     }
 
     /**
      * Resumes the game timer if the game is currently paused.
-     * Accumulates the paused duration so it can be subtracted from elapsed time.
+     * The paused time, to the nanosecond, is not counted as elapsed time.
      */
     public void resume() {
         if (isPaused) {
-            if (pauseStartTime != null) {
-                pausedDuration += Duration.between(pauseStartTime, Instant.now()).getSeconds();
-                pauseStartTime = null;
+            beginStep(SessionLog.Type.RESUME, null);
+            try {
+                timer.resume();
+                isPaused = false;
+            } finally {
+                endStep();
             }
-            isPaused = false;
         }
     }
 
@@ -331,9 +483,10 @@ public class Game {
             return false;
         }
 
-        boolean hasNext = PuzzlesManager.getInstance().nextPuzzle();
+        boolean hasNext = puzzlesManager().nextPuzzle();
         
         if (hasNext) {
+            record(SessionLog.Type.NEXT, null);
             return true;
         } else {
             endGame(true);
@@ -347,7 +500,16 @@ public class Game {
      * @return the current {@link Puzzle}, or {@code null} if none is active
      */
     public Puzzle getCurrentPuzzle() {
-        return PuzzlesManager.getInstance().getCurrentPuzzle();
+        return puzzlesManager().getCurrentPuzzle();
+    }
+
+    /**
+     * Returns the puzzle manager this game plays with.
+     *
+     * @return the session's manager, or the shared {@link PuzzlesManager}
+     */
+    private PuzzlesManager puzzlesManager() {
+        return sessionPuzzles != null ? sessionPuzzles : PuzzlesManager.getInstance();
     }
 
     /**
@@ -362,14 +524,20 @@ public class Game {
      * </ul>
      */
     public void completePuzzle() {
-        Progress progress = Players.getCurrentPlayer().getProgress().get(Players.getCurrentPlayer().getProgress().size()-1);
-        PuzzlesManager pman = PuzzlesManager.getInstance();
-        progress.addCompletedPuzzle(pman.getCurrentPuzzle());
-        completedCount++;
-        calculateScore();
-        
-        if (isTimeUp()) {
-            endGame(false);
+        Player player = sessionPuzzles != null ? currentPlayer : Players.getCurrentPlayer();
+        Progress progress = player.getProgress().get(player.getProgress().size()-1);
+        PuzzlesManager pman = puzzlesManager();
+        beginStep(SessionLog.Type.COMPLETE, null);
+        try {
+            progress.addCompletedPuzzle(pman.getCurrentPuzzle());
+            completedCount++;
+            calculateScore();
+
+            if (isTimeUp()) {
+                endGame(false);
+            }
+        } finally {
+            endStep();
         }
     }
 
@@ -383,9 +551,19 @@ public class Game {
      *                   {@code false} otherwise
      */
     public void endGame(boolean successful) {
-        isOver = true;
-        endTime = Instant.now();
-        calculateScore();
+        beginStep(SessionLog.Type.END, successful ? "won" : "lost");
+        try {
+            isOver = true;
+            endTime = Instant.now();
+            timer.stop();
+            calculateScore();
+        } finally {
+            endStep();
+        }
+        if (log != null && sessionStore != null && !logStored) {
+            logStored = true;
+            sessionStore.append(log);
+        }
     }
 
     /**
@@ -549,6 +727,104 @@ public class Game {
         this.story = story;
     }
 
+    /**
+     * Sets the clock the game's time is measured on, for example a virtual
+     * clock in tests and simulations. Takes effect from the next
+     * {@link #initializeGame(Player, Difficulty)}; a game in progress keeps
+     * the clock it started on.
+     *
+     * @param source the time source
+     */
+    public void setTimeSource(GameTimer.TimeSource source) {
+        this.pendingSource = source;
+    }
+
+    /**
+     * Turns recording on or off, starting with the next game.
+     *
+     * @param recording {@code true} to record each game's steps
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /** @return {@code true} if games are recorded */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Sets where the logs of ended games are written.
+     *
+     * @param store the store, or {@code null} to keep logs in memory only
+     */
+    void setSessionStore(SessionStore store) {
+        this.sessionStore = store;
+    }
+
+    /**
+     * Returns the current game's steps so far.
+     *
+     * @return the log, or {@code null} if the game is not recorded
+     */
+    public SessionLog getLog() {
+        return log;
+    }
+
+    /**
+     * Records a step made outside this class, such as a hint revealed by the
+     * puzzle manager or a strike added through the facade. Does nothing if
+     * the game is not recorded or is over.
+     *
+     * @param type     the kind of step
+     * @param argument its argument, or {@code null}
+     */
+    void record(SessionLog.Type type, String argument) {
+        if (log != null && !isOver) {
+            log.add((inStep ? stepNanos : source.nanoTime()) - originNanos, type, argument);
+        }
+    }
+
+    /**
+     * Starts one of the game's own steps: reads the clock once, holds the
+     * reading until the step ends, and records the step unless the game is
+     * over. Steps inside a running step keep its reading.
+     *
+     * @param type     the kind of step
+     * @param argument its argument, or {@code null}
+     */
+    private void beginStep(SessionLog.Type type, String argument) {
+        if (log == null) {
+            return;
+        }
+        if (stepDepth++ == 0) {
+            stepNanos = source.nanoTime();
+            inStep = true;
+        }
+        if (!isOver) {
+            log.add(stepNanos - originNanos, type, argument);
+        }
+    }
+
+    /**
+     * Ends a step started by {@link #beginStep}.
+     */
+    private void endStep() {
+        if (stepDepth > 0 && --stepDepth == 0) {
+            inStep = false;
+        }
+    }
+
+    /**
+     * Returns the time the game sees: the running step's reading, or the
+     * time source's between steps.
+     *
+     * @return the reading in nanoseconds
+     */
+    private long clock() {
+        return inStep ? stepNanos : source.nanoTime();
+    }
+
     /**
      * Returns the timestamp when the game started.
      *
@@ -573,6 +849,6 @@ public class Game {
      * @return zero-based index of the current puzzle
      */
     public int getCurrentPuzzleIndex() {
-        return PuzzlesManager.getInstance().getCurrentPuzzleIndex();
+        return puzzlesManager().getCurrentPuzzleIndex();
     }
 }
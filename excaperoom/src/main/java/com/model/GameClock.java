@@ -0,0 +1,235 @@
+package com.model;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick source for every running game's countdown.
+ * <p>
+ * Each puzzle screen used to build its own one-second {@code Timeline} that
+ * asked the facade for the remaining time. Switching screens never stopped
+ * the old one, so a game that had visited five screens ran five timers, and
+ * each of them sent the player to the losing screen when time ran out. This
+ * class replaces them:
+ * <ul>
+ *     <li>A single daemon thread ticks once a second for all subscriptions.</li>
+ *     <li>Each tick reads every game's {@link GameTimer}, which costs a clock
+ *         read and a subtraction and allocates nothing.</li>
+ *     <li>A listener is only called when its game's remaining whole seconds
+ *         change, so paused or finished games cost nothing further.</li>
+ *     <li>When time runs out the listener gets {@link Listener#onTimeUp()}
+ *         once and the subscription ends by itself.</li>
+ * </ul>
+ * Listeners run on the executor they subscribed with, such as
+ * {@code Platform::runLater} for a screen or a direct executor for a
+ * headless session. A screen cancels its {@link Subscription} when it is
+ * replaced.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class GameClock {
+
+    /** Time between ticks, in milliseconds. */
+    public static final long TICK_MILLIS = 1000;
+
+    /** Singleton instance of the clock. */
+    private static volatile GameClock instance;
+
+    /** Active subscriptions. */
+    private final Set<Subscription> subscriptions;
+
+    /** Thread that runs the ticks; {@code null} for a clock ticked by hand. */
+    private ScheduledExecutorService executor;
+
+    /** Number of ticks run (used for diagnostics and tests). */
+    private volatile long tickCount;
+
+    /**
+     * Receives a game's countdown.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the game's remaining whole seconds change, and once on subscribing.
+         *
+         * @param remainingSeconds the time left, in seconds; above zero
+         */
+        void onTick(long remainingSeconds);
+
+        /**
+         * Called once when the game has no time left. The subscription has
+         * already ended.
+         */
+        void onTimeUp();
+    }
+
+    /**
+     * A listener's registration with the clock.
+     */
+    public final class Subscription {
+        private final Game game;
+        private final Listener listener;
+        private final Executor executor;
+        /** Remaining seconds last reported, or -1 before the first report. */
+        private long lastRemaining = -1;
+        private volatile boolean active = true;
+
+        private Subscription(Game game, Listener listener, Executor executor) {
+            this.game = game;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        /**
+         * Stops the listener from receiving further calls. Calls already
+         * handed to the executor are dropped too. Safe to call more than once.
+         */
+        public void cancel() {
+            active = false;
+            subscriptions.remove(this);
+        }
+
+        /** @return {@code true} until cancelled or the game's time is up */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Reports the game's time, if it has changed.
+         */
+        private void tick() {
+            long remaining = game.getRemainingTime();
+            if (remaining == lastRemaining) {
+                return;
+            }
+            lastRemaining = remaining;
+            if (remaining <= 0) {
+                cancel();
+                executor.execute(listener::onTimeUp);
+            } else {
+                executor.execute(() -> {
+                    if (active) {
+                        listener.onTick(remaining);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Creates a clock that only ticks when {@link #tick()} is called.
+     * Intended for tests and simulations; {@link #getInstance()} starts its own ticking.
+     */
+    GameClock() {
+        this.subscriptions = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Returns the singleton clock, starting its tick thread on first use.
+     *
+     * @return the shared {@code GameClock}
+     */
+    public static GameClock getInstance() {
+        GameClock local = instance;
+        if (local == null) {
+            synchronized (GameClock.class) {
+                local = instance;
+                if (local == null) {
+                    local = new GameClock();
+                    local.start();
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Starts ticking on a daemon thread.
+     */
+    private synchronized void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes to a game's countdown. The listener is told the current
+     * remaining time straight away, through the executor, and then on every
+     * tick that changes it.
+     *
+     * @param game     the game to follow
+     * @param listener the listener
+     * @param executor where to run the listener, e.g. {@code Platform::runLater}
+     * @return the subscription, to cancel when the listener goes away
+     */
+    public Subscription subscribe(Game game, Listener listener, Executor executor) {
+        Subscription subscription = new Subscription(game, listener, executor);
+        subscriptions.add(subscription);
+        synchronized (subscription) {
+            subscription.tick();
+        }
+        return subscription;
+    }
+
+    /**
+     * Runs one tick: reports every subscribed game's time.
+     */
+    void tick() {
+        for (Subscription subscription : subscriptions) {
+            // a subscription is only ever ticked by one thread at a time
+            synchronized (subscription) {
+                if (!subscription.active) {
+                    continue;
+                }
+                try {
+                    subscription.tick();
+                } catch (RuntimeException e) {
+                    // e.g. a game that was never started; one bad game must not stop the clock
+                    System.out.println("Warning: game clock dropped a subscription: " + e);
+                    subscription.cancel();
+                }
+            }
+        }
+        tickCount++;
+    }
+
+    /**
+     * Returns the number of active subscriptions.
+     *
+     * @return the subscription count
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Returns how many ticks have run.
+     *
+     * @return the tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Ends every subscription and stops the tick thread. Called when the
+     * application exits.
+     */
+    public synchronized void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.cancel();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs complete games without a user interface.
+ * <p>
+ * The screens and the console {@link Driver} play through
+ * {@link EscapeGameFacade}, which shares one {@link Game}, one
+ * {@link PuzzlesManager} and the logged-in player across the process, saves
+ * after every step and prints as it goes. An engine instead owns everything
+ * its game touches:
+ * <ul>
+ *     <li>its own puzzle objects, so hints it reveals are not seen elsewhere;</li>
+ *     <li>its own {@link Game} and {@link PuzzlesManager}, wired the way
+ *         {@link GameSession} wires them;</li>
+ *     <li>a player that is not in {@link Players} and whose progress has no
+ *         owner, so {@link ProgressJournal} never writes it and nothing is saved;</li>
+ *     <li>its own {@link GameTimer.TimeSource}, so a simulation can run in
+ *         virtual time.</li>
+ * </ul>
+ * Answers are checked with {@link Puzzle#isCorrect(String)}, so no sound stub
+ * is printed and the facade is never asked to move on. The rules follow the
+ * console game: a wrong answer is a strike, a puzzle allows
+ * {@link #ATTEMPTS_PER_PUZZLE} answers before play moves on without it, a
+ * skip is a strike too, and the game ends after the last puzzle or when time
+ * runs out.
+ * <p>
+ * An engine can play any number of games one after another; each
+ * {@link #start(Game.Difficulty)} resets the puzzles' hints. It is not
+ * thread-safe: run one engine per thread.
+ * <p>
+ * With {@link #setRecording(boolean) recording} on, the engine's game keeps
+ * each game's steps in a {@link SessionLog}, as the games played through the
+ * facade do, but the logs are not written to the {@link SessionStore}. Each
+ * input reads the clock once and the game sees only that reading while the
+ * input runs, so the time in the log is exactly the time the game used.
+ * {@link SessionReplayer} plays a log again through {@link #apply(SessionLog.Event)}.
+ */
+public class GameEngine {
+
+    /** Number of answers a puzzle accepts before play moves on without it. */
+    public static final int ATTEMPTS_PER_PUZZLE = 3;
+
+    /**
+     * What became of a submitted answer.
+     */
+    public enum Outcome {
+        /** The answer was right; play moved to the next puzzle or the game ended. */
+        CORRECT,
+        /** The answer was wrong and earned a strike; the puzzle can be tried again. */
+        INCORRECT,
+        /** The answer was wrong and the puzzle's last attempt; play moved on without it. */
+        OUT_OF_ATTEMPTS,
+        /** The game is over, or ran out of time before the answer counted. */
+        GAME_OVER
+    }
+
+    /** The engine's puzzles. */
+    private final ArrayList<Puzzle> puzzleSet;
+
+    /** The engine's puzzle cursor. */
+    private final PuzzlesManager puzzles;
+
+    /** The engine's game state. */
+    private final Game game;
+
+    /** The engine's player. */
+    private final Player player;
+
+    /** The player's progress list; holds the current game's one progress record. */
+    private final ArrayList<Progress> progressList;
+
+    /** Wrong answers given to the current puzzle. */
+    private int attempts;
+
+    /** Whether the current game ended with every puzzle completed. */
+    private boolean won;
+
+    /** Where the game's time comes from. */
+    private final GameTimer.TimeSource source;
+
+    /** Whether an input is running, and the game's clock reads {@link #inputNanos}. */
+    private boolean inInput;
+
+    /** Clock reading of the running input. */
+    private long inputNanos;
+
+    /**
+     * Creates an engine that plays the given puzzles on the system clock.
+     *
+     * @param puzzleSet the engine's own puzzle objects; they must not be shared
+     *                  with another engine, session or the facade
+     */
+    public GameEngine(List<Puzzle> puzzleSet) {
+        this(puzzleSet, GameTimer.TimeSource.SYSTEM);
+    }
+
+    /**
+     * Creates an engine that plays the given puzzles on a given clock.
+     *
+     * @param puzzleSet the engine's own puzzle objects; they must not be shared
+     *                  with another engine, session or the facade
+     * @param source    where the game's time comes from
+     */
+    public GameEngine(List<Puzzle> puzzleSet, GameTimer.TimeSource source) {
+        this.puzzleSet = new ArrayList<>(puzzleSet);
+        this.progressList = new ArrayList<>();
+        // progress added to the list later has no owner, so it is never journaled
+        this.player = new Player("engine", progressList, null);
+        this.progressList.add(new Progress());
+        this.puzzles = new PuzzlesManager(this.puzzleSet, player);
+        this.game = new Game(puzzles);
+        this.game.setSessionStore(null);
+        this.source = source;
+        this.game.setTimeSource(this::now);
+    }
+
+    /**
+     * Creates an engine over a fresh copy of the {@link PuzzleCatalog}'s
+     * puzzles, loading the catalog first.
+     *
+     * @param source where the game's time comes from
+     * @return the engine
+     * @throws IllegalStateException if the catalog has no puzzles
+     */
+    public static GameEngine fromCatalog(GameTimer.TimeSource source) {
+        return new GameEngine(PuzzleCatalog.getInstance().requirePuzzleSet(), source);
+    }
+
+    /**
+     * Starts a new game at the first puzzle, with no hints used, no strikes
+     * and a full clock.
+     *
+     * @param difficulty the difficulty level
+     */
+    public void start(Game.Difficulty difficulty) {
+        begin();
+        try {
+            reset(difficulty);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Sets up a new game.
+     *
+     * @param difficulty the difficulty level
+     */
+    private void reset(Game.Difficulty difficulty) {
+        for (Puzzle puzzle : puzzleSet) {
+            for (Hint hint : puzzle.getHints()) {
+                hint.reset();
+            }
+        }
+        progressList.clear();
+        progressList.add(new Progress());
+        puzzles.reset();
+        game.initializeGame(player, difficulty);
+        attempts = 0;
+        won = false;
+        if (puzzleSet.isEmpty()) {
+            endGame(true);
+        }
+    }
+
+    /**
+     * Returns the puzzle being played.
+     *
+     * @return the current puzzle, or {@code null} before the first game
+     */
+    public Puzzle getCurrentPuzzle() {
+        return puzzles.getCurrentPuzzle();
+    }
+
+    /**
+     * Returns the position of the puzzle being played.
+     *
+     * @return the index into the engine's puzzles
+     */
+    public int getCurrentPuzzleIndex() {
+        return puzzles.getCurrentPuzzleIndex();
+    }
+
+    /**
+     * Answers the current puzzle. A right answer completes it; a wrong one
+     * adds a strike, and the last allowed wrong answer moves play on.
+     * Item puzzles ignore the answer and check the player's inventory
+     * (see {@link #giveItem(Item)}).
+     *
+     * @param answer the answer
+     * @return what happened
+     */
+    public Outcome submitAnswer(String answer) {
+        begin();
+        try {
+            return answer(answer);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Applies an answer.
+     *
+     * @param answer the answer
+     * @return what happened
+     */
+    private Outcome answer(String answer) {
+        if (checkTime()) {
+            return Outcome.GAME_OVER;
+        }
+        game.record(SessionLog.Type.ANSWER, answer);
+        Puzzle current = puzzles.getCurrentPuzzle();
+        boolean correct = current instanceof ItemPuzzle
+                ? ((ItemPuzzle) current).isUnlockedBy(player)
+                : current.isCorrect(answer);
+        if (correct) {
+            game.completePuzzle();
+            advance();
+            return Outcome.CORRECT;
+        }
+        addStrike();
+        attempts++;
+        if (attempts < ATTEMPTS_PER_PUZZLE) {
+            return Outcome.INCORRECT;
+        }
+        advance();
+        return Outcome.OUT_OF_ATTEMPTS;
+    }
+
+    /**
+     * Reveals the current puzzle's next unused hint.
+     *
+     * @return the hint, or {@code null} if none remain or the game is over
+     */
+    public Hint revealHint() {
+        begin();
+        try {
+            if (checkTime()) {
+                return null;
+            }
+            ArrayList<Hint> hints = puzzles.getCurrentPuzzle().getHints();
+            for (int i = 0; i < hints.size(); i++) {
+                if (!hints.get(i).isUsed()) {
+                    return puzzles.revealHint(i);
+                }
+            }
+            return null;
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Skips the current puzzle, adding a strike, and moves to the next one.
+     *
+     * @return {@code true} if there is another puzzle; {@code false} if the game ended
+     */
+    public boolean skip() {
+        begin();
+        try {
+            if (checkTime()) {
+                return false;
+            }
+            addStrike();
+            advance();
+            return !game.isOver();
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Adds an item to the player's inventory, for item puzzles.
+     *
+     * @param item the item
+     */
+    public void giveItem(Item item) {
+        if (item == null) {
+            return;
+        }
+        begin();
+        try {
+            progressList.get(progressList.size() - 1).addItem(item);
+            game.record(SessionLog.Type.ITEM, item.getName());
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Pauses the game's timer.
+     */
+    public void pause() {
+        begin();
+        try {
+            game.pause();
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Resumes the game's timer.
+     */
+    public void resume() {
+        begin();
+        try {
+            game.resume();
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Gives up the current game.
+     */
+    public void quit() {
+        begin();
+        try {
+            if (!game.isOver()) {
+                endGame(false);
+            }
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Indicates whether the game has ended, checking the clock first.
+     *
+     * @return {@code true} if the game is over
+     */
+    public boolean isOver() {
+        checkTime();
+        return game.isOver();
+    }
+
+    /**
+     * Indicates whether the game ended with every puzzle completed.
+     *
+     * @return {@code true} if the game was won
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Recalculates and returns the score.
+     *
+     * @return the current score
+     */
+    public int getScore() {
+        return game.calculateScore();
+    }
+
+    /**
+     * Returns the number of puzzles completed in this game.
+     *
+     * @return the completed count
+     */
+    public int getCompletedCount() {
+        return game.getCompletedCount();
+    }
+
+    /**
+     * Returns the number of strikes in this game.
+     *
+     * @return the strike count
+     */
+    public int getStrikes() {
+        return progress().getStrikes();
+    }
+
+    /**
+     * Returns the number of hints revealed in this game.
+     *
+     * @return the hint count
+     */
+    public int getHintsUsed() {
+        return progress().getHintsUsed();
+    }
+
+    /**
+     * Returns the wrong answers given to the current puzzle.
+     *
+     * @return the attempts used, below {@link #ATTEMPTS_PER_PUZZLE}
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns the active play time.
+     *
+     * @return elapsed time in nanoseconds, excluding pauses
+     */
+    public long getElapsedNanos() {
+        return game.getElapsedNanos();
+    }
+
+    /**
+     * Returns the time left before the time limit.
+     *
+     * @return remaining time in nanoseconds; never negative
+     */
+    public long getRemainingNanos() {
+        return game.getRemainingNanos();
+    }
+
+    /**
+     * Returns the engine's game. It is changed by the engine's calls only.
+     *
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the engine's player, who is not registered with {@link Players}.
+     *
+     * @return the player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Turns recording on or off, starting with the next game.
+     *
+     * @param recording {@code true} to record each game's steps
+     */
+    public void setRecording(boolean recording) {
+        game.setRecording(recording);
+    }
+
+    /** @return {@code true} if games are recorded */
+    public boolean isRecording() {
+        return game.isRecording();
+    }
+
+    /**
+     * Returns the current game's steps so far.
+     *
+     * @return the log, or {@code null} if the game is not recorded
+     */
+    public SessionLog getLog() {
+        return game.getLog();
+    }
+
+    /**
+     * Applies one recorded step, read at the clock's current time. Steps are
+     * applied as they were recorded, without the engine's rules: answers are
+     * ignored, because what they led to is recorded as steps of its own, and
+     * hints and strikes are counted without revealing puzzle hints.
+     *
+     * @param event the step
+     * @throws IllegalArgumentException if the step cannot be applied
+     */
+    void apply(SessionLog.Event event) {
+        switch (event.getType()) {
+            case START:
+                start(Game.Difficulty.valueOf(event.getArgument()));
+                return;
+            case ANSWER:
+                return;
+            default:
+                break;
+        }
+        begin();
+        try {
+            switch (event.getType()) {
+                case HINT:
+                    for (int i = event.getCount(); i > 0; i--) {
+                        Hint hint = new Hint("", 0);
+                        hint.use();
+                        progressList.get(progressList.size() - 1).addHint(hint);
+                    }
+                    break;
+                case STRIKE:
+                    progress().setStrikes(Math.max(0, progress().getStrikes() + event.getCount()));
+                    break;
+                case ITEM:
+                    progressList.get(progressList.size() - 1).addItem(new Item(event.getArgument(), "", "", null));
+                    break;
+                case COMPLETE:
+                    game.completePuzzle();
+                    break;
+                case NEXT:
+                    game.nextPuzzle();
+                    break;
+                case PAUSE:
+                    game.pause();
+                    break;
+                case RESUME:
+                    game.resume();
+                    break;
+                case END:
+                    if (!game.isOver()) {
+                        boolean successful = "won".equals(event.getArgument());
+                        endGame(successful);
+                        won = successful && game.getCompletedCount() == puzzleSet.size();
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown event: " + event.getType());
+            }
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Moves to the next puzzle, ending the game after the last one.
+     */
+    private void advance() {
+        attempts = 0;
+        if (!game.isOver() && !game.nextPuzzle()) {
+            won = game.getCompletedCount() == puzzleSet.size();
+        }
+    }
+
+    /**
+     * Ends the game now.
+     *
+     * @param successful whether every puzzle was completed
+     */
+    private void endGame(boolean successful) {
+        won = successful;
+        game.endGame(successful);
+    }
+
+    /**
+     * Ends the game if its time is up.
+     *
+     * @return {@code true} if the game is over or has not been started
+     */
+    private boolean checkTime() {
+        if (puzzles.getCurrentPuzzle() == null) {
+            return true;
+        }
+        if (!game.isOver() && game.isTimeUp()) {
+            endGame(false);
+        }
+        return game.isOver();
+    }
+
+    /**
+     * Returns the time the game sees: the running input's reading, or the
+     * clock's between inputs.
+     *
+     * @return the reading in nanoseconds
+     */
+    private long now() {
+        return inInput ? inputNanos : source.nanoTime();
+    }
+
+    /**
+     * Starts an input: reads the clock once for the whole input.
+     */
+    private void begin() {
+        inputNanos = source.nanoTime();
+        inInput = true;
+    }
+
+    /**
+     * Ends an input.
+     */
+    private void finish() {
+        inInput = false;
+    }
+
+    /**
+     * Adds one strike to the current game.
+     */
+    private void addStrike() {
+        Progress progress = progress();
+        progress.setStrikes(progress.getStrikes() + 1);
+        game.record(SessionLog.Type.STRIKE, null);
+    }
+
+    /**
+     * Returns the current game's progress record.
+     *
+     * @return the progress
+     */
+    private Progress progress() {
+        return progressList.get(0);
+    }
+}
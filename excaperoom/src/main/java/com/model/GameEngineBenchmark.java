@@ -0,0 +1,104 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GameEngineBenchmark
+ * <p>
+ * Plays simulated games on {@link GameEngine}s in virtual time and reports
+ * games per second and the resulting scores. Each simulated player thinks for
+ * a random 5 to 60 seconds per answer, answers right with probability
+ * {@code skill}, and reveals a hint after each wrong answer. Puzzles come from
+ * the {@link PuzzleCatalog}, or are generated trivia questions if it is empty.
+ * <p>
+ * Usage: {@code GameEngineBenchmark [games] [threads] [skill]} (defaults: 100000, 1, 0.7).
+ */
+public class GameEngineBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        double skill = args.length > 2 ? Double.parseDouble(args[2]) : 0.7;
+
+        System.out.println("=== GameEngineBenchmark ===");
+        System.out.printf("games: %,d   threads: %d   skill: %.2f%n", games, threads, skill);
+
+        AtomicLong won = new AtomicLong();
+        AtomicLong scoreTotal = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        long begin = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int share = games / threads + (t < games % threads ? 1 : 0);
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                AtomicLong now = new AtomicLong();
+                GameEngine engine = new GameEngine(puzzleSet(), now::get);
+                for (int i = 0; i < share; i++) {
+                    engine.start(Game.Difficulty.values()[random.nextInt(Game.Difficulty.values().length)]);
+                    while (!engine.isOver()) {
+                        now.addAndGet((5 + random.nextInt(56)) * GameTimer.NANOS_PER_SECOND);
+                        if (random.nextDouble() < skill) {
+                            engine.submitAnswer(answerTo(engine.getCurrentPuzzle()));
+                        } else if (engine.submitAnswer("") == GameEngine.Outcome.INCORRECT) {
+                            engine.revealHint();
+                        }
+                    }
+                    if (engine.isWon()) {
+                        won.incrementAndGet();
+                    }
+                    scoreTotal.addAndGet(engine.getScore());
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedNs = System.nanoTime() - begin;
+
+        System.out.printf("played %,d games in %,d ms   (%,.0f games/s)%n",
+                games, elapsedNs / 1_000_000, games * 1e9 / elapsedNs);
+        System.out.printf("won %.1f%%   average score %,.1f%n",
+                100.0 * won.get() / Math.max(1, games), (double) scoreTotal.get() / Math.max(1, games));
+    }
+
+    /**
+     * Returns a fresh puzzle set for one engine.
+     *
+     * @return the catalog's puzzles, or ten generated trivia questions
+     */
+    private static ArrayList<Puzzle> puzzleSet() {
+        ArrayList<Puzzle> set = PuzzleCatalog.getInstance().newPuzzleSet();
+        if (set.isEmpty()) {
+            for (int i = 0; i < 10; i++) {
+                Trivia trivia = new Trivia();
+                trivia.setTriviaText("Question " + i);
+                trivia.setCorrectAnswer("answer" + i);
+                trivia.addHint(new Hint("hint " + i, 5, trivia));
+                set.add(trivia);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns the right answer to a puzzle, as a player who knows it would give it.
+     *
+     * @param puzzle the puzzle
+     * @return the answer; empty for puzzles the benchmark cannot answer
+     */
+    private static String answerTo(Puzzle puzzle) {
+        if (puzzle instanceof Trivia) return ((Trivia) puzzle).getCorrectAnswer();
+        if (puzzle instanceof Riddle) return ((Riddle) puzzle).getCorrectAnswer();
+        if (puzzle instanceof Cipher) return ((Cipher) puzzle).getCorrectAnswer();
+        if (puzzle instanceof MultipleChoice) return ((MultipleChoice) puzzle).getCorrectAnswer();
+        if (puzzle instanceof PixelHunt) {
+            PixelHunt hunt = (PixelHunt) puzzle;
+            return hunt.getCorrectX() + "," + hunt.getCorrectY();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,275 @@
+package com.model;
+
+import java.util.ArrayList;
+
+/**
+ * One player's game within a multi-session process.
+ * <p>
+ * The singleton {@link EscapeGameFacade} drives one game per JVM through the
+ * shared {@link Game}, {@link PuzzlesManager} and {@link Players#getCurrentPlayer()}.
+ * A session instead owns:
+ * <ul>
+ *     <li>its {@link Player}, taken from the shared {@link Players} store;</li>
+ *     <li>its own {@link Game} (timer, score, difficulty);</li>
+ *     <li>its own {@link PuzzlesManager} over a private copy of the puzzles,
+ *         so the current puzzle and used hints are not shared with other sessions.</li>
+ * </ul>
+ * A session's games are recorded and written to the {@link SessionStore}
+ * when they end.
+ * Sessions are created and looked up through {@link SessionRegistry}. Every
+ * method is synchronized, so a session may be driven from any thread, but it
+ * is meant to serve one client at a time. Changes to the player's progress
+ * also hold the player's {@link PlayerStore} stripe, so a save running on
+ * another thread never serializes them half-done; saves are requested after
+ * the stripe is released.
+ */
+public class GameSession {
+
+    /** Identifier clients use to address this session. */
+    private final String sessionId;
+
+    /** The session's player. */
+    private final Player player;
+
+    /** The session's puzzles and puzzle cursor. */
+    private final PuzzlesManager puzzles;
+
+    /** The session's game state. */
+    private final Game game;
+
+    /** Time of creation, in milliseconds since the epoch. */
+    private final long createdAt;
+
+    /** Time of the last call made through the registry, in milliseconds since the epoch. */
+    private volatile long lastAccess;
+
+    /**
+     * Creates a session. Use {@link SessionRegistry} rather than calling this directly.
+     *
+     * @param sessionId the session ID
+     * @param player    the session's player
+     * @param puzzleSet the session's own puzzle objects
+     */
+    GameSession(String sessionId, Player player, ArrayList<Puzzle> puzzleSet) {
+        this.sessionId = sessionId;
+        this.player = player;
+        this.puzzles = new PuzzlesManager(puzzleSet, player);
+        this.game = new Game(puzzles);
+        this.game.setRecording(true);
+        this.game.setSessionStore(SessionStore.getInstance());
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccess = createdAt;
+    }
+
+    /**
+     * Starts (or restarts) the game at the first puzzle.
+     *
+     * @param difficulty the selected difficulty level
+     */
+    public synchronized void start(Game.Difficulty difficulty) {
+        synchronized (playerLock()) {
+            puzzles.reset();
+            game.initializeGame(player, difficulty);
+        }
+        save();
+    }
+
+    /**
+     * Returns the puzzle currently being played.
+     *
+     * @return the current puzzle, or {@code null} if the game has not started
+     *         or there are no puzzles
+     */
+    public synchronized Puzzle getCurrentPuzzle() {
+        return puzzles.getCurrentPuzzle();
+    }
+
+    /**
+     * Checks an answer against the current puzzle.
+     * <p>
+     * Item puzzles are checked against this session's player's inventory.
+     *
+     * @param answer the answer to check
+     * @return {@code true} if the answer is correct
+     */
+    public synchronized boolean submitAnswer(String answer) {
+        Puzzle current = puzzles.getCurrentPuzzle();
+        if (current instanceof ItemPuzzle) {
+            return PlayerStore.getInstance().hasItem(player, ((ItemPuzzle) current).getRequiredItemName());
+        }
+        return puzzles.submitAnswer(answer);
+    }
+
+    /**
+     * Records the current puzzle as completed and moves to the next one.
+     * The game ends when the last puzzle is completed.
+     *
+     * @return {@code true} if there is another puzzle; {@code false} if the game ended
+     */
+    public synchronized boolean completePuzzle() {
+        if (puzzles.getCurrentPuzzle() == null || game.isOver()) {
+            return false;
+        }
+        boolean hasNext;
+        synchronized (playerLock()) {
+            game.completePuzzle();
+            hasNext = !game.isOver() && game.nextPuzzle();
+        }
+        save();
+        return hasNext;
+    }
+
+    /**
+     * Skips the current puzzle, adding a strike, and moves to the next one.
+     *
+     * @return {@code true} if there is another puzzle; {@code false} if the game ended
+     */
+    public synchronized boolean skipPuzzle() {
+        if (puzzles.getCurrentPuzzle() == null || game.isOver()) {
+            return false;
+        }
+        boolean hasNext;
+        synchronized (playerLock()) {
+            puzzles.skipCurrentPuzzle();
+            hasNext = game.nextPuzzle();
+        }
+        save();
+        return hasNext;
+    }
+
+    /**
+     * Reveals the next unused hint of the current puzzle.
+     *
+     * @return the hint, or {@code null} if none remain
+     */
+    public synchronized Hint revealHint() {
+        Hint hint;
+        synchronized (playerLock()) {
+            hint = puzzles.revealHint();
+        }
+        if (hint != null) {
+            save();
+        }
+        return hint;
+    }
+
+    /**
+     * Pauses the session's timer.
+     */
+    public synchronized void pause() {
+        game.pause();
+    }
+
+    /**
+     * Resumes the session's timer.
+     */
+    public synchronized void resume() {
+        game.resume();
+    }
+
+    /**
+     * Returns the time left before the session's time limit.
+     *
+     * @return remaining time in seconds
+     */
+    public synchronized long getRemainingTime() {
+        return game.getRemainingTime();
+    }
+
+    /**
+     * Recalculates and returns the session's score.
+     *
+     * @return the current score
+     */
+    public synchronized int getScore() {
+        return game.calculateScore();
+    }
+
+    /**
+     * Indicates whether the session's game has ended.
+     *
+     * @return {@code true} if the game is over
+     */
+    public synchronized boolean isOver() {
+        return game.isOver();
+    }
+
+    /**
+     * Requests a save of this session's player through the {@link SaveCoalescer}.
+     */
+    public void save() {
+        SaveCoalescer.getInstance().requestSave(player);
+    }
+
+    /**
+     * Returns the {@link PlayerStore} stripe guarding this session's player.
+     *
+     * @return the stripe lock
+     */
+    private Object playerLock() {
+        return PlayerStore.getInstance().lockFor(player);
+    }
+
+    /**
+     * Returns the session ID.
+     *
+     * @return the session ID
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the session's player.
+     *
+     * @return the player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the session's game. Callers other than this class should
+     * synchronize on the session while using it.
+     *
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the session's puzzle manager. Callers other than this class
+     * should synchronize on the session while using it.
+     *
+     * @return the puzzle manager
+     */
+    public PuzzlesManager getPuzzlesManager() {
+        return puzzles;
+    }
+
+    /**
+     * Returns when the session was created.
+     *
+     * @return creation time in milliseconds since the epoch
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns when the session was last looked up through the registry.
+     *
+     * @return last access time in milliseconds since the epoch
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Records an access to the session.
+     */
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,195 @@
+package com.model;
+
+/**
+ * Measures a game's active play time on a monotonic clock.
+ * <p>
+ * {@link Game} used to keep its time as {@code Instant}s and
+ * {@code Duration}s. That allocated objects on every reading. Each pause was
+ * rounded down to whole seconds, so many short pauses added up to time that
+ * was never charged. Setting the computer's clock forward or back changed
+ * the elapsed time too. This timer instead keeps plain {@code long}
+ * nanosecond readings of a {@link TimeSource}, by default
+ * {@link System#nanoTime()}:
+ * <ul>
+ *     <li>Readings never allocate, and pauses are subtracted to the nanosecond.</li>
+ *     <li>The source only ever moves forward, so wall-clock changes have no effect.</li>
+ *     <li>Tests and simulations can pass their own source and run in virtual time.</li>
+ * </ul>
+ * Fields are volatile so that {@link GameClock}'s thread can read a game's
+ * time while the game's own thread changes it; changes are made by one
+ * thread at a time.
+ */
+public class GameTimer {
+
+    /** Nanoseconds per second. */
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * A monotonic source of nanosecond readings. Only differences between
+     * readings mean anything.
+     */
+    @FunctionalInterface
+    public interface TimeSource {
+
+        /** The system's monotonic clock. */
+        TimeSource SYSTEM = System::nanoTime;
+
+        /**
+         * Returns the current reading.
+         *
+         * @return nanoseconds since an arbitrary origin
+         */
+        long nanoTime();
+    }
+
+    /** Where readings come from. */
+    private volatile TimeSource source;
+
+    /** Source set by {@link #setTimeSource(TimeSource)}, used from the next {@link #start()}. */
+    private volatile TimeSource pendingSource;
+
+    /** Whether {@link #start()} has been called. */
+    private volatile boolean started;
+
+    /** Reading when the timer started. */
+    private volatile long startNanos;
+
+    /** Whether the timer is stopped for good. */
+    private volatile boolean stopped;
+
+    /** Reading when the timer stopped. */
+    private volatile long stopNanos;
+
+    /** Whether the timer is paused. */
+    private volatile boolean paused;
+
+    /** Reading when the current pause began. */
+    private volatile long pauseStartNanos;
+
+    /** Total length of the pauses that have ended. */
+    private volatile long pausedNanos;
+
+    /**
+     * Creates a timer reading {@link System#nanoTime()}.
+     */
+    public GameTimer() {
+        this(TimeSource.SYSTEM);
+    }
+
+    /**
+     * Creates a timer reading a given source.
+     *
+     * @param source the time source
+     */
+    public GameTimer(TimeSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Starts (or restarts) timing from zero.
+     */
+    public void start() {
+        TimeSource next = pendingSource;
+        if (next != null) {
+            source = next;
+            pendingSource = null;
+        }
+        startNanos = source.nanoTime();
+        pausedNanos = 0;
+        paused = false;
+        stopped = false;
+        started = true;
+    }
+
+    /**
+     * Pauses the timer. Does nothing if it is not running.
+     */
+    public void pause() {
+        if (started && !paused && !stopped) {
+            pauseStartNanos = source.nanoTime();
+            paused = true;
+        }
+    }
+
+    /**
+     * Resumes a paused timer; the pause does not count as elapsed time.
+     */
+    public void resume() {
+        if (paused) {
+            pausedNanos += source.nanoTime() - pauseStartNanos;
+            paused = false;
+        }
+    }
+
+    /**
+     * Stops the timer for good; the elapsed time stays as it is now.
+     */
+    public void stop() {
+        if (started && !stopped) {
+            stopNanos = source.nanoTime();
+            stopped = true;
+        }
+    }
+
+    /**
+     * Returns the active time since {@link #start()}, not counting pauses.
+     *
+     * @return the elapsed time in nanoseconds; {@code 0} if never started
+     */
+    public long elapsedNanos() {
+        if (!started) {
+            return 0;
+        }
+        long now = stopped ? stopNanos : source.nanoTime();
+        long pausedTotal = pausedNanos;
+        if (paused) {
+            // a pause that outlasted the stop only counts up to the stop
+            pausedTotal += Math.max(0, now - pauseStartNanos);
+        }
+        return Math.max(0, now - startNanos - pausedTotal);
+    }
+
+    /**
+     * Returns the active time in whole seconds.
+     *
+     * @return the elapsed seconds, rounded down
+     */
+    public long elapsedSeconds() {
+        return elapsedNanos() / NANOS_PER_SECOND;
+    }
+
+    /** @return {@code true} once started */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /** @return {@code true} while paused */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /** @return {@code true} once stopped */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Returns the time source in use.
+     *
+     * @return the source readings come from
+     */
+    public TimeSource getTimeSource() {
+        return source;
+    }
+
+    /**
+     * Changes the time source, starting from the next {@link #start()}.
+     * Timing already under way keeps its source, since readings of two
+     * sources cannot be subtracted from each other.
+     *
+     * @param source the new source
+     */
+    public void setTimeSource(TimeSource source) {
+        this.pendingSource = source;
+    }
+}
@@ -119,11 +119,24 @@ public class Hint {
      * Progress is saved only if this is the first time the hint is marked used.
      */
     public void markUsed() {
-        if (!used) {
-            used = true;
+        if (use()) {
             EscapeGameFacade.getInstance().saveProgress();
         }
     }
+
+    /**
+     * Marks this hint as used without saving progress. Used by {@link GameSession},
+     * which saves its own player's progress instead of the facade's.
+     *
+     * @return {@code true} if the hint was not used before
+     */
+    boolean use() {
+        if (used) {
+            return false;
+        }
+        used = true;
+        return true;
+    }
     
     /**
      * Resets the hint to an unused state.
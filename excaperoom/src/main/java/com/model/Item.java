@@ -119,7 +119,7 @@ public class Item {
             return false;
         }
         
-        progress.getInventory().add(this);
+        progress.addItem(this);
         System.out.println(name + " added to inventory");
         
         if (sound != null && sound.exists()) {
@@ -100,13 +100,23 @@ public class ItemPuzzle extends Puzzle {
      */
     @Override
     public boolean checkAnswer(String answer) {
-        Player currentPlayer = Players.getInstance().getCurrentPlayer();
-        if (currentPlayer != null &&
-            currentPlayer.getProgress() != null &&
-            !currentPlayer.getProgress().isEmpty()) {
+        return isUnlockedBy(Players.getInstance().getCurrentPlayer());
+    }
+
+    /**
+     * Determines whether a given player has the required item in the
+     * inventory of their most recent {@link Progress}.
+     *
+     * @param player the player whose inventory is searched; may be {@code null}
+     * @return {@code true} if the player has the required item; {@code false} otherwise
+     */
+    public boolean isUnlockedBy(Player player) {
+        if (player != null &&
+            player.getProgress() != null &&
+            !player.getProgress().isEmpty()) {
 
-            Progress progress = currentPlayer.getProgress().get(
-                    currentPlayer.getProgress().size() - 1);
+            Progress progress = player.getProgress().get(
+                    player.getProgress().size() - 1);
 
             for (Item item : progress.getInventory()) {
                 if (item.getName().equalsIgnoreCase(requiredItemName)) {
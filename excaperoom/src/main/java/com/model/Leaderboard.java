@@ -1,8 +1,13 @@
 package com.model;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Manages all leaderboard data for the escape room game.
@@ -12,22 +17,85 @@ import java.util.Comparator;
  * primarily by total score (descending) and secondarily by completion time
  * (ascending).
  * <p>
+ * Entries are partitioned by difficulty. Each partition holds its entries in
+ * a {@link LeaderboardIndex}, an order-statistic tree, plus a
+ * {@link LeaderboardTopK} of its best {@value #TOP_K} entries, and each
+ * player's best entry is kept in a map. Adding a score and looking up a rank
+ * cost O(log n); the top N of one difficulty is a copy of its top-K list.
+ * The overall ranking is not stored separately: it is a k-way merge of the
+ * partitions, computed for as many entries as are asked for.
+ * <p>
+ * Besides the all-time board, {@link LeaderboardWindows} keeps daily and
+ * weekly boards in rolling day buckets; see {@link #getTopEntries(Window, Game.Difficulty, int)}.
+ * <p>
+ * Entries are persisted in {@link LeaderboardStore}'s append-only file, read
+ * the first time the leaderboard is used rather than when it is created.
+ * Only if that file does not exist yet are entries derived from the players'
+ * stored scores, as before; the first score added then writes them all to
+ * the file.
+ * <p>
+ * Reads do not lock. After every change the leaderboard publishes an
+ * immutable {@link LeaderboardSnapshot} through an {@link AtomicReference},
+ * and every read method answers from the latest one; callers that make
+ * several queries (a screen showing a count and a page) should take
+ * {@link #snapshot()} once so all answers come from the same version.
+ * Writers synchronize on the leaderboard and build the next snapshot on the
+ * side: the index trees share their unchanged nodes, so only the top-K lists
+ * are copied.
+ * <p>
  * The leaderboard supports:
  * <ul>
  *     <li>Adding new scores</li>
  *     <li>Retrieving top N entries</li>
  *     <li>Filtering by difficulty</li>
- *     <li>Determining a player’s best score and rank</li>
+ *     <li>Determining a player’s best score, rank and percentile</li>
+ *     <li>Score medians and histograms, overall and per difficulty</li>
  *     <li>Displaying formatted leaderboards</li>
  * </ul>
  */
 public class Leaderboard {
 
     /** Singleton instance of the leaderboard. */
-    private static Leaderboard instance;
+    private static volatile Leaderboard instance;
+
+    /** Number of entries kept in each partition's top-K list. */
+    public static final int TOP_K = LeaderboardTopK.DEFAULT_CAPACITY;
+
+    /** Width, in points, of the buckets of the score histograms. */
+    public static final int HISTOGRAM_BUCKET_WIDTH = 100;
 
-    /** List of all leaderboard entries, sorted automatically when modified. */
-    private ArrayList<LeaderboardEntry> entries;
+    /** Entries by difficulty; entries without a difficulty are under {@code null}. */
+    private final HashMap<Game.Difficulty, Partition> partitions;
+
+    /** Insertion counter shared by the partitions, so ties merge in insertion order. */
+    private long nextSeq;
+
+    /** Daily and weekly boards. */
+    private final LeaderboardWindows windows;
+
+    /**
+     * Time windows a leaderboard can be viewed for.
+     */
+    public enum Window {
+        /** Entries recorded today. */
+        DAILY,
+        /** Entries recorded today or in the six days before. */
+        WEEKLY,
+        /** Every entry. */
+        ALL_TIME
+    }
+
+    /** Each player's best entry, keyed by display name. */
+    private final HashMap<String, LeaderboardEntry> bestByPlayer;
+
+    /** Whether the stored entries have been read. */
+    private boolean loaded;
+
+    /** The latest published snapshot; {@code null} until the stored entries have been read. */
+    private final AtomicReference<LeaderboardSnapshot> published;
+
+    /** Version of the latest published snapshot. */
+    private long version;
 
     /**
      * Represents a single player's leaderboard record.
@@ -79,6 +147,27 @@ public class Leaderboard {
         /** @return ISO timestamp representing when the entry was recorded */
         public String getTimestamp() { return timestamp; }
 
+        /**
+         * Constructs a leaderboard entry recorded at a given time, for entries
+         * read back from storage.
+         *
+         * @param playerName        the player's display name
+         * @param score             the player's final score
+         * @param puzzlesCompleted  number of puzzles solved
+         * @param timeTaken         total time taken (in seconds)
+         * @param difficulty        game difficulty level
+         * @param timestamp         ISO timestamp of when the entry was recorded
+         */
+        public LeaderboardEntry(String playerName, int score, int puzzlesCompleted,
+                                long timeTaken, Game.Difficulty difficulty, String timestamp) {
+            this.playerName = playerName;
+            this.score = score;
+            this.puzzlesCompleted = puzzlesCompleted;
+            this.timeTaken = timeTaken;
+            this.difficulty = difficulty;
+            this.timestamp = timestamp;
+        }
+
         /**
          * Returns a formatted summary of the leaderboard entry.
          */
@@ -91,13 +180,34 @@ public class Leaderboard {
         }
     }
 
+    /**
+     * The entries of one difficulty.
+     */
+    private static final class Partition {
+        /** Every entry of this difficulty, in leaderboard order. */
+        private LeaderboardIndex index = new LeaderboardIndex();
+        /** The best {@link #TOP_K} entries of this difficulty. */
+        private final LeaderboardTopK top = new LeaderboardTopK(TOP_K);
+        /** The scores of this difficulty. */
+        private final ScoreHistogram histogram = new ScoreHistogram(HISTOGRAM_BUCKET_WIDTH);
+
+        private void add(LeaderboardEntry entry, long seq) {
+            index.add(entry, seq);
+            top.offer(entry, seq);
+            histogram.add(entry.getScore());
+        }
+    }
+
     /**
      * Private constructor to enforce singleton instance.
-     * Initializes the leaderboard and loads data from player progress files.
+     * Stored entries are read on first use; see {@link #ensureLoaded()}.
      */
     private Leaderboard() {
-        this.entries = new ArrayList<>();
-        loadLeaderboard();
+        this.partitions = new HashMap<>();
+        this.windows = new LeaderboardWindows(TOP_K);
+        this.bestByPlayer = new HashMap<>();
+        this.loaded = false;
+        this.published = new AtomicReference<>();
     }
 
     /**
@@ -106,14 +216,55 @@ public class Leaderboard {
      * @return the global {@code Leaderboard} instance
      */
     public static Leaderboard getInstance() {
-        if (instance == null) {
-            instance = new Leaderboard();
+        Leaderboard result = instance;
+        if (result == null) {
+            synchronized (Leaderboard.class) {
+                result = instance;
+                if (result == null) {
+                    result = new Leaderboard();
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
     /**
-     * Adds a new score entry to the leaderboard and resorts the list.
+     * Returns the latest snapshot of the leaderboard. Once the stored entries
+     * have been read this is a single volatile read: no lock and no copying.
+     * The snapshot never changes; call again to see later scores.
+     *
+     * @return the current snapshot
+     */
+    public LeaderboardSnapshot snapshot() {
+        LeaderboardSnapshot current = published.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            ensureLoaded();
+            return published.get();
+        }
+    }
+
+    /**
+     * Publishes a snapshot of the current entries. Called with the lock held
+     * after every change.
+     */
+    private void publish() {
+        HashMap<Game.Difficulty, LeaderboardIndex> indexes = new HashMap<>();
+        HashMap<Game.Difficulty, LeaderboardTopK> tops = new HashMap<>();
+        HashMap<Game.Difficulty, ScoreHistogram> histograms = new HashMap<>();
+        for (Map.Entry<Game.Difficulty, Partition> partition : partitions.entrySet()) {
+            indexes.put(partition.getKey(), partition.getValue().index.copy());
+            tops.put(partition.getKey(), new LeaderboardTopK(partition.getValue().top));
+            histograms.put(partition.getKey(), new ScoreHistogram(partition.getValue().histogram));
+        }
+        published.set(new LeaderboardSnapshot(++version, indexes, tops, windows.copy(), histograms));
+    }
+
+    /**
+     * Adds a new score entry to the leaderboard in its ranked position.
      *
      * @param playerName        the player's name
      * @param score             final score earned
@@ -121,16 +272,196 @@ public class Leaderboard {
      * @param timeTaken         total time taken (seconds)
      * @param difficulty        difficulty setting
      */
-    public void addScore(String playerName, int score, int puzzlesCompleted,
-                         long timeTaken, Game.Difficulty difficulty) {
-        LeaderboardEntry entry = new LeaderboardEntry(
-                playerName, score, puzzlesCompleted, timeTaken, difficulty);
-        entries.add(entry);
-        sortLeaderboard();
+    public synchronized void addScore(String playerName, int score, int puzzlesCompleted,
+                                      long timeTaken, Game.Difficulty difficulty) {
+        add(new LeaderboardEntry(playerName, score, puzzlesCompleted, timeTaken, difficulty));
+    }
+
+    /**
+     * Adds an entry to the board and the stored file.
+     *
+     * @param entry the new entry
+     */
+    private synchronized void add(LeaderboardEntry entry) {
+        ensureLoaded();
+        insert(entry);
+        publish();
+
+        LeaderboardStore store = LeaderboardStore.getInstance();
+        if (store.exists()) {
+            store.append(entry);
+        } else {
+            // first save: keep any entries derived from player data too
+            store.rewrite(published.get().entries(null));
+        }
+    }
+
+    /**
+     * Replaces the entries of rescored games, in memory and in the stored
+     * file, and keeps every other entry as it is.
+     * <p>
+     * Used by {@link ScoreRescorer} after scores are recomputed. A rescored
+     * entry replaces the entry of the same game: same player, difficulty and
+     * timestamp. Entries added by {@link #addCurrentGameScore(Game)} are dated
+     * when the game started, as its recording is. Rescored games that have no
+     * entry, and entries that have no recording, are left as they are. The
+     * board is rebuilt in its current order, so entries keep their ranks
+     * among each other unless their scores changed.
+     *
+     * @param rescored the rescored games' entries
+     * @return the number of entries replaced
+     */
+    public synchronized int replaceGames(List<LeaderboardEntry> rescored) {
+        ensureLoaded();
+        HashMap<String, LeaderboardEntry> byGame = new HashMap<>();
+        for (LeaderboardEntry entry : rescored) {
+            byGame.put(gameKey(entry), entry);
+        }
+        ArrayList<LeaderboardEntry> entries = published.get().entries(null);
+        int replaced = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardEntry entry = byGame.remove(gameKey(entries.get(i)));
+            if (entry != null) {
+                entries.set(i, entry);
+                replaced++;
+            }
+        }
+        if (replaced > 0) {
+            rebuild(entries);
+        }
+        return replaced;
+    }
+
+    /**
+     * Returns the key that identifies the game an entry was made for.
+     *
+     * @param entry the entry
+     * @return the player, difficulty and timestamp of the entry
+     */
+    private static String gameKey(LeaderboardEntry entry) {
+        return entry.getPlayerName() + '\n' + entry.getDifficulty() + '\n' + entry.getTimestamp();
     }
 
     /**
-     * Adds the current game's results to the leaderboard.
+     * Replaces every entry, in memory and in the stored file, in one pass.
+     * <p>
+     * The entries are sorted once, in parallel, and each difficulty's index
+     * is built from its sorted run in linear time; adding millions of
+     * entries through {@link #addScore} would instead publish and append
+     * once per entry. Readers keep seeing the previous snapshot until the
+     * new one is published.
+     *
+     * @param entries the new entries; their order is their insertion order,
+     *                which breaks ties between equal scores and times
+     */
+    synchronized void rebuild(List<LeaderboardEntry> entries) {
+        removeAll();
+        loaded = true;
+        LeaderboardEntry[] all = entries.toArray(new LeaderboardEntry[0]);
+        Integer[] order = new Integer[all.length];
+        for (int i = 0; i < all.length; i++) {
+            order[i] = i;
+        }
+        // by difficulty, then in leaderboard order within each difficulty
+        Arrays.parallelSort(order, (a, b) -> {
+            int byDifficulty = Integer.compare(ordinal(all[a]), ordinal(all[b]));
+            return byDifficulty != 0 ? byDifficulty : LeaderboardIndex.compare(all[a], a, all[b], b);
+        });
+        LeaderboardEntry[] run = new LeaderboardEntry[all.length];
+        long[] seqs = new long[all.length];
+        int start = 0;
+        while (start < order.length) {
+            Game.Difficulty difficulty = all[order[start]].getDifficulty();
+            Partition partition = new Partition();
+            int count = 0;
+            while (start + count < order.length && all[order[start + count]].getDifficulty() == difficulty) {
+                int position = order[start + count];
+                run[count] = all[position];
+                seqs[count] = position;
+                if (count < TOP_K) {
+                    partition.top.offer(all[position], position);
+                }
+                partition.histogram.add(all[position].getScore());
+                count++;
+            }
+            partition.index = LeaderboardIndex.fromSorted(run, seqs, count);
+            partitions.put(difficulty, partition);
+            start += count;
+        }
+        for (int i = 0; i < all.length; i++) {
+            windows.add(all[i], i);
+            updateBest(all[i]);
+        }
+        nextSeq = all.length;
+        publish();
+        LeaderboardStore.getInstance().rewrite(entries);
+    }
+
+    /** Returns a difficulty's sort position, with entries of no difficulty first. */
+    private static int ordinal(LeaderboardEntry entry) {
+        return entry.getDifficulty() == null ? -1 : entry.getDifficulty().ordinal();
+    }
+
+    /**
+     * Reads the stored entries the first time the leaderboard is used.
+     * Falls back to the players' stored scores if no leaderboard file exists.
+     * Called with the lock held; publishes the first snapshot.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        LeaderboardStore store = LeaderboardStore.getInstance();
+        if (store.exists()) {
+            for (LeaderboardEntry entry : store.load()) {
+                insert(entry);
+            }
+        } else {
+            loadLeaderboard();
+        }
+        publish();
+    }
+
+    /**
+     * Drops the entries in memory so they are read again on next use.
+     * Intended for tests and tools that change the leaderboard file.
+     */
+    synchronized void reload() {
+        removeAll();
+        loaded = false;
+        published.set(null);
+    }
+
+    /**
+     * Inserts an entry into the index and updates its player's best entry.
+     *
+     * @param entry the entry to insert
+     */
+    private void insert(LeaderboardEntry entry) {
+        long seq = nextSeq++;
+        partitions.computeIfAbsent(entry.getDifficulty(), difficulty -> new Partition()).add(entry, seq);
+        windows.add(entry, seq);
+        updateBest(entry);
+    }
+
+    /**
+     * Makes an entry its player's best entry if it beats the current one.
+     *
+     * @param entry the newest entry
+     */
+    private void updateBest(LeaderboardEntry entry) {
+        LeaderboardEntry best = bestByPlayer.get(entry.getPlayerName());
+        // same choice as a scan in ranked order: higher score, then lower time, then earlier entry
+        if (best == null || entry.getScore() > best.getScore()
+                || (entry.getScore() == best.getScore() && entry.getTimeTaken() < best.getTimeTaken())) {
+            bestByPlayer.put(entry.getPlayerName(), entry);
+        }
+    }
+
+    /**
+     * Adds the current game's results to the leaderboard, dated when the game
+     * started so {@link #replaceGames(List)} can find the entry again.
      *
      * @param game the completed game whose results are being added
      */
@@ -139,33 +470,15 @@ public class Leaderboard {
             return;
         }
 
-        addScore(
+        Instant started = game.getStartTime();
+        add(new LeaderboardEntry(
                 game.getCurrentPlayer().getDisplayName(),
                 game.getScore(),
                 game.getCompletedCount(),
                 game.getElapsedTime(),
-                game.getDifficulty()
-        );
-    }
-
-    /**
-     * Sorts leaderboard entries by:
-     * <ol>
-     *     <li>Highest score first</li>
-     *     <li>If tied, lowest time first</li>
-     * </ol>
-     */
-    private void sortLeaderboard() {
-        Collections.sort(entries, new Comparator<>() {
-            @Override
-            public int compare(LeaderboardEntry e1, LeaderboardEntry e2) {
-                int scoreCompare = Integer.compare(e2.getScore(), e1.getScore());
-                if (scoreCompare != 0) {
-                    return scoreCompare;
-                }
-                return Long.compare(e1.getTimeTaken(), e2.getTimeTaken());
-            }
-        });
+                game.getDifficulty(),
+                (started != null ? started : Instant.now()).toString()
+        ));
     }
 
     /**
@@ -175,14 +488,33 @@ public class Leaderboard {
      * @return list of up to {@code n} top entries
      */
     public ArrayList<LeaderboardEntry> getTopEntries(int n) {
-        ArrayList<LeaderboardEntry> top = new ArrayList<>();
-        int limit = Math.min(n, entries.size());
+        return snapshot().top(n);
+    }
 
-        for (int i = 0; i < limit; i++) {
-            top.add(entries.get(i));
-        }
+    /**
+     * Retrieves the top N entries of one difficulty. For {@code n} up to
+     * {@link #TOP_K} this is a copy of the partition's top-K list.
+     *
+     * @param difficulty difficulty level to filter by
+     * @param n          number of entries to retrieve
+     * @return list of up to {@code n} top entries of that difficulty
+     */
+    public ArrayList<LeaderboardEntry> getTopEntriesByDifficulty(Game.Difficulty difficulty, int n) {
+        return snapshot().top(difficulty, n);
+    }
 
-        return top;
+    /**
+     * Retrieves the top N entries recorded within a time window, optionally
+     * for one difficulty. The daily and weekly boards keep the best
+     * {@link #TOP_K} entries of each day, so {@code n} is capped at that.
+     *
+     * @param window     the time window
+     * @param difficulty difficulty level to filter by, or {@code null} for all
+     * @param n          number of entries to retrieve
+     * @return list of up to {@code n} top entries
+     */
+    public ArrayList<LeaderboardEntry> getTopEntries(Window window, Game.Difficulty difficulty, int n) {
+        return snapshot().top(window, difficulty, n);
     }
 
     /**
@@ -191,7 +523,7 @@ public class Leaderboard {
      * @return copy of the current leaderboard
      */
     public ArrayList<LeaderboardEntry> getAllEntries() {
-        return new ArrayList<>(entries);
+        return snapshot().entries(null);
     }
 
     /**
@@ -201,15 +533,7 @@ public class Leaderboard {
      * @return list of matching entries
      */
     public ArrayList<LeaderboardEntry> getEntriesByDifficulty(Game.Difficulty difficulty) {
-        ArrayList<LeaderboardEntry> filtered = new ArrayList<>();
-
-        for (LeaderboardEntry entry : entries) {
-            if (entry.getDifficulty() == difficulty) {
-                filtered.add(entry);
-            }
-        }
-
-        return filtered;
+        return snapshot().entries(difficulty);
     }
 
     /**
@@ -218,18 +542,9 @@ public class Leaderboard {
      * @param playerName the player's display name
      * @return best leaderboard entry for that player, or {@code null} if none exist
      */
-    public LeaderboardEntry getPlayerBestScore(String playerName) {
-        LeaderboardEntry best = null;
-
-        for (LeaderboardEntry entry : entries) {
-            if (entry.getPlayerName().equals(playerName)) {
-                if (best == null || entry.getScore() > best.getScore()) {
-                    best = entry;
-                }
-            }
-        }
-
-        return best;
+    public synchronized LeaderboardEntry getPlayerBestScore(String playerName) {
+        ensureLoaded();
+        return bestByPlayer.get(playerName);
     }
 
     /**
@@ -242,23 +557,48 @@ public class Leaderboard {
      * @param playerName the player's name
      * @return the player's rank, or -1 if no entries exist for them
      */
-    public int getPlayerRank(String playerName) {
+    public synchronized int getPlayerRank(String playerName) {
         LeaderboardEntry best = getPlayerBestScore(playerName);
         if (best == null) {
             return -1;
         }
+        return 1 + published.get().countBetterThan(best.getScore(), best.getTimeTaken());
+    }
 
-        int rank = 1;
-        for (LeaderboardEntry entry : entries) {
-            if (entry.getScore() > best.getScore()) {
-                rank++;
-            } else if (entry.getScore() == best.getScore() &&
-                    entry.getTimeTaken() < best.getTimeTaken()) {
-                rank++;
-            }
+    /**
+     * Returns the percentage of entries a player's best entry ranks above,
+     * as in "you beat 87% of players".
+     *
+     * @param playerName the player's name
+     * @return a percentage from 0 to 100, or -1 if no entries exist for them
+     */
+    public synchronized double getPlayerPercentile(String playerName) {
+        LeaderboardEntry best = getPlayerBestScore(playerName);
+        if (best == null) {
+            return -1;
         }
+        return published.get().percentBeaten(best.getScore(), best.getTimeTaken());
+    }
+
+    /**
+     * Returns the median score, overall or for one difficulty.
+     *
+     * @param difficulty difficulty level, or {@code null} for all
+     * @return the median score, or -1 if there are no entries
+     */
+    public int getMedianScore(Game.Difficulty difficulty) {
+        return snapshot().median(difficulty);
+    }
 
-        return rank;
+    /**
+     * Returns a histogram of the scores, overall or for one difficulty, in
+     * buckets {@value #HISTOGRAM_BUCKET_WIDTH} points wide.
+     *
+     * @param difficulty difficulty level, or {@code null} for all
+     * @return the histogram
+     */
+    public ScoreHistogram getScoreHistogram(Game.Difficulty difficulty) {
+        return snapshot().histogram(difficulty);
     }
 
     /**
@@ -267,11 +607,12 @@ public class Leaderboard {
      * @param topN number of entries to display
      */
     public void displayLeaderboard(int topN) {
+        LeaderboardSnapshot snapshot = snapshot();
         System.out.println("\n" + "=".repeat(80));
         System.out.println("                           🏆 LEADERBOARD 🏆");
         System.out.println("=".repeat(80));
 
-        if (entries.isEmpty()) {
+        if (snapshot.size() == 0) {
             System.out.println("No scores yet. Be the first to complete the escape room!");
             System.out.println("=".repeat(80));
             return;
@@ -281,7 +622,7 @@ public class Leaderboard {
                 "Rank", "Player", "Score", "Puzzles", "Time", "Difficulty");
         System.out.println("-".repeat(80));
 
-        ArrayList<LeaderboardEntry> top = getTopEntries(topN);
+        ArrayList<LeaderboardEntry> top = snapshot.top(topN);
 
         for (int i = 0; i < top.size(); i++) {
             LeaderboardEntry entry = top.get(i);
@@ -316,7 +657,7 @@ public class Leaderboard {
         System.out.println("                   🏆 LEADERBOARD - " + difficulty + " 🏆");
         System.out.println("=".repeat(80));
 
-        ArrayList<LeaderboardEntry> filtered = getEntriesByDifficulty(difficulty);
+        ArrayList<LeaderboardEntry> filtered = getTopEntriesByDifficulty(difficulty, topN);
 
         if (filtered.isEmpty()) {
             System.out.println("No scores for " + difficulty + " difficulty yet!");
@@ -365,6 +706,7 @@ public class Leaderboard {
     /**
      * Loads leaderboard data from existing player progress,
      * adding entries for players with non-zero stored scores.
+     * Used only when there is no leaderboard file yet.
      */
     private void loadLeaderboard() {
         Players players = Players.getInstance();
@@ -378,7 +720,7 @@ public class Leaderboard {
                 Progress progress = player.getProgress().get(0);
 
                 if (progress.getCurrentScore() > 0) {
-                    entries.add(new LeaderboardEntry(
+                    insert(new LeaderboardEntry(
                             player.getDisplayName(),
                             progress.getCurrentScore(),
                             0,
@@ -388,13 +730,19 @@ public class Leaderboard {
                 }
             }
         }
+    }
 
-        sortLeaderboard();
+    /** Removes all leaderboard entries from memory; the stored file is left alone. */
+    public synchronized void clearLeaderboard() {
+        removeAll();
+        loaded = true;
+        publish();
     }
 
-    /** Removes all leaderboard entries. */
-    public void clearLeaderboard() {
-        entries.clear();
+    /** Removes all leaderboard entries, including the stored ones. */
+    public synchronized void purge() {
+        clearLeaderboard();
+        LeaderboardStore.getInstance().clear();
     }
 
     /**
@@ -403,6 +751,27 @@ public class Leaderboard {
      * @return leaderboard size
      */
     public int size() {
-        return entries.size();
+        return snapshot().size();
+    }
+
+    /**
+     * Sets the clock the daily and weekly boards use to decide what "today" is.
+     * Intended for tests.
+     *
+     * @param clock the clock
+     */
+    synchronized void setClock(Clock clock) {
+        windows.setClock(clock);
+        if (loaded) {
+            publish();
+        }
+    }
+
+    /** Drops every entry held in memory. */
+    private void removeAll() {
+        partitions.clear();
+        windows.clear();
+        bestByPlayer.clear();
+        nextSeq = 0;
     }
 }
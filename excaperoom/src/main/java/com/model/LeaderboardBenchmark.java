@@ -0,0 +1,79 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * LeaderboardBenchmark
+ * <p>
+ * Compares the previous leaderboard algorithm (re-sort the entry list on every
+ * insert, scan it for a player's best score and rank) with
+ * {@link LeaderboardIndex}. The old algorithm is quadratic in the number of
+ * inserts, so it only runs up to {@code maxLegacy} entries.
+ * <p>
+ * Usage: {@code LeaderboardBenchmark [entries] [maxLegacy]} (defaults: 100000, 20000).
+ */
+public class LeaderboardBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int maxLegacy = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        Random random = new Random(1);
+        ArrayList<LeaderboardEntry> source = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            source.add(new LeaderboardEntry("player" + (i % (n / 4 + 1)), random.nextInt(5_000),
+                    random.nextInt(10), random.nextInt(3_600), Game.Difficulty.MEDIUM));
+        }
+
+        System.out.println("=== LeaderboardBenchmark ===");
+        System.out.printf("entries: %,d%n", n);
+
+        long begin = System.nanoTime();
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (LeaderboardEntry entry : source) {
+            index.add(entry);
+        }
+        long insertNs = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            LeaderboardEntry entry = source.get(random.nextInt(n));
+            checksum += index.countBetterThan(entry.getScore(), entry.getTimeTaken());
+        }
+        long rankNs = (System.nanoTime() - begin) / 10_000;
+        System.out.printf("index   insert all %,9d ms   rank %,9d ns/query   (checksum %d)%n",
+                insertNs / 1_000_000, rankNs, checksum);
+
+        int legacyN = Math.min(n, maxLegacy);
+        begin = System.nanoTime();
+        ArrayList<LeaderboardEntry> list = new ArrayList<>();
+        for (int i = 0; i < legacyN; i++) {
+            list.add(source.get(i));
+            Collections.sort(list, (e1, e2) -> {
+                int scoreCompare = Integer.compare(e2.getScore(), e1.getScore());
+                return scoreCompare != 0 ? scoreCompare : Long.compare(e1.getTimeTaken(), e2.getTimeTaken());
+            });
+        }
+        long legacyInsertNs = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            String name = source.get(random.nextInt(legacyN)).getPlayerName();
+            LeaderboardEntry best = null;
+            for (LeaderboardEntry entry : list) {
+                if (entry.getPlayerName().equals(name) && (best == null || entry.getScore() > best.getScore())) {
+                    best = entry;
+                }
+            }
+            for (LeaderboardEntry entry : list) {
+                if (best != null && entry.getScore() > best.getScore()) checksum++;
+            }
+        }
+        long legacyRankNs = (System.nanoTime() - begin) / 1_000;
+        System.out.printf("legacy  insert %,d %,6d ms   rank %,9d ns/query%n",
+                legacyN, legacyInsertNs / 1_000_000, legacyRankNs);
+    }
+}
@@ -0,0 +1,470 @@
+package com.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * Order-statistic index over leaderboard entries.
+ * <p>
+ * Entries are kept in leaderboard order: highest score first, then lowest
+ * time, then insertion order (the order a stable sort of the old entry list
+ * produced). The index is a treap (a binary search tree balanced by random
+ * priorities) whose nodes also record the size of their subtree, so that:
+ * <ul>
+ *     <li>{@link #add(LeaderboardEntry)} runs in O(log n);</li>
+ *     <li>{@link #get(int)} finds the entry at any position in O(log n);</li>
+ *     <li>{@link #countBetterThan(int, long)} counts the entries ranked above
+ *         a score and time in O(log n);</li>
+ *     <li>{@link #top(int)} returns the first {@code n} entries in O(log n + n).</li>
+ *     <li>{@link #cursor(int)} walks the entries from any position, which is
+ *         how {@link Leaderboard} merges several indexes into one ranking.</li>
+ * </ul>
+ * Entries can be given an explicit insertion number, so that several indexes
+ * (such as one per difficulty) break ties in one shared insertion order.
+ * Nodes are never changed once built: an insert copies the O(log n) nodes on
+ * its path and shares the rest, so a root reference stays a consistent view
+ * of the index at the time it was taken.
+ * <p>
+ * This class is not thread-safe; {@link Leaderboard} guards it.
+ */
+public class LeaderboardIndex {
+
+    /** An immutable tree node. */
+    private static final class Node {
+        private final LeaderboardEntry entry;
+        private final long seq;
+        private final int priority;
+        private final Node left;
+        private final Node right;
+        private final int size;
+
+        private Node(LeaderboardEntry entry, long seq, int priority, Node left, Node right) {
+            this.entry = entry;
+            this.seq = seq;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        private Node with(Node left, Node right) {
+            return new Node(entry, seq, priority, left, right);
+        }
+    }
+
+    /** The root of the tree, or {@code null} when empty. */
+    private Node root;
+
+    /** Insertion counter; breaks ties between equal scores and times. */
+    private long nextSeq;
+
+    /**
+     * Adds an entry in its leaderboard position.
+     *
+     * @param entry the entry to add
+     */
+    public void add(LeaderboardEntry entry) {
+        add(entry, nextSeq);
+    }
+
+    /**
+     * Adds an entry with an explicit insertion number, which orders it after
+     * entries with the same score and time and a lower number.
+     *
+     * @param entry the entry to add
+     * @param seq   the insertion number
+     */
+    public void add(LeaderboardEntry entry, long seq) {
+        nextSeq = Math.max(nextSeq, seq + 1);
+        Node node = new Node(entry, seq, priority(seq), null, null);
+        Node[] parts = split(root, entry, seq);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the entry at a position in leaderboard order.
+     *
+     * @param index the position, {@code 0} being first place
+     * @return the entry
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public LeaderboardEntry get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.entry;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the insertion number of the entry at a position.
+     *
+     * @param index the position, {@code 0} being first place
+     * @return the insertion number
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public long getSeq(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.seq;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Counts the entries that come before an entry in leaderboard order,
+     * insertion number included. The entry itself need not be in this index.
+     *
+     * @param entry the entry
+     * @param seq   its insertion number
+     * @return the number of entries ranked above it
+     */
+    public int countBefore(LeaderboardEntry entry, long seq) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node.entry, node.seq, entry, seq) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the entries ranked strictly above a score and time: those with a
+     * higher score, or the same score and a lower time.
+     *
+     * @param score     the score
+     * @param timeTaken the time in seconds
+     * @return the number of better entries
+     */
+    public int countBetterThan(int score, long timeTaken) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (better(node.entry, score, timeTaken)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first entries in leaderboard order.
+     *
+     * @param n the maximum number of entries
+     * @return up to {@code n} entries
+     */
+    public ArrayList<LeaderboardEntry> top(int n) {
+        return range(0, n);
+    }
+
+    /**
+     * Returns the entries at positions {@code from} (inclusive) to
+     * {@code from + count} (exclusive), in leaderboard order.
+     *
+     * @param from  the first position
+     * @param count the maximum number of entries
+     * @return the entries in range; fewer if the index ends first
+     */
+    public ArrayList<LeaderboardEntry> range(int from, int count) {
+        int start = Math.max(0, from);
+        int end = (int) Math.min((long) start + Math.max(0, count), size());
+        ArrayList<LeaderboardEntry> out = new ArrayList<>(Math.max(0, end - start));
+        collect(root, start, end, 0, out);
+        return out;
+    }
+
+    /**
+     * Visits every entry in leaderboard order.
+     *
+     * @param action the action to run for each entry
+     */
+    public void forEach(Consumer<LeaderboardEntry> action) {
+        visit(root, action);
+    }
+
+    /**
+     * Returns every entry in leaderboard order.
+     *
+     * @return a new list of all entries
+     */
+    public ArrayList<LeaderboardEntry> toList() {
+        ArrayList<LeaderboardEntry> out = new ArrayList<>(size());
+        forEach(out::add);
+        return out;
+    }
+
+    /**
+     * Returns a cursor over the entries from a position onwards, in leaderboard order.
+     * Positioning costs O(log n) and each step amortized O(1).
+     *
+     * @param from the first position
+     * @return the cursor
+     */
+    public Cursor cursor(int from) {
+        return new Cursor(root, Math.max(0, from));
+    }
+
+    /**
+     * In-order walk over an index, starting at a given position. Reads the
+     * tree as it was when the cursor was created.
+     */
+    public static final class Cursor {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        private Cursor(Node node, int from) {
+            // push the nodes still to visit, down to the one at position from
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (from <= leftSize) {
+                    stack.push(node);
+                    if (from == leftSize) break;
+                    node = node.left;
+                } else {
+                    from -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        /** @return {@code true} if there are more entries */
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        /** @return the next entry, without moving past it */
+        public LeaderboardEntry peek() {
+            return stack.peek().entry;
+        }
+
+        /** @return the insertion number of the next entry */
+        public long peekSeq() {
+            return stack.peek().seq;
+        }
+
+        /**
+         * Returns the next entry and moves past it.
+         *
+         * @return the entry
+         */
+        public LeaderboardEntry next() {
+            Node node = stack.pop();
+            for (Node n = node.right; n != null; n = n.left) {
+                stack.push(n);
+            }
+            return node.entry;
+        }
+    }
+
+    /**
+     * Compares two entries in leaderboard order: higher score first, then
+     * lower time, then lower insertion number.
+     *
+     * @param a    the first entry
+     * @param seqA its insertion number
+     * @param b    the second entry
+     * @param seqB its insertion number
+     * @return a negative number if {@code a} ranks above {@code b}, positive if below
+     */
+    static int compare(LeaderboardEntry a, long seqA, LeaderboardEntry b, long seqB) {
+        int scoreCompare = Integer.compare(b.getScore(), a.getScore());
+        if (scoreCompare != 0) {
+            return scoreCompare;
+        }
+        int timeCompare = Long.compare(a.getTimeTaken(), b.getTimeTaken());
+        return timeCompare != 0 ? timeCompare : Long.compare(seqA, seqB);
+    }
+
+    /**
+     * Returns an independent index holding the same entries, in constant time.
+     * The two share their (immutable) nodes; adding to either does not affect the other.
+     *
+     * @return the copy
+     */
+    public LeaderboardIndex copy() {
+        LeaderboardIndex copy = new LeaderboardIndex();
+        copy.root = root;
+        copy.nextSeq = nextSeq;
+        return copy;
+    }
+
+    /**
+     * Builds an index from entries that are already in leaderboard order, in
+     * O(n) rather than the O(n log n) of adding them one by one. The tree is
+     * the same treap the adds would have built, so later adds stay balanced.
+     *
+     * @param entries the entries, in leaderboard order
+     * @param seqs    their insertion numbers
+     * @param count   how many of the arrays' elements to use
+     * @return the index
+     */
+    static LeaderboardIndex fromSorted(LeaderboardEntry[] entries, long[] seqs, int count) {
+        int[] priorities = new int[count];
+        int[] left = new int[count];
+        int[] right = new int[count];
+        int[] stack = new int[count];
+        int depth = 0;
+        long maxSeq = -1;
+        // the Cartesian tree of the priorities: each node's parent is the nearer
+        // of the closest higher-priority nodes on its left and right
+        for (int i = 0; i < count; i++) {
+            priorities[i] = priority(seqs[i]);
+            maxSeq = Math.max(maxSeq, seqs[i]);
+            left[i] = -1;
+            right[i] = -1;
+            int last = -1;
+            // equal priorities keep the earlier node on top, as merge() does
+            while (depth > 0 && priorities[stack[depth - 1]] < priorities[i]) {
+                last = stack[--depth];
+            }
+            left[i] = last;
+            if (depth > 0) {
+                right[stack[depth - 1]] = i;
+            }
+            stack[depth++] = i;
+        }
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.root = depth > 0 ? build(stack[0], entries, seqs, priorities, left, right) : null;
+        index.nextSeq = maxSeq + 1;
+        return index;
+    }
+
+    /** Builds the immutable subtree rooted at position {@code i} of {@link #fromSorted}'s arrays. */
+    private static Node build(int i, LeaderboardEntry[] entries, long[] seqs, int[] priorities,
+                              int[] left, int[] right) {
+        Node l = left[i] < 0 ? null : build(left[i], entries, seqs, priorities, left, right);
+        Node r = right[i] < 0 ? null : build(right[i], entries, seqs, priorities, left, right);
+        return new Node(entries[i], seqs[i], priorities[i], l, r);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        root = null;
+        nextSeq = 0;
+    }
+
+    /**
+     * Indicates whether an entry ranks strictly above a score and time.
+     */
+    private static boolean better(LeaderboardEntry entry, int score, long timeTaken) {
+        if (entry.getScore() != score) {
+            return entry.getScore() > score;
+        }
+        return entry.getTimeTaken() < timeTaken;
+    }
+
+    /**
+     * Indicates whether a node comes before the position of an entry and insertion number.
+     */
+    private static boolean before(Node node, LeaderboardEntry entry, long seq) {
+        return compare(node.entry, node.seq, entry, seq) < 0;
+    }
+
+    /**
+     * Splits a tree into the nodes before a key and the rest.
+     *
+     * @return {@code [before, rest]}
+     */
+    private static Node[] split(Node node, LeaderboardEntry entry, long seq) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        if (before(node, entry, seq)) {
+            Node[] parts = split(node.right, entry, seq);
+            return new Node[] { node.with(node.left, parts[0]), parts[1] };
+        }
+        Node[] parts = split(node.left, entry, seq);
+        return new Node[] { parts[0], node.with(parts[1], node.right) };
+    }
+
+    /**
+     * Joins two trees where every node of {@code a} comes before every node of {@code b}.
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority >= b.priority) {
+            return a.with(a.left, merge(a.right, b));
+        }
+        return b.with(merge(a, b.left), b.right);
+    }
+
+    /**
+     * Appends the nodes at positions {@code [start, end)} of a subtree whose
+     * first node is at position {@code offset}.
+     */
+    private static void collect(Node node, int start, int end, int offset, ArrayList<LeaderboardEntry> out) {
+        if (node == null || offset >= end || offset + node.size <= start) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, start, end, offset, out);
+        if (position >= start && position < end) {
+            out.add(node.entry);
+        }
+        collect(node.right, start, end, position + 1, out);
+    }
+
+    /** Visits a subtree in order. */
+    private static void visit(Node node, Consumer<LeaderboardEntry> action) {
+        while (node != null) {
+            visit(node.left, action);
+            action.accept(node.entry);
+            node = node.right;
+        }
+    }
+
+    /** Returns the size of a possibly empty subtree. */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /** Derives a well-mixed priority from an insertion number. */
+    private static int priority(long seq) {
+        long z = seq * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
+}
@@ -0,0 +1,121 @@
+package com.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * A read-only list over one {@link LeaderboardSnapshot}, filtered by time
+ * window and difficulty, that loads its entries a page at a time.
+ * <p>
+ * The list knows its size up front but fetches no entries until they are
+ * read. {@link #get(int)} loads the {@value #PAGE_SIZE}-entry page holding
+ * the position with one {@link LeaderboardSnapshot#range range} query and
+ * keeps the last {@value #CACHED_PAGES} pages it used. A virtualized view
+ * such as a {@code TableView}, which only asks for the rows on screen,
+ * therefore never holds more than a few pages however long the leaderboard
+ * is, and jumping to the end costs the same as showing the top.
+ * <p>
+ * The daily and weekly boards keep at most {@link Leaderboard#TOP_K} entries
+ * a day, so they are read whole. Because the snapshot never changes, neither
+ * does the list; take a new snapshot to see new scores. This class is not
+ * thread-safe and is meant to be used from the UI thread.
+ */
+public class LeaderboardPages extends AbstractList<LeaderboardEntry> {
+
+    /** Number of entries loaded at a time. */
+    public static final int PAGE_SIZE = 50;
+
+    /** Number of loaded pages kept. */
+    public static final int CACHED_PAGES = 8;
+
+    /** The snapshot the entries are read from. */
+    private final LeaderboardSnapshot snapshot;
+
+    /** The difficulty shown, or {@code null} for all. */
+    private final Game.Difficulty difficulty;
+
+    /** The whole daily or weekly board, or {@code null} for the all-time board. */
+    private final ArrayList<LeaderboardEntry> windowed;
+
+    /** Number of entries in the list. */
+    private final int size;
+
+    /** Recently used pages by page number, least recently used first. */
+    private final LinkedHashMap<Integer, ArrayList<LeaderboardEntry>> pages;
+
+    /** Number of pages loaded so far, including ones since evicted. */
+    private int pagesLoaded;
+
+    /**
+     * Creates a paged list of a snapshot's entries.
+     *
+     * @param snapshot   the snapshot to read
+     * @param window     the time window shown
+     * @param difficulty the difficulty shown, or {@code null} for all
+     */
+    public LeaderboardPages(LeaderboardSnapshot snapshot, Leaderboard.Window window, Game.Difficulty difficulty) {
+        this.snapshot = snapshot;
+        this.difficulty = difficulty;
+        if (window == null || window == Leaderboard.Window.ALL_TIME) {
+            this.windowed = null;
+            this.size = snapshot.size(difficulty);
+        } else {
+            this.windowed = snapshot.top(window, difficulty, Integer.MAX_VALUE);
+            this.size = windowed.size();
+        }
+        this.pages = new LinkedHashMap<>(CACHED_PAGES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ArrayList<LeaderboardEntry>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+    }
+
+    /**
+     * Returns the entry at a position, loading its page if needed.
+     *
+     * @param index the position, {@code 0} being first place
+     * @return the entry
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    @Override
+    public LeaderboardEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (windowed != null) {
+            return windowed.get(index);
+        }
+        int page = index / PAGE_SIZE;
+        ArrayList<LeaderboardEntry> entries = pages.get(page);
+        if (entries == null) {
+            entries = snapshot.range(difficulty, page * PAGE_SIZE, PAGE_SIZE);
+            pages.put(page, entries);
+            pagesLoaded++;
+        }
+        return entries.get(index % PAGE_SIZE);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns how many pages have been loaded, counting reloads of evicted pages.
+     *
+     * @return the number of page loads
+     */
+    public int getPagesLoaded() {
+        return pagesLoaded;
+    }
+}
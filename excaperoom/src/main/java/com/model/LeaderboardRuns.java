@@ -0,0 +1,272 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * LeaderboardRuns
+ * <p>
+ * Exports a kiosk's leaderboard as a sorted run and merges runs from several
+ * kiosks into one venue-wide ranking.
+ * <p>
+ * A run is a JSON-lines file. The first line is a header naming the format
+ * and the kiosk; every other line is one entry in {@link LeaderboardStore}'s
+ * record format, holding one player's best score. Entries are in leaderboard
+ * order: highest score first, then lowest {@code timeTaken}.
+ * <pre>
+ * {"format":"leaderboard-run","version":1,"source":"kiosk-1"}
+ * {"playerName":"ann","score":1200,"puzzlesCompleted":9,"timeTaken":650,"difficulty":"EASY","timestamp":"..."}
+ * </pre>
+ * {@link #merge(List, File, String, boolean)} reads its inputs one line at a
+ * time and keeps only the head entry of each in a priority queue, so it
+ * needs memory for N entries whatever the size of the runs. Entries with
+ * the same score and time keep the order of their inputs, and within an
+ * input their order in the file, just as the leaderboard's stable sort
+ * did. The same inputs in the same order therefore always give the same
+ * output. The output is itself a run, so merged files can be merged again.
+ * <p>
+ * Usage:
+ * <pre>
+ * LeaderboardRuns export &lt;output&gt; [source]
+ * LeaderboardRuns merge [--all] &lt;output&gt; &lt;input&gt;...
+ * </pre>
+ * {@code export} writes this machine's leaderboard. {@code merge} keeps each
+ * player's best entry across the inputs unless {@code --all} is given;
+ * that check keeps the names already written in memory, the only part of
+ * the merge that grows with the number of players.
+ */
+public class LeaderboardRuns {
+
+    /** Value of the header's {@code format} field. */
+    public static final String FORMAT = "leaderboard-run";
+
+    /** Version of the run format written by this class. */
+    public static final int VERSION = 1;
+
+    public static void main(String[] args) {
+        try {
+            if (args.length >= 2 && args[0].equals("export")) {
+                File out = new File(args[1]);
+                String source = args.length > 2 ? args[2] : "kiosk";
+                int count = export(Leaderboard.getInstance().snapshot(), source, out);
+                System.out.println("Exported " + count + " players to " + out.getPath() + ".");
+                return;
+            }
+            if (args.length >= 3 && args[0].equals("merge")) {
+                boolean all = args[1].equals("--all");
+                int first = all ? 2 : 1;
+                if (args.length - first >= 2) {
+                    File out = new File(args[first]);
+                    ArrayList<File> inputs = new ArrayList<>();
+                    for (int i = first + 1; i < args.length; i++) {
+                        inputs.add(new File(args[i]));
+                    }
+                    int count = merge(inputs, out, "merged", !all);
+                    System.out.println("Merged " + inputs.size() + " runs into " + count + " entries in "
+                            + out.getPath() + ".");
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("Usage: LeaderboardRuns export <output> [source]");
+        System.out.println("       LeaderboardRuns merge [--all] <output> <input>...");
+        System.exit(2);
+    }
+
+    /**
+     * Writes each player's best entry in a leaderboard snapshot as a run.
+     *
+     * @param snapshot the leaderboard to export
+     * @param source   name of the kiosk, recorded in the header
+     * @param out      the file to write
+     * @return the number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public static int export(LeaderboardSnapshot snapshot, String source, File out) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(header(source).toJSONString()).append('\n');
+        HashSet<String> seen = new HashSet<>();
+        int count = 0;
+        // in leaderboard order a player's first entry is their best
+        for (LeaderboardEntry entry : snapshot.entries(null)) {
+            if (seen.add(entry.getPlayerName())) {
+                sb.append(LeaderboardStore.toJSON(entry).toJSONString()).append('\n');
+                count++;
+            }
+        }
+        if (!AtomicFileWriter.write(out, sb.toString().getBytes(StandardCharsets.UTF_8))) {
+            throw new IOException("could not write " + out.getPath());
+        }
+        return count;
+    }
+
+    /**
+     * Merges runs into one run.
+     *
+     * @param inputs        the runs to merge; ties keep this order
+     * @param out           the file to write; replaced only once the merge succeeds
+     * @param source        name recorded in the output's header
+     * @param bestPerPlayer {@code true} to keep only each player's best entry
+     * @return the number of entries written
+     * @throws IOException if an input cannot be read, is not a run or is not
+     *                     sorted, or the output cannot be written
+     */
+    public static int merge(List<File> inputs, File out, String source, boolean bestPerPlayer) throws IOException {
+        ArrayList<Run> runs = new ArrayList<>();
+        File tmp = new File(out.getPath() + ".tmp");
+        try {
+            PriorityQueue<Run> heads = new PriorityQueue<>(Math.max(1, inputs.size()), Run::compareTo);
+            for (int i = 0; i < inputs.size(); i++) {
+                Run run = new Run(inputs.get(i), i);
+                runs.add(run);
+                if (run.advance()) {
+                    heads.add(run);
+                }
+            }
+            HashSet<String> seen = bestPerPlayer ? new HashSet<>() : null;
+            int count = 0;
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp, StandardCharsets.UTF_8))) {
+                writer.write(header(source).toJSONString());
+                writer.write('\n');
+                while (!heads.isEmpty()) {
+                    Run run = heads.poll();
+                    LeaderboardEntry entry = run.head;
+                    if (seen == null || seen.add(entry.getPlayerName())) {
+                        writer.write(LeaderboardStore.toJSON(entry).toJSONString());
+                        writer.write('\n');
+                        count++;
+                    }
+                    if (run.advance()) {
+                        heads.add(run);
+                    }
+                }
+            }
+            try {
+                Files.move(tmp.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return count;
+        } finally {
+            for (Run run : runs) {
+                run.close();
+            }
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    /**
+     * Builds a run's header line.
+     *
+     * @param source name of the kiosk or merge
+     * @return the header record
+     */
+    @SuppressWarnings("unchecked")
+    private static JSONObject header(String source) {
+        JSONObject header = new JSONObject();
+        header.put("format", FORMAT);
+        header.put("version", VERSION);
+        header.put("source", source);
+        return header;
+    }
+
+    /**
+     * One input of a merge, read a line at a time.
+     */
+    private static final class Run implements Closeable {
+        private final File file;
+        private final int order;
+        private final BufferedReader reader;
+        private final JSONParser parser = new JSONParser();
+        private LeaderboardEntry head;
+        private int line;
+
+        private Run(File file, int order) throws IOException {
+            this.file = file;
+            this.order = order;
+            this.reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8));
+            String first = reader.readLine();
+            line = 1;
+            JSONObject header = first == null ? null : parse(first);
+            if (header == null || !FORMAT.equals(header.get("format"))) {
+                reader.close();
+                throw new IOException(file.getPath() + " is not a leaderboard run");
+            }
+            Object version = header.get("version");
+            if (!(version instanceof Number) || ((Number) version).intValue() > VERSION) {
+                reader.close();
+                throw new IOException(file.getPath() + " has an unsupported run version " + version);
+            }
+        }
+
+        /**
+         * Reads the next entry into {@link #head}.
+         *
+         * @return {@code false} at the end of the run
+         * @throws IOException if the next line is not an entry or is out of order
+         */
+        private boolean advance() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    head = null;
+                    return false;
+                }
+            } while (text.isBlank());
+            JSONObject record = parse(text);
+            LeaderboardEntry entry = record == null ? null : LeaderboardStore.fromJSON(record);
+            if (entry == null) {
+                throw new IOException(file.getPath() + ": line " + line + " is not a leaderboard entry");
+            }
+            if (head != null && LeaderboardIndex.compare(entry, 0, head, 0) < 0) {
+                throw new IOException(file.getPath() + ": line " + line + " is out of order");
+            }
+            head = entry;
+            return true;
+        }
+
+        private JSONObject parse(String text) {
+            try {
+                Object value = parser.parse(text);
+                return value instanceof JSONObject ? (JSONObject) value : null;
+            } catch (ParseException e) {
+                return null;
+            }
+        }
+
+        /** Orders runs by their head entries, then by input order. */
+        private int compareTo(Run other) {
+            return LeaderboardIndex.compare(head, order, other.head, other.order);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * An immutable view of the {@link Leaderboard} at one version.
+ * <p>
+ * The leaderboard publishes a new snapshot after every change, and readers
+ * take the latest one from {@link Leaderboard#snapshot()} with a single
+ * volatile read. Building a snapshot is cheap because the per-difficulty
+ * {@link LeaderboardIndex} trees never change their nodes: the snapshot
+ * keeps the current roots, and later inserts build new paths beside them.
+ * Only the small top-K lists are copied.
+ * <p>
+ * A snapshot never changes, so any number of threads (UI screens, exports,
+ * a web view) may read one without locks and see every query answered from
+ * the same version.
+ */
+public final class LeaderboardSnapshot {
+
+    /** Version number; each published snapshot has a higher one. */
+    private final long version;
+
+    /** Total number of entries. */
+    private final int size;
+
+    /** Each difficulty's entries; entries without a difficulty are under {@code null}. */
+    private final Map<Game.Difficulty, LeaderboardIndex> indexes;
+
+    /** Each difficulty's top-K list. */
+    private final Map<Game.Difficulty, LeaderboardTopK> tops;
+
+    /** Daily and weekly boards. */
+    private final LeaderboardWindows windows;
+
+    /** Each difficulty's score histogram. */
+    private final Map<Game.Difficulty, ScoreHistogram> histograms;
+
+    /** Histogram of every score, merged from the difficulties' on first use. */
+    private volatile ScoreHistogram overall;
+
+    /**
+     * Creates a snapshot. The arguments must not be changed afterwards.
+     *
+     * @param version    the version number
+     * @param indexes    each difficulty's frozen index
+     * @param tops       each difficulty's top-K list
+     * @param windows    the daily and weekly boards
+     * @param histograms each difficulty's score histogram
+     */
+    LeaderboardSnapshot(long version, HashMap<Game.Difficulty, LeaderboardIndex> indexes,
+                        HashMap<Game.Difficulty, LeaderboardTopK> tops, LeaderboardWindows windows,
+                        HashMap<Game.Difficulty, ScoreHistogram> histograms) {
+        this.version = version;
+        this.indexes = Collections.unmodifiableMap(indexes);
+        this.tops = Collections.unmodifiableMap(tops);
+        this.windows = windows;
+        this.histograms = Collections.unmodifiableMap(histograms);
+        int total = 0;
+        for (LeaderboardIndex index : indexes.values()) {
+            total += index.size();
+        }
+        this.size = total;
+    }
+
+    /**
+     * Returns the version this snapshot was taken at.
+     *
+     * @return the version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entries of one difficulty.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @return the entry count
+     */
+    public int size(Game.Difficulty difficulty) {
+        if (difficulty == null) {
+            return size;
+        }
+        LeaderboardIndex index = indexes.get(difficulty);
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Returns the best entries overall.
+     *
+     * @param n the maximum number of entries
+     * @return up to {@code n} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> top(int n) {
+        return range(null, 0, n);
+    }
+
+    /**
+     * Returns the best entries of one difficulty. For {@code n} up to
+     * {@link Leaderboard#TOP_K} this copies the difficulty's top-K list.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @param n          the maximum number of entries
+     * @return up to {@code n} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> top(Game.Difficulty difficulty, int n) {
+        if (difficulty == null) {
+            return top(n);
+        }
+        LeaderboardTopK top = tops.get(difficulty);
+        if (top == null) {
+            return new ArrayList<>();
+        }
+        if (n <= top.capacity() || size(difficulty) <= top.size()) {
+            return top.top(n);
+        }
+        return indexes.get(difficulty).top(n);
+    }
+
+    /**
+     * Returns the best entries within a time window.
+     *
+     * @param window     the time window
+     * @param difficulty the difficulty, or {@code null} for all
+     * @param n          the maximum number of entries; capped at {@link Leaderboard#TOP_K}
+     *                   for the daily and weekly boards
+     * @return up to {@code n} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> top(Leaderboard.Window window, Game.Difficulty difficulty, int n) {
+        switch (window) {
+            case DAILY:
+                return windows.daily(difficulty, n);
+            case WEEKLY:
+                return windows.weekly(difficulty, n);
+            default:
+                return top(difficulty, n);
+        }
+    }
+
+    /**
+     * Returns the entries at positions {@code from} to {@code from + count}
+     * (exclusive) in leaderboard order, optionally for one difficulty.
+     * <p>
+     * Within one difficulty this is an O(log n + count) tree walk. The overall
+     * ranking first finds where position {@code from} falls in each
+     * difficulty, by binary search on the other indexes' counts, and then
+     * merges {@code count} entries from there; a page deep in the ranking
+     * costs no more than the first one.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @param from       the first position
+     * @param count      the maximum number of entries
+     * @return the entries in range
+     */
+    public ArrayList<LeaderboardEntry> range(Game.Difficulty difficulty, int from, int count) {
+        if (difficulty != null) {
+            LeaderboardIndex index = indexes.get(difficulty);
+            return index == null ? new ArrayList<>() : index.range(from, count);
+        }
+        if (indexes.size() == 1) {
+            return indexes.values().iterator().next().range(from, count);
+        }
+        int start = Math.max(0, from);
+        int limit = (int) Math.max(0, Math.min((long) count, (long) size - start));
+        ArrayList<LeaderboardEntry> out = new ArrayList<>(limit);
+        if (limit == 0) {
+            return out;
+        }
+        PriorityQueue<LeaderboardIndex.Cursor> heads = new PriorityQueue<>(indexes.size(),
+                (a, b) -> LeaderboardIndex.compare(a.peek(), a.peekSeq(), b.peek(), b.peekSeq()));
+        for (LeaderboardIndex index : indexes.values()) {
+            LeaderboardIndex.Cursor cursor = index.cursor(countBeforePosition(index, start));
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        while (out.size() < limit && !heads.isEmpty()) {
+            LeaderboardIndex.Cursor cursor = heads.poll();
+            out.add(cursor.next());
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Counts how many of one index's entries come before overall position
+     * {@code position}. An entry's overall position is the sum of the
+     * indexes' {@link LeaderboardIndex#countBefore counts} for it, which
+     * grows along the index, so the answer is found by binary search.
+     *
+     * @param index    one of this snapshot's indexes
+     * @param position the overall position
+     * @return the number of the index's entries ranked above that position
+     */
+    private int countBeforePosition(LeaderboardIndex index, int position) {
+        int low = 0;
+        int high = index.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            LeaderboardEntry entry = index.get(mid);
+            long seq = index.getSeq(mid);
+            int overall = 0;
+            for (LeaderboardIndex other : indexes.values()) {
+                overall += other == index ? mid : other.countBefore(entry, seq);
+            }
+            if (overall < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns every entry, optionally of one difficulty, in leaderboard order.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @return a new list of the entries
+     */
+    public ArrayList<LeaderboardEntry> entries(Game.Difficulty difficulty) {
+        return range(difficulty, 0, size(difficulty));
+    }
+
+    /**
+     * Counts the entries ranked strictly above a score and time.
+     *
+     * @param score     the score
+     * @param timeTaken the time in seconds
+     * @return the number of better entries
+     */
+    public int countBetterThan(int score, long timeTaken) {
+        int better = 0;
+        for (LeaderboardIndex index : indexes.values()) {
+            better += index.countBetterThan(score, timeTaken);
+        }
+        return better;
+    }
+
+    /**
+     * Returns the entry at a position in leaderboard order, optionally within
+     * one difficulty. Costs O(log n) within a difficulty; the overall ranking
+     * locates the position in each difficulty as {@link #range} does.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @param position   the position, {@code 0} being first place
+     * @return the entry, or {@code null} if there is no such position
+     */
+    public LeaderboardEntry get(Game.Difficulty difficulty, int position) {
+        if (position < 0 || position >= size(difficulty)) {
+            return null;
+        }
+        if (difficulty != null) {
+            return indexes.get(difficulty).get(position);
+        }
+        LeaderboardEntry best = null;
+        long bestSeq = 0;
+        for (LeaderboardIndex index : indexes.values()) {
+            int before = countBeforePosition(index, position);
+            if (before < index.size()) {
+                LeaderboardEntry entry = index.get(before);
+                long seq = index.getSeq(before);
+                if (best == null || LeaderboardIndex.compare(entry, seq, best, bestSeq) < 0) {
+                    best = entry;
+                    bestSeq = seq;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the percentage of entries ranked strictly below a score and
+     * time, as in "you beat 87% of players". Costs O(log n) per difficulty.
+     *
+     * @param score     the score
+     * @param timeTaken the time in seconds
+     * @return a percentage from 0 to 100; 0 when there are no entries
+     */
+    public double percentBeaten(int score, long timeTaken) {
+        if (size == 0) {
+            return 0;
+        }
+        // entries not worse: a higher score, or the same score in the same time or less
+        int notWorse = countBetterThan(score, timeTaken == Long.MAX_VALUE ? timeTaken : timeTaken + 1);
+        return 100.0 * (size - notWorse) / size;
+    }
+
+    /**
+     * Returns the score below which a fraction of the entries fall, by the
+     * nearest-rank method: {@code 0.5} is the median, {@code 0.9} the score
+     * nine in ten entries are at or below. The ordered indexes answer this
+     * exactly, in O(log n) within a difficulty.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @param quantile   the fraction, from 0 (lowest score) to 1 (highest)
+     * @return the score, or -1 if there are no entries
+     */
+    public int scoreAt(Game.Difficulty difficulty, double quantile) {
+        int n = size(difficulty);
+        if (n == 0) {
+            return -1;
+        }
+        double q = Math.max(0, Math.min(1, quantile));
+        // rank counted from the lowest score; position 0 holds the highest
+        int fromLowest = (int) Math.round(q * (n - 1));
+        return get(difficulty, n - 1 - fromLowest).getScore();
+    }
+
+    /**
+     * Returns the median score.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @return the median score, or -1 if there are no entries
+     */
+    public int median(Game.Difficulty difficulty) {
+        return scoreAt(difficulty, 0.5);
+    }
+
+    /**
+     * Returns the histogram of scores, with buckets
+     * {@link Leaderboard#HISTOGRAM_BUCKET_WIDTH} points wide.
+     *
+     * @param difficulty the difficulty, or {@code null} for all
+     * @return a copy of the histogram
+     */
+    public ScoreHistogram histogram(Game.Difficulty difficulty) {
+        if (difficulty != null) {
+            ScoreHistogram histogram = histograms.get(difficulty);
+            return new ScoreHistogram(histogram == null ? new ScoreHistogram(Leaderboard.HISTOGRAM_BUCKET_WIDTH) : histogram);
+        }
+        ScoreHistogram all = overall;
+        if (all == null) {
+            all = new ScoreHistogram(Leaderboard.HISTOGRAM_BUCKET_WIDTH);
+            for (ScoreHistogram histogram : histograms.values()) {
+                all = all.merged(histogram);
+            }
+            overall = all;
+        }
+        return new ScoreHistogram(all);
+    }
+}
@@ -0,0 +1,237 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * Append-only file of leaderboard entries, {@code json/leaderboard.jsonl}.
+ * <p>
+ * The leaderboard used to be rebuilt from {@code players.json} every time it
+ * was created, with no puzzle count, time or difficulty, and scores added
+ * during a run were lost on exit. This file instead keeps every field of
+ * each {@link LeaderboardEntry}, one JSON object per line:
+ * <pre>
+ * {"playerName":"ann","score":1200,"puzzlesCompleted":9,"timeTaken":650,"difficulty":"EASY","timestamp":"2024-05-01T12:00:00Z"}
+ * </pre>
+ * <ul>
+ *     <li>{@link #append(LeaderboardEntry)} adds one line and syncs it, so
+ *         recording a score never rewrites the file.</li>
+ *     <li>{@link #load()} reads the file line by line. A line that cannot be
+ *         parsed (for example one cut short by a crash) is skipped with a warning.</li>
+ *     <li>{@link #rewrite(Collection)} replaces the whole file through
+ *         {@link AtomicFileWriter}, for the first save and for clearing.</li>
+ * </ul>
+ * Like the other data files, the {@code json} directory is not created here.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class LeaderboardStore extends DataConstants {
+
+    /** Singleton instance of the store. */
+    private static LeaderboardStore instance;
+
+    /** File the entries are kept in. */
+    private File file;
+
+    /** Number of times the file has been read (used for diagnostics and tests). */
+    private int loadCount;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private LeaderboardStore() {
+        this.file = new File(LEADERBOARD_FILE);
+    }
+
+    /**
+     * Returns the singleton instance of the store, creating it if needed.
+     *
+     * @return the shared {@code LeaderboardStore}
+     */
+    public static synchronized LeaderboardStore getInstance() {
+        if (instance == null) {
+            instance = new LeaderboardStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Indicates whether the leaderboard file exists.
+     *
+     * @return {@code true} if entries have been saved before
+     */
+    public synchronized boolean exists() {
+        return file.isFile();
+    }
+
+    /**
+     * Reads every entry from the file, in the order they were recorded.
+     *
+     * @return the entries; empty if the file does not exist or cannot be read
+     */
+    public synchronized ArrayList<LeaderboardEntry> load() {
+        ArrayList<LeaderboardEntry> entries = new ArrayList<>();
+        if (!file.isFile()) {
+            return entries;
+        }
+        loadCount++;
+        JSONParser parser = new JSONParser();
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    LeaderboardEntry entry = fromJSON((JSONObject) parser.parse(line));
+                    if (entry != null) {
+                        entries.add(entry);
+                    } else {
+                        skipped++;
+                    }
+                } catch (ParseException | ClassCastException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not read " + file.getPath() + ": " + e.getMessage());
+        }
+        if (skipped > 0) {
+            System.out.println("Warning: skipped " + skipped + " unreadable line(s) in " + file.getPath());
+        }
+        return entries;
+    }
+
+    /**
+     * Appends one entry to the file and syncs it to disk.
+     *
+     * @param entry the entry to record
+     * @return {@code true} if the entry was written; {@code false} otherwise
+     */
+    public synchronized boolean append(LeaderboardEntry entry) {
+        byte[] line = (toJSON(entry).toJSONString() + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(line);
+            out.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Warning: could not append to " + file.getPath() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the file with the given entries.
+     *
+     * @param entries the entries to keep
+     * @return {@code true} if the file was written; {@code false} otherwise
+     */
+    public synchronized boolean rewrite(Collection<LeaderboardEntry> entries) {
+        StringBuilder sb = new StringBuilder();
+        for (LeaderboardEntry entry : entries) {
+            sb.append(toJSON(entry).toJSONString()).append('\n');
+        }
+        return AtomicFileWriter.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Empties the file. Does nothing if the data directory does not exist.
+     *
+     * @return {@code true} if the file is empty or there is nowhere to write it
+     */
+    public synchronized boolean clear() {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!file.exists() && (dir == null || !dir.isDirectory())) {
+            return true;
+        }
+        return rewrite(new ArrayList<>());
+    }
+
+    /**
+     * Converts an entry into its JSON record.
+     *
+     * @param entry the entry
+     * @return the record
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject toJSON(LeaderboardEntry entry) {
+        JSONObject record = new JSONObject();
+        record.put("playerName", entry.getPlayerName());
+        record.put("score", entry.getScore());
+        record.put("puzzlesCompleted", entry.getPuzzlesCompleted());
+        record.put("timeTaken", entry.getTimeTaken());
+        record.put("difficulty", entry.getDifficulty() == null ? null : entry.getDifficulty().name());
+        record.put("timestamp", entry.getTimestamp());
+        return record;
+    }
+
+    /**
+     * Converts a JSON record back into an entry.
+     *
+     * @param record the record
+     * @return the entry, or {@code null} if the record has no player name or score
+     */
+    static LeaderboardEntry fromJSON(JSONObject record) {
+        Object name = record.get("playerName");
+        Object score = record.get("score");
+        if (!(name instanceof String) || !(score instanceof Number)) {
+            return null;
+        }
+        Game.Difficulty difficulty = null;
+        Object level = record.get("difficulty");
+        if (level instanceof String) {
+            try {
+                difficulty = Game.Difficulty.valueOf((String) level);
+            } catch (IllegalArgumentException e) {
+                // unknown level: keep the entry without a difficulty
+            }
+        }
+        Object timestamp = record.get("timestamp");
+        return new LeaderboardEntry((String) name, ((Number) score).intValue(),
+                number(record.get("puzzlesCompleted")).intValue(), number(record.get("timeTaken")).longValue(),
+                difficulty, timestamp instanceof String ? (String) timestamp : null);
+    }
+
+    /** Returns a JSON value as a number, treating anything else as zero. */
+    private static Number number(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    /**
+     * Returns the file the entries are kept in.
+     *
+     * @return the leaderboard file
+     */
+    public synchronized File getFile() {
+        return file;
+    }
+
+    /**
+     * Points the store at another file. Intended for tests and tools.
+     *
+     * @param leaderboardFile the file to use
+     */
+    synchronized void setFile(File leaderboardFile) {
+        this.file = leaderboardFile;
+    }
+
+    /**
+     * Returns how many times the file has been read since startup.
+     *
+     * @return the number of loads
+     */
+    public synchronized int getLoadCount() {
+        return loadCount;
+    }
+}
@@ -0,0 +1,154 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * The best {@code K} entries of some part of the leaderboard, kept as a
+ * sorted array.
+ * <p>
+ * An insert that does not make the top K is rejected after one comparison
+ * with the last entry; one that does is placed by binary search and shifts at
+ * most K slots. Reading the first {@code n <= K} entries is a plain copy, so
+ * "top 10 on HARD" never touches the rest of the entries.
+ * <p>
+ * Entries are ordered like {@link LeaderboardIndex}, including the insertion
+ * number used to break ties. This class is not thread-safe.
+ */
+public class LeaderboardTopK {
+
+    /** Default number of entries kept. */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    /** The kept entries, best first; only the first {@code size} slots are used. */
+    private final LeaderboardEntry[] entries;
+
+    /** Insertion numbers of the kept entries, parallel to {@code entries}. */
+    private final long[] seqs;
+
+    /** Number of kept entries. */
+    private int size;
+
+    /**
+     * Creates an empty top-K list.
+     *
+     * @param capacity the number of entries to keep; at least 1
+     */
+    public LeaderboardTopK(int capacity) {
+        int k = Math.max(1, capacity);
+        this.entries = new LeaderboardEntry[k];
+        this.seqs = new long[k];
+    }
+
+    /**
+     * Creates a copy of another top-K list.
+     *
+     * @param other the list to copy
+     */
+    public LeaderboardTopK(LeaderboardTopK other) {
+        this.entries = other.entries.clone();
+        this.seqs = other.seqs.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Offers an entry.
+     *
+     * @param entry the entry
+     * @param seq   its insertion number
+     * @return {@code true} if the entry is now among the top K
+     */
+    public boolean offer(LeaderboardEntry entry, long seq) {
+        if (size == entries.length
+                && LeaderboardIndex.compare(entry, seq, entries[size - 1], seqs[size - 1]) >= 0) {
+            return false;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (LeaderboardIndex.compare(entries[mid], seqs[mid], entry, seq) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int moved = Math.min(size, entries.length - 1) - low;
+        System.arraycopy(entries, low, entries, low + 1, moved);
+        System.arraycopy(seqs, low, seqs, low + 1, moved);
+        entries[low] = entry;
+        seqs[low] = seq;
+        if (size < entries.length) size++;
+        return true;
+    }
+
+    /**
+     * Returns the best entries.
+     *
+     * @param n the maximum number of entries
+     * @return up to {@code min(n, K)} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> top(int n) {
+        int count = Math.max(0, Math.min(n, size));
+        ArrayList<LeaderboardEntry> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(entries[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Returns a kept entry.
+     *
+     * @param i the position, {@code 0} being best
+     * @return the entry
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public LeaderboardEntry get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return entries[i];
+    }
+
+    /**
+     * Returns the insertion number of a kept entry.
+     *
+     * @param i the position, {@code 0} being best
+     * @return the insertion number
+     */
+    public long getSeq(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return seqs[i];
+    }
+
+    /**
+     * Returns the number of kept entries.
+     *
+     * @return at most {@link #capacity()}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entries this list keeps at most.
+     *
+     * @return K
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0, size, null);
+        size = 0;
+    }
+}
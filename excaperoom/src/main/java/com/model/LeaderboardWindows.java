@@ -0,0 +1,241 @@
+package com.model;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * Daily and weekly leaderboards kept in a ring of day buckets.
+ * <p>
+ * There is one bucket for each of the last {@value #DAYS} days (by the
+ * clock's time zone), selected by the day number modulo {@value #DAYS}. A
+ * bucket holds the day's best {@link LeaderboardTopK#DEFAULT_CAPACITY} entries
+ * overall and per difficulty. When a new day reaches a slot, the bucket for
+ * the day a week earlier is simply reset, which takes constant time however
+ * many entries were recorded.
+ * <ul>
+ *     <li>The daily board is today's bucket.</li>
+ *     <li>The weekly board (today and the six days before it) merges the
+ *         seven buckets' top-K lists.</li>
+ * </ul>
+ * Neither query looks at older entries or sorts anything. Entries are placed
+ * by their {@link LeaderboardEntry#getTimestamp() timestamp}; entries older
+ * than a week, or without a readable timestamp, only count towards the
+ * all-time board kept by {@link Leaderboard}.
+ * <p>
+ * This class is not thread-safe; {@link Leaderboard} guards it.
+ */
+public class LeaderboardWindows {
+
+    /** Number of day buckets, and so the length of the weekly window in days. */
+    public static final int DAYS = 7;
+
+    /** One day's best entries. */
+    private static final class Bucket {
+        /** The day this bucket holds, as an epoch day; {@code Long.MIN_VALUE} when unused. */
+        private long day = Long.MIN_VALUE;
+        private final LeaderboardTopK all;
+        private final EnumMap<Game.Difficulty, LeaderboardTopK> byDifficulty;
+        private final int capacity;
+
+        private Bucket(int capacity) {
+            this.capacity = capacity;
+            this.all = new LeaderboardTopK(capacity);
+            this.byDifficulty = new EnumMap<>(Game.Difficulty.class);
+        }
+
+        private Bucket(Bucket other) {
+            this.capacity = other.capacity;
+            this.day = other.day;
+            this.all = new LeaderboardTopK(other.all);
+            this.byDifficulty = new EnumMap<>(Game.Difficulty.class);
+            other.byDifficulty.forEach((difficulty, top) -> byDifficulty.put(difficulty, new LeaderboardTopK(top)));
+        }
+
+        private void reset(long newDay) {
+            day = newDay;
+            all.clear();
+            byDifficulty.clear();
+        }
+
+        private LeaderboardTopK top(Game.Difficulty difficulty) {
+            return difficulty == null ? all : byDifficulty.get(difficulty);
+        }
+    }
+
+    /** The ring of day buckets. */
+    private final Bucket[] buckets;
+
+    /** Clock that decides what "today" is. */
+    private Clock clock;
+
+    /**
+     * Creates empty windows keeping {@code capacity} entries per bucket.
+     *
+     * @param capacity the number of entries kept per day, overall and per difficulty
+     */
+    public LeaderboardWindows(int capacity) {
+        this.buckets = new Bucket[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            buckets[i] = new Bucket(capacity);
+        }
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    /**
+     * Creates a copy of other windows, sharing their clock. The copy costs
+     * {@value #DAYS} small top-K lists per difficulty, whatever the total
+     * number of entries.
+     *
+     * @param other the windows to copy
+     */
+    private LeaderboardWindows(LeaderboardWindows other) {
+        this.buckets = new Bucket[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            buckets[i] = new Bucket(other.buckets[i]);
+        }
+        this.clock = other.clock;
+    }
+
+    /**
+     * Returns an independent copy of these windows.
+     *
+     * @return the copy
+     */
+    public LeaderboardWindows copy() {
+        return new LeaderboardWindows(this);
+    }
+
+    /**
+     * Records an entry in its day's bucket, if that day is within the last week.
+     *
+     * @param entry the entry
+     * @param seq   its insertion number, for tie-breaking
+     * @return {@code true} if the entry was placed in a bucket
+     */
+    public boolean add(LeaderboardEntry entry, long seq) {
+        long day = dayOf(entry);
+        long today = today();
+        if (day == Long.MIN_VALUE || day > today || day <= today - DAYS) {
+            return false;
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(day, (long) DAYS)];
+        if (bucket.day != day) {
+            if (bucket.day > day) {
+                // the slot already moved on to a later day
+                return false;
+            }
+            bucket.reset(day);
+        }
+        bucket.all.offer(entry, seq);
+        if (entry.getDifficulty() != null) {
+            bucket.byDifficulty.computeIfAbsent(entry.getDifficulty(), d -> new LeaderboardTopK(bucket.capacity))
+                    .offer(entry, seq);
+        }
+        return true;
+    }
+
+    /**
+     * Returns today's best entries.
+     *
+     * @param difficulty the difficulty to filter by, or {@code null} for all
+     * @param n          the maximum number of entries; at most the bucket capacity are kept
+     * @return up to {@code n} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> daily(Game.Difficulty difficulty, int n) {
+        return merge(1, difficulty, n);
+    }
+
+    /**
+     * Returns the best entries of today and the six days before it.
+     *
+     * @param difficulty the difficulty to filter by, or {@code null} for all
+     * @param n          the maximum number of entries; at most the bucket capacity are kept
+     * @return up to {@code n} entries, best first
+     */
+    public ArrayList<LeaderboardEntry> weekly(Game.Difficulty difficulty, int n) {
+        return merge(DAYS, difficulty, n);
+    }
+
+    /**
+     * Merges the top-K lists of the last {@code days} days.
+     */
+    private ArrayList<LeaderboardEntry> merge(int days, Game.Difficulty difficulty, int n) {
+        long today = today();
+        ArrayList<LeaderboardTopK> lists = new ArrayList<>(days);
+        for (long day = today - days + 1; day <= today; day++) {
+            Bucket bucket = buckets[(int) Math.floorMod(day, (long) DAYS)];
+            LeaderboardTopK top = bucket.day == day ? bucket.top(difficulty) : null;
+            if (top != null && top.size() > 0) {
+                lists.add(top);
+            }
+        }
+        int[] heads = new int[lists.size()];
+        ArrayList<LeaderboardEntry> out = new ArrayList<>();
+        while (out.size() < n) {
+            int best = -1;
+            for (int i = 0; i < heads.length; i++) {
+                LeaderboardTopK top = lists.get(i);
+                if (heads[i] >= top.size()) continue;
+                if (best < 0 || LeaderboardIndex.compare(top.get(heads[i]), top.getSeq(heads[i]),
+                        lists.get(best).get(heads[best]), lists.get(best).getSeq(heads[best])) < 0) {
+                    best = i;
+                }
+            }
+            if (best < 0) break;
+            out.add(lists.get(best).get(heads[best]++));
+        }
+        return out;
+    }
+
+    /**
+     * Empties every bucket.
+     */
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.reset(Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Returns today's day number in the clock's time zone.
+     *
+     * @return the epoch day
+     */
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * Returns the day an entry was recorded on, in the clock's time zone.
+     *
+     * @param entry the entry
+     * @return the epoch day, or {@code Long.MIN_VALUE} if the timestamp is missing or invalid
+     */
+    private long dayOf(LeaderboardEntry entry) {
+        if (entry.getTimestamp() == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            ZoneId zone = clock.getZone();
+            return Instant.parse(entry.getTimestamp()).atZone(zone).toLocalDate().toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sets the clock that decides what "today" is. Intended for tests.
+     *
+     * @param clock the clock
+     */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
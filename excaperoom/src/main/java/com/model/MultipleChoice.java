@@ -58,6 +58,15 @@ public class MultipleChoice extends Puzzle {
         this.correctAnswer = correctAnswer;
     }
 
+    /**
+     * Returns the correct answer for this puzzle.
+     *
+     * @return the answer that is considered correct
+     */
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+
     /**
      * Returns the list of available answer choices.
      *
@@ -99,7 +108,7 @@ public class MultipleChoice extends Puzzle {
      */
     @Override
     public boolean checkAnswer(String answer) {
-        if (answer.equalsIgnoreCase(correctAnswer)) {
+        if (isCorrect(answer)) {
             playSound(true);
             completePuzzle();
             return true;
@@ -109,6 +118,18 @@ public class MultipleChoice extends Puzzle {
         }
     }
 
+    /**
+     * Checks the answer like {@link #checkAnswer(String)}, without playing a
+     * sound or completing the puzzle.
+     *
+     * @param answer the user's submitted answer
+     * @return {@code true} if the answer matches the correct answer (case-insensitive)
+     */
+    @Override
+    public boolean isCorrect(String answer) {
+        return answer != null && answer.equalsIgnoreCase(correctAnswer);
+    }
+
     /**
      * Returns a formatted string representation of the multiple-choice puzzle,
      * including all available answer options.
@@ -92,7 +92,7 @@ public class PixelHunt extends Puzzle {
      * @return true if the click is within the acceptable range, false otherwise
      */
     public boolean checkClick(int x, int y) {
-        boolean correct = Math.abs(x - correctX) <= closeness && Math.abs(y - correctY) <= closeness;
+        boolean correct = isHit(x, y);
         playSound(correct);
         if (correct) {
             completePuzzle();
@@ -100,6 +100,42 @@ public class PixelHunt extends Puzzle {
         return correct;
     }
 
+    /**
+     * Checks whether a click is within the acceptable range of the correct
+     * location, without playing a sound or completing the puzzle.
+     *
+     * @param x the x-coordinate of the click
+     * @param y the y-coordinate of the click
+     * @return true if the click is within range
+     */
+    public boolean isHit(int x, int y) {
+        return Math.abs(x - correctX) <= closeness && Math.abs(y - correctY) <= closeness;
+    }
+
+    /**
+     * Checks a click given as text, {@code "x,y"}, like {@link #isHit(int, int)}.
+     *
+     * @param answer the click coordinates, e.g. {@code "120,45"}
+     * @return true if the answer is a click within range; false if it is not
+     *         or cannot be read
+     */
+    @Override
+    public boolean isCorrect(String answer) {
+        if (answer == null) {
+            return false;
+        }
+        int comma = answer.indexOf(',');
+        if (comma < 0) {
+            return false;
+        }
+        try {
+            return isHit(Integer.parseInt(answer.substring(0, comma).trim()),
+                    Integer.parseInt(answer.substring(comma + 1).trim()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Starts the PixelHunt puzzle and displays instructions to the player.
      */
@@ -35,6 +35,7 @@ public class Player {
         this.displayName = displayName;
         this.password = password;
         this.progress = progress;
+        claimProgress();
     }
 
     /**
@@ -51,6 +52,7 @@ public class Player {
         this.displayName = displayName;
         this.progress = progress;
         this.password = password;
+        claimProgress();
     }
 
     /**
@@ -69,6 +71,7 @@ public class Player {
      */
     public void setId(UUID uuid) {
         this.uuid = uuid;
+        claimProgress();
     }
 
     /**
@@ -105,6 +108,19 @@ public class Player {
      */
     public void setProgress(ArrayList<Progress> progress) {
         this.progress = progress;
+        claimProgress();
+        ProgressJournal.getInstance().recordReplace(this);
+    }
+
+    /**
+     * Marks this player as the owner of its first progress record, which is
+     * the one that is persisted, so {@link ProgressJournal} can attribute
+     * changes to it.
+     */
+    private void claimProgress() {
+        if (progress != null && !progress.isEmpty() && progress.get(0) != null) {
+            progress.get(0).setOwner(uuid);
+        }
     }
 
     /**
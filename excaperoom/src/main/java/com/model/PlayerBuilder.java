@@ -0,0 +1,185 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Accumulates the fields of one stored player and builds the {@link Player}.
+ * <p>
+ * Fields are fed one at a time, in any order, so the same rules apply whether
+ * they come from a parsed {@code JSONObject} ({@link DataLoader#parsePlayer})
+ * or straight from the token stream ({@link PlayerStreamHandler}). Missing or
+ * malformed values are ignored, exactly like the original loader:
+ * <ul>
+ *     <li>The password falls back to the legacy {@code progress.password}
+ *         when the top-level one is missing or empty.</li>
+ *     <li>Inventory entries and stored hints are only read from objects.</li>
+ *     <li>Strikes, score and hint costs are only read from whole numbers.</li>
+ * </ul>
+ */
+class PlayerBuilder {
+
+    /** The player's ID, if a valid one was read. */
+    private UUID id;
+
+    /** The player's display name. */
+    private String displayName = "";
+
+    /** The top-level password, if present. */
+    private String password;
+
+    /** The legacy password stored inside the progress object, if present. */
+    private String progressPassword;
+
+    /** Whether a {@code progress} object was read. */
+    private boolean hasProgress;
+
+    /** Items read from {@code progress.inventory}. */
+    private final ArrayList<Item> inventory = new ArrayList<>();
+
+    /** Hints read from {@code progress.storedHints}. */
+    private final ArrayList<Hint> storedHints = new ArrayList<>();
+
+    /** Strikes read from {@code progress.strikes}, if present. */
+    private Long strikes;
+
+    /** Score read from {@code progress.currentScore}, if present. */
+    private Long score;
+
+    /**
+     * Reads a top-level player field.
+     *
+     * @param key   the field name
+     * @param value the field value; may be {@code null}
+     */
+    void playerField(String key, Object value) {
+        if (value == null) return;
+        switch (key) {
+            case DataConstants.USER_ID:
+                try {
+                    id = UUID.fromString(value.toString());
+                } catch (Exception ignored) {
+                    // leave id null
+                }
+                break;
+            case DataConstants.USER_NAME:
+                displayName = value.toString();
+                break;
+            case "password":
+                password = value.toString();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Records that the player has a {@code progress} object.
+     */
+    void startProgress() {
+        hasProgress = true;
+    }
+
+    /**
+     * Reads a scalar field of the {@code progress} object.
+     *
+     * @param key   the field name
+     * @param value the field value; may be {@code null}
+     */
+    void progressField(String key, Object value) {
+        if (value == null) return;
+        switch (key) {
+            case "password":
+                progressPassword = value.toString();
+                break;
+            case DataConstants.USER_STRIKES:
+                if (value instanceof Long) strikes = (Long) value;
+                break;
+            case DataConstants.USER_CURRENT_SCORE:
+                if (value instanceof Long) score = (Long) value;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Starts a new inventory item; later {@link #itemField} calls fill it in.
+     */
+    void startItem() {
+        inventory.add(new Item());
+    }
+
+    /**
+     * Reads a field of the inventory item started last.
+     *
+     * @param key   the field name
+     * @param value the field value; may be {@code null}
+     */
+    void itemField(String key, Object value) {
+        if (value == null || inventory.isEmpty()) return;
+        Item item = inventory.get(inventory.size() - 1);
+        switch (key) {
+            case "name":
+                item.setName(value.toString());
+                break;
+            case "description":
+                item.setDescription(value.toString());
+                break;
+            case "location":
+                item.setLocation(value.toString());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Starts a new stored hint; later {@link #hintField} calls fill it in.
+     */
+    void startHint() {
+        storedHints.add(new Hint());
+    }
+
+    /**
+     * Reads a field of the stored hint started last.
+     *
+     * @param key   the field name
+     * @param value the field value; may be {@code null}
+     */
+    void hintField(String key, Object value) {
+        if (value == null || storedHints.isEmpty()) return;
+        Hint hint = storedHints.get(storedHints.size() - 1);
+        if (key.equals("text")) {
+            hint.setText(value.toString());
+        } else if (key.equals("cost") && value instanceof Long) {
+            hint.setCost(((Long) value).intValue());
+        }
+    }
+
+    /**
+     * Builds the player from the fields read so far.
+     *
+     * @return the player; never {@code null}
+     */
+    Player build() {
+        String pw = password == null ? "" : password;
+        if (pw.length() == 0 && hasProgress && progressPassword != null) {
+            pw = progressPassword;
+        }
+
+        Progress progress = new Progress();
+        if (hasProgress) {
+            progress.setInventory(inventory);
+            progress.setStoredHints(storedHints);
+            if (strikes != null) progress.setStrikes(strikes.intValue());
+            if (score != null) progress.setScore(score.intValue());
+        }
+
+        ArrayList<Progress> progressList = new ArrayList<>();
+        progressList.add(progress);
+        return id != null
+                ? new Player(id, displayName, progressList, pw)
+                : new Player(displayName, progressList, pw);
+    }
+}
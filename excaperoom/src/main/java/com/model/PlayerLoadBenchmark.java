@@ -0,0 +1,153 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+/**
+ * PlayerLoadBenchmark
+ * <p>
+ * Compares loading a large {@code players.json} the old way (parse the whole
+ * document into a {@code JSONObject} tree, then build players from it) with the
+ * streaming {@link PlayerStreamHandler}, and with reading the same players from
+ * a {@link BinarySnapshot}. Reports wall time and peak heap for each. The files
+ * are generated in the temp directory; the real {@code json/players.json} is
+ * never touched.
+ * <p>
+ * Usage: {@code PlayerLoadBenchmark [playerCount] [rounds]} (defaults: 100000, 3).
+ * Run with a fixed heap (e.g. {@code -Xmx1g}) for comparable numbers.
+ */
+public class PlayerLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        File file = File.createTempFile("players-bench", ".json");
+        file.deleteOnExit();
+        writeSample(file, count);
+        System.out.println("=== PlayerLoadBenchmark ===");
+        File binary = File.createTempFile("players-bench", ".bin");
+        binary.deleteOnExit();
+        BinarySnapshot.write(binary, DataLoader.readPlayerFile(file));
+        System.out.printf("players: %,d   json: %,d bytes   binary: %,d bytes%n",
+                count, file.length(), binary.length());
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("-- round " + round);
+            report("tree   ", measure(() -> loadWithTree(file)));
+            report("stream ", measure(() -> loadStreaming(file)));
+            report("binary ", measure(() -> BinarySnapshot.read(binary).size()));
+        }
+    }
+
+    /**
+     * Loads players by parsing the whole file into a tree first (the previous approach).
+     */
+    private static int loadWithTree(File file) throws Exception {
+        try (FileReader reader = new FileReader(file)) {
+            JSONObject root = (JSONObject) new JSONParser().parse(reader);
+            JSONArray users = (JSONArray) root.get("users");
+            ArrayList<Player> players = new ArrayList<>();
+            for (Object entry : users) {
+                players.add(DataLoader.parsePlayer((JSONObject) entry));
+            }
+            return players.size();
+        }
+    }
+
+    /**
+     * Loads players with the streaming handler used by {@link DataLoader#getPlayers()}.
+     */
+    private static int loadStreaming(File file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file), 1 << 16)) {
+            return PlayerStreamHandler.read(reader).getPlayers().size();
+        }
+    }
+
+    private interface Load {
+        int run() throws Exception;
+    }
+
+    /** Result of one measured load: players read, milliseconds, peak heap bytes. */
+    private static long[] measure(Load load) throws Exception {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        Thread.sleep(100);
+        long baseline = rt.totalMemory() - rt.freeMemory();
+
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long used = rt.totalMemory() - rt.freeMemory();
+                peak.accumulateAndGet(used, Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        int loaded = load.run();
+        long elapsed = System.nanoTime() - start;
+
+        sampler.interrupt();
+        sampler.join();
+        return new long[] { loaded, elapsed / 1_000_000, peak.get() - baseline };
+    }
+
+    private static void report(String label, long[] result) {
+        System.out.printf("%s %,8d players  %,7d ms  peak heap +%,d MB%n",
+                label, result[0], result[1], result[2] / (1024 * 1024));
+    }
+
+    /**
+     * Writes {@code count} players in the current {@code players.json} shape.
+     */
+    @SuppressWarnings("unchecked")
+    private static void writeSample(File file, int count) throws IOException {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            out.write("{\"schemaVersion\":1,\"users\":[");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) out.write(',');
+                ArrayList<Progress> progs = new ArrayList<>();
+                Progress progress = new Progress();
+                progress.addItem(new Item("Item" + (i % 7), "Sample item", "Room " + (i % 3), null));
+                progress.addHint(new Hint("Hint text " + (i % 11), 5));
+                progress.setStrikes(i % 3);
+                progress.setScore(i % 1000);
+                progs.add(progress);
+                Player player = new Player(UUID.randomUUID(), "player" + i, progs, "pw" + i);
+                out.write(toJSONQuietly(player).toJSONString());
+            }
+            out.write("]}");
+        }
+    }
+
+    /**
+     * Serializes a player while suppressing {@link DataWriter}'s per-player console output.
+     */
+    private static JSONObject toJSONQuietly(Player player) {
+        java.io.PrintStream console = System.out;
+        System.setOut(new java.io.PrintStream(java.io.OutputStream.nullOutputStream()));
+        try {
+            return DataWriter.toJSON(player);
+        } finally {
+            System.setOut(console);
+        }
+    }
+}
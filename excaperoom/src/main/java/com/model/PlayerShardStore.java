@@ -0,0 +1,317 @@
+package com.model;
+
+import java.io.File;
+import java.io.FileReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+/**
+ * Per-player sharded storage for {@link Player} data.
+ * <p>
+ * Used when the storage mode is {@link StorageMode#SHARDED}. Instead of one
+ * {@code players.json} holding everybody, each player lives in its own file:
+ * <pre>
+ * json/players/
+ *     index.json                 { "schemaVersion": 1, "players": [ { "uuid": ..., "displayName": ... }, ... ] }
+ *     &lt;uuid&gt;.json                { ... same player object as in players.json ... }
+ * </pre>
+ * A save only rewrites the shards of players that changed, plus the index when
+ * players were added, removed or renamed, so its cost no longer grows with the
+ * total number of players.
+ * <p>
+ * A shard is only deleted for a player removed through
+ * {@link Players#removePlayer(UUID)}. A player missing from the saved list for
+ * any other reason, such as a shard that could not be read at load time, keeps
+ * its shard and index entry.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class PlayerShardStore extends DataConstants {
+
+    /** Singleton instance of the store. */
+    private static PlayerShardStore instance;
+
+    /** Player IDs and display names as last read from or written to the index, in file order. */
+    private LinkedHashMap<UUID, String> index;
+
+    /** Reverse lookup from display name to player ID, kept in step with {@link #index}. */
+    private HashMap<String, UUID> idsByName;
+
+    /** IDs of players removed since the last save, whose shards the next save deletes. */
+    private HashSet<UUID> removed;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     * The index is read lazily on first use.
+     */
+    private PlayerShardStore() {
+        this.index = null;
+        this.idsByName = new HashMap<>();
+        this.removed = new HashSet<>();
+    }
+
+    /**
+     * Returns the singleton instance of the store, creating it if needed.
+     *
+     * @return the shared {@code PlayerShardStore}
+     */
+    public static synchronized PlayerShardStore getInstance() {
+        if (instance == null) {
+            instance = new PlayerShardStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Indicates whether sharded player data exists on disk.
+     *
+     * @return {@code true} if the index file exists; {@code false} otherwise
+     */
+    public boolean exists() {
+        return new File(PLAYER_INDEX_FILE).exists();
+    }
+
+    /**
+     * Loads every player listed in the index, in index order.
+     * <p>
+     * Shards that are missing or unreadable are skipped with a warning.
+     *
+     * @return the loaded players; never {@code null}
+     */
+    public synchronized ArrayList<Player> loadAll() {
+        index = readIndex();
+        rebuildNameLookup();
+
+        ArrayList<Player> players = new ArrayList<>();
+        for (UUID id : index.keySet()) {
+            Player player = loadPlayer(id);
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Loads a single player from its shard.
+     *
+     * @param id the player's UUID
+     * @return the player, or {@code null} if the shard is missing or unreadable
+     */
+    public Player loadPlayer(UUID id) {
+        File shard = shardFile(id);
+        if (!shard.exists()) {
+            System.out.println("Warning: missing player shard " + shard.getPath());
+            return null;
+        }
+        try (FileReader reader = new FileReader(shard)) {
+            Object parsed = new JSONParser().parse(reader);
+            if (parsed instanceof JSONObject) {
+                return DataLoader.parsePlayer((JSONObject) parsed);
+            }
+        } catch (Exception e) {
+            System.out.println("Warning: could not read player shard " + shard.getPath() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a player's ID by display name using the index, without reading any shard.
+     *
+     * @param displayName the display name to look up
+     * @return the matching player's UUID, or {@code null} if there is none
+     */
+    public synchronized UUID findId(String displayName) {
+        ensureIndexLoaded();
+        return idsByName.get(displayName);
+    }
+
+    /**
+     * Records that a player was removed, so the next {@link #save} deletes
+     * their shard and index entry.
+     *
+     * @param id the removed player's UUID
+     */
+    public synchronized void markRemoved(UUID id) {
+        if (id != null) {
+            removed.add(id);
+        }
+    }
+
+    /**
+     * Saves the given players, rewriting only what changed.
+     * <p>
+     * This method:
+     * <ul>
+     *     <li>Writes the shard of every player in {@code dirty}, and of every player
+     *         not yet in the index.</li>
+     *     <li>Deletes the shards of players marked with {@link #markRemoved(UUID)}
+     *         that are no longer in {@code players}. Other players in the index
+     *         but not in {@code players} keep their shard and index entry.</li>
+     *     <li>Rewrites the index only if players were added, removed or renamed.</li>
+     * </ul>
+     *
+     * @param players the full current list of players
+     * @param dirty   IDs of players whose data changed, or {@code null} to rewrite every shard
+     * @return {@code true} if every write succeeded; {@code false} otherwise
+     */
+    public synchronized boolean save(List<Player> players, Set<UUID> dirty) {
+        ensureIndexLoaded();
+        File dir = new File(PLAYER_SHARD_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            System.out.println("Warning: could not create " + PLAYER_SHARD_DIR);
+            return false;
+        }
+
+        boolean ok = true;
+        LinkedHashMap<UUID, String> next = new LinkedHashMap<>();
+        if (players != null) {
+            for (Player player : players) {
+                if (player == null || player.getId() == null) continue;
+                UUID id = player.getId();
+                next.put(id, player.getDisplayName());
+                if (dirty == null || dirty.contains(id) || !index.containsKey(id)) {
+                    ok &= writeJSON(shardFile(id), DataWriter.toJSON(player));
+                }
+            }
+        }
+
+        for (Map.Entry<UUID, String> old : index.entrySet()) {
+            UUID id = old.getKey();
+            if (next.containsKey(id)) {
+                continue;
+            }
+            if (removed.contains(id)) {
+                shardFile(id).delete();
+            } else {
+                // not loaded, e.g. its shard could not be read: keep it
+                next.put(id, old.getValue());
+            }
+        }
+        removed.clear();
+
+        if (!next.equals(index) || !exists()) {
+            ok &= writeIndex(next);
+            index = next;
+            rebuildNameLookup();
+        }
+        return ok;
+    }
+
+    /**
+     * Returns the shard file used for a player.
+     *
+     * @param id the player's UUID
+     * @return the shard file
+     */
+    File shardFile(UUID id) {
+        return new File(PLAYER_SHARD_DIR, id.toString() + ".json");
+    }
+
+    /**
+     * Forgets the cached index so the next operation rereads it from disk.
+     */
+    public synchronized void invalidate() {
+        index = null;
+        idsByName.clear();
+        removed.clear();
+    }
+
+    /**
+     * Reads the index from disk if it has not been read yet.
+     */
+    private void ensureIndexLoaded() {
+        if (index == null) {
+            index = readIndex();
+            rebuildNameLookup();
+        }
+    }
+
+    /**
+     * Rebuilds the display-name lookup from the current index.
+     */
+    private void rebuildNameLookup() {
+        idsByName = new HashMap<>();
+        for (Map.Entry<UUID, String> entry : index.entrySet()) {
+            if (entry.getValue() != null) {
+                idsByName.put(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Reads the index file.
+     *
+     * @return the player IDs and names in file order; empty if the file is missing or unreadable
+     */
+    private LinkedHashMap<UUID, String> readIndex() {
+        LinkedHashMap<UUID, String> read = new LinkedHashMap<>();
+        File file = new File(PLAYER_INDEX_FILE);
+        if (!file.exists()) {
+            return read;
+        }
+        try (FileReader reader = new FileReader(file)) {
+            Object parsed = new JSONParser().parse(reader);
+            if (parsed instanceof JSONObject) {
+                Object list = ((JSONObject) parsed).get("players");
+                if (list instanceof JSONArray) {
+                    for (Object raw : (JSONArray) list) {
+                        if (!(raw instanceof JSONObject)) continue;
+                        JSONObject entry = (JSONObject) raw;
+                        try {
+                            UUID id = UUID.fromString(entry.get(USER_ID).toString());
+                            Object name = entry.get(USER_NAME);
+                            read.put(id, name == null ? "" : name.toString());
+                        } catch (Exception ignored) {}
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Warning: could not read " + PLAYER_INDEX_FILE + ": " + e.getMessage());
+        }
+        return read;
+    }
+
+    /**
+     * Writes the index file.
+     *
+     * @param entries the player IDs and names to write, in order
+     * @return {@code true} if the write succeeded; {@code false} otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private boolean writeIndex(Map<UUID, String> entries) {
+        JSONArray list = new JSONArray();
+        for (Map.Entry<UUID, String> entry : entries.entrySet()) {
+            JSONObject item = new JSONObject();
+            item.put(USER_ID, entry.getKey().toString());
+            item.put(USER_NAME, entry.getValue());
+            list.add(item);
+        }
+        JSONObject root = new JSONObject();
+        root.put("schemaVersion", 1);
+        root.put("players", list);
+        return writeJSON(new File(PLAYER_INDEX_FILE), root);
+    }
+
+    /**
+     * Writes a JSON object to a file, replacing its contents atomically.
+     *
+     * @param file the file to write
+     * @param json the JSON object to write
+     * @return {@code true} if the write succeeded; {@code false} otherwise
+     */
+    private boolean writeJSON(File file, JSONObject json) {
+        return AtomicFileWriter.write(file, json.toJSONString().getBytes(Charset.defaultCharset()));
+    }
+}
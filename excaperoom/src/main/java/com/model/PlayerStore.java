@@ -0,0 +1,322 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lock-striped access to individual player records.
+ * <p>
+ * {@link Player} and {@link Progress} keep their data in plain lists, which is
+ * fine for the single-player facade but unsafe once several
+ * {@link GameSession}s change players while the {@link SaveCoalescer} is
+ * serializing them. Locking the whole {@link Players} store for every strike
+ * or item would make unrelated sessions queue behind each other, so this class
+ * instead guards each player with one of a fixed set of stripe locks chosen by
+ * the player's UUID:
+ * <ul>
+ *     <li>Changes to one player's progress (strikes, items, hints) hold that
+ *         player's stripe only.</li>
+ *     <li>Serializing a player for a save ({@link DataWriter}, {@link BinarySnapshot})
+ *         holds the same stripe, so it never sees a half-made change.</li>
+ *     <li>Lookups by UUID do not take the {@link Players} lock, and saving only
+ *         marks the player dirty in the {@link SaveCoalescer}, which does not
+ *         lock either.</li>
+ * </ul>
+ * Two players only contend when their UUIDs hash to the same stripe; with
+ * several stripes per core that is rare.
+ * <p>
+ * Strikes are kept on a player's first progress entry and items on the latest
+ * one, as in {@link Players#addStrike()} and {@link Players#addItem(Item)}.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class PlayerStore {
+
+    /** Minimum number of stripe locks. */
+    public static final int MIN_STRIPES = 64;
+
+    /**
+     * Singleton instance of the store. Created eagerly, because every per-player
+     * operation goes through it and must not queue on a synchronized getter.
+     */
+    private static final PlayerStore instance =
+            new PlayerStore(Runtime.getRuntime().availableProcessors() * 4);
+
+    /** The stripe locks. */
+    private final Object[] stripes;
+
+    /** Mask selecting a stripe from a spread hash; the stripe count is a power of two. */
+    private final int mask;
+
+    /**
+     * Creates a store with at least {@code stripeCount} stripes.
+     *
+     * @param stripeCount the requested number of stripes, rounded up to a power
+     *                    of two and to at least {@link #MIN_STRIPES}
+     */
+    PlayerStore(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(MIN_STRIPES, stripeCount) - 1) << 1;
+        this.stripes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Object();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Returns the singleton instance of the store.
+     *
+     * @return the shared {@code PlayerStore}
+     */
+    public static PlayerStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the lock guarding a player's record.
+     *
+     * @param id the player's UUID; {@code null} maps to a fixed stripe
+     * @return the stripe lock
+     */
+    public Object lockFor(UUID id) {
+        int h = id == null ? 0 : id.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+
+    /**
+     * Returns the lock guarding a player's record.
+     *
+     * @param player the player
+     * @return the stripe lock
+     */
+    public Object lockFor(Player player) {
+        return lockFor(player == null ? null : player.getId());
+    }
+
+    /**
+     * Returns the number of stripe locks.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Looks up a registered player without taking the {@link Players} lock.
+     *
+     * @param id the player's UUID
+     * @return the player, or {@code null} if none is registered with that UUID
+     */
+    public Player get(UUID id) {
+        return Players.getInstance().lookup(id);
+    }
+
+    /**
+     * Reads from a player's record while holding its stripe.
+     *
+     * @param player the player; may be {@code null}
+     * @param reader the read to perform
+     * @param <T>    the result type
+     * @return the reader's result, or {@code null} if the player is {@code null}
+     */
+    public <T> T read(Player player, Function<Player, T> reader) {
+        if (player == null) return null;
+        synchronized (lockFor(player)) {
+            return reader.apply(player);
+        }
+    }
+
+    /**
+     * Changes a player's record while holding its stripe. Does not save.
+     *
+     * @param player the player; may be {@code null}
+     * @param change the change to make
+     * @return {@code true} if the change was made; {@code false} if the player is {@code null}
+     */
+    public boolean update(Player player, Consumer<Player> change) {
+        if (player == null) return false;
+        synchronized (lockFor(player)) {
+            change.accept(player);
+        }
+        return true;
+    }
+
+    /**
+     * Changes a registered player's record while holding its stripe. Does not save.
+     *
+     * @param id     the player's UUID
+     * @param change the change to make
+     * @return {@code true} if the change was made; {@code false} if no such player is registered
+     */
+    public boolean update(UUID id, Consumer<Player> change) {
+        return update(get(id), change);
+    }
+
+    /**
+     * Returns a player's strikes.
+     *
+     * @param player the player; may be {@code null}
+     * @return the number of strikes, or {@code 0} if the player has no progress
+     */
+    public int getStrikes(Player player) {
+        Integer strikes = read(player, p -> {
+            Progress progress = firstProgress(p);
+            return progress == null ? 0 : progress.getStrikes();
+        });
+        return strikes == null ? 0 : strikes;
+    }
+
+    /**
+     * Adds one strike to a player.
+     *
+     * @param player the player; may be {@code null}
+     * @return {@code true} if the player has progress to add the strike to
+     */
+    public boolean addStrike(Player player) {
+        Boolean added = read(player, p -> {
+            Progress progress = firstProgress(p);
+            if (progress == null) return false;
+            progress.setStrikes(progress.getStrikes() + 1);
+            return true;
+        });
+        return added != null && added;
+    }
+
+    /**
+     * Adds one strike to a registered player.
+     *
+     * @param id the player's UUID
+     * @return {@code true} if the player exists and has progress
+     */
+    public boolean addStrike(UUID id) {
+        return addStrike(get(id));
+    }
+
+    /**
+     * Resets a player's strikes to zero.
+     *
+     * @param player the player; may be {@code null}
+     * @return {@code true} if the player has progress to reset
+     */
+    public boolean resetStrikes(Player player) {
+        Boolean reset = read(player, p -> {
+            Progress progress = firstProgress(p);
+            if (progress == null) return false;
+            progress.setStrikes(0);
+            return true;
+        });
+        return reset != null && reset;
+    }
+
+    /**
+     * Adds an item to a player's latest inventory.
+     *
+     * @param player the player; may be {@code null}
+     * @param item   the item to add
+     * @return {@code true} if the player has progress to add the item to
+     */
+    public boolean addItem(Player player, Item item) {
+        Boolean added = read(player, p -> {
+            Progress progress = latestProgress(p);
+            if (progress == null) return false;
+            progress.addItem(item);
+            return true;
+        });
+        return added != null && added;
+    }
+
+    /**
+     * Adds an item to a registered player's latest inventory.
+     *
+     * @param id   the player's UUID
+     * @param item the item to add
+     * @return {@code true} if the player exists and has progress
+     */
+    public boolean addItem(UUID id, Item item) {
+        return addItem(get(id), item);
+    }
+
+    /**
+     * Checks whether a player's latest inventory holds an item.
+     *
+     * @param player the player; may be {@code null}
+     * @param name   the item name, compared ignoring case
+     * @return {@code true} if the inventory contains it
+     */
+    public boolean hasItem(Player player, String name) {
+        Boolean found = read(player, p -> {
+            Progress progress = latestProgress(p);
+            if (name == null || progress == null || progress.getInventory() == null) return false;
+            for (Item item : progress.getInventory()) {
+                if (name.equalsIgnoreCase(item.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        });
+        return found != null && found;
+    }
+
+    /**
+     * Returns a copy of a player's latest inventory.
+     *
+     * @param player the player; may be {@code null}
+     * @return the items; empty if the player has none
+     */
+    public ArrayList<Item> getInventory(Player player) {
+        ArrayList<Item> items = read(player, p -> {
+            Progress progress = latestProgress(p);
+            return progress == null || progress.getInventory() == null
+                    ? new ArrayList<>() : new ArrayList<>(progress.getInventory());
+        });
+        return items == null ? new ArrayList<>() : items;
+    }
+
+    /**
+     * Requests a save of one player through the {@link SaveCoalescer}.
+     *
+     * @param player the player; {@code null} requests a save of every player
+     */
+    public void saveProgress(Player player) {
+        SaveCoalescer.getInstance().requestSave(player);
+    }
+
+    /**
+     * Requests a save of a registered player through the {@link SaveCoalescer}.
+     *
+     * @param id the player's UUID
+     * @return {@code true} if the player exists
+     */
+    public boolean saveProgress(UUID id) {
+        Player player = get(id);
+        if (player == null) return false;
+        saveProgress(player);
+        return true;
+    }
+
+    /**
+     * Returns a player's first progress entry.
+     *
+     * @param player the player
+     * @return the progress, or {@code null} if there is none
+     */
+    private static Progress firstProgress(Player player) {
+        ArrayList<Progress> progress = player.getProgress();
+        return progress == null || progress.isEmpty() ? null : progress.get(0);
+    }
+
+    /**
+     * Returns a player's latest progress entry.
+     *
+     * @param player the player
+     * @return the progress, or {@code null} if there is none
+     */
+    private static Progress latestProgress(Player player) {
+        ArrayList<Progress> progress = player.getProgress();
+        return progress == null || progress.isEmpty() ? null : progress.get(progress.size() - 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * PlayerStoreStressBenchmark
+ * <p>
+ * Measures how per-player operations scale with threads. Each thread drives
+ * its own players with {@code addStrike}, {@code addItem} and
+ * {@code saveProgress}, first through {@link PlayerStore} (one stripe lock per
+ * player) and then with every operation holding one global lock, as a single
+ * synchronized store would. With striping, throughput should grow roughly
+ * with the number of cores; with the global lock it stays flat or drops.
+ * <p>
+ * The players are not registered with {@link Players}, and saves only mark
+ * them dirty: the flush delay is raised during the run and the pending saves
+ * are dropped afterwards, so nothing is written.
+ * <p>
+ * Usage: {@code PlayerStoreStressBenchmark [maxThreads] [opsPerThread] [playersPerThread]}
+ * (defaults: twice the number of cores, 200000, 16).
+ */
+public class PlayerStoreStressBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : cores * 2;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int perThread = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        SaveCoalescer.getInstance().setFlushDelay(Long.MAX_VALUE / 4);
+        ArrayList<Player> players = new ArrayList<>();
+        for (int i = 0; i < maxThreads * perThread; i++) {
+            ArrayList<Progress> progress = new ArrayList<>();
+            progress.add(new Progress());
+            players.add(new Player("stress" + i, progress, "pw"));
+        }
+        PlayerStore store = PlayerStore.getInstance();
+        Object globalLock = new Object();
+        Item item = new Item("Tape", "a VHS tape", "shelf", null);
+
+        System.out.println("=== PlayerStoreStressBenchmark ===");
+        System.out.printf("cores: %d   stripes: %d   ops/thread: %,d   players/thread: %d%n",
+                cores, store.getStripeCount(), ops, perThread);
+        System.out.println("threads   striped ops/s   global-lock ops/s");
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            clear(players);
+            long striped = run(threads, ops, perThread, players, (player, i) -> {
+                switch (i % 3) {
+                    case 0: store.addStrike(player); break;
+                    case 1: store.addItem(player, item); break;
+                    default: store.saveProgress(player); break;
+                }
+            });
+            clear(players);
+            long global = run(threads, ops, perThread, players, (player, i) -> {
+                synchronized (globalLock) {
+                    switch (i % 3) {
+                        case 0: store.addStrike(player); break;
+                        case 1: store.addItem(player, item); break;
+                        default: store.saveProgress(player); break;
+                    }
+                }
+            });
+            long total = (long) threads * ops;
+            System.out.printf("%7d   %,13.0f   %,17.0f%n", threads,
+                    total * 1e9 / Math.max(1, striped), total * 1e9 / Math.max(1, global));
+        }
+
+        // the stress players are not registered; nothing is meant to be written
+        SaveCoalescer.getInstance().discard();
+    }
+
+    private interface Op {
+        void run(Player player, int i);
+    }
+
+    /** Empties every player's inventory so runs start alike. */
+    private static void clear(ArrayList<Player> players) {
+        for (Player player : players) {
+            PlayerStore.getInstance().update(player, p -> {
+                p.getProgress().get(0).getInventory().clear();
+                p.getProgress().get(0).setStrikes(0);
+            });
+        }
+    }
+
+    /** Runs {@code ops} operations on each of {@code threads} threads and returns the elapsed nanoseconds. */
+    private static long run(int threads, int ops, int perThread, ArrayList<Player> players, Op op) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ops; i++) {
+                        op.run(players.get(first + (i / 3) % perThread), i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+}
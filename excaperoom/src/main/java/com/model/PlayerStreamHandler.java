@@ -0,0 +1,265 @@
+package com.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Event-based reader for {@code players.json} that builds {@link Player}
+ * objects straight from the token stream.
+ * <p>
+ * Unlike parsing the file with {@link JSONParser#parse(Reader)}, no
+ * {@code JSONObject}/{@code JSONArray} tree is ever built: each player is
+ * assembled in a {@link PlayerBuilder} while its tokens go by and the builder
+ * is dropped as soon as the player object closes. Unknown fields and nested
+ * values the loader does not use are skipped without being materialized.
+ * <p>
+ * The same shapes as before are accepted:
+ * <ul>
+ *     <li>a wrapper object with a {@code users} array (preferred) or a
+ *         {@code players} array, optionally with {@code schemaVersion} and
+ *         {@code journalSeq};</li>
+ *     <li>a bare array of player objects;</li>
+ *     <li>a single player object at the root (one that has a
+ *         {@code displayName}, {@code uuid} or {@code progress} field).</li>
+ * </ul>
+ */
+public class PlayerStreamHandler implements ContentHandler {
+
+    /** What the innermost open object or array represents. */
+    private enum Frame { ROOT, USERS, PLAYERS, PLAYER, PROGRESS, INVENTORY, ITEM, HINTS, HINT, SKIP }
+
+    /** Open objects and arrays, innermost first. */
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+    /** Key of the object entry currently being read, or {@code null} inside arrays. */
+    private String key;
+
+    /** Player currently being assembled. */
+    private PlayerBuilder current;
+
+    /** Builder for the root object, in case it turns out to be a single player. */
+    private PlayerBuilder rootPlayer;
+
+    /** Whether the root object has a field that marks it as a single player. */
+    private boolean rootLooksLikePlayer;
+
+    /** Players read from a {@code users} array or from a bare root array. */
+    private final ArrayList<Player> users = new ArrayList<>();
+
+    /** Players read from a {@code players} array. */
+    private final ArrayList<Player> players = new ArrayList<>();
+
+    /** Whether a {@code users} array was found. */
+    private boolean usersFound;
+
+    /** Whether a {@code players} array was found. */
+    private boolean playersFound;
+
+    /** Value of the root {@code journalSeq} field, or 0 if missing. */
+    private long journalSeq;
+
+    /**
+     * Reads every player from a {@code players.json} stream.
+     *
+     * @param reader the source to read; not closed by this method
+     * @return the handler holding the results, see {@link #getPlayers()} and {@link #getJournalSeq()}
+     * @throws IOException    if reading fails
+     * @throws ParseException if the content is not valid JSON
+     */
+    public static PlayerStreamHandler read(Reader reader) throws IOException, ParseException {
+        PlayerStreamHandler handler = new PlayerStreamHandler();
+        new JSONParser().parse(reader, handler);
+        return handler;
+    }
+
+    /**
+     * Returns the players that were read, following the same precedence as the
+     * original loader: {@code users}, then {@code players}, then a single-player root.
+     *
+     * @return the loaded players; never {@code null}
+     */
+    public ArrayList<Player> getPlayers() {
+        if (usersFound) return users;
+        if (playersFound) return players;
+        ArrayList<Player> single = new ArrayList<>();
+        if (rootLooksLikePlayer && rootPlayer != null) {
+            single.add(rootPlayer.build());
+        }
+        return single;
+    }
+
+    /**
+     * Returns the last journal sequence number recorded in the file.
+     *
+     * @return the root {@code journalSeq}, or 0 if it is missing
+     */
+    public long getJournalSeq() {
+        return journalSeq;
+    }
+
+    @Override
+    public void startJSON() {
+        frames.clear();
+        key = null;
+    }
+
+    @Override
+    public void endJSON() {
+    }
+
+    @Override
+    public boolean startObject() {
+        Frame parent = frames.peek();
+        Frame next;
+        if (parent == null) {
+            rootPlayer = new PlayerBuilder();
+            current = rootPlayer;
+            next = Frame.ROOT;
+        } else {
+            switch (parent) {
+                case USERS:
+                case PLAYERS:
+                    current = new PlayerBuilder();
+                    next = Frame.PLAYER;
+                    break;
+                case ROOT:
+                case PLAYER:
+                    if ("progress".equals(key)) {
+                        current.startProgress();
+                        next = Frame.PROGRESS;
+                    } else {
+                        next = Frame.SKIP;
+                    }
+                    break;
+                case INVENTORY:
+                    current.startItem();
+                    next = Frame.ITEM;
+                    break;
+                case HINTS:
+                    current.startHint();
+                    next = Frame.HINT;
+                    break;
+                default:
+                    next = Frame.SKIP;
+                    break;
+            }
+        }
+        frames.push(next);
+        return true;
+    }
+
+    @Override
+    public boolean endObject() {
+        Frame closed = frames.pop();
+        if (closed == Frame.PLAYER) {
+            (frames.peek() == Frame.PLAYERS ? players : users).add(current.build());
+            current = null;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String name) {
+        key = name;
+        if (frames.peek() == Frame.ROOT
+                && (name.equals(DataConstants.USER_NAME) || name.equals(DataConstants.USER_ID) || name.equals("progress"))) {
+            rootLooksLikePlayer = true;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        key = null;
+        return true;
+    }
+
+    @Override
+    public boolean startArray() {
+        Frame parent = frames.peek();
+        Frame next = Frame.SKIP;
+        if (parent == null) {
+            usersFound = true;
+            next = Frame.USERS;
+        } else if (parent == Frame.ROOT && "users".equals(key)) {
+            usersFound = true;
+            next = Frame.USERS;
+        } else if (parent == Frame.ROOT && "players".equals(key)) {
+            playersFound = true;
+            next = Frame.PLAYERS;
+        } else if (parent == Frame.PROGRESS && DataConstants.USER_INVENTORY.equals(key)) {
+            next = Frame.INVENTORY;
+        } else if (parent == Frame.PROGRESS && DataConstants.USER_STORED_HINTS.equals(key)) {
+            next = Frame.HINTS;
+        }
+        if (parent == Frame.ROOT) {
+            // the root is a wrapper, so it cannot also be a single player's fields being read
+            current = null;
+        }
+        frames.push(next);
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        frames.pop();
+        if (frames.peek() == Frame.ROOT) {
+            current = rootPlayer;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) {
+        Frame frame = frames.peek();
+        if (frame == null || key == null) return true;
+        switch (frame) {
+            case ROOT:
+                if (key.equals(DataConstants.JOURNAL_SEQ) && value instanceof Number) {
+                    journalSeq = ((Number) value).longValue();
+                } else if (key.equals("schemaVersion")) {
+                    warnOnSchemaVersion(value);
+                }
+                rootPlayer.playerField(key, value);
+                break;
+            case PLAYER:
+                current.playerField(key, value);
+                break;
+            case PROGRESS:
+                current.progressField(key, value);
+                break;
+            case ITEM:
+                current.itemField(key, value);
+                break;
+            case HINT:
+                current.hintField(key, value);
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the same warning as the original loader for unexpected schema versions.
+     *
+     * @param value the raw {@code schemaVersion} value
+     */
+    private static void warnOnSchemaVersion(Object value) {
+        if (value == null) return;
+        int svn = -1;
+        try {
+            if (value instanceof Number) svn = ((Number) value).intValue();
+            else svn = Integer.parseInt(value.toString());
+        } catch (Exception ignore) {}
+        if (svn != -1 && svn != 1) {
+            System.out.println("Warning: players.json schemaVersion=" + svn + " (expected 1). Proceeding to parse 'users'/'players'.");
+        }
+    }
+}
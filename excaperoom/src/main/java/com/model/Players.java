@@ -4,11 +4,28 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton manager class that handles all player-related operations in the VHS Escape game.
  * Manages player accounts, authentication, progress tracking, and certificate generation.
+ * <p>
+ * Players are kept in a list (in load order) and indexed by UUID and by display
+ * name, so lookups, login and account creation do not scan the list. The
+ * indexes are maintained by {@link #addPlayer(Player)}, {@link #removePlayer(UUID)},
+ * {@link #setPlayers(ArrayList)} and {@link #loadProgress()}, and rebuilt
+ * automatically if the list returned by {@link #getPlayers()} is changed directly.
+ * Renaming a player with {@link Player#setDisplayName(String)} after it was
+ * added is not tracked.
+ * <p>
+ * The methods that read or change the player list are synchronized, so
+ * {@link SessionRegistry} can serve many sessions from the same store. The
+ * {@code currentPlayer} belongs to the single-player facade; sessions use
+ * {@link #authenticate(String, String)} and {@link #register(String, String)},
+ * which leave it alone. Changes to a single player's progress go through
+ * {@link PlayerStore}, which locks only that player.
  * 
  * @author VHS Escape Team
  * @version 1.0
@@ -23,6 +40,18 @@ public class Players {
     /** The currently logged-in player */
     private static Player currentPlayer = null;
 
+    /** Players indexed by UUID; written under the lock, read lock-free by {@link #lookup(UUID)} */
+    private static volatile ConcurrentHashMap<UUID, Player> playersById = new ConcurrentHashMap<>();
+
+    /** Players indexed by display name; a name maps to several players only in legacy data */
+    private static HashMap<String, ArrayList<Player>> playersByName = new HashMap<>();
+
+    /** The list the indexes were built from */
+    private static ArrayList<Player> indexedList;
+
+    /** Size of that list when the indexes were last updated */
+    private static int indexedSize = -1;
+
     /**
      * Private constructor to enforce singleton pattern.
      * Initializes the players collection.
@@ -37,7 +66,7 @@ public class Players {
      * 
      * @return the singleton instance of Players
      */
-    public static Players getInstance() {
+    public static synchronized Players getInstance() {
         if (instance == null) {
             instance = new Players();
         }
@@ -67,8 +96,9 @@ public class Players {
      * 
      * @param players the ArrayList of players to set
      */
-    public void setPlayers(ArrayList<Player> players) {
+    public synchronized void setPlayers(ArrayList<Player> players) {
         Players.players = players;
+        rebuildIndexes();
     }
 
     /**
@@ -76,8 +106,11 @@ public class Players {
      * 
      * @param player the player to add
      */
-    public void addPlayer(Player player) {
+    public synchronized void addPlayer(Player player) {
+        ensureIndexed();
         players.add(player);
+        index(player);
+        indexedSize = players.size();
     }
 
     /**
@@ -86,13 +119,34 @@ public class Players {
      * @param id the UUID of the player to find
      * @return the Player object if found, null otherwise
      */
-    public Player getPlayer(UUID id) {
-        for (Player player : players) {
-            if (player.getId().equals(id)) {
-                return player;
-            }
-        }
-        return null;
+    public synchronized Player getPlayer(UUID id) {
+        ensureIndexed();
+        return id == null ? null : playersById.get(id);
+    }
+
+    /**
+     * Gets a player by their unique identifier without taking the lock, for the
+     * per-player operations of {@link PlayerStore}. Unlike {@link #getPlayer(UUID)}
+     * it does not notice changes made directly to the list returned by
+     * {@link #getPlayers()} until the next synchronized call.
+     *
+     * @param id the UUID of the player to find
+     * @return the Player object if found, null otherwise
+     */
+    Player lookup(UUID id) {
+        return id == null ? null : playersById.get(id);
+    }
+
+    /**
+     * Gets a player by their display name.
+     *
+     * @param displayName the display name to look up
+     * @return the first player with that name, or null if there is none
+     */
+    public synchronized Player getPlayerByName(String displayName) {
+        ensureIndexed();
+        ArrayList<Player> named = playersByName.get(displayName);
+        return named == null ? null : named.get(0);
     }
 
     /**
@@ -101,15 +155,100 @@ public class Players {
      * @param id the UUID of the player to remove
      * @return true if the player was found and removed, false otherwise
      */
-    public boolean removePlayer(UUID id) {
+    public synchronized boolean removePlayer(UUID id) {
         Player player = getPlayer(id);
         if (player != null) {
             players.remove(player);
+            unindex(player);
+            indexedSize = players.size();
+            PlayerShardStore.getInstance().markRemoved(id);
             return true;
         }
         return false;
     }
 
+    /**
+     * Rebuilds the indexes if the player list was replaced or resized without
+     * going through this class.
+     */
+    private static void ensureIndexed() {
+        if (players != indexedList || players.size() != indexedSize) {
+            rebuildIndexes();
+        }
+    }
+
+    /**
+     * Rebuilds the UUID and display name indexes from the player list.
+     */
+    private static void rebuildIndexes() {
+        ConcurrentHashMap<UUID, Player> byId = new ConcurrentHashMap<>();
+        playersByName = new HashMap<>();
+        if (players == null) {
+            players = new ArrayList<>();
+        }
+        for (Player player : players) {
+            if (player != null && player.getId() != null) {
+                byId.putIfAbsent(player.getId(), player);
+            }
+            indexName(player);
+        }
+        // published whole, so lock-free lookups never see a half-built index
+        playersById = byId;
+        indexedList = players;
+        indexedSize = players.size();
+    }
+
+    /**
+     * Adds a player to the indexes. The first player with a given UUID wins,
+     * matching the order a list scan would find them in.
+     *
+     * @param player the player to index
+     */
+    private static void index(Player player) {
+        if (player == null) return;
+        if (player.getId() != null) {
+            playersById.putIfAbsent(player.getId(), player);
+        }
+        indexName(player);
+    }
+
+    /**
+     * Adds a player to the display name index.
+     *
+     * @param player the player to index
+     */
+    private static void indexName(Player player) {
+        if (player != null && player.getDisplayName() != null) {
+            playersByName.computeIfAbsent(player.getDisplayName(), name -> new ArrayList<>(1)).add(player);
+        }
+    }
+
+    /**
+     * Removes a player from the indexes.
+     *
+     * @param player the player to remove
+     */
+    private static void unindex(Player player) {
+        if (player == null) return;
+        if (player.getId() != null && playersById.get(player.getId()) == player) {
+            playersById.remove(player.getId());
+            // another player with the same UUID (legacy data) takes its place
+            for (Player other : players) {
+                if (player.getId().equals(other.getId())) {
+                    playersById.put(other.getId(), other);
+                    break;
+                }
+            }
+        }
+        ArrayList<Player> named = playersByName.get(player.getDisplayName());
+        if (named != null) {
+            named.remove(player);
+            if (named.isEmpty()) {
+                playersByName.remove(player.getDisplayName());
+            }
+        }
+    }
+
     /**
      * Logs in a player with the provided display name and password.
      * Prevents login if a player is already logged in.
@@ -117,18 +256,21 @@ public class Players {
      * @param display the player's display name
      * @param pass the player's password
      */
-    public void login(String display, String pass) {
+    public synchronized void login(String display, String pass) {
         if(currentPlayer != null)
         {
             System.out.println("Could not log in, already logged in.");
             return;
         }
-        for(int i = 0; i < players.size(); i++){
-            Player search = players.get(i);
-            if(search.getDisplayName().equals(display) && search.checkPassword(pass)){
-                currentPlayer = search;
-                System.out.println("Successfully logged in!");
-                return;
+        ensureIndexed();
+        ArrayList<Player> named = display == null ? null : playersByName.get(display);
+        if (named != null) {
+            for (Player search : named) {
+                if (search.checkPassword(pass)) {
+                    currentPlayer = search;
+                    System.out.println("Successfully logged in!");
+                    return;
+                }
             }
         }
         System.out.println("Could not log in, invalid username or password.");
@@ -154,28 +296,31 @@ public class Players {
      * @param displayName the display name for the new account
      * @param pass the password for the new account
      * @return 0 if already logged in, 1 if password is empty, 2 if name already exists,
-     *         3 if account was created successfully
+     *         3 if account was created successfully, 4 if the name is empty
      */
-    public int createAccount(String displayName, String pass) {
+    public synchronized int createAccount(String displayName, String pass) {
         if(currentPlayer != null) {
             System.out.println("Could not create account, a user is already logged in.");
             return 0;
         }
-        if(pass.equals("")) {
+        if(displayName == null || displayName.isBlank()) {
+            System.out.println("Could not create account, name cannot be empty.");
+            return 4;
+        }
+        if(pass == null || pass.equals("")) {
             System.out.println("Could not create account, password cannot be empty.");
             return 1;
         }
-        for(Player player : players) {
-            if(player.getDisplayName().equals(displayName)) {
-                System.out.println("Could not create account, one with this name already exists.");
-                return 2;
-            }
+        if(getPlayerByName(displayName) != null) {
+            System.out.println("Could not create account, one with this name already exists.");
+            return 2;
         }
         Progress progressInstance = new Progress();
         ArrayList<Progress> progress = new ArrayList<>();
         progress.add(progressInstance);
         Player newPlayer = new Player(displayName, progress, pass);
-        players.add(newPlayer);
+        addPlayer(newPlayer);
+        ProgressJournal.getInstance().recordNewPlayer(newPlayer);
         System.out.println("Account created successfully! Logging in now.");
         Players.getInstance().login(displayName, pass);
         return 3;
@@ -183,17 +328,30 @@ public class Players {
 
     /**
      * Loads player data and puzzle data from persistent storage.
+     * <p>
+     * Changes still waiting in the {@link SaveCoalescer} are flushed first, so
+     * the disk read cannot replace players whose changes were never written.
+     * If they cannot be written, nothing is reloaded.
      * 
      * @return true if data was loaded successfully, false otherwise
      */
     public boolean loadProgress() {
-        ArrayList<Player> loadedPlayers = DataLoader.getPlayers();
-        if (loadedPlayers != null) {
-            players = loadedPlayers;
-            DataLoader.loadPuzzles();
-            return true;
+        // outside the lock: a flush takes a snapshot of the list
+        SaveCoalescer.getInstance().flush();
+        synchronized (this) {
+            if (SaveCoalescer.getInstance().hasPendingChanges()) {
+                System.out.println("Warning: unsaved player changes are pending; not reloading players.");
+                return false;
+            }
+            ArrayList<Player> loadedPlayers = DataLoader.getPlayers();
+            if (loadedPlayers != null) {
+                players = loadedPlayers;
+                rebuildIndexes();
+                DataLoader.loadPuzzles();
+                return true;
+            }
+            return false;
         }
-        return false;
     }
 
     /**
@@ -202,50 +360,113 @@ public class Players {
      * @return the number of strikes, or 0 if no player is logged in
      */
     public int getStrikes() {
-        Player currentPlayer = Players.getCurrentPlayer();
-        if (currentPlayer != null && currentPlayer.getProgress() != null && !currentPlayer.getProgress().isEmpty()) {
-            return currentPlayer.getProgress().get(0).getStrikes();
-        }
-        return 0;
+        return PlayerStore.getInstance().getStrikes(Players.getCurrentPlayer());
     }
 
     /**
      * Adds one strike to the current player's progress.
      */
     public void addStrike() {
-        Player currentPlayer = Players.getCurrentPlayer();
-        if (currentPlayer != null && currentPlayer.getProgress() != null && !currentPlayer.getProgress().isEmpty()) {
-            Progress progress = currentPlayer.getProgress().get(0);
-            int currentStrikes = progress.getStrikes();
-            progress.setStrikes(currentStrikes + 1);
-        }
+        PlayerStore.getInstance().addStrike(Players.getCurrentPlayer());
     }
 
     /**
      * Resets the current player's strikes to zero.
      */
     public void resetStrikes() {
-        Player currentPlayer = Players.getCurrentPlayer();
-        if (currentPlayer != null && currentPlayer.getProgress() != null && !currentPlayer.getProgress().isEmpty()) {
-            currentPlayer.getProgress().get(0).setStrikes(0);
-        }
+        PlayerStore.getInstance().resetStrikes(Players.getCurrentPlayer());
     }
 
     /**
      * Saves all player data to persistent storage.
      * Ensures the current player is synchronized with the players list before saving.
+     * <p>
+     * The write itself is handed to the {@link SaveCoalescer}, which marks the
+     * current player dirty and merges bursts of saves into a single background flush.
+     * Use {@link #flushProgress()} when the data must be on disk before continuing.
      */
     public void saveProgress() {
-        // Make sure currentPlayer is synced with the players list
-        if (currentPlayer != null) {
-            for (int i = 0; i < players.size(); i++) {
-                if (players.get(i).getId().equals(currentPlayer.getId())) {
-                    players.set(i, currentPlayer);  // Update the reference
-                    break;
+        Player saving;
+        synchronized (this) {
+            // Make sure currentPlayer is synced with the players list
+            saving = currentPlayer;
+            if (saving != null) {
+                Player listed = getPlayer(saving.getId());
+                if (listed != null && listed != saving) {
+                    players.set(players.indexOf(listed), saving);  // Update the reference
+                    unindex(listed);
+                    index(saving);
+                }
+            }
+        }
+        // outside the lock: a synchronous flush takes a snapshot of the list
+        SaveCoalescer.getInstance().requestSave(saving);
+    }
+
+    /**
+     * Returns a copy of the player list, safe to iterate while other threads
+     * add or remove players.
+     *
+     * @return a new list holding every registered player
+     */
+    public synchronized ArrayList<Player> snapshot() {
+        return new ArrayList<>(players);
+    }
+
+    /**
+     * Finds the player matching a display name and password, without logging
+     * them in as the current player.
+     *
+     * @param display the player's display name
+     * @param pass    the player's password
+     * @return the matching player, or null if the credentials are invalid
+     */
+    public synchronized Player authenticate(String display, String pass) {
+        ensureIndexed();
+        ArrayList<Player> named = display == null ? null : playersByName.get(display);
+        if (named != null) {
+            for (Player search : named) {
+                if (search.checkPassword(pass)) {
+                    return search;
                 }
             }
         }
-        DataWriter.savePlayers(players);
+        return null;
+    }
+
+    /**
+     * Creates a new player account without logging it in as the current player.
+     * Follows the same rules as {@link #createAccount(String, String)}.
+     *
+     * @param displayName the display name for the new account
+     * @param pass        the password for the new account
+     * @return the new player, or null if the name or password is empty or the name is taken
+     */
+    public Player register(String displayName, String pass) {
+        Player newPlayer;
+        synchronized (this) {
+            if (displayName == null || displayName.isBlank() || pass == null || pass.equals("")
+                    || getPlayerByName(displayName) != null) {
+                return null;
+            }
+            ArrayList<Progress> progress = new ArrayList<>();
+            progress.add(new Progress());
+            newPlayer = new Player(displayName, progress, pass);
+            addPlayer(newPlayer);
+            ProgressJournal.getInstance().recordNewPlayer(newPlayer);
+        }
+        SaveCoalescer.getInstance().requestSave(newPlayer);
+        return newPlayer;
+    }
+
+    /**
+     * Writes any saves still waiting in the {@link SaveCoalescer} to persistent storage
+     * on the calling thread.
+     *
+     * @return true if nothing was pending or the write succeeded, false otherwise
+     */
+    public boolean flushProgress() {
+        return SaveCoalescer.getInstance().flush();
     }
 
     /**
@@ -294,10 +515,7 @@ public class Players {
      * @param item the item to add to the inventory
      */
     public void addItem(Item item) {
-        if(currentPlayer != null) {
-            Progress progress = currentPlayer.getProgress().get(currentPlayer.getProgress().size()-1);
-            progress.addItem(item);
-        }
+        PlayerStore.getInstance().addItem(currentPlayer, item);
     }
 }
 
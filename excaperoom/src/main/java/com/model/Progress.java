@@ -1,6 +1,7 @@
 package com.model;
 
 import java.util.ArrayList;
+import java.util.UUID;
 
 /**
  * Tracks a player's progress through the VHS Escape game.
@@ -32,6 +33,9 @@ public class Progress {
     /** The player's current score */
     private int currentScore;
 
+    /** ID of the player this progress is persisted for; used to journal changes */
+    private UUID owner;
+
     /**
      * Constructs a Progress object with specified values.
      * 
@@ -156,7 +160,8 @@ public class Progress {
      */
     public void addCompletedPuzzle(Puzzle puzzle) {
         if(puzzle != null && completedPuzzles != null)
-            completedPuzzles.add(puzzle);
+            ProgressJournal.getInstance().record(this, () -> ProgressJournal.completedRecord(puzzle),
+                    () -> completedPuzzles.add(puzzle));
     }
     
     /**
@@ -166,7 +171,8 @@ public class Progress {
      */
     public void addItem(Item item) {
         if(item != null && inventory != null)
-            inventory.add(item);
+            ProgressJournal.getInstance().record(this, () -> ProgressJournal.itemRecord(item),
+                    () -> inventory.add(item));
     }
 
     /**
@@ -176,8 +182,10 @@ public class Progress {
      */
     public void addHint(Hint hint) {
         if(hint != null && storedHints != null) {
-            storedHints.add(hint);
-            hintsUsed++;
+            ProgressJournal.getInstance().record(this, () -> ProgressJournal.hintRecord(hint), () -> {
+                storedHints.add(hint);
+                hintsUsed++;
+            });
         }
     }
 
@@ -215,7 +223,8 @@ public class Progress {
      * @param score the score to set
      */
     public void setScore(int score) {
-        currentScore = score;
+        ProgressJournal.getInstance().record(this, () -> ProgressJournal.valueRecord("score", score),
+                () -> currentScore = score);
     }
 
     /**
@@ -224,7 +233,27 @@ public class Progress {
      * @param strikes the number of strikes to set
      */
     public void setStrikes(int strikes) {
-        this.strikes = strikes;
+        ProgressJournal.getInstance().record(this, () -> ProgressJournal.valueRecord("strikes", strikes),
+                () -> this.strikes = strikes);
+    }
+
+    /**
+     * Gets the ID of the player this progress is persisted for.
+     *
+     * @return the owning player's UUID, or null if it has no owner
+     */
+    UUID getOwner() {
+        return owner;
+    }
+
+    /**
+     * Sets the ID of the player this progress is persisted for.
+     * Called by {@link Player} when it takes ownership of this record.
+     *
+     * @param owner the owning player's UUID
+     */
+    void setOwner(UUID owner) {
+        this.owner = owner;
     }
 
     /**
@@ -0,0 +1,654 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+/**
+ * Append-only journal of {@link Progress} mutations, used when the storage
+ * mode is {@link StorageMode#JOURNAL}.
+ * <p>
+ * Every call to {@link Progress#addItem(Item)}, {@link Progress#addHint(Hint)},
+ * {@link Progress#addCompletedPuzzle(Puzzle)}, {@link Progress#setStrikes(int)}
+ * and {@link Progress#setScore(int)} appends one small JSON line to
+ * {@code json/players.journal}, so a save costs an append instead of a full
+ * rewrite of {@code players.json}. Each record looks like:
+ * <pre>
+ * {"seq":42,"op":"item","player":"&lt;uuid&gt;","name":"Flashlight","description":"","location":"Bag"}
+ * </pre>
+ * Supported operations are {@code player} (new account), {@code replace}
+ * (whole player rewritten), {@code item}, {@code hint}, {@code completed},
+ * {@code strikes} and {@code score}.
+ * <p>
+ * Once the journal holds {@link #getCompactionThreshold()} records, the next
+ * commit compacts it: the players are written to the {@code players.json}
+ * snapshot (tagged with the last folded sequence number) and the journal is
+ * emptied. On load, the records newer than the snapshot are replayed on top of
+ * it, which also recovers every change made before a crash.
+ * <p>
+ * Records always describe a player's first {@link Progress}, which is the one
+ * {@link DataWriter} persists.
+ * <p>
+ * Changes to different players do not wait for each other. A change holds a
+ * shared compaction lock and its player's stripe while it runs, so changes
+ * to one player are journaled in the order they were made; only the append
+ * itself is serialized, because every record goes to the same file.
+ * Compacting, replaying and resetting hold the compaction lock exclusively,
+ * so no change can be split from its record by a snapshot.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class ProgressJournal extends DataConstants {
+
+    /** Default number of records after which the journal is folded into the snapshot. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /**
+     * Singleton instance of the journal. Created eagerly, because every
+     * {@link Progress} change asks for it, journaling or not.
+     */
+    private static final ProgressJournal instance = new ProgressJournal();
+
+    /** Number of per-player stripe locks; a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Shared by changes, held exclusively by compaction, replay and reset. */
+    private final ReentrantReadWriteLock compactionLock;
+
+    /** Stripe locks that keep one player's changes in journal order. */
+    private final Object[] stripes;
+
+    /** Guards the file and the counters below while a record is appended. */
+    private final Object appendLock;
+
+    /** Stream the records are appended to; opened lazily. */
+    private FileOutputStream stream;
+
+    /** Writer over {@link #stream}. */
+    private Writer writer;
+
+    /** Sequence number of the last record written or replayed. */
+    private long lastSeq;
+
+    /** Number of records in the journal file. */
+    private int recordCount;
+
+    /** Whether the journal file has been scanned for its last sequence number. */
+    private boolean opened;
+
+    /** Set while replaying, so replayed mutations are not journaled again. */
+    private boolean replaying;
+
+    /** Number of records that triggers compaction on the next commit. */
+    private volatile int compactionThreshold;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private ProgressJournal() {
+        this.lastSeq = 0;
+        this.recordCount = 0;
+        this.opened = false;
+        this.replaying = false;
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        this.compactionLock = new ReentrantReadWriteLock();
+        this.stripes = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.appendLock = new Object();
+    }
+
+    /**
+     * Returns the singleton instance of the journal.
+     *
+     * @return the shared {@code ProgressJournal}
+     */
+    public static ProgressJournal getInstance() {
+        return instance;
+    }
+
+    /**
+     * Indicates whether mutations are currently being journaled.
+     *
+     * @return {@code true} if the storage mode is {@link StorageMode#JOURNAL}
+     */
+    public boolean isEnabled() {
+        return DataWriter.getStorageMode() == StorageMode.JOURNAL;
+    }
+
+    /**
+     * Applies a mutation to a progress object and, when journaling is enabled,
+     * appends the matching record.
+     * <p>
+     * The mutation runs under the shared compaction lock and the owner's
+     * stripe, so it can never be split from its record by a concurrent
+     * compaction, and changes to other players run alongside it. The record is
+     * only built when it is actually appended.
+     *
+     * @param progress the progress object being changed
+     * @param record   builds the record describing the change (without {@code seq} and {@code player})
+     * @param mutation the change itself
+     */
+    void record(Progress progress, Supplier<JSONObject> record, Runnable mutation) {
+        if (!isEnabled() || progress.getOwner() == null) {
+            mutation.run();
+            return;
+        }
+        compactionLock.readLock().lock();
+        try {
+            synchronized (stripeFor(progress.getOwner())) {
+                mutation.run();
+                if (!replaying) {
+                    append(progress.getOwner(), record.get());
+                }
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journals the creation of a new player account.
+     *
+     * @param player the newly created player
+     */
+    @SuppressWarnings("unchecked")
+    public void recordNewPlayer(Player player) {
+        if (!isEnabled() || player == null || player.getId() == null) return;
+        JSONObject record = new JSONObject();
+        record.put("op", "player");
+        record.put(USER_NAME, player.getDisplayName());
+        record.put("password", player.getPassword());
+        compactionLock.readLock().lock();
+        try {
+            synchronized (stripeFor(player.getId())) {
+                if (!replaying) {
+                    append(player.getId(), record);
+                }
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journals a change that replaces a player's whole stored state, such as
+     * {@link Player#setProgress(ArrayList)}.
+     *
+     * @param player the player whose state was replaced
+     */
+    @SuppressWarnings("unchecked")
+    public void recordReplace(Player player) {
+        if (!isEnabled() || player == null || player.getId() == null) return;
+        compactionLock.readLock().lock();
+        try {
+            synchronized (stripeFor(player.getId())) {
+                if (replaying) return;
+                JSONObject record = new JSONObject();
+                record.put("op", "replace");
+                // the stripe orders this against the player's journaled changes; see DataWriter#buildJSON
+                record.put("data", DataWriter.buildJSON(player));
+                append(player.getId(), record);
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stripe lock that orders a player's changes.
+     *
+     * @param id the player's UUID
+     * @return the stripe lock
+     */
+    private Object stripeFor(UUID id) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (STRIPES - 1)];
+    }
+
+    /**
+     * Appends one record, assigning it the next sequence number.
+     *
+     * @param playerId the player the record belongs to
+     * @param record   the record to append
+     */
+    @SuppressWarnings("unchecked")
+    private void append(UUID playerId, JSONObject record) {
+        record.put("player", playerId.toString());
+        synchronized (appendLock) {
+            try {
+                open();
+                record.put("seq", lastSeq + 1);
+                writer.write(record.toJSONString());
+                writer.write('\n');
+                writer.flush();
+                lastSeq++;
+                recordCount++;
+            } catch (IOException e) {
+                System.out.println("Warning: could not append to " + JOURNAL_FILE + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens the journal for appending, scanning any existing file first so
+     * sequence numbers continue where it left off. Called with the append lock held.
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    private void open() throws IOException {
+        if (!opened) {
+            scan();
+            opened = true;
+        }
+        if (writer == null) {
+            File file = new File(JOURNAL_FILE);
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists()) dir.mkdirs();
+            stream = new FileOutputStream(file, true);
+            writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the existing journal file to find its last sequence number and record count.
+     */
+    private void scan() {
+        File file = new File(JOURNAL_FILE);
+        if (!file.exists()) return;
+        JSONParser parser = new JSONParser();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    JSONObject record = (JSONObject) parser.parse(line);
+                    lastSeq = Math.max(lastSeq, ((Number) record.get("seq")).longValue());
+                    recordCount++;
+                } catch (Exception ignored) {
+                    // torn last line after a crash; it is skipped on replay too
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not read " + JOURNAL_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes every appended record durable and compacts the journal if it has
+     * reached the compaction threshold.
+     *
+     * @param players the full current list of players, used if compaction runs
+     * @return {@code true} if the data was committed successfully; {@code false} otherwise
+     */
+    public boolean commit(ArrayList<Player> players) {
+        boolean full;
+        synchronized (appendLock) {
+            try {
+                if (writer != null) {
+                    writer.flush();
+                    stream.getFD().sync();
+                }
+            } catch (IOException e) {
+                System.out.println("Warning: could not sync " + JOURNAL_FILE + ": " + e.getMessage());
+                return false;
+            }
+            full = recordCount >= compactionThreshold;
+        }
+        if (full || !new File(USER_FILE_NAME).exists()) {
+            return compact(players);
+        }
+        return true;
+    }
+
+    /**
+     * Folds the journal into the {@code players.json} snapshot and empties it.
+     * <p>
+     * The snapshot is tagged with the last folded sequence number, so if the
+     * process dies before the journal is emptied the folded records are
+     * skipped on the next replay instead of being applied twice.
+     *
+     * @param players the full current list of players
+     * @return {@code true} if the snapshot was written; {@code false} otherwise
+     */
+    public boolean compact(ArrayList<Player> players) {
+        compactionLock.writeLock().lock();
+        try {
+            long seq;
+            synchronized (appendLock) {
+                try {
+                    open();
+                } catch (IOException ignored) {}
+                seq = lastSeq;
+            }
+            // no change is in progress while the exclusive lock is held; see DataWriter#buildJSON
+            if (!DataWriter.saveSnapshot(players, seq)) {
+                return false;
+            }
+            synchronized (appendLock) {
+                closeWriter();
+                new File(JOURNAL_FILE).delete();
+                recordCount = 0;
+            }
+            return true;
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replays the journal on top of players loaded from the snapshot.
+     * <p>
+     * Records whose sequence number is not newer than {@code snapshotSeq} are
+     * already part of the snapshot and are skipped. Players created after the
+     * snapshot are appended to {@code players}.
+     *
+     * @param players     the players loaded from the snapshot; updated in place
+     * @param snapshotSeq the last sequence number folded into the snapshot
+     * @return the number of records applied
+     */
+    public int replay(ArrayList<Player> players, long snapshotSeq) {
+        compactionLock.writeLock().lock();
+        try {
+            synchronized (appendLock) {
+                closeWriter();
+                lastSeq = Math.max(0, snapshotSeq);
+                recordCount = 0;
+                opened = true;
+            }
+            return replayFile(players, snapshotSeq);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the journal file's records newer than the snapshot. Called with
+     * the compaction lock held exclusively.
+     *
+     * @param players     the players loaded from the snapshot; updated in place
+     * @param snapshotSeq the last sequence number folded into the snapshot
+     * @return the number of records applied
+     */
+    private int replayFile(ArrayList<Player> players, long snapshotSeq) {
+        File file = new File(JOURNAL_FILE);
+        if (!file.exists()) return 0;
+
+        HashMap<UUID, Player> byId = new HashMap<>();
+        for (Player player : players) {
+            if (player.getId() != null) byId.put(player.getId(), player);
+        }
+
+        int applied = 0;
+        JSONParser parser = new JSONParser();
+        replaying = true;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JSONObject record;
+                long seq;
+                UUID playerId;
+                try {
+                    record = (JSONObject) parser.parse(line);
+                    seq = ((Number) record.get("seq")).longValue();
+                    playerId = UUID.fromString(record.get("player").toString());
+                } catch (Exception torn) {
+                    continue;
+                }
+                synchronized (appendLock) {
+                    recordCount++;
+                    lastSeq = Math.max(lastSeq, seq);
+                }
+                if (seq <= snapshotSeq) continue;
+                if (apply(record, playerId, players, byId)) applied++;
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not replay " + JOURNAL_FILE + ": " + e.getMessage());
+        } finally {
+            replaying = false;
+        }
+        return applied;
+    }
+
+    /**
+     * Applies one journal record.
+     *
+     * @param record   the record
+     * @param playerId the player it belongs to
+     * @param players  the list of players, for appending new accounts
+     * @param byId     lookup of players by ID
+     * @return {@code true} if the record was applied; {@code false} if it was ignored
+     */
+    private boolean apply(JSONObject record, UUID playerId, ArrayList<Player> players, HashMap<UUID, Player> byId) {
+        String op = String.valueOf(record.get("op"));
+        Player player = byId.get(playerId);
+
+        if (op.equals("player")) {
+            if (player != null) return false;
+            ArrayList<Progress> progress = new ArrayList<>();
+            progress.add(new Progress());
+            player = new Player(playerId, stringOf(record.get(USER_NAME)), progress, stringOf(record.get("password")));
+            players.add(player);
+            byId.put(playerId, player);
+            return true;
+        }
+        if (op.equals("replace")) {
+            Object data = record.get("data");
+            if (!(data instanceof JSONObject)) return false;
+            Player replacement = DataLoader.parsePlayer((JSONObject) data);
+            replacement.setId(playerId);
+            if (player != null) {
+                players.set(players.indexOf(player), replacement);
+            } else {
+                players.add(replacement);
+            }
+            byId.put(playerId, replacement);
+            return true;
+        }
+
+        if (player == null || player.getProgress() == null || player.getProgress().isEmpty()) {
+            return false;
+        }
+        Progress progress = player.getProgress().get(0);
+        switch (op) {
+            case "item":
+                progress.addItem(new Item(stringOf(record.get("name")), stringOf(record.get("description")),
+                        stringOf(record.get("location")), null));
+                return true;
+            case "hint":
+                Hint hint = new Hint(stringOf(record.get("text")), intOf(record.get("cost")));
+                if (record.get("id") != null) hint.setId(record.get("id").toString());
+                if (Boolean.TRUE.equals(record.get("used"))) hint.use();
+                progress.addHint(hint);
+                return true;
+            case "completed":
+                progress.addCompletedPuzzle(findPuzzle(stringOf(record.get("puzzleID"))));
+                return true;
+            case "strikes":
+                progress.setStrikes(intOf(record.get("value")));
+                return true;
+            case "score":
+                progress.setScore(intOf(record.get("value")));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Finds a loaded puzzle by ID, or creates a placeholder carrying that ID.
+     *
+     * @param id the puzzle ID as a string
+     * @return the matching or placeholder puzzle, or {@code null} if the ID is invalid
+     */
+    private Puzzle findPuzzle(String id) {
+        UUID puzzleID;
+        try {
+            puzzleID = UUID.fromString(id);
+        } catch (Exception e) {
+            return null;
+        }
+        for (Puzzle puzzle : PuzzlesManager.getInstance().getPuzzles()) {
+            if (puzzleID.equals(puzzle.getID())) return puzzle;
+        }
+        Puzzle placeholder = new Puzzle();
+        placeholder.setID(puzzleID);
+        return placeholder;
+    }
+
+    /**
+     * Closes the append stream if it is open. Called with the append lock held.
+     */
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {}
+            writer = null;
+            stream = null;
+        }
+    }
+
+    /**
+     * Returns the number of records currently in the journal.
+     *
+     * @return the journal's record count
+     */
+    public int getRecordCount() {
+        synchronized (appendLock) {
+            return recordCount;
+        }
+    }
+
+    /**
+     * Returns the number of records that triggers compaction on the next commit.
+     *
+     * @return the compaction threshold
+     */
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the number of records that triggers compaction on the next commit.
+     *
+     * @param threshold the new threshold; values below 1 compact on every commit
+     */
+    public void setCompactionThreshold(int threshold) {
+        this.compactionThreshold = threshold;
+    }
+
+    /**
+     * Forgets all in-memory journal state and closes the file, so the journal
+     * is rescanned on next use.
+     */
+    public void reset() {
+        compactionLock.writeLock().lock();
+        try {
+            synchronized (appendLock) {
+                closeWriter();
+                lastSeq = 0;
+                recordCount = 0;
+                opened = false;
+            }
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds an {@code item} record.
+     *
+     * @param item the item added to the inventory
+     * @return the record
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject itemRecord(Item item) {
+        JSONObject record = new JSONObject();
+        record.put("op", "item");
+        record.put("name", item.getName());
+        record.put("description", item.getDescription());
+        record.put("location", item.getLocation());
+        return record;
+    }
+
+    /**
+     * Builds a {@code hint} record.
+     *
+     * @param hint the hint added to the stored hints
+     * @return the record
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject hintRecord(Hint hint) {
+        JSONObject record = new JSONObject();
+        record.put("op", "hint");
+        record.put("id", hint.getId());
+        record.put("text", hint.getText());
+        record.put("cost", hint.getCost());
+        record.put("used", hint.isUsed());
+        return record;
+    }
+
+    /**
+     * Builds a {@code completed} record.
+     *
+     * @param puzzle the puzzle marked completed
+     * @return the record
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject completedRecord(Puzzle puzzle) {
+        JSONObject record = new JSONObject();
+        record.put("op", "completed");
+        record.put("puzzleID", puzzle.getID() == null ? null : puzzle.getID().toString());
+        return record;
+    }
+
+    /**
+     * Builds a record that sets a counter such as {@code strikes} or {@code score}.
+     *
+     * @param op    the operation name
+     * @param value the new value
+     * @return the record
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject valueRecord(String op, int value) {
+        JSONObject record = new JSONObject();
+        record.put("op", op);
+        record.put("value", value);
+        return record;
+    }
+
+    /**
+     * Converts a JSON value to a string, mapping {@code null} to an empty string.
+     *
+     * @param value the raw value
+     * @return the string form
+     */
+    private static String stringOf(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Converts a JSON number to an {@code int}, mapping anything else to {@code 0}.
+     *
+     * @param value the raw value
+     * @return the integer value
+     */
+    private static int intOf(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
@@ -158,6 +158,21 @@ public class Puzzle {
         return false;
     }
 
+    /**
+     * Checks if the provided answer is correct without any side effects: no
+     * sound, no save and no move to the next puzzle. Used by {@link GameSession}
+     * and {@link GameEngine}, which advance their own games.
+     * <p>
+     * This base implementation delegates to {@link #checkAnswer(String)};
+     * subclasses whose {@code checkAnswer} completes the puzzle override it.
+     *
+     * @param answer the answer to check
+     * @return true if the answer is correct, false otherwise
+     */
+    public boolean isCorrect(String answer) {
+        return checkAnswer(answer);
+    }
+
     /**
      * Returns a string representation of this puzzle.
      * Uses dynamic dispatch based on the puzzle type to return
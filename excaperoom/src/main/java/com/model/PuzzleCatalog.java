@@ -0,0 +1,451 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Cache of the puzzles defined in {@code json/rooms.json}, keyed by puzzle ID.
+ * <p>
+ * {@link DataLoader#loadPuzzles()} used to parse the file and append every
+ * puzzle to {@link PuzzlesManager} on each call, so each login or leaderboard
+ * visit grew the puzzle list. The catalog instead:
+ * <ul>
+ *     <li>Parses the file once and keeps the puzzles by ID.</li>
+ *     <li>On later calls, compares the file's modification time and size with
+ *         the last load and does nothing more when they match.</li>
+ *     <li>When they differ, hashes the content and only re-parses if the hash
+ *         changed too (so touching the file is cheap).</li>
+ *     <li>Diffs the new entries against the loaded ones by {@code puzzleID}
+ *         and only decodes, updates or removes the puzzles whose entry changed.</li>
+ *     <li>Registers puzzles with {@link PuzzlesManager}, which replaces puzzles
+ *         by ID instead of adding duplicates.</li>
+ * </ul>
+ * An entry without an ID, or with the ID of an earlier entry, is still a
+ * puzzle of its own. It is keyed by its position in the file instead, and
+ * registered with {@link PuzzlesManager} as that object rather than by ID, so
+ * it never replaces the entry whose ID it shares.
+ * {@link PuzzleCatalogWatcher} uses this to hot-reload the file while the game runs.
+ * If the file becomes unreadable or invalid, the previously loaded puzzles are kept.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class PuzzleCatalog extends DataConstants {
+
+    /** Singleton instance of the catalog. */
+    private static PuzzleCatalog instance;
+
+    /** File the puzzles are read from. */
+    private File file;
+
+    /** Loaded puzzles in file order, keyed by {@link #keyOf(UUID)} or, for entries without an ID of their own, by position. */
+    private LinkedHashMap<String, Puzzle> puzzles;
+
+    /** Modification time of the file at the last check. */
+    private long lastModified;
+
+    /** Size of the file at the last check. */
+    private long lastSize;
+
+    /** JSON entries of the loaded puzzles, in the same order, for {@link #newPuzzleSet()}. */
+    private ArrayList<JSONObject> sources;
+
+    /** SHA-256 of the content that was last applied. */
+    private byte[] contentHash;
+
+    /** SHA-256 of each puzzle's JSON entry as last applied, keyed like {@link #puzzles}. */
+    private HashMap<String, byte[]> entryHashes;
+
+    /** Deleted puzzles that could not be removed yet because they were being played, keyed like {@link #puzzles}. */
+    private LinkedHashMap<String, Puzzle> pendingRemovals;
+
+    /** Number of times the file has actually been parsed (used for diagnostics and tests). */
+    private int parseCount;
+
+    /** Number of puzzles decoded or updated from the file (used for diagnostics and tests). */
+    private int decodeCount;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private PuzzleCatalog() {
+        this.file = new File(PUZZLES_FILE);
+        this.puzzles = new LinkedHashMap<>();
+        this.sources = new ArrayList<>();
+        this.entryHashes = new HashMap<>();
+        this.pendingRemovals = new LinkedHashMap<>();
+        this.lastModified = -1;
+        this.lastSize = -1;
+    }
+
+    /**
+     * Returns the singleton instance of the catalog, creating it if needed.
+     *
+     * @return the shared {@code PuzzleCatalog}
+     */
+    public static synchronized PuzzleCatalog getInstance() {
+        if (instance == null) {
+            instance = new PuzzleCatalog();
+        }
+        return instance;
+    }
+
+    /**
+     * Makes sure the catalog matches the file, re-parsing only if it changed,
+     * and that every catalog puzzle is registered with {@link PuzzlesManager}.
+     *
+     * @return the catalog's puzzles in file order; never {@code null}
+     */
+    public synchronized ArrayList<Puzzle> refresh() {
+        Update update = prepareUpdate();
+        if (update != null) {
+            applyUpdate(update);
+        }
+        PuzzlesManager manager = PuzzlesManager.getInstance();
+        removePending(manager);
+        for (Map.Entry<String, Puzzle> entry : puzzles.entrySet()) {
+            Puzzle puzzle = entry.getValue();
+            if (isPositional(entry.getKey())) {
+                if (!manager.containsPuzzle(puzzle)) {
+                    manager.addPuzzleInstance(puzzle);
+                }
+            } else if (manager.getPuzzleById(puzzle.getID()) != puzzle) {
+                manager.addPuzzle(puzzle);
+            }
+        }
+        return new ArrayList<>(puzzles.values());
+    }
+
+    /**
+     * Reads the file and parses it into per-puzzle entries if it changed since
+     * the last check.
+     * <p>
+     * Nothing is decoded or changed yet: this is the expensive half of a reload
+     * and may run on a background thread, while {@link #applyUpdate(Update)}
+     * runs wherever puzzles may safely be swapped.
+     *
+     * @return the parsed update, or {@code null} if the file is missing, unchanged or invalid
+     */
+    synchronized Update prepareUpdate() {
+        if (!file.exists() || (file.lastModified() == lastModified && file.length() == lastSize)) {
+            return null;
+        }
+        long modified = file.lastModified();
+        long size = file.length();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            System.out.println("Warning: could not read " + file.getPath() + ": " + e.getMessage());
+            return null;
+        }
+        lastModified = modified;
+        lastSize = size;
+
+        byte[] hash = sha256(content);
+        if (contentHash != null && Arrays.equals(hash, contentHash)) {
+            return null;
+        }
+
+        JSONArray entries;
+        try {
+            entries = DataLoader.parsePuzzleEntries(new StringReader(new String(content, StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            System.out.println("Warning: could not parse " + file.getPath() + "; keeping previously loaded puzzles.");
+            return null;
+        }
+        parseCount++;
+
+        Update update = new Update(hash);
+        int position = 0;
+        for (Object raw : entries) {
+            if (!(raw instanceof JSONObject)) continue;
+            JSONObject entry = (JSONObject) raw;
+            UUID id = PuzzleCodecs.idOf(entry);
+            String key = id != null ? keyOf(id) : null;
+            if (key == null || update.entries.containsKey(key)) {
+                // no ID of its own to diff by: keyed by its place in the file
+                key = "#" + position;
+            }
+            update.entries.put(key, entry);
+            update.entryHashes.put(key, sha256(entry.toJSONString().getBytes(StandardCharsets.UTF_8)));
+            position++;
+        }
+        return update;
+    }
+
+    /**
+     * Applies a parsed update, touching only the puzzles that changed.
+     * <p>
+     * Puzzles whose entry is unchanged are left alone. Changed puzzles are
+     * updated in place (see {@link PuzzleCodecs#update(Puzzle, JSONObject)}) so
+     * games holding them keep their references, or replaced if their type
+     * changed. New puzzles are added and deleted ones removed from
+     * {@link PuzzlesManager}; removing the puzzle currently being played is
+     * postponed until it is no longer current. Puzzles keyed by position are
+     * added, replaced and removed as objects, never by ID.
+     *
+     * @param update the update returned by {@link #prepareUpdate()}
+     */
+    synchronized void applyUpdate(Update update) {
+        PuzzlesManager manager = PuzzlesManager.getInstance();
+        LinkedHashMap<String, Puzzle> next = new LinkedHashMap<>();
+        HashMap<String, byte[]> nextHashes = new HashMap<>();
+        ArrayList<JSONObject> nextSources = new ArrayList<>();
+        int added = 0;
+        int updated = 0;
+
+        for (Map.Entry<String, JSONObject> entry : update.entries.entrySet()) {
+            String key = entry.getKey();
+            boolean positional = isPositional(key);
+            byte[] hash = update.entryHashes.get(key);
+            Puzzle existing = puzzles.get(key);
+            Puzzle puzzle = existing;
+            if (existing == null) {
+                puzzle = PuzzleCodecs.decode(entry.getValue());
+                if (positional) {
+                    manager.addPuzzleInstance(puzzle);
+                } else {
+                    manager.addPuzzle(puzzle);
+                }
+                added++;
+            } else if (!Arrays.equals(hash, entryHashes.get(key))) {
+                if (!PuzzleCodecs.update(existing, entry.getValue())) {
+                    puzzle = PuzzleCodecs.decode(entry.getValue());
+                    if (positional) {
+                        manager.replacePuzzle(existing, puzzle);
+                    } else {
+                        manager.addPuzzle(puzzle);
+                    }
+                }
+                updated++;
+            }
+            next.put(key, puzzle);
+            nextHashes.put(key, hash);
+            nextSources.add(entry.getValue());
+        }
+
+        for (Map.Entry<String, Puzzle> entry : puzzles.entrySet()) {
+            if (!next.containsKey(entry.getKey())) {
+                pendingRemovals.put(entry.getKey(), entry.getValue());
+            }
+        }
+        pendingRemovals.keySet().removeAll(next.keySet());
+        int removed = removePending(manager);
+
+        puzzles = next;
+        sources = nextSources;
+        entryHashes = nextHashes;
+        contentHash = update.contentHash;
+        decodeCount += added + updated;
+        if (added + updated + removed > 0) {
+            System.out.println("Reloaded " + file.getPath() + ": " + added + " added, "
+                    + updated + " updated, " + removed + " removed.");
+        }
+    }
+
+    /**
+     * Removes puzzles deleted from the file from {@link PuzzlesManager},
+     * skipping the one currently being played.
+     *
+     * @param manager the puzzle manager
+     * @return the number of puzzles removed
+     */
+    private int removePending(PuzzlesManager manager) {
+        int removed = 0;
+        Iterator<Map.Entry<String, Puzzle>> it = pendingRemovals.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Puzzle> entry = it.next();
+            Puzzle puzzle = entry.getValue();
+            Puzzle current = manager.getCurrentPuzzle();
+            if (isPositional(entry.getKey())) {
+                if (current == puzzle) {
+                    continue;
+                }
+                manager.removePuzzle(puzzle);
+            } else {
+                if (current != null && puzzle.getID().equals(current.getID())) {
+                    continue;
+                }
+                manager.removePuzzle(puzzle.getID());
+            }
+            it.remove();
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the catalog key of a puzzle that has an ID of its own.
+     *
+     * @param id the puzzle ID
+     * @return the key
+     */
+    private static String keyOf(UUID id) {
+        return id.toString();
+    }
+
+    /**
+     * Indicates whether a catalog key is a position rather than an ID.
+     *
+     * @param key the key
+     * @return {@code true} for entries without an ID of their own
+     */
+    private static boolean isPositional(String key) {
+        return key.startsWith("#");
+    }
+
+    /**
+     * Gets a catalog puzzle by ID.
+     *
+     * @param id the puzzle ID
+     * @return the puzzle, or {@code null} if the catalog has none with that ID;
+     *         of puzzles sharing an ID, the first in the file
+     */
+    public synchronized Puzzle get(UUID id) {
+        return id != null ? puzzles.get(keyOf(id)) : null;
+    }
+
+    /**
+     * Decodes a fresh copy of every catalog puzzle, in file order.
+     * <p>
+     * Used by {@link GameSession} so that each session's puzzle state (current
+     * puzzle, used hints) is its own. The copies are not registered with
+     * {@link PuzzlesManager} and are not updated by later reloads.
+     *
+     * @return new puzzle objects; empty if nothing is loaded
+     */
+    public synchronized ArrayList<Puzzle> newPuzzleSet() {
+        ArrayList<Puzzle> copies = new ArrayList<>(sources.size());
+        for (JSONObject entry : sources) {
+            copies.add(PuzzleCodecs.decode(entry));
+        }
+        return copies;
+    }
+
+    /**
+     * Loads the catalog if needed (see {@link #refresh()}) and decodes a fresh
+     * copy of every puzzle, for tools that must not run on an empty set.
+     *
+     * @return new puzzle objects, in file order
+     * @throws IllegalStateException if the catalog has no puzzles
+     */
+    public synchronized ArrayList<Puzzle> requirePuzzleSet() {
+        refresh();
+        ArrayList<Puzzle> copies = newPuzzleSet();
+        if (copies.isEmpty()) {
+            throw new IllegalStateException("no puzzles could be loaded from " + file.getPath());
+        }
+        return copies;
+    }
+
+    /**
+     * Returns the number of puzzles in the catalog.
+     *
+     * @return the puzzle count
+     */
+    public synchronized int size() {
+        return puzzles.size();
+    }
+
+    /**
+     * Returns how many times the puzzles file has actually been parsed.
+     *
+     * @return the number of parses since startup
+     */
+    public synchronized int getParseCount() {
+        return parseCount;
+    }
+
+    /**
+     * Returns how many puzzles have been decoded or updated from the file.
+     * An edit to one puzzle adds one, however large the file is.
+     *
+     * @return the number of puzzles decoded since startup
+     */
+    public synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * Returns the file the catalog reads puzzles from.
+     *
+     * @return the puzzles file
+     */
+    public synchronized File getFile() {
+        return file;
+    }
+
+    /**
+     * Points the catalog at a different puzzles file and forgets what was loaded.
+     * Intended for tests and tools.
+     *
+     * @param puzzlesFile the file to read puzzles from
+     */
+    synchronized void setFile(File puzzlesFile) {
+        this.file = puzzlesFile;
+        invalidate();
+    }
+
+    /**
+     * Forgets the loaded puzzles so the next {@link #refresh()} parses the file again.
+     * Puzzles already registered with {@link PuzzlesManager} are left in place.
+     */
+    public synchronized void invalidate() {
+        puzzles = new LinkedHashMap<>();
+        sources = new ArrayList<>();
+        entryHashes = new HashMap<>();
+        pendingRemovals = new LinkedHashMap<>();
+        lastModified = -1;
+        lastSize = -1;
+        contentHash = null;
+    }
+
+    /**
+     * A parsed version of the puzzles file, waiting to be applied.
+     */
+    static final class Update {
+
+        /** SHA-256 of the whole file. */
+        private final byte[] contentHash;
+
+        /** Every entry, in file order, keyed by ID or by position. */
+        private final LinkedHashMap<String, JSONObject> entries = new LinkedHashMap<>();
+
+        /** SHA-256 of each entry, by the same keys. */
+        private final HashMap<String, byte[]> entryHashes = new HashMap<>();
+
+        private Update(byte[] contentHash) {
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest of some bytes.
+     *
+     * @param content the bytes to hash
+     * @return the digest
+     */
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
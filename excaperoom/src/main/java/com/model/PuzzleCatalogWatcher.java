@@ -0,0 +1,192 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the puzzles file and hot-reloads {@link PuzzleCatalog} when it changes.
+ * <p>
+ * A daemon thread waits on a {@link WatchService} registered on the file's
+ * directory. When the file is created or modified, the watcher waits for
+ * writes to settle, then parses the new content on its own thread
+ * ({@link PuzzleCatalog#prepareUpdate()}) and hands the result to the apply
+ * executor, which swaps in only the puzzles that changed
+ * ({@link PuzzleCatalog#applyUpdate(PuzzleCatalog.Update)}). The JavaFX app
+ * passes {@code Platform::runLater} so puzzles only change on the UI thread.
+ * <p>
+ * Usage:
+ * <pre>
+ * PuzzleCatalogWatcher watcher = new PuzzleCatalogWatcher(PuzzleCatalog.getInstance(), Platform::runLater);
+ * watcher.start();
+ * ...
+ * watcher.stop();
+ * </pre>
+ */
+public class PuzzleCatalogWatcher {
+
+    /** Time, in milliseconds, to wait for further events before reloading. */
+    public static final long DEFAULT_SETTLE_MILLIS = 200;
+
+    /** Catalog to reload. */
+    private final PuzzleCatalog catalog;
+
+    /** Executor that applies reloads to the live puzzles. */
+    private final Executor applyOn;
+
+    /** Time to wait for further events before reloading. */
+    private volatile long settleMillis;
+
+    /** Watch service, while running. */
+    private WatchService watchService;
+
+    /** Watcher thread, while running. */
+    private Thread thread;
+
+    /** Number of reloads applied (used for diagnostics and tests). */
+    private volatile int reloadCount;
+
+    /**
+     * Creates a watcher for a catalog.
+     *
+     * @param catalog the catalog to keep up to date
+     * @param applyOn the executor that applies changes to the live puzzles
+     */
+    public PuzzleCatalogWatcher(PuzzleCatalog catalog, Executor applyOn) {
+        this.catalog = catalog;
+        this.applyOn = applyOn;
+        this.settleMillis = DEFAULT_SETTLE_MILLIS;
+    }
+
+    /**
+     * Starts watching the catalog's file. Does nothing if already started.
+     *
+     * @return {@code true} if the watcher is running; {@code false} if the
+     *         directory could not be watched
+     */
+    public synchronized boolean start() {
+        if (thread != null) {
+            return true;
+        }
+        File file = catalog.getFile().getAbsoluteFile();
+        File dir = file.getParentFile();
+        if (dir == null || !dir.isDirectory()) {
+            System.out.println("Warning: cannot watch " + file.getPath() + ": directory does not exist.");
+            return false;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.out.println("Warning: cannot watch " + file.getPath() + ": " + e.getMessage());
+            return false;
+        }
+
+        WatchService service = watchService;
+        Path name = file.toPath().getFileName();
+        thread = new Thread(() -> run(service, name), "rooms-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Stops watching. Does nothing if not started.
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {}
+        thread.interrupt();
+        thread = null;
+        watchService = null;
+    }
+
+    /**
+     * Watcher loop: waits for events on the file, lets them settle, then reloads.
+     *
+     * @param service the watch service to poll
+     * @param name    the file name to react to
+     */
+    private void run(WatchService service, Path name) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean changed = drain(key, name);
+                // editors often write a file in several steps; wait until they stop
+                while (true) {
+                    WatchKey more = service.poll(settleMillis, TimeUnit.MILLISECONDS);
+                    if (more == null) break;
+                    changed |= drain(more, name);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a key and resets it.
+     *
+     * @param key  the signalled key
+     * @param name the file name to react to
+     * @return {@code true} if any event concerned the file
+     */
+    private boolean drain(WatchKey key, Path name) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(context)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Parses the file on the calling thread and applies the result on the apply executor.
+     */
+    void reload() {
+        PuzzleCatalog.Update update = catalog.prepareUpdate();
+        if (update != null) {
+            applyOn.execute(() -> {
+                catalog.applyUpdate(update);
+                reloadCount++;
+            });
+        }
+    }
+
+    /**
+     * Sets how long to wait for further events before reloading.
+     *
+     * @param millis the settle time in milliseconds
+     */
+    public void setSettleTime(long millis) {
+        this.settleMillis = millis;
+    }
+
+    /**
+     * Returns how many reloads have been applied to the live puzzles.
+     *
+     * @return the reload count
+     */
+    public int getReloadCount() {
+        return reloadCount;
+    }
+}
@@ -0,0 +1,33 @@
+package com.model;
+
+import org.json.simple.JSONObject;
+
+/**
+ * Builds one kind of {@link Puzzle} from its {@code rooms.json} entry.
+ * <p>
+ * Each codec knows the concrete subclass it creates and binds that subclass's
+ * fields with direct setter calls, so loading needs no reflection. Codecs are
+ * stateless and shared; look them up with {@link PuzzleCodecs#forType(String)}.
+ *
+ * @param <P> the puzzle subclass this codec creates
+ */
+public interface PuzzleCodec<P extends Puzzle> {
+
+    /**
+     * Creates an empty puzzle of this codec's type.
+     *
+     * @return a new puzzle instance
+     */
+    P create();
+
+    /**
+     * Copies the type-specific fields of a puzzle entry onto a puzzle.
+     * <p>
+     * Fields shared by every puzzle (type, ID and hints) are bound by
+     * {@link PuzzleCodecs#decode(JSONObject)} and need not be handled here.
+     *
+     * @param puzzle the puzzle to fill in
+     * @param json   the puzzle's JSON entry
+     */
+    void bind(P puzzle, JSONObject json);
+}
@@ -0,0 +1,296 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Registry of the {@link PuzzleCodec}s used to load {@code rooms.json}.
+ * <p>
+ * The registry is built once and maps each {@code type} value to a codec for
+ * its {@link Puzzle} subclass ({@link Trivia}, {@link Riddle}, {@link Cipher},
+ * {@link MultipleChoice}, {@link PixelHunt} and {@link ItemPuzzle}). Unknown
+ * types fall back to a plain {@link Puzzle}. Every binder reads a fixed set of
+ * keys with direct setter calls, so decoding a puzzle costs a handful of map
+ * lookups and no method scans.
+ * <p>
+ * The binders accept the same keys the reflective loader used to match:
+ * <ul>
+ *     <li>{@code Trivia}: {@code triviaText} or {@code question}; {@code correctAnswer} or {@code answer}.</li>
+ *     <li>{@code Riddle}: {@code riddleText} or {@code question}; {@code correctAnswer} or {@code answer}.</li>
+ *     <li>{@code Cipher}: {@code cipherText}; {@code correctAnswer} or {@code answer}; {@code meta.shift}.</li>
+ *     <li>{@code MultipleChoice}: {@code question} or one of its synonyms; {@code choices}
+ *         or {@code choicesList}; {@code correctAnswer} or {@code answer}.</li>
+ * </ul>
+ */
+public final class PuzzleCodecs {
+
+    /** Keys accepted for a multiple-choice question, most preferred first. */
+    private static final String[] QUESTION_KEYS = {
+        "question", "puzzleText", "promptText", "prompt", "questionText", "cipherText", "riddleText", "triviaText"
+    };
+
+    /** Codec used for puzzles whose type is missing or unknown. */
+    private static final PuzzleCodec<Puzzle> GENERIC = codec(Puzzle::new, (puzzle, json) -> {});
+
+    /** Codecs keyed by the {@code type} value in {@code rooms.json}. */
+    private static final Map<String, PuzzleCodec<? extends Puzzle>> CODECS = new HashMap<>();
+
+    static {
+        CODECS.put("Trivia", codec(Trivia::new, (puzzle, json) -> {
+            String text = string(json, "triviaText", "question");
+            if (text != null) puzzle.setTriviaText(text);
+            String answer = string(json, "correctAnswer", "answer");
+            if (answer != null) puzzle.setCorrectAnswer(answer);
+        }));
+        CODECS.put("Riddle", codec(Riddle::new, (puzzle, json) -> {
+            String text = string(json, "riddleText", "question");
+            if (text != null) puzzle.setRiddleText(text);
+            String answer = string(json, "correctAnswer", "answer");
+            if (answer != null) puzzle.setCorrectAnswer(answer);
+        }));
+        CODECS.put("Cipher", codec(Cipher::new, (puzzle, json) -> {
+            String text = string(json, "cipherText");
+            if (text != null) puzzle.setCipherText(text);
+            String answer = string(json, "correctAnswer", "answer");
+            if (answer != null) puzzle.setCorrectAnswer(answer);
+            Object meta = json.get("meta");
+            if (meta instanceof JSONObject) {
+                Integer shift = integer(((JSONObject) meta).get("shift"));
+                if (shift != null) puzzle.setShift(shift);
+            }
+        }));
+        CODECS.put("MultipleChoice", codec(MultipleChoice::new, (puzzle, json) -> {
+            String question = string(json, QUESTION_KEYS);
+            if (question != null) puzzle.setQuestion(question);
+            ArrayList<String> options = strings(json.get("choices"));
+            if (options == null) options = strings(json.get("choicesList"));
+            if (options != null) puzzle.setOptions(options);
+            String answer = string(json, "correctAnswer", "answer");
+            if (answer != null) puzzle.setCorrectAnswer(answer);
+        }));
+        CODECS.put("PixelHunt", codec(PixelHunt::new, (puzzle, json) -> {}));
+        CODECS.put("ItemPuzzle", codec(ItemPuzzle::new, (puzzle, json) -> {}));
+    }
+
+    /**
+     * Private constructor; this class only has static members.
+     */
+    private PuzzleCodecs() {
+    }
+
+    /**
+     * Returns the codec for a puzzle type.
+     *
+     * @param type the {@code type} value from {@code rooms.json}; may be {@code null}
+     * @return the matching codec, or the plain {@link Puzzle} codec if the type is unknown
+     */
+    public static PuzzleCodec<? extends Puzzle> forType(String type) {
+        PuzzleCodec<? extends Puzzle> codec = type == null ? null : CODECS.get(type);
+        return codec != null ? codec : GENERIC;
+    }
+
+    /**
+     * Builds a puzzle from its {@code rooms.json} entry.
+     * <p>
+     * Picks the codec from {@code type} (or {@code puzzleType}/{@code puzzle_type}),
+     * binds the shared fields (type, ID from {@code puzzleID}/{@code id}/{@code uuid},
+     * hints) and then the type-specific ones.
+     *
+     * @param json the puzzle's JSON entry
+     * @return the decoded puzzle; never {@code null}
+     */
+    public static Puzzle decode(JSONObject json) {
+        String type = string(json, "type", "puzzleType", "puzzle_type");
+        return decode(forType(type), type, json);
+    }
+
+    /**
+     * Creates and binds a puzzle with a specific codec.
+     */
+    private static <P extends Puzzle> P decode(PuzzleCodec<P> codec, String type, JSONObject json) {
+        P puzzle = codec.create();
+        puzzle.setType(type == null ? "" : type);
+
+        UUID id = idOf(json);
+        if (id != null) {
+            puzzle.setID(id);
+        }
+
+        Object hints = json.get("hints");
+        if (hints instanceof JSONArray) {
+            for (Object raw : (JSONArray) hints) {
+                if (raw instanceof JSONObject) {
+                    puzzle.addHint(decodeHint((JSONObject) raw));
+                }
+            }
+        }
+
+        codec.bind(puzzle, json);
+        return puzzle;
+    }
+
+    /**
+     * Updates an existing puzzle in place from its changed {@code rooms.json} entry.
+     * <p>
+     * The puzzle object, its ID and its {@link Hint} objects are kept, so
+     * anything holding on to them (such as a game in progress) sees the new
+     * text without losing state like a hint's used flag. Hints are matched by
+     * position; extra new hints are added and hints no longer listed are dropped.
+     * Fields missing from the entry keep their current values.
+     *
+     * @param puzzle the loaded puzzle to update
+     * @param json   the puzzle's new JSON entry
+     * @return {@code true} if the puzzle was updated; {@code false} if the entry
+     *         now describes a different type and the puzzle must be replaced
+     */
+    public static boolean update(Puzzle puzzle, JSONObject json) {
+        String type = string(json, "type", "puzzleType", "puzzle_type");
+        PuzzleCodec<? extends Puzzle> codec = forType(type);
+        if (codec.create().getClass() != puzzle.getClass()) {
+            return false;
+        }
+        puzzle.setType(type == null ? "" : type);
+
+        ArrayList<Hint> fresh = new ArrayList<>();
+        Object hints = json.get("hints");
+        if (hints instanceof JSONArray) {
+            for (Object raw : (JSONArray) hints) {
+                if (raw instanceof JSONObject) {
+                    fresh.add(decodeHint((JSONObject) raw));
+                }
+            }
+        }
+        ArrayList<Hint> current = puzzle.getHints();
+        if (current == null) {
+            puzzle.setHints(fresh);
+        } else {
+            for (int i = 0; i < fresh.size(); i++) {
+                Hint next = fresh.get(i);
+                if (i < current.size()) {
+                    Hint kept = current.get(i);
+                    kept.setId(next.getId());
+                    kept.setText(next.getText());
+                    kept.setCost(next.getCost());
+                } else {
+                    current.add(next);
+                }
+            }
+            if (current.size() > fresh.size()) {
+                current.subList(fresh.size(), current.size()).clear();
+            }
+        }
+
+        bindUnchecked(codec, puzzle, json);
+        return true;
+    }
+
+    /**
+     * Reads the puzzle ID of a {@code rooms.json} entry without decoding it.
+     *
+     * @param json the puzzle's JSON entry
+     * @return the ID, or {@code null} if the entry has no valid ID
+     */
+    static UUID idOf(JSONObject json) {
+        String id = string(json, "puzzleID", "id", "uuid");
+        if (id == null) return null;
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Binds an entry onto a puzzle already known to be of the codec's type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <P extends Puzzle> void bindUnchecked(PuzzleCodec<P> codec, Puzzle puzzle, JSONObject json) {
+        codec.bind((P) puzzle, json);
+    }
+
+    /**
+     * Builds a hint from its JSON entry.
+     *
+     * @param json the hint's JSON entry
+     * @return the hint
+     */
+    private static Hint decodeHint(JSONObject json) {
+        Hint hint = new Hint();
+        String id = string(json, "id");
+        if (id != null) hint.setId(id);
+        String text = string(json, "text");
+        if (text != null) hint.setText(text);
+        Object cost = json.get("cost");
+        if (cost instanceof Number) hint.setCost(((Number) cost).intValue());
+        return hint;
+    }
+
+    /**
+     * Wraps a factory and a binder into a codec.
+     */
+    private static <P extends Puzzle> PuzzleCodec<P> codec(Supplier<P> factory, BiConsumer<P, JSONObject> binder) {
+        return new PuzzleCodec<P>() {
+            @Override
+            public P create() {
+                return factory.get();
+            }
+
+            @Override
+            public void bind(P puzzle, JSONObject json) {
+                binder.accept(puzzle, json);
+            }
+        };
+    }
+
+    /**
+     * Returns the first of the given keys that has a non-null value, as a string.
+     *
+     * @param json the object to read
+     * @param keys the keys to try, most preferred first
+     * @return the value as a string, or {@code null} if none of the keys is set
+     */
+    private static String string(JSONObject json, String... keys) {
+        for (String key : keys) {
+            Object value = json.get(key);
+            if (value != null) return value.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Converts a JSON value to an integer, accepting numbers and numeric strings.
+     *
+     * @param value the raw value
+     * @return the integer, or {@code null} if the value is not numeric
+     */
+    private static Integer integer(Object value) {
+        if (value == null) return null;
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return value instanceof Number ? ((Number) value).intValue() : null;
+        }
+    }
+
+    /**
+     * Converts a JSON array to a list of strings.
+     *
+     * @param value the raw value
+     * @return the list, or {@code null} if the value is not an array
+     */
+    private static ArrayList<String> strings(Object value) {
+        if (!(value instanceof JSONArray)) return null;
+        ArrayList<String> list = new ArrayList<>();
+        for (Object element : (JSONArray) value) {
+            list.add(element == null ? null : element.toString());
+        }
+        return list;
+    }
+}
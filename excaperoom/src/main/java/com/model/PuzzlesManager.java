@@ -1,11 +1,17 @@
 package com.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
 
 /**
  * Singleton manager class that handles all puzzle-related operations in the VHS Escape game.
  * Manages the collection of puzzles, tracks the current puzzle, and handles hint revelation,
  * puzzle navigation, and answer submission.
+ * <p>
+ * Besides the shared instance returned by {@link #getInstance()}, each
+ * {@link GameSession} has its own manager with its own copy of the puzzles
+ * and its own cursor.
  * 
  * @author VHS Escape Team
  * @version 1.0
@@ -19,7 +25,19 @@ public class PuzzlesManager {
     
     /** Index of the current puzzle in the puzzles collection */
     private int currentPuzzleIndex;
+
+    /** Position of each puzzle in the puzzles collection, keyed by puzzle ID */
+    private HashMap<UUID, Integer> positionsById;
+
+    /** Size of the puzzles collection when {@link #positionsById} was last updated */
+    private int indexedSize;
     
+    /** Player whose progress this manager updates, or null to follow {@link Players#getCurrentPlayer()} */
+    private final Player sessionPlayer;
+
+    /** Game this manager plays for, which records the hints, strikes and answers it sees */
+    private Game game;
+
     /** Singleton instance of PuzzlesManager */
     private static PuzzlesManager instance;
     
@@ -28,9 +46,43 @@ public class PuzzlesManager {
      * Initializes the puzzles collection and sets default values.
      */
     private PuzzlesManager() {
-        this.puzzles = new ArrayList<>();
+        this(new ArrayList<>(), null);
+    }
+
+    /**
+     * Creates a puzzle manager for one {@link GameSession}: its own puzzles and
+     * cursor, updating the progress of the session's player.
+     *
+     * @param puzzles the session's puzzles
+     * @param player  the session's player
+     */
+    PuzzlesManager(ArrayList<Puzzle> puzzles, Player player) {
+        this.puzzles = puzzles;
         this.currentPuzzle = null;
         this.currentPuzzleIndex = 0;
+        this.positionsById = new HashMap<>();
+        this.sessionPlayer = player;
+    }
+
+    /**
+     * Sets the game this manager plays for. Called by the {@link Game} that uses it.
+     *
+     * @param game the game
+     */
+    void setGame(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Records a step in the game's log, if there is a game and it is recorded.
+     *
+     * @param type     the kind of step
+     * @param argument its argument, or {@code null}
+     */
+    private void record(SessionLog.Type type, String argument) {
+        if (game != null) {
+            game.record(type, argument);
+        }
     }
 
     /**
@@ -112,13 +164,202 @@ public class PuzzlesManager {
 
     /**
      * Adds a puzzle to the collection of puzzles.
+     * If a puzzle with the same ID is already present, it is replaced in place
+     * (keeping its position, and staying current if it was current) instead of
+     * being added a second time.
      * 
      * @param puzzle the puzzle to add
      */
     public void addPuzzle(Puzzle puzzle) {
         if (puzzle != null && puzzles != null) {
+            int position = positionOf(puzzle.getID());
+            if (position >= 0) {
+                Puzzle previous = puzzles.set(position, puzzle);
+                if (currentPuzzle == previous) {
+                    currentPuzzle = puzzle;
+                }
+            } else {
+                puzzles.add(puzzle);
+                if (puzzle.getID() != null) {
+                    positionsById.putIfAbsent(puzzle.getID(), puzzles.size() - 1);
+                }
+                indexedSize = puzzles.size();
+            }
+        }
+    }
+
+    /**
+     * Adds a puzzle as an object of its own, without replacing any puzzle by
+     * ID. Used for catalog entries that share another entry's ID; does
+     * nothing if this very puzzle is already present.
+     *
+     * @param puzzle the puzzle to add
+     */
+    public void addPuzzleInstance(Puzzle puzzle) {
+        if (puzzle != null && puzzles != null && !containsPuzzle(puzzle)) {
             puzzles.add(puzzle);
+            if (puzzle.getID() != null) {
+                positionsById.putIfAbsent(puzzle.getID(), puzzles.size() - 1);
+            }
+            indexedSize = puzzles.size();
+        }
+    }
+
+    /**
+     * Replaces one puzzle object with another in the same position, staying
+     * current if it was current. Adds the new puzzle if the old one is not
+     * present.
+     *
+     * @param previous the puzzle to replace
+     * @param puzzle   the puzzle to put in its place
+     */
+    public void replacePuzzle(Puzzle previous, Puzzle puzzle) {
+        if (puzzle == null || puzzles == null) {
+            return;
+        }
+        int position = indexOfInstance(previous);
+        if (position < 0) {
+            addPuzzleInstance(puzzle);
+            return;
+        }
+        puzzles.set(position, puzzle);
+        if (currentPuzzle == previous) {
+            currentPuzzle = puzzle;
+        }
+        rebuildPositions();
+    }
+
+    /**
+     * Indicates whether this very puzzle object is in the collection.
+     *
+     * @param puzzle the puzzle
+     * @return true if it is present
+     */
+    public boolean containsPuzzle(Puzzle puzzle) {
+        return indexOfInstance(puzzle) >= 0;
+    }
+
+    /**
+     * Removes this very puzzle object, leaving other puzzles with the same ID.
+     * If it was the current puzzle, the current puzzle is cleared.
+     *
+     * @param puzzle the puzzle to remove
+     * @return true if it was removed, false if it was not present
+     */
+    public boolean removePuzzle(Puzzle puzzle) {
+        int position = indexOfInstance(puzzle);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Finds a puzzle object by identity.
+     *
+     * @param puzzle the puzzle
+     * @return its position, or -1 if it is not present
+     */
+    private int indexOfInstance(Puzzle puzzle) {
+        if (puzzle == null || puzzles == null) {
+            return -1;
+        }
+        for (int i = 0; i < puzzles.size(); i++) {
+            if (puzzles.get(i) == puzzle) {
+                return i;
+            }
         }
+        return -1;
+    }
+
+    /**
+     * Gets the puzzle with the given ID.
+     * 
+     * @param puzzleID the ID to look up
+     * @return the matching puzzle, or null if there is none
+     */
+    public Puzzle getPuzzleById(UUID puzzleID) {
+        int position = positionOf(puzzleID);
+        return position >= 0 ? puzzles.get(position) : null;
+    }
+
+    /**
+     * Removes the puzzle with the given ID.
+     * If it was the current puzzle, the current puzzle is cleared.
+     * 
+     * @param puzzleID the ID of the puzzle to remove
+     * @return true if a puzzle was removed, false if there was none with that ID
+     */
+    public boolean removePuzzle(UUID puzzleID) {
+        int position = positionOf(puzzleID);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Removes the puzzle at a position, keeping the current puzzle and its index in step.
+     *
+     * @param position the position to remove
+     */
+    private void removeAt(int position) {
+        Puzzle removed = puzzles.remove(position);
+        if (currentPuzzle == removed) {
+            currentPuzzle = null;
+        }
+        if (currentPuzzle != null) {
+            currentPuzzleIndex = Math.max(0, puzzles.indexOf(currentPuzzle));
+        } else if (currentPuzzleIndex > position) {
+            currentPuzzleIndex--;
+        }
+        rebuildPositions();
+    }
+
+    /**
+     * Finds the position of a puzzle by ID using the ID index.
+     * The index is rebuilt if the list was changed directly through
+     * {@link #getPuzzles()} since it was last updated.
+     * 
+     * @param puzzleID the ID to look up
+     * @return the puzzle's position, or -1 if there is none
+     */
+    private int positionOf(UUID puzzleID) {
+        if (puzzleID == null || puzzles == null) {
+            return -1;
+        }
+        if (indexedSize != puzzles.size()) {
+            rebuildPositions();
+        }
+        Integer position = positionsById.get(puzzleID);
+        if (position == null) {
+            return -1;
+        }
+        Puzzle found = puzzles.get(position);
+        if (found != null && puzzleID.equals(found.getID())) {
+            return position;
+        }
+        rebuildPositions();
+        position = positionsById.get(puzzleID);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Rebuilds the ID index from the puzzles collection.
+     */
+    private void rebuildPositions() {
+        positionsById = new HashMap<>();
+        if (puzzles != null) {
+            for (int i = 0; i < puzzles.size(); i++) {
+                Puzzle puzzle = puzzles.get(i);
+                if (puzzle != null && puzzle.getID() != null) {
+                    positionsById.putIfAbsent(puzzle.getID(), i);
+                }
+            }
+        }
+        indexedSize = puzzles == null ? 0 : puzzles.size();
     }
 
     /**
@@ -159,17 +400,41 @@ public class PuzzlesManager {
      */
     public int getHintsUsed() {
         if (currentPuzzle != null) {
-            Player currentPlayer = Players.getCurrentPlayer();
-            if (currentPlayer != null && currentPlayer.getProgress() != null && 
-                !currentPlayer.getProgress().isEmpty()) {
-                Progress progress = currentPlayer.getProgress().get(
-                    currentPlayer.getProgress().size() - 1);
+            Progress progress = playerProgress();
+            if (progress != null) {
                 return progress.getHintsUsed();
             }
         }
         return 0;
     }
 
+    /**
+     * Gets the latest progress record of the player this manager plays for.
+     *
+     * @return the progress, or null if there is no player or progress
+     */
+    private Progress playerProgress() {
+        Player player = sessionPlayer != null ? sessionPlayer : Players.getCurrentPlayer();
+        if (player != null && player.getProgress() != null && !player.getProgress().isEmpty()) {
+            return player.getProgress().get(player.getProgress().size() - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Marks a hint as used. The shared manager saves through the facade;
+     * session managers leave saving to their {@link GameSession}.
+     *
+     * @param hint the hint to mark
+     */
+    private void markUsed(Hint hint) {
+        if (sessionPlayer != null) {
+            hint.use();
+        } else {
+            hint.markUsed();
+        }
+    }
+
     /**
      * Reveals a specific hint by index and marks it as used.
      * Adds the hint to the player's progress if not already used.
@@ -190,14 +455,12 @@ public class PuzzlesManager {
         Hint hint = hints.get(hintIndex);
         
         if (!hint.isUsed()) {
-            hint.markUsed();
+            markUsed(hint);
             
-            Player currentPlayer = Players.getCurrentPlayer();
-            if (currentPlayer != null && currentPlayer.getProgress() != null && 
-                !currentPlayer.getProgress().isEmpty()) {
-                Progress progress = currentPlayer.getProgress().get(
-                    currentPlayer.getProgress().size() - 1);
+            Progress progress = playerProgress();
+            if (progress != null) {
                 progress.addHint(hint);
+                record(SessionLog.Type.HINT, null);
             }
         }
         
@@ -212,22 +475,22 @@ public class PuzzlesManager {
      */
     public Hint revealHint() {
         if (currentPuzzle != null) {
-            Player currentPlayer = Players.getCurrentPlayer();
-            if (currentPlayer != null && currentPlayer.getProgress() != null && 
-                !currentPlayer.getProgress().isEmpty()) {
-                Progress progress = currentPlayer.getProgress().get(
-                    currentPlayer.getProgress().size() - 1);
+            Progress progress = playerProgress();
+            if (progress != null) {
                 ArrayList<Hint> storedHints = progress.getStoredHints();
                 ArrayList<Hint> availableHints = currentPuzzle.getHints();
                 
                 if (storedHints.size() >= availableHints.size()) {
-                    System.out.println("No hints remaining on this puzzle!");
+                    if (sessionPlayer == null) {
+                        System.out.println("No hints remaining on this puzzle!");
+                    }
                     return null;
                 }
                 
                 Hint nextHint = availableHints.get(storedHints.size());
-                nextHint.markUsed();
+                markUsed(nextHint);
                 progress.addHint(nextHint);
+                record(SessionLog.Type.HINT, null);
                 return nextHint;
             }
         }
@@ -236,30 +499,34 @@ public class PuzzlesManager {
  
     /**
      * Skips the current puzzle by completing it and adding a strike to the player's record.
+     * A session manager only adds the strike; its {@link GameSession} advances the game.
      */
     public void skipCurrentPuzzle() {
         if (currentPuzzle != null) {
-            currentPuzzle.completePuzzle();
+            if (sessionPlayer == null) {
+                currentPuzzle.completePuzzle();
+            }
             
-            Player currentPlayer = Players.getCurrentPlayer();
-            if (currentPlayer != null && currentPlayer.getProgress() != null && 
-                !currentPlayer.getProgress().isEmpty()) {
-                Progress progress = currentPlayer.getProgress().get(
-                    currentPlayer.getProgress().size() - 1);
+            Progress progress = playerProgress();
+            if (progress != null) {
                 progress.setStrikes(progress.getStrikes() + 1);
+                record(SessionLog.Type.STRIKE, null);
             }
         }
     }
  
     /**
      * Submits an answer for the current puzzle and checks if it's correct.
+     * A session manager only checks the answer (see {@link Puzzle#isCorrect(String)});
+     * its {@link GameSession} completes the puzzle itself.
      * 
      * @param answer the answer to submit
      * @return true if the answer is correct, false otherwise
      */
     public boolean submitAnswer(String answer) {
         if (currentPuzzle != null) {
-            return currentPuzzle.checkAnswer(answer);
+            record(SessionLog.Type.ANSWER, answer);
+            return sessionPlayer != null ? currentPuzzle.isCorrect(answer) : currentPuzzle.checkAnswer(answer);
         }
         return false;
     }
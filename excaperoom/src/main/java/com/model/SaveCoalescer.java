@@ -0,0 +1,264 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind persistence layer that sits behind {@link Players#saveProgress()}.
+ * <p>
+ * Saving used to rewrite {@code json/players.json} on whichever thread asked
+ * for it, which is usually the JavaFX application thread. This class instead:
+ * <ul>
+ *     <li>Marks the affected players as dirty when a save is requested.</li>
+ *     <li>Schedules a single flush on a background thread once the flush delay
+ *         has passed since the first unsaved change.</li>
+ *     <li>Merges every save requested before that flush runs into it, so a burst
+ *         of saves (e.g. a hint reveal followed by a puzzle start) costs one write.</li>
+ *     <li>Flushes any pending changes on {@link #flush()}, {@link #shutdown()}
+ *         and when the JVM exits.</li>
+ * </ul>
+ * A flush delay of {@code 0} disables write-behind and writes synchronously on
+ * the calling thread, matching the original behavior.
+ * <p>
+ * Requesting a save takes no lock, so sessions saving different players never
+ * wait for each other or for a flush in progress.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class SaveCoalescer {
+
+    /** Default time, in milliseconds, that changes may wait before being flushed. */
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 250;
+
+    /** Singleton instance of the coalescer. */
+    private static volatile SaveCoalescer instance;
+
+    /** Background thread that performs the scheduled flushes. */
+    private final ScheduledExecutorService executor;
+
+    /** IDs of players changed since the last flush. */
+    private final Set<UUID> dirtyPlayers;
+
+    /** Whether a change that is not tied to a single player is pending. */
+    private final AtomicBoolean fullSavePending;
+
+    /** Whether a flush is scheduled on the background thread; only the request that sets it schedules one. */
+    private final AtomicBoolean flushScheduled;
+
+    /** The flush currently scheduled on the background thread, if any. */
+    private volatile ScheduledFuture<?> scheduledFlush;
+
+    /** Maximum time, in milliseconds, a change may wait before it is written. */
+    private volatile long flushDelayMillis;
+
+    /** Set once {@link #shutdown()} has run; later saves are written synchronously. */
+    private volatile boolean shutDown;
+
+    /** Serializes flushes so the background thread and callers never write at once. */
+    private final Object writeLock;
+
+    /** Number of flushes that actually wrote data (used for diagnostics and tests). */
+    private volatile int flushCount;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     * Starts the daemon flush thread and registers a JVM shutdown hook so pending
+     * changes are not lost when the application exits.
+     */
+    private SaveCoalescer() {
+        this.dirtyPlayers = ConcurrentHashMap.newKeySet();
+        this.fullSavePending = new AtomicBoolean(false);
+        this.flushScheduled = new AtomicBoolean(false);
+        this.flushDelayMillis = DEFAULT_FLUSH_DELAY_MILLIS;
+        this.shutDown = false;
+        this.writeLock = new Object();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "player-save-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "player-save-shutdown"));
+    }
+
+    /**
+     * Returns the singleton instance of the coalescer, creating it if needed.
+     *
+     * @return the shared {@code SaveCoalescer}
+     */
+    public static SaveCoalescer getInstance() {
+        SaveCoalescer local = instance;
+        if (local == null) {
+            // checked again under the lock; once created, callers never lock here
+            synchronized (SaveCoalescer.class) {
+                local = instance;
+                if (local == null) {
+                    local = new SaveCoalescer();
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Requests that the given player's data be saved.
+     * <p>
+     * The player is marked dirty and a flush is scheduled if one is not already
+     * pending. A {@code null} player requests a save of the whole player list.
+     *
+     * @param player the player whose data changed; may be {@code null}
+     */
+    public void requestSave(Player player) {
+        if (player != null && player.getId() != null) {
+            dirtyPlayers.add(player.getId());
+        } else {
+            fullSavePending.set(true);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Requests a save of the whole player list, for changes such as adding or
+     * removing an account that are not tied to a single dirty player.
+     */
+    public void requestFullSave() {
+        fullSavePending.set(true);
+        scheduleFlush();
+    }
+
+    /**
+     * Schedules a background flush if none is pending, or writes synchronously
+     * when write-behind is disabled or the coalescer has been shut down.
+     */
+    private void scheduleFlush() {
+        if (flushDelayMillis <= 0 || shutDown) {
+            flush();
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduledFlush = executor.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Immediately writes any pending changes on the calling thread.
+     * <p>
+     * Does nothing if no save has been requested since the last flush. If the
+     * write fails, the changes stay pending and another flush is scheduled.
+     *
+     * @return {@code true} if nothing was pending or the write succeeded;
+     *         {@code false} if the write failed
+     */
+    public boolean flush() {
+        synchronized (writeLock) {
+            ScheduledFuture<?> scheduled = scheduledFlush;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduledFlush = null;
+            }
+            // cleared before draining, so a save requested from here on schedules its own flush
+            flushScheduled.set(false);
+            boolean full = fullSavePending.getAndSet(false);
+            Set<UUID> dirty = new LinkedHashSet<>();
+            Iterator<UUID> it = dirtyPlayers.iterator();
+            while (it.hasNext()) {
+                dirty.add(it.next());
+                it.remove();
+            }
+            if (dirty.isEmpty() && !full) {
+                return true;
+            }
+
+            ArrayList<Player> snapshot = Players.getInstance().snapshot();
+            boolean saved = DataWriter.savePlayers(snapshot, dirty);
+            flushCount++;
+            if (!saved) {
+                System.out.println("Warning: could not save " + dirty.size() + " changed player(s).");
+                // keep the changes pending so they are retried rather than lost
+                dirtyPlayers.addAll(dirty);
+                if (full) {
+                    fullSavePending.set(true);
+                }
+                if (flushDelayMillis > 0 && !shutDown && flushScheduled.compareAndSet(false, true)) {
+                    scheduledFlush = executor.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Drops every pending save without writing it. Intended for tools and
+     * benchmarks that mark players dirty which must not be persisted.
+     */
+    void discard() {
+        synchronized (writeLock) {
+            ScheduledFuture<?> scheduled = scheduledFlush;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduledFlush = null;
+            }
+            flushScheduled.set(false);
+            fullSavePending.set(false);
+            dirtyPlayers.clear();
+        }
+    }
+
+    /**
+     * Indicates whether there are changes that have not been written yet.
+     *
+     * @return {@code true} if a save is pending; {@code false} otherwise
+     */
+    public boolean hasPendingChanges() {
+        return !dirtyPlayers.isEmpty() || fullSavePending.get();
+    }
+
+    /**
+     * Flushes pending changes and stops the background thread.
+     * <p>
+     * Saves requested after shutdown are written synchronously. Calling this
+     * method more than once is harmless.
+     */
+    public void shutdown() {
+        shutDown = true;
+        flush();
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the maximum time a change may wait before being written.
+     *
+     * @return the flush delay in milliseconds
+     */
+    public long getFlushDelay() {
+        return flushDelayMillis;
+    }
+
+    /**
+     * Sets the maximum time a change may wait before being written.
+     * A value of {@code 0} or less writes every save synchronously.
+     *
+     * @param millis the flush delay in milliseconds
+     */
+    public void setFlushDelay(long millis) {
+        this.flushDelayMillis = millis;
+    }
+
+    /**
+     * Returns how many flushes have written data since startup.
+     *
+     * @return the number of completed flushes
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+}
@@ -0,0 +1,93 @@
+package com.model;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * SaveThroughputBenchmark
+ * <p>
+ * Compares the save throughput of the previous in-place {@code FileWriter}
+ * write (no fsync, not crash-safe) with {@link AtomicFileWriter} (temp file,
+ * fsync, atomic rename, grouped syncs), with several threads saving the same
+ * file at once. Files are written in a temp directory.
+ * <p>
+ * Usage: {@code SaveThroughputBenchmark [threads] [savesPerThread] [sizeKB]}
+ * (defaults: 8, 200, 256).
+ */
+public class SaveThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int saves = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int sizeKB = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < sizeKB * 1024) {
+            sb.append("{\"displayName\":\"player\",\"progress\":{\"strikes\":0}},");
+        }
+        byte[] content = sb.toString().getBytes(Charset.defaultCharset());
+        String text = sb.toString();
+
+        File dir = Files.createTempDirectory("save-bench").toFile();
+        File inPlace = new File(dir, "in-place.json");
+        File atomic = new File(dir, "atomic.json");
+
+        System.out.println("=== SaveThroughputBenchmark ===");
+        System.out.printf("threads: %d   saves/thread: %d   file: %,d bytes%n", threads, saves, content.length);
+
+        long inPlaceMs = run(threads, saves, () -> {
+            // the old path; synchronized because concurrent FileWriters on one file interleave
+            synchronized (inPlace) {
+                try (FileWriter fw = new FileWriter(inPlace)) {
+                    fw.write(text);
+                }
+            }
+        });
+        long atomicMs = run(threads, saves, () -> AtomicFileWriter.write(atomic, content, AtomicFileWriter.DEFAULT_GENERATIONS));
+
+        int total = threads * saves;
+        System.out.printf("in-place  %,7d ms  %,9.0f saves/s  (no fsync)%n", inPlaceMs, total * 1000.0 / Math.max(1, inPlaceMs));
+        System.out.printf("atomic    %,7d ms  %,9.0f saves/s  (%d fsync rounds)%n", atomicMs, total * 1000.0 / Math.max(1, atomicMs),
+                AtomicFileWriter.getSyncCount(atomic));
+
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    private interface Save {
+        void run() throws Exception;
+    }
+
+    /** Runs {@code saves} saves on each of {@code threads} threads and returns the elapsed milliseconds. */
+    private static long run(int threads, int saves, Save save) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < saves; i++) {
+                        save.run();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (System.nanoTime() - begin) / 1_000_000;
+    }
+}
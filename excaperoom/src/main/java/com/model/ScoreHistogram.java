@@ -0,0 +1,143 @@
+package com.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-width histogram of leaderboard scores.
+ * <p>
+ * Bucket {@code i} counts the scores from {@code i * width} up to, but not
+ * including, {@code (i + 1) * width}. Negative scores count in the first
+ * bucket, and the last of at most {@value #MAX_BUCKETS} buckets also counts
+ * every score above it, so memory stays bounded whatever scores arrive.
+ * Recording a score is O(1), and two histograms with the same width merge
+ * bucket by bucket, so per-difficulty histograms add up to the overall one
+ * and histograms from several kiosks can be combined.
+ * <p>
+ * This class is not thread-safe; {@link Leaderboard} guards the histograms
+ * it updates and publishes copies in its snapshots.
+ */
+public class ScoreHistogram {
+
+    /** Largest number of buckets kept. */
+    public static final int MAX_BUCKETS = 1024;
+
+    /** Width of each bucket, in points. */
+    private final int width;
+
+    /** Count per bucket; grows up to {@link #MAX_BUCKETS} as higher scores arrive. */
+    private long[] counts;
+
+    /** Index of the highest non-empty bucket, plus one. */
+    private int used;
+
+    /** Number of scores recorded. */
+    private long total;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param width the bucket width in points; at least 1
+     */
+    public ScoreHistogram(int width) {
+        this.width = Math.max(1, width);
+        this.counts = new long[16];
+    }
+
+    /**
+     * Creates a copy of another histogram.
+     *
+     * @param other the histogram to copy
+     */
+    public ScoreHistogram(ScoreHistogram other) {
+        this.width = other.width;
+        this.counts = Arrays.copyOf(other.counts, Math.max(1, other.used));
+        this.used = other.used;
+        this.total = other.total;
+    }
+
+    /**
+     * Records a score.
+     *
+     * @param score the score
+     */
+    void add(int score) {
+        int bucket = bucketOf(score);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(MAX_BUCKETS, Math.max(bucket + 1, counts.length * 2)));
+        }
+        counts[bucket]++;
+        used = Math.max(used, bucket + 1);
+        total++;
+    }
+
+    /**
+     * Returns a new histogram holding the scores of this one and another.
+     *
+     * @param other a histogram with the same bucket width
+     * @return the combined histogram
+     * @throws IllegalArgumentException if the bucket widths differ
+     */
+    public ScoreHistogram merged(ScoreHistogram other) {
+        if (other.width != width) {
+            throw new IllegalArgumentException("Bucket widths differ: " + width + " and " + other.width);
+        }
+        ScoreHistogram out = new ScoreHistogram(this);
+        if (other.used > out.counts.length) {
+            out.counts = Arrays.copyOf(out.counts, other.used);
+        }
+        for (int i = 0; i < other.used; i++) {
+            out.counts[i] += other.counts[i];
+        }
+        out.used = Math.max(used, other.used);
+        out.total += other.total;
+        return out;
+    }
+
+    /**
+     * Returns the bucket a score falls in.
+     *
+     * @param score the score
+     * @return the bucket index
+     */
+    public int bucketOf(int score) {
+        return score < 0 ? 0 : Math.min(MAX_BUCKETS - 1, score / width);
+    }
+
+    /** @return the bucket width in points */
+    public int getWidth() { return width; }
+
+    /** @return the number of buckets up to the highest non-empty one */
+    public int getBucketCount() { return used; }
+
+    /** @return the number of scores recorded */
+    public long getTotal() { return total; }
+
+    /**
+     * Returns the lowest score counted in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the bucket's lower bound
+     */
+    public int getLowerBound(int bucket) {
+        return bucket * width;
+    }
+
+    /**
+     * Returns the number of scores in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the count; zero for buckets past the highest score
+     */
+    public long getCount(int bucket) {
+        return bucket >= 0 && bucket < used ? counts[bucket] : 0;
+    }
+
+    /**
+     * Returns the bucket counts, from the lowest bucket to the highest non-empty one.
+     *
+     * @return a new array of counts
+     */
+    public long[] getCounts() {
+        return Arrays.copyOf(counts, used);
+    }
+}
@@ -0,0 +1,175 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * ScoreRescorer
+ * <p>
+ * Recomputes the score of every recorded game after the scoring constants in
+ * {@link Game} change, and updates the {@link Leaderboard} with the new scores.
+ * <p>
+ * The stored scores cannot be recomputed from themselves, and a player's
+ * {@link Progress} does not keep the time a game took. The
+ * {@link SessionLog}s in the {@link SessionStore} do hold every fact, so the
+ * pipeline works from them, after loading the players and the puzzle catalog:
+ * <ol>
+ *     <li>Replay each log in virtual time, in parallel across the common
+ *         fork/join pool with one {@link SessionReplayer} per thread, to get
+ *         each game's {@link SessionResult}.</li>
+ *     <li>Score each finished game by the given {@link ScoreRules}, also in
+ *         parallel. Results keep the logs' order, so ties rank as before.</li>
+ *     <li>Replace the rescored games' leaderboard entries in one pass
+ *         ({@link Leaderboard#replaceGames(List)}). Entries without a
+ *         recording are kept.</li>
+ *     <li>Set each registered player's stored score to the new score of
+ *         their latest game, or 0 if they lost it, as the win and lose
+ *         screens do.</li>
+ * </ol>
+ * If any log cannot be replayed, for example because it was recorded with
+ * another puzzle set, or there is nothing to rescore, the tool stops before
+ * changing the leaderboard or any player.
+ * <p>
+ * Usage: {@code ScoreRescorer [sessions.jsonl...]} (default: the {@link SessionStore}'s file).
+ */
+public class ScoreRescorer {
+
+    public static void main(String[] args) {
+        try {
+            long begin = System.nanoTime();
+            if (!Players.getInstance().loadProgress()) {
+                System.out.println("Error: could not load the players.");
+                System.exit(1);
+            }
+            // fail before replaying anything if there are no puzzles
+            PuzzleCatalog.getInstance().requirePuzzleSet();
+            ArrayList<SessionLog> logs = new ArrayList<>();
+            if (args.length == 0) {
+                logs.addAll(SessionStore.getInstance().load());
+            }
+            for (String arg : args) {
+                logs.addAll(SessionLog.read(new File(arg)));
+            }
+            long readNs = System.nanoTime() - begin;
+
+            ArrayList<SessionResult> results = replayAll(logs, SessionReplayer::fromCatalog);
+            long replayNs = System.nanoTime() - begin - readNs;
+            int skipped = logs.size() - results.size();
+            if (skipped > 0) {
+                System.out.println("Error: " + skipped + " of " + logs.size()
+                        + " sessions could not be replayed; nothing was changed.");
+                System.exit(1);
+            }
+            ScoreRules rules = Game.getScoreRules();
+            ArrayList<LeaderboardEntry> entries = rescore(results, rules);
+            if (entries.isEmpty()) {
+                System.out.println("Error: no finished sessions to rescore; nothing was changed.");
+                System.exit(1);
+            }
+            int replaced = Leaderboard.getInstance().replaceGames(entries);
+            int players = updatePlayers(results, rules);
+            SaveCoalescer.getInstance().flush();
+            long totalNs = System.nanoTime() - begin;
+
+            System.out.println("Rules: " + rules);
+            System.out.printf("Read %,d sessions in %,d ms; replayed in %,d ms; total %,d ms.%n",
+                    logs.size(), readNs / 1_000_000, replayNs / 1_000_000, totalNs / 1_000_000);
+            System.out.printf("Replaced %,d of %,d rescored leaderboard entries; updated %,d players.%n",
+                    replaced, entries.size(), players);
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays recorded games in parallel.
+     *
+     * @param logs      the recorded games
+     * @param replayers creates a replayer for each worker thread
+     * @return the games' results, in the logs' order, without the logs that
+     *         could not be replayed
+     */
+    public static ArrayList<SessionResult> replayAll(List<SessionLog> logs, Supplier<SessionReplayer> replayers) {
+        // a replayer reuses its engine and puzzles, so each thread needs its own
+        ThreadLocal<SessionReplayer> local = ThreadLocal.withInitial(replayers);
+        return logs.parallelStream()
+                .map(log -> {
+                    try {
+                        return SessionResult.of(log, local.get());
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Scores finished games in parallel. Games that never ended have no
+     * leaderboard entry.
+     *
+     * @param results the games' results
+     * @param rules   the scoring rules
+     * @return one entry per finished game, in the results' order
+     */
+    public static ArrayList<LeaderboardEntry> rescore(List<SessionResult> results, ScoreRules rules) {
+        return results.parallelStream()
+                .filter(SessionResult::isOver)
+                .map(result -> result.toEntry(rules))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Sets each registered player's stored score to the new score of their
+     * latest finished game: the score if they won it, 0 if they lost.
+     * Players without a finished game, or not registered, are left alone.
+     *
+     * @param results the games' results, oldest first
+     * @param rules   the scoring rules
+     * @return the number of players updated
+     */
+    public static int updatePlayers(List<SessionResult> results, ScoreRules rules) {
+        HashMap<String, SessionResult> latest = new HashMap<>();
+        for (SessionResult result : results) {
+            if (result.isOver()) {
+                latest.put(result.getPlayerName(), result);
+            }
+        }
+        int updated = 0;
+        PlayerStore store = PlayerStore.getInstance();
+        for (Map.Entry<String, SessionResult> entry : latest.entrySet()) {
+            Player player = Players.getInstance().getPlayerByName(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+            int score = entry.getValue().isWon() ? entry.getValue().score(rules) : 0;
+            boolean changed = false;
+            synchronized (store.lockFor(player)) {
+                ArrayList<Progress> progress = player.getProgress();
+                if (progress != null && !progress.isEmpty()) {
+                    Progress last = progress.get(progress.size() - 1);
+                    if (last.getCurrentScore() != score) {
+                        last.setScore(score);
+                        changed = true;
+                    }
+                }
+            }
+            // saves are requested after the stripe is released
+            if (changed) {
+                SaveCoalescer.getInstance().requestSave(player);
+                updated++;
+            }
+        }
+        return updated;
+    }
+}
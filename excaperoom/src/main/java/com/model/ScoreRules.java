@@ -0,0 +1,89 @@
+package com.model;
+
+/**
+ * The scoring formula and its constants.
+ * <p>
+ * A game's score is the base score plus a bonus per completed puzzle, less
+ * a penalty per hint and per strike. A game that ended with every puzzle
+ * completed also earns a bonus per second left on the clock, fractions of a
+ * second included. The score is never below zero.
+ * <p>
+ * {@link Game#getScoreRules()} returns the rules {@link Game#calculateScore()}
+ * plays by. Other instances let {@link ScoreRescorer} score recorded games by
+ * changed rules without replaying them. Instances are immutable.
+ */
+public final class ScoreRules {
+
+    /** Score every game starts from. */
+    private final int baseScore;
+
+    /** Bonus per completed puzzle. */
+    private final int completionBonus;
+
+    /** Penalty per hint used. */
+    private final int hintPenalty;
+
+    /** Penalty per strike. */
+    private final int strikePenalty;
+
+    /** Bonus per second left when every puzzle was completed. */
+    private final int timeBonusPerSecond;
+
+    /**
+     * Creates a set of rules.
+     *
+     * @param baseScore          score every game starts from
+     * @param completionBonus    bonus per completed puzzle
+     * @param hintPenalty        penalty per hint used
+     * @param strikePenalty      penalty per strike
+     * @param timeBonusPerSecond bonus per second left after completing every puzzle
+     */
+    public ScoreRules(int baseScore, int completionBonus, int hintPenalty, int strikePenalty,
+                      int timeBonusPerSecond) {
+        this.baseScore = baseScore;
+        this.completionBonus = completionBonus;
+        this.hintPenalty = hintPenalty;
+        this.strikePenalty = strikePenalty;
+        this.timeBonusPerSecond = timeBonusPerSecond;
+    }
+
+    /**
+     * Scores a game.
+     *
+     * @param completed      puzzles completed
+     * @param hints          hints used
+     * @param strikes        strikes earned
+     * @param finishedAll    whether the game is over with every puzzle completed
+     * @param remainingNanos time left on the clock, in nanoseconds
+     * @return the score; never negative
+     */
+    public int score(int completed, int hints, int strikes, boolean finishedAll, long remainingNanos) {
+        int score = baseScore + completed * completionBonus - hints * hintPenalty - strikes * strikePenalty;
+        if (finishedAll && remainingNanos > 0) {
+            // fractions of a second count too
+            score += (int) (remainingNanos * timeBonusPerSecond / GameTimer.NANOS_PER_SECOND);
+        }
+        return Math.max(0, score);
+    }
+
+    /** @return the score every game starts from */
+    public int getBaseScore() { return baseScore; }
+
+    /** @return the bonus per completed puzzle */
+    public int getCompletionBonus() { return completionBonus; }
+
+    /** @return the penalty per hint used */
+    public int getHintPenalty() { return hintPenalty; }
+
+    /** @return the penalty per strike */
+    public int getStrikePenalty() { return strikePenalty; }
+
+    /** @return the bonus per second left after completing every puzzle */
+    public int getTimeBonusPerSecond() { return timeBonusPerSecond; }
+
+    @Override
+    public String toString() {
+        return String.format("base %d, +%d per puzzle, -%d per hint, -%d per strike, +%d per second left",
+                baseScore, completionBonus, hintPenalty, strikePenalty, timeBonusPerSecond);
+    }
+}
@@ -0,0 +1,358 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * What happened in one game, in order, with the time each step was made.
+ * <p>
+ * A {@link Game} with recording turned on fills one log per game, whether it
+ * is played through {@link EscapeGameFacade}, a {@link GameSession} or a
+ * {@link GameEngine}. The log holds the steps that decide the score: the
+ * start, completed puzzles, moves to the next puzzle, hints, strikes, items,
+ * pauses and the end. Answers are kept too, for reference; what they led to
+ * is recorded as steps of its own, so a log does not depend on the rules of
+ * the screen or engine that played it. Every step is stored with its time in
+ * nanoseconds since the game started, exactly as the game's clock read it,
+ * so {@link SessionReplayer} can play the same game again in virtual time.
+ * The log also keeps the player's name, when the game started, the IDs of the
+ * puzzles in play order and the latest score, to check a replay against.
+ * <p>
+ * Logs are stored one per line in a JSON-lines file ({@link SessionStore}).
+ * Each event is a small array of time, operation and, for some operations,
+ * an argument:
+ * <pre>
+ * {"v":2,"player":"ann","at":"2026-10-18T09:30:00Z","puzzles":["&lt;uuid&gt;",...],"score":11550,
+ *  "events":[[0,"start","EASY"],[8200000000,"answer","vhs"],[8200000000,"complete"],[8200000000,"next"],...]}
+ * </pre>
+ */
+public class SessionLog {
+
+    /** Version of the log format written by this class. */
+    public static final int VERSION = 2;
+
+    /**
+     * The kinds of step a game records.
+     */
+    public enum Type {
+        /** A new game; the argument is the difficulty name. */
+        START("start"),
+        /** An answer to the current puzzle; the argument is the answer. Kept for reference only. */
+        ANSWER("answer"),
+        /** Hints were revealed; the argument, if any, is how many (otherwise one). */
+        HINT("hint"),
+        /** Strikes were added; the argument, if any, is how many (otherwise one), negative when strikes were reset. */
+        STRIKE("strike"),
+        /** An item was added to the inventory; the argument is its name. */
+        ITEM("item"),
+        /** The current puzzle was completed. */
+        COMPLETE("complete"),
+        /** Play moved on to the next puzzle. */
+        NEXT("next"),
+        /** The timer was paused. */
+        PAUSE("pause"),
+        /** The timer was resumed. */
+        RESUME("resume"),
+        /** The game ended; the argument is {@code won} or {@code lost}. */
+        END("end");
+
+        /** Name of the operation in the stored log. */
+        private final String code;
+
+        Type(String code) {
+            this.code = code;
+        }
+
+        /** @return the operation's name in the stored log */
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Looks up an operation by its stored name.
+         *
+         * @param code the name
+         * @return the type, or {@code null} if there is none by that name
+         */
+        public static Type fromCode(String code) {
+            for (Type type : values()) {
+                if (type.code.equals(code)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One recorded step.
+     */
+    public static final class Event {
+        private final long nanos;
+        private final Type type;
+        private final String argument;
+
+        Event(long nanos, Type type, String argument) {
+            this.nanos = nanos;
+            this.type = type;
+            this.argument = argument;
+        }
+
+        /** @return when the step was made, in nanoseconds since the game started */
+        public long getNanos() { return nanos; }
+
+        /** @return the kind of step */
+        public Type getType() { return type; }
+
+        /** @return the step's argument, or {@code null} if it has none */
+        public String getArgument() { return argument; }
+
+        /**
+         * Returns how many hints or strikes a {@link Type#HINT} or
+         * {@link Type#STRIKE} step stands for.
+         *
+         * @return the count in the argument, or one if there is none
+         * @throws IllegalArgumentException if the argument is not a count
+         */
+        public int getCount() {
+            if (argument == null) {
+                return 1;
+            }
+            try {
+                return Integer.parseInt(argument);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("not a count: " + argument);
+            }
+        }
+    }
+
+    /** Name of the player whose game this is. */
+    private final String playerName;
+
+    /** IDs of the game's puzzles, in play order. */
+    private final ArrayList<UUID> puzzleIds;
+
+    /** The steps, in order. */
+    private final ArrayList<Event> events;
+
+    /** Latest score of the game, or -1 if not known. */
+    private int score;
+
+    /** ISO timestamp of when the game started, or {@code null} if not known. */
+    private String startedAt;
+
+    /**
+     * Creates an empty log.
+     *
+     * @param playerName name of the player
+     * @param puzzleIds  IDs of the game's puzzles, in play order
+     */
+    public SessionLog(String playerName, List<UUID> puzzleIds) {
+        this.playerName = playerName;
+        this.puzzleIds = new ArrayList<>(puzzleIds);
+        this.events = new ArrayList<>();
+        this.score = -1;
+    }
+
+    /**
+     * Appends a step.
+     *
+     * @param nanos    when it was made, in nanoseconds since the game started
+     * @param type     the kind of step
+     * @param argument its argument, or {@code null}
+     */
+    void add(long nanos, Type type, String argument) {
+        events.add(new Event(nanos, type, argument));
+    }
+
+    /** @return the player's name */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /** @return the puzzle IDs in play order, unmodifiable */
+    public List<UUID> getPuzzleIds() {
+        return Collections.unmodifiableList(puzzleIds);
+    }
+
+    /** @return the steps in order, unmodifiable */
+    public List<Event> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    /** @return the game's latest score, or -1 if not known */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Records the game's latest score.
+     *
+     * @param score the score
+     */
+    void setScore(int score) {
+        this.score = score;
+    }
+
+    /** @return the ISO timestamp of when the game started, or {@code null} if not known */
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Records when the game started.
+     *
+     * @param startedAt an ISO timestamp
+     */
+    void setStartedAt(String startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Returns the length of the recorded game.
+     *
+     * @return the time of the last step, in nanoseconds since the game started
+     */
+    public long getDurationNanos() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).nanos;
+    }
+
+    /**
+     * Converts the log to its stored form.
+     *
+     * @return the JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        json.put("v", VERSION);
+        json.put("player", playerName);
+        if (startedAt != null) {
+            json.put("at", startedAt);
+        }
+        JSONArray ids = new JSONArray();
+        for (UUID id : puzzleIds) {
+            ids.add(id.toString());
+        }
+        json.put("puzzles", ids);
+        json.put("score", score);
+        JSONArray list = new JSONArray();
+        for (Event event : events) {
+            JSONArray entry = new JSONArray();
+            entry.add(event.nanos);
+            entry.add(event.type.code);
+            if (event.argument != null) {
+                entry.add(event.argument);
+            }
+            list.add(entry);
+        }
+        json.put("events", list);
+        return json;
+    }
+
+    /**
+     * Reads a log from its stored form.
+     *
+     * @param json the JSON object
+     * @return the log
+     * @throws IllegalArgumentException if the object is not a log this class can read
+     */
+    public static SessionLog fromJSON(JSONObject json) {
+        Object version = json.get("v");
+        if (!(version instanceof Number) || ((Number) version).intValue() != VERSION) {
+            throw new IllegalArgumentException("not a version " + VERSION + " session log");
+        }
+        ArrayList<UUID> ids = new ArrayList<>();
+        Object puzzles = json.get("puzzles");
+        if (puzzles instanceof JSONArray) {
+            for (Object id : (JSONArray) puzzles) {
+                ids.add(UUID.fromString(String.valueOf(id)));
+            }
+        }
+        Object player = json.get("player");
+        SessionLog log = new SessionLog(player == null ? null : player.toString(), ids);
+        Object at = json.get("at");
+        if (at != null) {
+            log.startedAt = at.toString();
+        }
+        Object score = json.get("score");
+        if (score instanceof Number) {
+            log.score = ((Number) score).intValue();
+        }
+        Object events = json.get("events");
+        if (!(events instanceof JSONArray)) {
+            throw new IllegalArgumentException("session log has no events");
+        }
+        for (Object item : (JSONArray) events) {
+            if (!(item instanceof JSONArray) || ((JSONArray) item).size() < 2
+                    || !(((JSONArray) item).get(0) instanceof Number)) {
+                throw new IllegalArgumentException("malformed event: " + item);
+            }
+            JSONArray entry = (JSONArray) item;
+            Type type = Type.fromCode(String.valueOf(entry.get(1)));
+            if (type == null) {
+                throw new IllegalArgumentException("unknown event: " + entry.get(1));
+            }
+            Object argument = entry.size() > 2 ? entry.get(2) : null;
+            log.add(((Number) entry.get(0)).longValue(), type, argument == null ? null : argument.toString());
+        }
+        return log;
+    }
+
+    /**
+     * Writes logs to a file, one per line, replacing it atomically.
+     *
+     * @param logs the logs
+     * @param out  the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<SessionLog> logs, File out) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (SessionLog log : logs) {
+            sb.append(log.toJSON().toJSONString()).append('\n');
+        }
+        if (!AtomicFileWriter.write(out, sb.toString().getBytes(StandardCharsets.UTF_8))) {
+            throw new IOException("could not write " + out.getPath());
+        }
+    }
+
+    /**
+     * Reads every log in a file written by {@link #write(List, File)}.
+     *
+     * @param in the file to read
+     * @return the logs, in file order
+     * @throws IOException if the file cannot be read or a line is not a log
+     */
+    public static ArrayList<SessionLog> read(File in) throws IOException {
+        ArrayList<SessionLog> logs = new ArrayList<>();
+        JSONParser parser = new JSONParser();
+        try (BufferedReader reader = new BufferedReader(new FileReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    logs.add(fromJSON((JSONObject) parser.parse(line)));
+                } catch (ParseException | ClassCastException | IllegalArgumentException e) {
+                    throw new IOException(in.getPath() + ": line " + number + " is not a session log: " + e.getMessage());
+                }
+            }
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,195 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link GameSession}s hosted by this process, keyed by session ID.
+ * <p>
+ * This is the session-scoped counterpart of {@link EscapeGameFacade}: where
+ * the facade runs a single game for {@link Players#getCurrentPlayer()}, the
+ * registry lets one process run any number of games at once, each with its
+ * own player, {@link Game} and puzzle cursor. Both work on the same
+ * {@link Players} store, whose list operations are synchronized.
+ * <p>
+ * A player has at most one session: logging in again while a session is open
+ * returns that session. Lookups are lock-free; opening and closing sessions
+ * is synchronized.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class SessionRegistry {
+
+    /** Singleton instance of the registry. */
+    private static SessionRegistry instance;
+
+    /** Open sessions, keyed by session ID. */
+    private final ConcurrentHashMap<String, GameSession> sessions;
+
+    /** Open sessions, keyed by player ID. Guarded by {@code this}. */
+    private final HashMap<UUID, GameSession> sessionsByPlayer;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private SessionRegistry() {
+        this.sessions = new ConcurrentHashMap<>();
+        this.sessionsByPlayer = new HashMap<>();
+    }
+
+    /**
+     * Returns the singleton instance of the registry, creating it if needed.
+     *
+     * @return the shared {@code SessionRegistry}
+     */
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new SessionRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Opens a session for an existing account.
+     *
+     * @param displayName the player's display name
+     * @param password    the player's password
+     * @return the player's session, or {@code null} if the credentials are invalid
+     */
+    public GameSession login(String displayName, String password) {
+        Player player = Players.getInstance().authenticate(displayName, password);
+        return player == null ? null : open(player);
+    }
+
+    /**
+     * Creates an account and opens a session for it.
+     *
+     * @param displayName the display name for the new account
+     * @param password    the password for the new account
+     * @return the new session, or {@code null} if the password is empty or the name is taken
+     */
+    public GameSession createAccount(String displayName, String password) {
+        Player player = Players.getInstance().register(displayName, password);
+        return player == null ? null : open(player);
+    }
+
+    /**
+     * Opens a session for a player, or returns the one already open.
+     *
+     * @param player the player
+     * @return the player's session
+     */
+    public synchronized GameSession open(Player player) {
+        GameSession existing = sessionsByPlayer.get(player.getId());
+        if (existing != null) {
+            existing.touch();
+            return existing;
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), player, newPuzzleSet());
+        sessions.put(session.getSessionId(), session);
+        sessionsByPlayer.put(player.getId(), session);
+        return session;
+    }
+
+    /**
+     * Gets an open session.
+     *
+     * @param sessionId the session ID
+     * @return the session, or {@code null} if no such session is open
+     */
+    public GameSession get(String sessionId) {
+        GameSession session = sessionId == null ? null : sessions.get(sessionId);
+        if (session != null) {
+            session.touch();
+        }
+        return session;
+    }
+
+    /**
+     * Closes a session, saving its player.
+     *
+     * @param sessionId the session ID
+     * @return {@code true} if the session was open
+     */
+    public synchronized boolean close(String sessionId) {
+        GameSession session = sessionId == null ? null : sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        sessionsByPlayer.remove(session.getPlayer().getId(), session);
+        session.save();
+        return true;
+    }
+
+    /**
+     * Closes every session that has not been accessed for a while.
+     *
+     * @param maxIdleMillis the idle time after which a session is closed
+     * @return the number of sessions closed
+     */
+    public synchronized int closeIdle(long maxIdleMillis) {
+        long cutoff = System.currentTimeMillis() - maxIdleMillis;
+        int closed = 0;
+        Iterator<GameSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            GameSession session = it.next();
+            if (session.getLastAccess() < cutoff) {
+                it.remove();
+                sessionsByPlayer.remove(session.getPlayer().getId(), session);
+                session.save();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Closes every session. Intended for shutdown and tests.
+     */
+    public synchronized void closeAll() {
+        for (GameSession session : sessions.values()) {
+            session.save();
+        }
+        sessions.clear();
+        sessionsByPlayer.clear();
+    }
+
+    /**
+     * Returns the open sessions.
+     *
+     * @return a copy of the open sessions
+     */
+    public ArrayList<GameSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return the session count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Builds the puzzles for a new session: fresh copies of the catalog's
+     * puzzles, or copies of the shared list's references if the catalog is
+     * empty (for example when puzzles were added programmatically).
+     *
+     * @return the session's puzzles
+     */
+    private ArrayList<Puzzle> newPuzzleSet() {
+        ArrayList<Puzzle> set = PuzzleCatalog.getInstance().newPuzzleSet();
+        if (set.isEmpty()) {
+            ArrayList<Puzzle> shared = PuzzlesManager.getInstance().getPuzzles();
+            if (shared != null) {
+                set = new ArrayList<>(shared);
+            }
+        }
+        return set;
+    }
+}
@@ -0,0 +1,91 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plays recorded games again on a {@link GameEngine} in virtual time.
+ * <p>
+ * Each step of a {@link SessionLog} is applied with the engine's clock set
+ * to the time it was recorded at, so the engine's {@link Game} goes through
+ * the same states as the recorded game and ends with the same
+ * {@link Game#calculateScore()} result, whether the game was played through
+ * the facade, a {@link GameSession} or a {@link GameEngine}. Nothing waits for
+ * real time, so a game of twenty minutes replays in microseconds. After a
+ * scoring change, replaying historical logs gives every game's new score.
+ * <p>
+ * A replayer reuses one engine, and its puzzles, for every log, so it is not
+ * thread-safe: use one replayer per thread.
+ */
+public class SessionReplayer {
+
+    /** The engine the logs are played on. */
+    private final GameEngine engine;
+
+    /** IDs of the engine's puzzles, in play order. */
+    private final ArrayList<UUID> puzzleIds;
+
+    /** The virtual clock, in nanoseconds. */
+    private long now;
+
+    /**
+     * Creates a replayer over the given puzzles.
+     *
+     * @param puzzleSet the replayer's own puzzle objects, in the order the
+     *                  recorded games played them
+     */
+    public SessionReplayer(List<Puzzle> puzzleSet) {
+        this.engine = new GameEngine(puzzleSet, () -> now);
+        this.puzzleIds = new ArrayList<>(puzzleSet.size());
+        for (Puzzle puzzle : puzzleSet) {
+            puzzleIds.add(puzzle.getID());
+        }
+    }
+
+    /**
+     * Creates a replayer over a fresh copy of the {@link PuzzleCatalog}'s
+     * puzzles, loading the catalog first.
+     *
+     * @return the replayer
+     * @throws IllegalStateException if the catalog has no puzzles
+     */
+    public static SessionReplayer fromCatalog() {
+        return new SessionReplayer(PuzzleCatalog.getInstance().requirePuzzleSet());
+    }
+
+    /**
+     * Replays a recorded game.
+     *
+     * @param log the recorded steps; the first must be {@link SessionLog.Type#START}
+     * @return the game's score after the last step
+     * @throws IllegalArgumentException if the log was recorded with other
+     *                                  puzzles or does not begin with a start
+     */
+    public int replay(SessionLog log) {
+        List<SessionLog.Event> events = log.getEvents();
+        if (events.isEmpty() || events.get(0).getType() != SessionLog.Type.START) {
+            throw new IllegalArgumentException("session log does not begin with a start");
+        }
+        if (!log.getPuzzleIds().isEmpty() && !log.getPuzzleIds().equals(puzzleIds)) {
+            throw new IllegalArgumentException("session log of " + log.getPlayerName()
+                    + " was recorded with a different puzzle set");
+        }
+        engine.getPlayer().setDisplayName(log.getPlayerName());
+        now = 0;
+        for (SessionLog.Event event : events) {
+            now = event.getNanos();
+            engine.apply(event);
+        }
+        return engine.getScore();
+    }
+
+    /**
+     * Returns the engine, holding the state of the last replayed game.
+     *
+     * @return the engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,129 @@
+package com.model;
+
+import java.time.Instant;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+/**
+ * What a recorded game came to: the facts its score is computed from.
+ * <p>
+ * A result holds the puzzles completed, hints used, strikes and time of one
+ * game, but not its score, so the same game can be scored by any
+ * {@link ScoreRules}. {@link #of(SessionLog, SessionReplayer)} finds the
+ * facts by replaying the game's log. Instances are immutable.
+ */
+public final class SessionResult {
+
+    private final String playerName;
+    private final Game.Difficulty difficulty;
+    private final String startedAt;
+    private final int puzzlesCompleted;
+    private final int puzzleCount;
+    private final int hintsUsed;
+    private final int strikes;
+    private final long elapsedNanos;
+    private final long remainingNanos;
+    private final boolean over;
+
+    /**
+     * Creates a result.
+     *
+     * @param playerName       the player's name
+     * @param difficulty       the difficulty played
+     * @param startedAt        ISO timestamp of the game's start, or {@code null}
+     * @param puzzlesCompleted puzzles completed
+     * @param puzzleCount      puzzles in the game
+     * @param hintsUsed        hints used
+     * @param strikes          strikes earned
+     * @param elapsedNanos     active play time, in nanoseconds
+     * @param remainingNanos   time left on the clock, in nanoseconds
+     * @param over             whether the game has ended
+     */
+    public SessionResult(String playerName, Game.Difficulty difficulty, String startedAt, int puzzlesCompleted,
+                         int puzzleCount, int hintsUsed, int strikes, long elapsedNanos, long remainingNanos,
+                         boolean over) {
+        this.playerName = playerName;
+        this.difficulty = difficulty;
+        this.startedAt = startedAt;
+        this.puzzlesCompleted = puzzlesCompleted;
+        this.puzzleCount = puzzleCount;
+        this.hintsUsed = hintsUsed;
+        this.strikes = strikes;
+        this.elapsedNanos = elapsedNanos;
+        this.remainingNanos = remainingNanos;
+        this.over = over;
+    }
+
+    /**
+     * Replays a recorded game and collects its facts.
+     *
+     * @param log      the recorded game
+     * @param replayer the replayer to play it on
+     * @return the game's result
+     * @throws IllegalArgumentException if the replayer cannot play the log
+     */
+    public static SessionResult of(SessionLog log, SessionReplayer replayer) {
+        replayer.replay(log);
+        GameEngine engine = replayer.getEngine();
+        Game game = engine.getGame();
+        boolean over = engine.isOver();
+        return new SessionResult(log.getPlayerName(), game.getDifficulty(), log.getStartedAt(),
+                engine.getCompletedCount(), game.getPuzzles().size(), engine.getHintsUsed(), engine.getStrikes(),
+                engine.getElapsedNanos(), engine.getRemainingNanos(), over);
+    }
+
+    /**
+     * Scores the game.
+     *
+     * @param rules the scoring rules
+     * @return the score the game earns under those rules
+     */
+    public int score(ScoreRules rules) {
+        return rules.score(puzzlesCompleted, hintsUsed, strikes, isWon(), remainingNanos);
+    }
+
+    /**
+     * Creates the game's leaderboard entry, dated when the game started.
+     *
+     * @param rules the scoring rules
+     * @return the entry
+     */
+    public LeaderboardEntry toEntry(ScoreRules rules) {
+        return new LeaderboardEntry(playerName, score(rules), puzzlesCompleted,
+                elapsedNanos / GameTimer.NANOS_PER_SECOND, difficulty,
+                startedAt != null ? startedAt : Instant.now().toString());
+    }
+
+    /** @return the player's name */
+    public String getPlayerName() { return playerName; }
+
+    /** @return the difficulty played */
+    public Game.Difficulty getDifficulty() { return difficulty; }
+
+    /** @return ISO timestamp of the game's start, or {@code null} if not known */
+    public String getStartedAt() { return startedAt; }
+
+    /** @return puzzles completed */
+    public int getPuzzlesCompleted() { return puzzlesCompleted; }
+
+    /** @return puzzles in the game */
+    public int getPuzzleCount() { return puzzleCount; }
+
+    /** @return hints used */
+    public int getHintsUsed() { return hintsUsed; }
+
+    /** @return strikes earned */
+    public int getStrikes() { return strikes; }
+
+    /** @return active play time, in nanoseconds */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** @return time left on the clock, in nanoseconds */
+    public long getRemainingNanos() { return remainingNanos; }
+
+    /** @return {@code true} if the game has ended */
+    public boolean isOver() { return over; }
+
+    /** @return {@code true} if the game ended with every puzzle completed */
+    public boolean isWon() { return over && puzzlesCompleted == puzzleCount; }
+}
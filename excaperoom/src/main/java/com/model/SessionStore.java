@@ -0,0 +1,127 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Append-only file of recorded games, {@code json/sessions.jsonl}.
+ * <p>
+ * The game played through {@link EscapeGameFacade} and every
+ * {@link GameSession}'s game record their steps in a {@link SessionLog}, and
+ * write the log here when the game ends, one JSON object per line. The file
+ * is what {@link ScoreRescorer} rescores after the scoring rules change.
+ * <ul>
+ *     <li>{@link #append(SessionLog)} adds one line and syncs it, so
+ *         recording a game never rewrites the file.</li>
+ *     <li>{@link #load()} reads the file line by line. A line that cannot be
+ *         parsed (for example one cut short by a crash) is skipped with a warning.</li>
+ * </ul>
+ * Games that end by running out of time on a screen, or are left unfinished,
+ * are not written. Like the other data files, the {@code json} directory is
+ * not created here.
+ * <p>
+ * This class is implemented as a singleton. Use {@link #getInstance()} to obtain it.
+ */
+public class SessionStore extends DataConstants {
+
+    /** Singleton instance of the store. */
+    private static SessionStore instance;
+
+    /** File the logs are kept in. */
+    private File file;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private SessionStore() {
+        this.file = new File(SESSIONS_FILE);
+    }
+
+    /**
+     * Returns the singleton instance of the store, creating it if needed.
+     *
+     * @return the shared {@code SessionStore}
+     */
+    public static synchronized SessionStore getInstance() {
+        if (instance == null) {
+            instance = new SessionStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Reads every log from the file, in the order the games ended.
+     *
+     * @return the logs; empty if the file does not exist or cannot be read
+     */
+    public synchronized ArrayList<SessionLog> load() {
+        ArrayList<SessionLog> logs = new ArrayList<>();
+        if (!file.isFile()) {
+            return logs;
+        }
+        JSONParser parser = new JSONParser();
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    logs.add(SessionLog.fromJSON((JSONObject) parser.parse(line)));
+                } catch (ParseException | ClassCastException | IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not read " + file.getPath() + ": " + e.getMessage());
+        }
+        if (skipped > 0) {
+            System.out.println("Warning: skipped " + skipped + " unreadable line(s) in " + file.getPath());
+        }
+        return logs;
+    }
+
+    /**
+     * Appends one log to the file and syncs it to disk.
+     *
+     * @param log the recorded game
+     * @return {@code true} if the log was written; {@code false} otherwise
+     */
+    public synchronized boolean append(SessionLog log) {
+        byte[] line = (log.toJSON().toJSONString() + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(line);
+            out.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Warning: could not append to " + file.getPath() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the file the logs are kept in.
+     *
+     * @return the sessions file
+     */
+    public synchronized File getFile() {
+        return file;
+    }
+
+    /**
+     * Points the store at another file. Intended for tests and tools.
+     *
+     * @param sessionsFile the file to use
+     */
+    synchronized void setFile(File sessionsFile) {
+        this.file = sessionsFile;
+    }
+}
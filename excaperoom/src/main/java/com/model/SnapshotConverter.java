@@ -0,0 +1,69 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * SnapshotConverter
+ * <p>
+ * Converts player data between the JSON format of {@code players.json} and the
+ * binary format of {@link BinarySnapshot}. The direction is chosen from the
+ * input: a binary snapshot is written out as JSON, anything else is read as
+ * JSON and written out as a binary snapshot.
+ * <p>
+ * Usage: {@code SnapshotConverter <input> <output>}, for example
+ * {@code SnapshotConverter json/players.json json/players.bin}.
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: SnapshotConverter <input> <output>");
+            System.exit(2);
+        }
+        File in = new File(args[0]);
+        File out = new File(args[1]);
+        if (!in.isFile()) {
+            System.out.println("Error: " + in.getPath() + " does not exist.");
+            System.exit(1);
+        }
+        try {
+            boolean toJSON = BinarySnapshot.isSnapshot(in);
+            int count = convert(in, out);
+            System.out.println("Converted " + count + " players from " + in.getPath() + " to "
+                    + (toJSON ? "JSON " : "binary ") + out.getPath() + ".");
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a players file to the other format.
+     *
+     * @param in  the file to read, in either format
+     * @param out the file to write, in the format {@code in} is not in
+     * @return the number of players converted
+     * @throws IOException if reading or writing fails
+     */
+    public static int convert(File in, File out) throws IOException {
+        boolean toJSON = BinarySnapshot.isSnapshot(in);
+        ArrayList<Player> players = DataLoader.readPlayerFile(in);
+        if (toJSON) {
+            // toJSON prints each player it serializes; keep the tool's output readable
+            java.io.PrintStream console = System.out;
+            System.setOut(new java.io.PrintStream(java.io.OutputStream.nullOutputStream()));
+            boolean ok;
+            try {
+                ok = DataWriter.saveJSON(players, out);
+            } finally {
+                System.setOut(console);
+            }
+            if (!ok) throw new IOException("could not write " + out.getPath());
+        } else {
+            BinarySnapshot.write(out, players);
+        }
+        return players.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.model;
+
+/**
+ * Storage layouts supported for player data.
+ * <p>
+ * The active mode is chosen with {@link DataWriter#setStorageMode(StorageMode)}
+ * and is honored by both {@link DataWriter} and {@link DataLoader}. The initial
+ * mode can also be picked at launch with the {@code excape.storage} system
+ * property (for example {@code -Dexcape.storage=SHARDED}).
+ */
+public enum StorageMode {
+    /** Every player is stored in the single {@code json/players.json} file. */
+    SINGLE_FILE,
+
+    /**
+     * Each player is stored in its own file under {@code json/players/}, keyed by
+     * {@link Player#getId()}, with a small index file for display-name lookup.
+     * Saves rewrite only the players whose data changed.
+     */
+    SHARDED,
+
+    /**
+     * Players are stored in {@code json/players.json} as a snapshot, and every
+     * change to a {@link Progress} is appended to {@code json/players.journal}
+     * by {@link ProgressJournal}. The journal is folded into the snapshot
+     * periodically and replayed on load.
+     */
+    JOURNAL,
+
+    /**
+     * Every player is stored in {@code json/players.bin}, a compact binary
+     * snapshot written and read by {@link BinarySnapshot}. An existing
+     * {@code players.json} is still read until the first save.
+     */
+    BINARY;
+
+    /**
+     * Returns the mode named by the {@code excape.storage} system property,
+     * or {@link #SINGLE_FILE} if it is missing or not recognized.
+     *
+     * @return the configured storage mode
+     */
+    public static StorageMode fromSystemProperty() {
+        String configured = System.getProperty("excape.storage");
+        if (configured != null) {
+            for (StorageMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(configured.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return SINGLE_FILE;
+    }
+}
@@ -72,12 +72,7 @@ public class Trivia extends Puzzle {
      */
     @Override
     public boolean checkAnswer(String userAnswer) {
-        if (userAnswer == null || userAnswer.trim().isEmpty()) {
-            playSound(false);
-            return false;
-        }
-
-        if (userAnswer.trim().equalsIgnoreCase(correctAnswer.trim())) {
+        if (isCorrect(userAnswer)) {
             playSound(true);
             completePuzzle();
             return true;
@@ -87,6 +82,21 @@ public class Trivia extends Puzzle {
         }
     }
 
+    /**
+     * Checks the answer like {@link #checkAnswer(String)}, without playing a
+     * sound or completing the puzzle.
+     *
+     * @param userAnswer the answer provided by the user
+     * @return true if the answer is correct, false otherwise
+     */
+    @Override
+    public boolean isCorrect(String userAnswer) {
+        if (userAnswer == null || userAnswer.trim().isEmpty() || correctAnswer == null) {
+            return false;
+        }
+        return userAnswer.trim().equalsIgnoreCase(correctAnswer.trim());
+    }
+
     /**
      * Returns a string representation of this trivia puzzle.
      * 
@@ -0,0 +1,127 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestAtomicFileWriter {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("atomic-writer").toFile();
+        file = new File(dir, "players.json");
+        AtomicFileWriter.setGenerationInterval(0);
+    }
+
+    @After
+    public void tearDown() {
+        AtomicFileWriter.setGenerationInterval(AtomicFileWriter.DEFAULT_GENERATION_INTERVAL_MILLIS);
+        AtomicFileWriter.setGroupWindow(AtomicFileWriter.DEFAULT_GROUP_WINDOW_MILLIS);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    private String read(File f) throws Exception {
+        return new String(Files.readAllBytes(f.toPath()), "UTF-8");
+    }
+
+    @Test
+    public void testWriteReplacesContentWithoutLeavingTempFile() throws Exception {
+        assertTrue(AtomicFileWriter.write(file, "one".getBytes("UTF-8")));
+        assertTrue(AtomicFileWriter.write(file, "two".getBytes("UTF-8")));
+        assertEquals("two", read(file));
+        assertFalse(new File(dir, "players.json.tmp").exists());
+        assertTrue("no generations unless asked for", AtomicFileWriter.generations(file).isEmpty());
+    }
+
+    @Test
+    public void testGenerationsRotateAndAreCapped() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(AtomicFileWriter.write(file, ("v" + i).getBytes("UTF-8"), 3));
+        }
+        assertEquals("v5", read(file));
+        ArrayList<File> generations = AtomicFileWriter.generations(file);
+        assertEquals(3, generations.size());
+        assertEquals("v4", read(generations.get(0)));
+        assertEquals("v3", read(generations.get(1)));
+        assertEquals("v2", read(generations.get(2)));
+    }
+
+    @Test
+    public void testGenerationIntervalLimitsRotation() throws Exception {
+        AtomicFileWriter.setGenerationInterval(60_000);
+        AtomicFileWriter.resetRotation(file);
+        AtomicFileWriter.write(file, "v1".getBytes("UTF-8"), 3);
+        AtomicFileWriter.write(file, "v2".getBytes("UTF-8"), 3);
+        AtomicFileWriter.write(file, "v3".getBytes("UTF-8"), 3);
+        assertEquals(1, AtomicFileWriter.generations(file).size());
+        assertEquals("v1", read(AtomicFileWriter.generation(file, 1)));
+    }
+
+    @Test
+    public void testConcurrentSavesShareSyncs() throws Exception {
+        AtomicFileWriter.setGroupWindow(20);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> savers = new ArrayList<>();
+        boolean[] results = new boolean[threads];
+        for (int i = 0; i < threads; i++) {
+            int n = i;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    results[n] = AtomicFileWriter.write(file, ("save " + n).getBytes("UTF-8"));
+                } catch (Exception e) {
+                    results[n] = false;
+                }
+            });
+            savers.add(t);
+            t.start();
+        }
+        int before = AtomicFileWriter.getSyncCount(file);
+        start.countDown();
+        for (Thread t : savers) t.join();
+
+        for (boolean ok : results) assertTrue(ok);
+        assertTrue(read(file).startsWith("save "));
+        int syncs = AtomicFileWriter.getSyncCount(file) - before;
+        assertTrue("expected grouped syncs, got " + syncs, syncs < threads);
+    }
+
+    @Test
+    public void testLoaderFallsBackToPreviousGeneration() throws Exception {
+        File players = new File(DataConstants.USER_FILE_NAME);
+        File generation = AtomicFileWriter.generation(players, 1);
+        // pending write-behind saves from other tests must not land in the directory we create
+        SaveCoalescer.getInstance().flush();
+        boolean hadDir = players.getParentFile().exists();
+        players.getParentFile().mkdirs();
+        try {
+            Files.write(generation.toPath(), "{\"users\":[{\"displayName\":\"Saved\"}]}".getBytes("UTF-8"));
+            Files.write(players.toPath(), "{\"users\":[{\"displayN".getBytes("UTF-8"));
+
+            ArrayList<Player> loaded = DataLoader.getPlayers();
+            assertEquals(1, loaded.size());
+            assertEquals("Saved", loaded.get(0).getDisplayName());
+        } finally {
+            SaveCoalescer.getInstance().flush();
+            players.delete();
+            generation.delete();
+            if (!hadDir) players.getParentFile().delete();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.model;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestBinarySnapshot {
+
+    private static final String ANN_ID = "0c84e4ca-e25d-4f21-a409-c78a8543556a";
+    private static final String ANN = "{\"uuid\":\"" + ANN_ID + "\",\"displayName\":\"Ann\",\"password\":\"pw\","
+            + "\"progress\":{\"inventory\":[{\"name\":\"Tape\",\"description\":\"VHS\",\"location\":\"Shelf\"}],"
+            + "\"storedHints\":[{\"text\":\"Look up\",\"cost\":5}],\"strikes\":2,\"currentScore\":-300}}";
+
+    private File json;
+    private File binary;
+
+    @Before
+    public void setUp() throws Exception {
+        json = File.createTempFile("players", ".json");
+        binary = File.createTempFile("players", ".bin");
+        Files.write(json.toPath(), ("{\"schemaVersion\":1,\"users\":[" + ANN + ",{\"displayName\":\"Ben\"}]}").getBytes("UTF-8"));
+    }
+
+    @After
+    public void tearDown() {
+        json.delete();
+        binary.delete();
+    }
+
+    private void assertAnn(Player p) {
+        assertEquals(ANN_ID, p.getId().toString());
+        assertEquals("Ann", p.getDisplayName());
+        assertEquals("pw", p.getPassword());
+        Progress progress = p.getProgress().get(0);
+        assertEquals("Tape", progress.getInventory().get(0).getName());
+        assertEquals("VHS", progress.getInventory().get(0).getDescription());
+        assertEquals("Shelf", progress.getInventory().get(0).getLocation());
+        assertEquals("Look up", progress.getStoredHints().get(0).getText());
+        assertEquals(5, progress.getStoredHints().get(0).getCost());
+        assertEquals(2, progress.getStrikes());
+        assertEquals(-300, progress.getCurrentScore());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ArrayList<Player> players = PlayerStreamHandler.read(new StringReader(Files.readString(json.toPath()))).getPlayers();
+        BinarySnapshot.write(binary, players);
+
+        ArrayList<Player> loaded = BinarySnapshot.read(binary);
+        assertEquals(2, loaded.size());
+        assertAnn(loaded.get(0));
+        assertEquals("Ben", loaded.get(1).getDisplayName());
+        assertEquals("", loaded.get(1).getPassword());
+        assertTrue("binary is smaller than JSON", binary.length() < json.length());
+    }
+
+    @Test
+    public void testFormatIsDetectedFromContent() throws Exception {
+        assertFalse(BinarySnapshot.isSnapshot(json));
+        SnapshotConverter.convert(json, binary);
+        assertTrue(BinarySnapshot.isSnapshot(binary));
+        assertAnn(DataLoader.readPlayerFile(binary).get(0));
+        assertAnn(DataLoader.readPlayerFile(json).get(0));
+    }
+
+    @Test
+    public void testConverterGoesBothWays() throws Exception {
+        File back = File.createTempFile("players-back", ".json");
+        try {
+            assertEquals(2, SnapshotConverter.convert(json, binary));
+            assertEquals(2, SnapshotConverter.convert(binary, back));
+            assertFalse(BinarySnapshot.isSnapshot(back));
+            ArrayList<Player> players = DataLoader.readPlayerFile(back);
+            assertEquals(2, players.size());
+            assertAnn(players.get(0));
+        } finally {
+            back.delete();
+        }
+    }
+
+    @Test
+    public void testNonAsciiStringsAreUtf8() throws Exception {
+        ArrayList<Progress> progress = new ArrayList<>();
+        progress.add(new Progress());
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(new Player("Zoë ✓ 東京", progress, "pässwörd"));
+        BinarySnapshot.write(binary, players);
+
+        Player loaded = BinarySnapshot.read(binary).get(0);
+        assertEquals("Zoë ✓ 東京", loaded.getDisplayName());
+        assertEquals("pässwörd", loaded.getPassword());
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void testTruncatedSnapshotIsRejected() throws Exception {
+        SnapshotConverter.convert(json, binary);
+        byte[] bytes = Files.readAllBytes(binary.toPath());
+        Files.write(binary.toPath(), java.util.Arrays.copyOf(bytes, bytes.length - 3));
+        BinarySnapshot.read(binary);
+    }
+}
@@ -38,6 +38,9 @@ private File testDir;
         if (testFile.exists()) {
             testFile.delete();
         }
+        for (File generation : AtomicFileWriter.generations(testFile)) {
+            generation.delete();
+        }
         if (testDir.exists() && testDir.isDirectory()) {
             File[] files = testDir.listFiles();
             if (files != null && files.length == 0) {
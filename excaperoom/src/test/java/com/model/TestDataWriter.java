@@ -36,6 +36,9 @@ public class TestDataWriter {
         if (testFile.exists()) {
             testFile.delete();
         }
+        for (File generation : AtomicFileWriter.generations(testFile)) {
+            generation.delete();
+        }
         if (testDir.exists() && testDir.isDirectory()) {
             File[] files = testDir.listFiles();
             if (files != null && files.length == 0) {
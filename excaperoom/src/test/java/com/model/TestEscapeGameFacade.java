@@ -1,24 +1,40 @@
 package com.model;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class TestEscapeGameFacade {
 
     private EscapeGameFacade facade;
+    private File sessionsFile;
+    private File originalSessionsFile;
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
         // Arrange
+        // ended games are recorded; keep them out of the real sessions file
+        originalSessionsFile = SessionStore.getInstance().getFile();
+        sessionsFile = File.createTempFile("sessions", ".jsonl");
+        SessionStore.getInstance().setFile(sessionsFile);
         facade = EscapeGameFacade.getInstance();
     }
 
+    @After
+    public void tearDown() {
+        SessionStore.getInstance().setFile(originalSessionsFile);
+        sessionsFile.delete();
+    }
+
     // ---------------- Singleton and Construction Tests ----------------
 
     @Test
@@ -188,5 +204,29 @@ public void testNextPuzzleReturnsBoolean() {
         facade.endGame();
         assertTrue(facade.getScore() >= 0);
     }
-    
+
+    // ---------------- Recording ----------------
+
+    @Test
+    public void testEndedGameIsWrittenToSessionStore() {
+        facade.startGame(new Player("recorded", null, "password"), Game.Difficulty.HARD);
+        facade.pauseGame();
+        facade.resumeGame();
+        facade.endGame();
+        facade.endGame();
+
+        List<SessionLog> logs = SessionStore.getInstance().load();
+        assertEquals(1, logs.size());
+        SessionLog log = logs.get(0);
+        assertEquals("recorded", log.getPlayerName());
+        List<SessionLog.Event> events = log.getEvents();
+        assertEquals(SessionLog.Type.START, events.get(0).getType());
+        assertEquals("HARD", events.get(0).getArgument());
+        assertEquals(SessionLog.Type.PAUSE, events.get(1).getType());
+        assertEquals(SessionLog.Type.RESUME, events.get(2).getType());
+        SessionLog.Event end = events.get(events.size() - 1);
+        assertEquals(SessionLog.Type.END, end.getType());
+        assertEquals("won", end.getArgument());
+        assertFalse(end.getNanos() < events.get(2).getNanos());
+    }
 }
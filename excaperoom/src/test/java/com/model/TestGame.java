@@ -2,6 +2,7 @@ package com.model;
 
 import org.junit.Test;
 import org.junit.*;
+import java.io.File;
 import java.util.ArrayList;
 
 import static org.junit.Assert.*;
@@ -11,9 +12,15 @@ public class TestGame {
 
     private Game game;
     private Player testPlayer;
+    private File sessionsFile;
+    private File originalSessionsFile;
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
+        // ended games are recorded; keep them out of the real sessions file
+        originalSessionsFile = SessionStore.getInstance().getFile();
+        sessionsFile = File.createTempFile("sessions", ".jsonl");
+        SessionStore.getInstance().setFile(sessionsFile);
         game = Game.getInstance();
         testPlayer = new Player("TestUser", new ArrayList<>(), "password123");
     }
@@ -21,6 +28,8 @@ public class TestGame {
     @After
     public void tearDown() {
         game.deleteGame();
+        SessionStore.getInstance().setFile(originalSessionsFile);
+        sessionsFile.delete();
     }
 
     // ---------------- Singleton Tests ----------------
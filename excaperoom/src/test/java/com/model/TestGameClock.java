@@ -0,0 +1,110 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+public class TestGameClock {
+
+    /** Virtual time, in nanoseconds, shared by the games of a test. */
+    private final AtomicLong now = new AtomicLong();
+
+    private Game startedGame(Game.Difficulty difficulty) {
+        Player player = new Player("clock", new ArrayList<>(), "pw");
+        Game game = new Game(new PuzzlesManager(new ArrayList<>(), player));
+        game.setTimeSource(now::get);
+        game.initializeGame(player, difficulty);
+        return game;
+    }
+
+    private void advanceSeconds(double seconds) {
+        now.addAndGet((long) (seconds * GameTimer.NANOS_PER_SECOND));
+    }
+
+    /** Records what a listener was told. */
+    private static final class Recorder implements GameClock.Listener {
+        private final List<Long> ticks = new ArrayList<>();
+        private int timeUps;
+
+        @Override
+        public void onTick(long remainingSeconds) {
+            ticks.add(remainingSeconds);
+        }
+
+        @Override
+        public void onTimeUp() {
+            timeUps++;
+        }
+    }
+
+    @Test
+    public void testReportsOnlyChangesThenTimeUpOnce() {
+        GameClock clock = new GameClock();
+        Game game = startedGame(Game.Difficulty.HARD);
+        long limit = Game.Difficulty.HARD.getTimeLimit();
+        Recorder recorder = new Recorder();
+
+        GameClock.Subscription subscription = clock.subscribe(game, recorder, Runnable::run);
+        clock.tick();
+        advanceSeconds(0.5);
+        clock.tick();
+        advanceSeconds(0.5);
+        clock.tick();
+        assertEquals(List.of(limit, limit - 1), recorder.ticks);
+
+        advanceSeconds(limit - 1);
+        clock.tick();
+        advanceSeconds(5);
+        clock.tick();
+        assertEquals(1, recorder.timeUps);
+        assertFalse(subscription.isActive());
+        assertEquals(0, clock.getSubscriptionCount());
+    }
+
+    @Test
+    public void testCancelledSubscriptionGetsNothing() {
+        GameClock clock = new GameClock();
+        Game game = startedGame(Game.Difficulty.EASY);
+        Recorder recorder = new Recorder();
+        GameClock.Subscription subscription = clock.subscribe(game, recorder, Runnable::run);
+        subscription.cancel();
+        subscription.cancel();
+
+        advanceSeconds(10);
+        clock.tick();
+        advanceSeconds(86_400);
+        clock.tick();
+        assertEquals(1, recorder.ticks.size());
+        assertEquals(0, recorder.timeUps);
+    }
+
+    @Test
+    public void testManySessionsShareOneTick() {
+        GameClock clock = new GameClock();
+        AtomicInteger timeUps = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            Game game = startedGame(Game.Difficulty.MEDIUM);
+            clock.subscribe(game, new GameClock.Listener() {
+                @Override
+                public void onTick(long remainingSeconds) {
+                }
+
+                @Override
+                public void onTimeUp() {
+                    timeUps.incrementAndGet();
+                }
+            }, Runnable::run);
+        }
+        assertEquals(10_000, clock.getSubscriptionCount());
+        advanceSeconds(2 * 3_600);
+        clock.tick();
+        assertEquals(10_000, timeUps.get());
+        assertEquals(0, clock.getSubscriptionCount());
+        assertEquals(1, clock.getTickCount());
+    }
+}
@@ -0,0 +1,145 @@
+package com.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TestGameEngine {
+
+    /** Virtual time, in nanoseconds. */
+    private final AtomicLong now = new AtomicLong();
+
+    private static ArrayList<Puzzle> puzzleSet(int count) {
+        ArrayList<Puzzle> set = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Trivia trivia = new Trivia();
+            trivia.setCorrectAnswer("answer" + i);
+            trivia.addHint(new Hint("first hint " + i, 5, trivia));
+            trivia.addHint(new Hint("second hint " + i, 5, trivia));
+            set.add(trivia);
+        }
+        return set;
+    }
+
+    @Test
+    public void testFullGameWithHintsAndStrikes() {
+        GameEngine engine = new GameEngine(puzzleSet(3), now::get);
+        engine.start(Game.Difficulty.EASY);
+
+        assertEquals(GameEngine.Outcome.INCORRECT, engine.submitAnswer("wrong"));
+        assertEquals("first hint 0", engine.revealHint().getText());
+        assertEquals(GameEngine.Outcome.CORRECT, engine.submitAnswer("answer0"));
+        assertEquals(1, engine.getCurrentPuzzleIndex());
+
+        assertTrue(engine.skip());
+        assertEquals("first hint 2", engine.revealHint().getText());
+        assertEquals("second hint 2", engine.revealHint().getText());
+        assertNull(engine.revealHint());
+        assertEquals(GameEngine.Outcome.CORRECT, engine.submitAnswer(" ANSWER2 "));
+
+        assertTrue(engine.isOver());
+        assertFalse(engine.isWon());
+        assertEquals(2, engine.getCompletedCount());
+        assertEquals(2, engine.getStrikes());
+        assertEquals(3, engine.getHintsUsed());
+        assertEquals(GameEngine.Outcome.GAME_OVER, engine.submitAnswer("answer2"));
+    }
+
+    @Test
+    public void testAttemptsRunOutAndTimeRunsOut() {
+        GameEngine engine = new GameEngine(puzzleSet(2), now::get);
+        engine.start(Game.Difficulty.HARD);
+        for (int i = 1; i < GameEngine.ATTEMPTS_PER_PUZZLE; i++) {
+            assertEquals(GameEngine.Outcome.INCORRECT, engine.submitAnswer("wrong"));
+        }
+        assertEquals(GameEngine.Outcome.OUT_OF_ATTEMPTS, engine.submitAnswer("wrong"));
+        assertEquals(1, engine.getCurrentPuzzleIndex());
+        assertEquals(0, engine.getAttempts());
+
+        now.addAndGet(Game.Difficulty.HARD.getTimeLimit() * GameTimer.NANOS_PER_SECOND);
+        assertEquals(GameEngine.Outcome.GAME_OVER, engine.submitAnswer("answer1"));
+        assertTrue(engine.isOver());
+        assertFalse(engine.isWon());
+        assertEquals(0, engine.getCompletedCount());
+    }
+
+    @Test
+    public void testWinningScoreAndRestart() {
+        GameEngine engine = new GameEngine(puzzleSet(2), now::get);
+        engine.start(Game.Difficulty.MEDIUM);
+        engine.revealHint();
+        engine.submitAnswer("answer0");
+        now.addAndGet(100 * GameTimer.NANOS_PER_SECOND);
+        engine.submitAnswer("answer1");
+        assertTrue(engine.isWon());
+        // base 1000, two puzzles at 100, one hint at -50, 1100 seconds left at 10 each
+        assertEquals(1000 + 200 - 50 + 11_000, engine.getScore());
+
+        engine.start(Game.Difficulty.MEDIUM);
+        assertFalse(engine.isOver());
+        assertEquals(0, engine.getHintsUsed());
+        assertEquals(0, engine.getStrikes());
+        assertNotNull(engine.revealHint());
+        assertEquals("first hint 0", engine.getCurrentPuzzle().getHints().get(0).getText());
+    }
+
+    @Test
+    public void testThousandsOfGamesWithoutConsoleOutput() {
+        GameEngine engine = new GameEngine(puzzleSet(10), now::get);
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        Thread self = Thread.currentThread();
+        // only this thread's output counts; other tests may leave savers running
+        System.setOut(new PrintStream(captured) {
+            @Override
+            public void write(byte[] buf, int off, int len) {
+                if (Thread.currentThread() == self) {
+                    super.write(buf, off, len);
+                } else {
+                    original.write(buf, off, len);
+                }
+            }
+
+            @Override
+            public void write(int b) {
+                if (Thread.currentThread() == self) {
+                    super.write(b);
+                } else {
+                    original.write(b);
+                }
+            }
+        });
+        int won = 0;
+        try {
+            for (int game = 0; game < 5_000; game++) {
+                engine.start(Game.Difficulty.MEDIUM);
+                int step = 0;
+                while (!engine.isOver()) {
+                    now.addAndGet(10 * GameTimer.NANOS_PER_SECOND);
+                    int puzzle = engine.getCurrentPuzzleIndex();
+                    if ((game + step++) % 4 == 0) {
+                        engine.submitAnswer("wrong");
+                        engine.revealHint();
+                    } else {
+                        engine.submitAnswer("answer" + puzzle);
+                    }
+                }
+                if (engine.isWon()) {
+                    won++;
+                }
+            }
+        } finally {
+            System.setOut(original);
+        }
+        assertEquals("", captured.toString());
+        assertEquals(5_000, won);
+    }
+}
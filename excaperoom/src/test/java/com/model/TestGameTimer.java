@@ -0,0 +1,106 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TestGameTimer {
+
+    private static final long SECOND = GameTimer.NANOS_PER_SECOND;
+
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+
+    @Test
+    public void testShortPausesAreNotRoundedAway() {
+        GameTimer timer = new GameTimer(now::get);
+        timer.start();
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(SECOND);
+            timer.pause();
+            // each pause is under a second; the old timer rounded every one down to zero
+            now.addAndGet(SECOND * 9 / 10);
+            timer.resume();
+        }
+        assertEquals(10 * SECOND, timer.elapsedNanos());
+        assertEquals(10, timer.elapsedSeconds());
+    }
+
+    @Test
+    public void testStopFreezesTimeAndPauseCountsUpToStop() {
+        GameTimer timer = new GameTimer(now::get);
+        assertEquals(0, timer.elapsedNanos());
+        timer.start();
+        now.addAndGet(3 * SECOND);
+        timer.pause();
+        now.addAndGet(2 * SECOND);
+        timer.stop();
+        now.addAndGet(100 * SECOND);
+        assertTrue(timer.isStopped());
+        assertEquals(3 * SECOND, timer.elapsedNanos());
+
+        timer.start();
+        assertFalse(timer.isStopped());
+        assertEquals(0, timer.elapsedNanos());
+    }
+
+    @Test
+    public void testGameScoresTimeBonusToTheSubSecond() {
+        Player player = new Player("timer", new ArrayList<>(), "pw");
+        Game game = new Game(new PuzzlesManager(new ArrayList<>(), player));
+        game.setTimeSource(now::get);
+        game.initializeGame(player, Game.Difficulty.EASY);
+
+        now.addAndGet(SECOND / 2);
+        game.pause();
+        now.addAndGet(3_600 * SECOND);
+        game.resume();
+        now.addAndGet(SECOND / 4);
+        assertEquals(SECOND * 3 / 4, game.getElapsedNanos());
+        assertEquals(0, game.getElapsedTime());
+        assertFalse(game.isTimeUp());
+
+        game.endGame(true);
+        long remaining = Game.Difficulty.EASY.getTimeLimit() * SECOND - SECOND * 3 / 4;
+        assertEquals(remaining, game.getRemainingNanos());
+        // base score plus ten points per remaining second, fractions included
+        assertEquals(1000 + (int) (remaining * 10 / SECOND), game.getScore());
+
+        now.addAndGet(Game.Difficulty.EASY.getTimeLimit() * SECOND);
+        assertFalse("a finished game's clock is stopped", game.isTimeUp());
+    }
+
+    @Test
+    public void testNewSourceWaitsForNextStart() {
+        GameTimer timer = new GameTimer(now::get);
+        timer.start();
+        now.addAndGet(2 * SECOND);
+        AtomicLong other = new AtomicLong(-999 * SECOND);
+        timer.setTimeSource(other::get);
+        assertEquals(2 * SECOND, timer.elapsedNanos());
+
+        timer.start();
+        other.addAndGet(SECOND);
+        assertEquals(SECOND, timer.elapsedNanos());
+    }
+
+    @Test
+    public void testGameKeepsItsClockUntilNextGame() {
+        Player player = new Player("timer", new ArrayList<>(), "pw");
+        Game game = new Game(new PuzzlesManager(new ArrayList<>(), player));
+        game.setTimeSource(now::get);
+        game.initializeGame(player, Game.Difficulty.EASY);
+        now.addAndGet(5 * SECOND);
+
+        AtomicLong other = new AtomicLong();
+        game.setTimeSource(other::get);
+        assertEquals(5 * SECOND, game.getElapsedNanos());
+
+        game.initializeGame(player, Game.Difficulty.EASY);
+        other.addAndGet(SECOND);
+        assertEquals(SECOND, game.getElapsedNanos());
+    }
+}
@@ -1,24 +1,45 @@
 package com.model;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class TestLeaderboard {
 
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
     private Leaderboard leaderboard;
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
         leaderboard = Leaderboard.getInstance();
         leaderboard.clearLeaderboard(); // ensure clean state
     }
 
+    @After
+    public void tearDown() {
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
     // ---------------- Singleton Tests ----------------
 
     @Test
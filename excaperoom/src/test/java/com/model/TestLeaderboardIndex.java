@@ -0,0 +1,191 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestLeaderboardIndex {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+    }
+
+    @After
+    public void tearDown() {
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    /** The ordering Leaderboard used to get from a stable sort of its entry list. */
+    private static ArrayList<LeaderboardEntry> sorted(ArrayList<LeaderboardEntry> inserted) {
+        ArrayList<LeaderboardEntry> copy = new ArrayList<>(inserted);
+        Collections.sort(copy, (e1, e2) -> {
+            int scoreCompare = Integer.compare(e2.getScore(), e1.getScore());
+            if (scoreCompare != 0) {
+                return scoreCompare;
+            }
+            return Long.compare(e1.getTimeTaken(), e2.getTimeTaken());
+        });
+        return copy;
+    }
+
+    @Test
+    public void testMatchesStableSort() {
+        Random random = new Random(42);
+        LeaderboardIndex index = new LeaderboardIndex();
+        ArrayList<LeaderboardEntry> inserted = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // few distinct values, so ties on score and on time are common
+            LeaderboardEntry entry = new LeaderboardEntry("p" + i, random.nextInt(20) * 10, 1,
+                    random.nextInt(10), Game.Difficulty.MEDIUM);
+            index.add(entry);
+            inserted.add(entry);
+        }
+
+        ArrayList<LeaderboardEntry> expected = sorted(inserted);
+        assertEquals(expected.size(), index.size());
+        ArrayList<LeaderboardEntry> all = index.toList();
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), all.get(i));
+            assertSame(expected.get(i), index.get(i));
+        }
+        assertEquals(expected.subList(0, 10), index.top(10));
+        assertEquals(expected.subList(500, 550), index.range(500, 50));
+        assertEquals(expected.subList(1_990, 2_000), index.range(1_990, 50));
+        assertTrue(index.range(5_000, 10).isEmpty());
+    }
+
+    @Test
+    public void testCountBetterThan() {
+        Random random = new Random(7);
+        LeaderboardIndex index = new LeaderboardIndex();
+        ArrayList<LeaderboardEntry> inserted = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LeaderboardEntry entry = new LeaderboardEntry("p" + i, random.nextInt(30), 1,
+                    random.nextInt(5), Game.Difficulty.EASY);
+            index.add(entry);
+            inserted.add(entry);
+        }
+        for (int score = -1; score <= 31; score++) {
+            for (long time = -1; time <= 6; time++) {
+                int expected = 0;
+                for (LeaderboardEntry entry : inserted) {
+                    if (entry.getScore() > score || (entry.getScore() == score && entry.getTimeTaken() < time)) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, index.countBetterThan(score, time));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        new LeaderboardIndex().get(0);
+    }
+
+    @Test
+    public void testRankAndBestScoreOnLeaderboard() {
+        Leaderboard leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        leaderboard.addScore("Zoe", 100, 1, 70, Game.Difficulty.MEDIUM);
+        leaderboard.addScore("Max", 150, 1, 40, Game.Difficulty.MEDIUM);
+        leaderboard.addScore("Zoe", 150, 2, 30, Game.Difficulty.HARD);
+        leaderboard.addScore("Zoe", 150, 2, 30, Game.Difficulty.EASY);
+
+        LeaderboardEntry best = leaderboard.getPlayerBestScore("Zoe");
+        assertEquals(Game.Difficulty.HARD, best.getDifficulty());
+        assertEquals(1, leaderboard.getPlayerRank("Zoe"));
+        assertEquals(3, leaderboard.getPlayerRank("Max"));
+
+        leaderboard.clearLeaderboard();
+        assertEquals(-1, leaderboard.getPlayerRank("Zoe"));
+    }
+
+    @Test
+    public void testCursorFromAnyPosition() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (int i = 0; i < 300; i++) {
+            index.add(new LeaderboardEntry("p" + i, (i * 37) % 101, 1, i % 7, Game.Difficulty.EASY));
+        }
+        ArrayList<LeaderboardEntry> all = index.toList();
+        for (int from : new int[] { 0, 1, 150, 299, 300 }) {
+            LeaderboardIndex.Cursor cursor = index.cursor(from);
+            for (int i = from; i < all.size(); i++) {
+                assertTrue(cursor.hasNext());
+                assertSame(all.get(i), cursor.next());
+            }
+            assertFalse(cursor.hasNext());
+        }
+    }
+
+    @Test
+    public void testTopKKeepsBestInOrder() {
+        Random random = new Random(3);
+        LeaderboardTopK top = new LeaderboardTopK(10);
+        ArrayList<LeaderboardEntry> inserted = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            LeaderboardEntry entry = new LeaderboardEntry("p" + i, random.nextInt(50), 1,
+                    random.nextInt(4), Game.Difficulty.HARD);
+            top.offer(entry, i);
+            inserted.add(entry);
+        }
+        assertEquals(10, top.size());
+        assertEquals(sorted(inserted).subList(0, 10), top.top(10));
+        assertEquals(sorted(inserted).subList(0, 3), top.top(3));
+    }
+
+    @Test
+    public void testPartitionsMergeIntoOneRanking() {
+        Leaderboard leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        Random random = new Random(11);
+        Game.Difficulty[] levels = Game.Difficulty.values();
+        ArrayList<LeaderboardEntry> inserted = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            leaderboard.addScore("p" + i, random.nextInt(15) * 10, 1, random.nextInt(3), levels[i % levels.length]);
+        }
+        inserted.addAll(leaderboard.getAllEntries());
+        assertEquals(300, inserted.size());
+        // the merged view must equal a stable sort of the same entries in insertion order
+        ArrayList<LeaderboardEntry> byInsertion = new ArrayList<>(inserted);
+        byInsertion.sort((a, b) -> Integer.compare(Integer.parseInt(a.getPlayerName().substring(1)),
+                Integer.parseInt(b.getPlayerName().substring(1))));
+        assertEquals(sorted(byInsertion), inserted);
+        assertEquals(sorted(byInsertion).subList(0, 25), leaderboard.getTopEntries(25));
+
+        for (Game.Difficulty level : levels) {
+            ArrayList<LeaderboardEntry> filtered = new ArrayList<>();
+            for (LeaderboardEntry entry : sorted(byInsertion)) {
+                if (entry.getDifficulty() == level) filtered.add(entry);
+            }
+            assertEquals(filtered, leaderboard.getEntriesByDifficulty(level));
+            assertEquals(filtered.subList(0, 10), leaderboard.getTopEntriesByDifficulty(level, 10));
+        }
+        leaderboard.clearLeaderboard();
+    }
+}
@@ -0,0 +1,94 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestLeaderboardPages {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    private Leaderboard leaderboard;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+        leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        Random random = new Random(5);
+        Game.Difficulty[] levels = Game.Difficulty.values();
+        for (int i = 0; i < 1_000; i++) {
+            leaderboard.addScore("p" + i, random.nextInt(40) * 5, 1, random.nextInt(6), levels[i % levels.length]);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        leaderboard.clearLeaderboard();
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    @Test
+    public void testPagesMatchRanking() {
+        LeaderboardSnapshot snapshot = leaderboard.snapshot();
+        ArrayList<LeaderboardEntry> all = snapshot.entries(null);
+        LeaderboardPages pages = new LeaderboardPages(snapshot, Leaderboard.Window.ALL_TIME, null);
+        assertEquals(all.size(), pages.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertSame(all.get(i), pages.get(i));
+        }
+
+        ArrayList<LeaderboardEntry> hard = snapshot.entries(Game.Difficulty.HARD);
+        LeaderboardPages hardPages = new LeaderboardPages(snapshot, Leaderboard.Window.ALL_TIME, Game.Difficulty.HARD);
+        assertEquals(hard, new ArrayList<>(hardPages));
+    }
+
+    @Test
+    public void testOnlyReadPagesAreLoaded() {
+        LeaderboardPages pages = new LeaderboardPages(leaderboard.snapshot(), Leaderboard.Window.ALL_TIME, null);
+        assertEquals(0, pages.getPagesLoaded());
+        pages.get(0);
+        pages.get(LeaderboardPages.PAGE_SIZE - 1);
+        assertEquals(1, pages.getPagesLoaded());
+        pages.get(pages.size() - 1);
+        assertEquals(2, pages.getPagesLoaded());
+    }
+
+    @Test
+    public void testDeepRangeAcrossDifficulties() {
+        LeaderboardSnapshot snapshot = leaderboard.snapshot();
+        ArrayList<LeaderboardEntry> all = snapshot.entries(null);
+        for (int from : new int[] { 0, 1, 49, 333, 998, 999, 1_000 }) {
+            assertEquals(all.subList(from, Math.min(all.size(), from + 7)), snapshot.range(null, from, 7));
+        }
+    }
+
+    @Test
+    public void testWindowFilter() {
+        LeaderboardSnapshot snapshot = leaderboard.snapshot();
+        LeaderboardPages daily = new LeaderboardPages(snapshot, Leaderboard.Window.DAILY, Game.Difficulty.EASY);
+        assertTrue(daily.size() <= Leaderboard.TOP_K);
+        assertEquals(snapshot.top(Leaderboard.Window.DAILY, Game.Difficulty.EASY, Leaderboard.TOP_K),
+                new ArrayList<>(daily));
+    }
+}
@@ -0,0 +1,118 @@
+package com.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestLeaderboardRuns {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Leaderboard leaderboard;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+        leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+    }
+
+    @After
+    public void tearDown() {
+        leaderboard.clearLeaderboard();
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    private File run(String name, String... lines) throws IOException {
+        File file = folder.newFile(name);
+        StringBuilder sb = new StringBuilder("{\"format\":\"leaderboard-run\",\"version\":1,\"source\":\"" + name + "\"}\n");
+        for (String line : lines) sb.append(line).append('\n');
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String entry(String name, int score, long time) {
+        return "{\"playerName\":\"" + name + "\",\"score\":" + score + ",\"puzzlesCompleted\":1,\"timeTaken\":"
+                + time + ",\"difficulty\":\"EASY\",\"timestamp\":\"2024-05-01T12:00:00Z\"}";
+    }
+
+    private static List<String> names(File run) throws IOException {
+        ArrayList<String> names = new ArrayList<>();
+        List<String> lines = Files.readAllLines(run.toPath(), StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            names.add(line.replaceAll(".*\"playerName\":\"([^\"]*)\".*", "$1"));
+        }
+        return names;
+    }
+
+    @Test
+    public void testExportKeepsBestPerPlayerInOrder() throws IOException {
+        leaderboard.addScore("ann", 100, 1, 60, Game.Difficulty.EASY);
+        leaderboard.addScore("ben", 300, 1, 90, Game.Difficulty.HARD);
+        leaderboard.addScore("ann", 300, 1, 50, Game.Difficulty.MEDIUM);
+        File out = new File(folder.getRoot(), "kiosk.jsonl");
+
+        assertEquals(2, LeaderboardRuns.export(leaderboard.snapshot(), "kiosk-1", out));
+        assertEquals(List.of("ann", "ben"), names(out));
+        assertEquals(4, LeaderboardRuns.merge(List.of(out, out), new File(folder.getRoot(), "m.jsonl"),
+                "merged", false));
+    }
+
+    @Test
+    public void testMergeBreaksTiesByTimeThenInputOrder() throws IOException {
+        File a = run("a.jsonl", entry("ann", 500, 90), entry("cat", 200, 30), entry("dan", 200, 30));
+        File b = run("b.jsonl", entry("bob", 500, 60), entry("eve", 200, 30), entry("ann", 100, 10));
+        File out = new File(folder.getRoot(), "venue.jsonl");
+
+        assertEquals(5, LeaderboardRuns.merge(List.of(a, b), out, "venue", true));
+        assertEquals(List.of("bob", "ann", "cat", "dan", "eve"), names(out));
+
+        File all = new File(folder.getRoot(), "all.jsonl");
+        assertEquals(6, LeaderboardRuns.merge(List.of(a, b), all, "venue", false));
+        assertEquals(List.of("bob", "ann", "cat", "dan", "eve", "ann"), names(all));
+
+        // merged runs merge again
+        File again = new File(folder.getRoot(), "again.jsonl");
+        LeaderboardRuns.merge(List.of(out, run("c.jsonl", entry("fay", 300, 1))), again, "venue", true);
+        assertEquals(List.of("bob", "ann", "fay", "cat", "dan", "eve"), names(again));
+    }
+
+    @Test
+    public void testUnsortedRunIsRejected() throws IOException {
+        File bad = run("bad.jsonl", entry("ann", 100, 10), entry("bob", 200, 10));
+        File out = new File(folder.getRoot(), "out.jsonl");
+        try {
+            LeaderboardRuns.merge(List.of(bad), out, "venue", true);
+            fail("expected an out-of-order error");
+        } catch (IOException e) {
+            assertEquals(bad.getPath() + ": line 3 is out of order", e.getMessage());
+        }
+        assertFalse(out.exists());
+        assertFalse(new File(out.getPath() + ".tmp").exists());
+    }
+}
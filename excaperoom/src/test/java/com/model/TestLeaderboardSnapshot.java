@@ -0,0 +1,112 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestLeaderboardSnapshot {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    private Leaderboard leaderboard;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+        leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+    }
+
+    @After
+    public void tearDown() {
+        leaderboard.clearLeaderboard();
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    @Test
+    public void testSnapshotDoesNotChange() {
+        leaderboard.addScore("ann", 100, 1, 60, Game.Difficulty.EASY);
+        LeaderboardSnapshot before = leaderboard.snapshot();
+        leaderboard.addScore("ben", 200, 1, 60, Game.Difficulty.EASY);
+        LeaderboardSnapshot after = leaderboard.snapshot();
+
+        assertEquals(1, before.size());
+        assertEquals("ann", before.top(10).get(0).getPlayerName());
+        assertEquals(1, before.entries(Game.Difficulty.EASY).size());
+        assertEquals(2, after.size());
+        assertEquals("ben", after.top(Game.Difficulty.EASY, 10).get(0).getPlayerName());
+        assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void testSameSnapshotUntilWrite() {
+        leaderboard.addScore("ann", 100, 1, 60, Game.Difficulty.HARD);
+        LeaderboardSnapshot first = leaderboard.snapshot();
+        assertSame(first, leaderboard.snapshot());
+        leaderboard.getTopEntries(5);
+        assertSame(first, leaderboard.snapshot());
+
+        leaderboard.clearLeaderboard();
+        assertEquals(0, leaderboard.snapshot().size());
+        assertEquals(1, first.size());
+    }
+
+    @Test
+    public void testRangeAcrossDifficulties() {
+        Game.Difficulty[] levels = Game.Difficulty.values();
+        for (int i = 0; i < 30; i++) {
+            leaderboard.addScore("p" + i, i, 1, 60, levels[i % levels.length]);
+        }
+        LeaderboardSnapshot snapshot = leaderboard.snapshot();
+        ArrayList<LeaderboardEntry> all = snapshot.entries(null);
+        assertEquals(all.subList(10, 15), snapshot.range(null, 10, 5));
+        assertEquals(all.subList(28, 30), snapshot.range(null, 28, 5));
+        assertTrue(snapshot.range(null, 40, 5).isEmpty());
+    }
+
+    @Test
+    public void testReadersSeeConsistentSnapshots() throws InterruptedException {
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1;
+            for (int i = 0; i < 2_000 && failure.get() == null; i++) {
+                LeaderboardSnapshot snapshot = leaderboard.snapshot();
+                if (snapshot.getVersion() < lastVersion) {
+                    failure.set("version went backwards");
+                }
+                lastVersion = snapshot.getVersion();
+                if (snapshot.entries(null).size() != snapshot.size()) {
+                    failure.set("entries and size disagree at version " + snapshot.getVersion());
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200; i++) {
+            leaderboard.addScore("w" + i, i, 1, i, Game.Difficulty.MEDIUM);
+        }
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(200, leaderboard.size());
+    }
+}
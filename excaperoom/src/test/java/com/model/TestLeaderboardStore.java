@@ -0,0 +1,135 @@
+package com.model;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestLeaderboardStore {
+
+    private File dir;
+    private File file;
+    private LeaderboardStore store;
+    private File originalFile;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("leaderboard").toFile();
+        file = new File(dir, "leaderboard.jsonl");
+        store = LeaderboardStore.getInstance();
+        originalFile = store.getFile();
+        store.setFile(file);
+        Leaderboard.getInstance().reload();
+    }
+
+    @After
+    public void tearDown() {
+        store.setFile(originalFile);
+        Leaderboard.getInstance().reload();
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testKeepsEveryField() {
+        Leaderboard.getInstance().addScore("ann", 1200, 9, 650, Game.Difficulty.EASY);
+        Leaderboard.getInstance().addScore("ben", 900, 7, 800, Game.Difficulty.HARD);
+        LeaderboardEntry added = Leaderboard.getInstance().getPlayerBestScore("ann");
+
+        Leaderboard.getInstance().reload();
+        LeaderboardEntry read = Leaderboard.getInstance().getPlayerBestScore("ann");
+        assertEquals(1200, read.getScore());
+        assertEquals(9, read.getPuzzlesCompleted());
+        assertEquals(650, read.getTimeTaken());
+        assertEquals(Game.Difficulty.EASY, read.getDifficulty());
+        assertEquals(added.getTimestamp(), read.getTimestamp());
+        assertEquals(2, Leaderboard.getInstance().getPlayerRank("ben"));
+    }
+
+    @Test
+    public void testAppendsWithoutRewriting() throws Exception {
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        long firstSize = file.length();
+        Leaderboard.getInstance().addScore("ben", 200, 2, 70, Game.Difficulty.MEDIUM);
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(file.length() > firstSize);
+        assertTrue(lines.get(1).contains("\"ben\""));
+    }
+
+    @Test
+    public void testLoadsLazily() {
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        Leaderboard.getInstance().reload();
+        int loads = store.getLoadCount();
+        Leaderboard.getInstance();
+        assertEquals("nothing is read until the leaderboard is used", loads, store.getLoadCount());
+        assertEquals(1, Leaderboard.getInstance().size());
+        Leaderboard.getInstance().getTopEntries(10);
+        assertEquals("read once", loads + 1, store.getLoadCount());
+    }
+
+    @Test
+    public void testSkipsTornLine() throws Exception {
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        Files.write(file.toPath(), "{\"playerName\":\"ben\",\"sco".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        ArrayList<LeaderboardEntry> read = store.load();
+        assertEquals(1, read.size());
+        assertEquals("ann", read.get(0).getPlayerName());
+    }
+
+    @Test
+    public void testFirstSaveKeepsDerivedEntries() {
+        ArrayList<Progress> progress = new ArrayList<>();
+        progress.add(new Progress());
+        progress.get(0).setScore(500);
+        Player legacy = new Player("legacy", progress, "pw");
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(legacy);
+        Players.getInstance().setPlayers(players);
+        Leaderboard.getInstance().reload();
+
+        assertFalse(store.exists());
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        assertEquals(2, store.load().size());
+
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+        Leaderboard.getInstance().reload();
+        assertEquals(500, Leaderboard.getInstance().getPlayerBestScore("legacy").getScore());
+    }
+
+    @Test
+    public void testClearKeepsStoredEntries() {
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        Leaderboard.getInstance().clearLeaderboard();
+        assertEquals(0, Leaderboard.getInstance().size());
+        Leaderboard.getInstance().reload();
+        assertEquals(1, Leaderboard.getInstance().size());
+    }
+
+    @Test
+    public void testPurge() {
+        Leaderboard.getInstance().addScore("ann", 100, 1, 60, Game.Difficulty.MEDIUM);
+        Leaderboard.getInstance().purge();
+        Leaderboard.getInstance().reload();
+        assertEquals(0, Leaderboard.getInstance().size());
+        assertNull(Leaderboard.getInstance().getPlayerBestScore("ann"));
+    }
+}
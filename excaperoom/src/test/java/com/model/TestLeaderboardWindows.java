@@ -0,0 +1,123 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestLeaderboardWindows {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+    }
+
+    @After
+    public void tearDown() {
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    private static final Instant NOW = Instant.parse("2024-05-15T12:00:00Z");
+
+    private static LeaderboardEntry entry(String name, int score, int daysAgo, Game.Difficulty difficulty) {
+        return new LeaderboardEntry(name, score, 1, 60, difficulty,
+                NOW.minus(Duration.ofDays(daysAgo)).toString());
+    }
+
+    private static ArrayList<String> names(ArrayList<LeaderboardEntry> entries) {
+        ArrayList<String> names = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) names.add(entry.getPlayerName());
+        return names;
+    }
+
+    private static LeaderboardWindows windowsAt(Instant now) {
+        LeaderboardWindows windows = new LeaderboardWindows(3);
+        windows.setClock(Clock.fixed(now, ZoneOffset.UTC));
+        return windows;
+    }
+
+    @Test
+    public void testDailyAndWeekly() {
+        LeaderboardWindows windows = windowsAt(NOW);
+        long seq = 0;
+        assertTrue(windows.add(entry("today", 100, 0, Game.Difficulty.EASY), seq++));
+        assertTrue(windows.add(entry("yesterday", 300, 1, Game.Difficulty.HARD), seq++));
+        assertTrue(windows.add(entry("sixDays", 200, 6, Game.Difficulty.EASY), seq++));
+        assertFalse("older than a week", windows.add(entry("sevenDays", 999, 7, Game.Difficulty.EASY), seq++));
+        assertFalse("no timestamp", windows.add(new LeaderboardEntry("none", 5, 1, 1, Game.Difficulty.EASY, null), seq++));
+
+        assertEquals(List.of("today"), names(windows.daily(null, 10)));
+        assertEquals(List.of("yesterday", "sixDays", "today"), names(windows.weekly(null, 10)));
+        assertEquals(List.of("sixDays", "today"), names(windows.weekly(Game.Difficulty.EASY, 10)));
+        assertEquals(List.of("yesterday"), names(windows.weekly(null, 1)));
+    }
+
+    @Test
+    public void testBucketsKeepTopK() {
+        LeaderboardWindows windows = windowsAt(NOW);
+        for (int i = 0; i < 10; i++) {
+            windows.add(entry("p" + i, i, 0, Game.Difficulty.MEDIUM), i);
+        }
+        assertEquals(List.of("p9", "p8", "p7"), names(windows.daily(null, 10)));
+    }
+
+    @Test
+    public void testOldDaysExpire() {
+        LeaderboardWindows windows = windowsAt(NOW);
+        windows.add(entry("old", 500, 6, Game.Difficulty.EASY), 0);
+        windows.add(entry("recent", 100, 0, Game.Difficulty.EASY), 1);
+
+        // two days later the "old" day has left the window, before any new entry arrives
+        windows.setClock(Clock.fixed(NOW.plus(Duration.ofDays(2)), ZoneOffset.UTC));
+        assertEquals(List.of("recent"), names(windows.weekly(null, 10)));
+        assertTrue(windows.daily(null, 10).isEmpty());
+
+        // a new day reusing the old day's slot resets it
+        LeaderboardEntry fresh = new LeaderboardEntry("fresh", 50, 1, 60, Game.Difficulty.EASY,
+                NOW.plus(Duration.ofDays(1)).toString());
+        assertTrue(windows.add(fresh, 2));
+        assertEquals(List.of("recent", "fresh"), names(windows.weekly(null, 10)));
+    }
+
+    @Test
+    public void testLeaderboardWindows() {
+        Leaderboard leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        leaderboard.addScore("ann", 100, 1, 60, Game.Difficulty.EASY);
+        leaderboard.addScore("ben", 200, 1, 60, Game.Difficulty.HARD);
+
+        assertEquals(List.of("ben", "ann"),
+                names(leaderboard.getTopEntries(Leaderboard.Window.DAILY, null, 10)));
+        assertEquals(List.of("ann"),
+                names(leaderboard.getTopEntries(Leaderboard.Window.WEEKLY, Game.Difficulty.EASY, 10)));
+        assertEquals(List.of("ben", "ann"),
+                names(leaderboard.getTopEntries(Leaderboard.Window.ALL_TIME, null, 10)));
+        leaderboard.clearLeaderboard();
+        assertTrue(leaderboard.getTopEntries(Leaderboard.Window.DAILY, null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,174 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPlayerShardStore {
+
+    private PlayerShardStore store;
+    private File shardDir;
+
+    @Before
+    public void setUp() {
+        shardDir = new File("json/players");
+        deleteShards();
+        DataWriter.setStorageMode(StorageMode.SHARDED);
+        store = PlayerShardStore.getInstance();
+        store.invalidate();
+    }
+
+    @After
+    public void tearDown() {
+        DataWriter.setStorageMode(StorageMode.SINGLE_FILE);
+        deleteShards();
+        store.invalidate();
+        File jsonDir = new File("json");
+        File[] files = jsonDir.listFiles();
+        if (files != null && files.length == 0) {
+            jsonDir.delete();
+        }
+    }
+
+    private void deleteShards() {
+        File[] files = shardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        shardDir.delete();
+    }
+
+    private Player newPlayer(String name) {
+        ArrayList<Progress> progs = new ArrayList<>();
+        progs.add(new Progress());
+        return new Player(name, progs, "pw");
+    }
+
+    @Test
+    public void testSaveWritesOneShardPerPlayerAndIndex() {
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(newPlayer("Ann"));
+        players.add(newPlayer("Ben"));
+
+        assertTrue(DataWriter.savePlayers(players));
+        assertTrue(new File(shardDir, "index.json").exists());
+        for (Player p : players) {
+            assertTrue(store.shardFile(p.getId()).exists());
+        }
+    }
+
+    @Test
+    public void testRoundTripThroughDataLoader() {
+        ArrayList<Player> players = new ArrayList<>();
+        Player ann = newPlayer("Ann");
+        ann.getProgress().get(0).setScore(420);
+        players.add(ann);
+        players.add(newPlayer("Ben"));
+        DataWriter.savePlayers(players);
+        store.invalidate();
+
+        ArrayList<Player> loaded = DataLoader.getPlayers();
+        assertEquals(2, loaded.size());
+        assertEquals(ann.getId(), loaded.get(0).getId());
+        assertEquals("Ann", loaded.get(0).getDisplayName());
+        assertEquals(420, loaded.get(0).getProgress().get(0).getCurrentScore());
+    }
+
+    @Test
+    public void testDirtySaveOnlyRewritesChangedPlayers() throws Exception {
+        ArrayList<Player> players = new ArrayList<>();
+        Player ann = newPlayer("Ann");
+        Player ben = newPlayer("Ben");
+        players.add(ann);
+        players.add(ben);
+        DataWriter.savePlayers(players);
+
+        File benShard = store.shardFile(ben.getId());
+        Files.write(benShard.toPath(), "UNTOUCHED".getBytes("UTF-8"));
+
+        ann.getProgress().get(0).setScore(99);
+        Set<UUID> dirty = new HashSet<>();
+        dirty.add(ann.getId());
+        assertTrue(DataWriter.savePlayers(players, dirty));
+
+        assertEquals("clean player's shard should not be rewritten",
+                "UNTOUCHED", new String(Files.readAllBytes(benShard.toPath()), "UTF-8"));
+        String annContent = new String(Files.readAllBytes(store.shardFile(ann.getId()).toPath()), "UTF-8");
+        assertTrue(annContent.contains("99"));
+    }
+
+    @Test
+    public void testRemovedPlayerShardIsDeleted() {
+        ArrayList<Player> players = new ArrayList<>();
+        Player ann = newPlayer("Ann");
+        Player ben = newPlayer("Ben");
+        players.add(ann);
+        players.add(ben);
+        DataWriter.savePlayers(players);
+
+        Players.getInstance().setPlayers(players);
+        try {
+            assertTrue(Players.getInstance().removePlayer(ben.getId()));
+            DataWriter.savePlayers(players, new HashSet<UUID>());
+        } finally {
+            Players.getInstance().setPlayers(new ArrayList<Player>());
+        }
+
+        assertFalse(store.shardFile(ben.getId()).exists());
+        assertNull(store.findId("Ben"));
+        assertEquals(ann.getId(), store.findId("Ann"));
+    }
+
+    @Test
+    public void testUnreadableShardSurvivesSave() throws Exception {
+        ArrayList<Player> players = new ArrayList<>();
+        Player ann = newPlayer("Ann");
+        Player ben = newPlayer("Ben");
+        players.add(ann);
+        players.add(ben);
+        DataWriter.savePlayers(players);
+        File benShard = store.shardFile(ben.getId());
+        byte[] benContent = Files.readAllBytes(benShard.toPath());
+        Files.write(benShard.toPath(), "{ truncated".getBytes("UTF-8"));
+        store.invalidate();
+
+        ArrayList<Player> loaded = DataLoader.getPlayers();
+        assertEquals(1, loaded.size());
+        loaded.get(0).getProgress().get(0).setScore(5);
+        Set<UUID> dirty = new HashSet<>();
+        dirty.add(ann.getId());
+        assertTrue(DataWriter.savePlayers(loaded, dirty));
+
+        assertTrue(benShard.exists());
+        assertEquals(ben.getId(), store.findId("Ben"));
+        // once the read error is gone, the player is back
+        Files.write(benShard.toPath(), benContent);
+        store.invalidate();
+        assertEquals(2, DataLoader.getPlayers().size());
+    }
+
+    @Test
+    public void testNewPlayerIsWrittenEvenIfNotDirty() {
+        ArrayList<Player> players = new ArrayList<>();
+        players.add(newPlayer("Ann"));
+        DataWriter.savePlayers(players);
+
+        Player cat = newPlayer("Cat");
+        players.add(cat);
+        DataWriter.savePlayers(players, new HashSet<UUID>());
+
+        assertTrue(store.shardFile(cat.getId()).exists());
+        assertEquals(cat.getId(), store.findId("Cat"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPlayerStore {
+
+    private PlayerStore store;
+
+    @Before
+    public void setUp() {
+        SaveCoalescer.getInstance().flush();
+        SaveCoalescer.getInstance().setFlushDelay(60_000);
+        Players.getInstance().logout();
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+        store = PlayerStore.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        SaveCoalescer.getInstance().setFlushDelay(SaveCoalescer.DEFAULT_FLUSH_DELAY_MILLIS);
+        SaveCoalescer.getInstance().flush();
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+    }
+
+    @Test
+    public void testStripes() {
+        assertEquals(128, new PlayerStore(100).getStripeCount());
+        assertEquals(PlayerStore.MIN_STRIPES, new PlayerStore(1).getStripeCount());
+        int count = store.getStripeCount();
+        assertEquals("a power of two", 0, count & (count - 1));
+
+        Player player = Players.getInstance().register("ann", "pw");
+        assertSame(store.lockFor(player), store.lockFor(player.getId()));
+        assertSame(player, store.get(player.getId()));
+    }
+
+    @Test
+    public void testOperationsById() {
+        Player player = Players.getInstance().register("ann", "pw");
+        assertTrue(store.addStrike(player.getId()));
+        assertTrue(store.addStrike(player.getId()));
+        assertEquals(2, store.getStrikes(player));
+        assertTrue(store.addItem(player.getId(), new Item("Key", "opens", "desk", null)));
+        assertTrue(store.hasItem(player, "key"));
+        assertEquals(1, store.getInventory(player).size());
+        assertTrue(store.resetStrikes(player));
+        assertEquals(0, store.getStrikes(player));
+
+        assertTrue(store.saveProgress(player.getId()));
+        assertTrue(SaveCoalescer.getInstance().hasPendingChanges());
+
+        UUID unknown = UUID.randomUUID();
+        assertFalse(store.addStrike(unknown));
+        assertFalse(store.saveProgress(unknown));
+    }
+
+    @Test
+    public void testFacadeGoesThroughStore() {
+        Players players = Players.getInstance();
+        players.createAccount("ann", "pw");
+        players.addStrike();
+        players.addItem(new Item("Tape", "a VHS tape", "shelf", null));
+        assertEquals(1, players.getStrikes());
+        assertTrue(store.hasItem(Players.getCurrentPlayer(), "tape"));
+        players.logout();
+    }
+
+    @Test
+    public void testLoadProgressFlushesPendingChangesFirst() {
+        Player player = Players.getInstance().register("ann", "pw");
+        player.getProgress().get(0).setScore(77);
+        assertTrue(store.saveProgress(player.getId()));
+        assertTrue(SaveCoalescer.getInstance().hasPendingChanges());
+
+        assertTrue(Players.getInstance().loadProgress());
+        assertFalse(SaveCoalescer.getInstance().hasPendingChanges());
+        Player reloaded = Players.getInstance().getPlayerByName("ann");
+        assertEquals(player.getId(), reloaded.getId());
+        assertEquals(77, reloaded.getProgress().get(0).getCurrentScore());
+    }
+
+    @Test
+    public void testConcurrentChangesWhileSerializing() throws Exception {
+        int threads = 8;
+        int ops = 2_000;
+        ArrayList<Player> own = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            own.add(Players.getInstance().register("player" + t, "pw"));
+        }
+        Player shared = Players.getInstance().register("shared", "pw");
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread serializer = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    for (Player player : Players.getInstance().snapshot()) {
+                        DataWriter.toJSON(player);
+                    }
+                }
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+        serializer.start();
+
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Player player = own.get(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int i = 0; i < ops; i++) {
+                        store.addStrike(player.getId());
+                        store.addItem(player, new Item("item" + i, "", "", null));
+                        store.addStrike(shared);
+                        store.saveProgress(player);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        running.set(false);
+        serializer.join();
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        for (Player player : own) {
+            assertEquals(ops, store.getStrikes(player));
+            assertEquals(ops, store.getInventory(player).size());
+        }
+        assertEquals("no strike on the shared player is lost", threads * ops, store.getStrikes(shared));
+    }
+}
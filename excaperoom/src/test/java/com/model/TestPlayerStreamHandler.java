@@ -0,0 +1,100 @@
+package com.model;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class TestPlayerStreamHandler {
+
+    private static final String ANN_ID = "0c84e4ca-e25d-4f21-a409-c78a8543556a";
+    private static final String ANN = "{\"uuid\":\"" + ANN_ID + "\",\"displayName\":\"Ann\",\"password\":\"pw\","
+            + "\"progress\":{\"hintsUsed\":1,\"inventory\":[{\"uuid\":\"\",\"name\":\"Tape\",\"description\":\"VHS\",\"location\":\"Shelf\"}],"
+            + "\"storedHints\":[{\"id\":\"\",\"text\":\"Look up\",\"cost\":5,\"used\":true}],"
+            + "\"completedPuzzles\":[\"x\"],\"currentPuzzle\":{\"puzzleID\":\"y\"},\"strikes\":2,\"currentScore\":300}}";
+
+    private ArrayList<Player> read(String json) throws Exception {
+        return PlayerStreamHandler.read(new StringReader(json)).getPlayers();
+    }
+
+    private void assertAnn(Player p) {
+        assertEquals(ANN_ID, p.getId().toString());
+        assertEquals("Ann", p.getDisplayName());
+        assertEquals("pw", p.getPassword());
+        Progress progress = p.getProgress().get(0);
+        assertEquals(1, progress.getInventory().size());
+        assertEquals("Tape", progress.getInventory().get(0).getName());
+        assertEquals("Shelf", progress.getInventory().get(0).getLocation());
+        assertEquals(1, progress.getHintsUsed());
+        assertEquals("Look up", progress.getStoredHints().get(0).getText());
+        assertEquals(5, progress.getStoredHints().get(0).getCost());
+        assertEquals(2, progress.getStrikes());
+        assertEquals(300, progress.getCurrentScore());
+    }
+
+    @Test
+    public void testUsersWrapper() throws Exception {
+        ArrayList<Player> players = read("{\"schemaVersion\":1,\"users\":[" + ANN + ",{\"displayName\":\"Ben\"}]}");
+        assertEquals(2, players.size());
+        assertAnn(players.get(0));
+        assertEquals("Ben", players.get(1).getDisplayName());
+    }
+
+    @Test
+    public void testPlayersWrapper() throws Exception {
+        ArrayList<Player> players = read("{\"players\":[" + ANN + "]}");
+        assertEquals(1, players.size());
+        assertAnn(players.get(0));
+    }
+
+    @Test
+    public void testUsersPreferredOverPlayers() throws Exception {
+        ArrayList<Player> players = read("{\"players\":[{\"displayName\":\"Old\"}],\"users\":[" + ANN + "]}");
+        assertEquals(1, players.size());
+        assertEquals("Ann", players.get(0).getDisplayName());
+    }
+
+    @Test
+    public void testBareArray() throws Exception {
+        ArrayList<Player> players = read("[" + ANN + ", 7, \"junk\"]");
+        assertEquals(1, players.size());
+        assertAnn(players.get(0));
+    }
+
+    @Test
+    public void testSinglePlayerRoot() throws Exception {
+        ArrayList<Player> players = read(ANN);
+        assertEquals(1, players.size());
+        assertAnn(players.get(0));
+    }
+
+    @Test
+    public void testUnrecognizedRootIsEmpty() throws Exception {
+        assertEquals(0, read("{\"schemaVersion\":1}").size());
+        assertEquals(0, read("42").size());
+    }
+
+    @Test
+    public void testLegacyProgressPassword() throws Exception {
+        ArrayList<Player> players = read("{\"users\":[{\"displayName\":\"Cat\",\"progress\":{\"password\":\"legacy\"}}]}");
+        assertEquals("legacy", players.get(0).getPassword());
+    }
+
+    @Test
+    public void testJournalSeqIsRead() throws Exception {
+        assertEquals(17, PlayerStreamHandler.read(new StringReader("{\"journalSeq\":17,\"users\":[]}")).getJournalSeq());
+    }
+
+    @Test
+    public void testMatchesTreeParser() throws Exception {
+        Player streamed = read(ANN).get(0);
+        Player tree = DataLoader.parsePlayer((JSONObject) new JSONParser().parse(ANN));
+        assertEquals(tree.getId(), streamed.getId());
+        assertEquals(tree.getPassword(), streamed.getPassword());
+        assertEquals(tree.getProgress().get(0).getCurrentScore(), streamed.getProgress().get(0).getCurrentScore());
+        assertEquals(tree.getProgress().get(0).getInventory().size(), streamed.getProgress().get(0).getInventory().size());
+    }
+}
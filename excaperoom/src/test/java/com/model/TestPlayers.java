@@ -172,4 +172,47 @@ public class TestPlayers {
     public void testGetCurrentPlayerBeforeLogin() {
         assertNull("Before logging in, getCurrentPlayer should return null", Players.getCurrentPlayer());
     }
+
+    // --- Indexes ---
+    @Test
+    public void testLookupsFollowSetPlayers() {
+        ArrayList<Player> newList = new ArrayList<>();
+        Player player = new Player("indexed", new ArrayList<Progress>(), "pass");
+        newList.add(player);
+        players.setPlayers(newList);
+
+        assertSame(player, players.getPlayer(player.getId()));
+        assertSame(player, players.getPlayerByName("indexed"));
+        players.login("indexed", "pass");
+        assertSame(player, Players.getCurrentPlayer());
+    }
+
+    @Test
+    public void testLookupsFollowAddAndRemove() {
+        Player player = new Player("added", new ArrayList<Progress>(), "pass");
+        players.addPlayer(player);
+        assertSame(player, players.getPlayerByName("added"));
+        assertEquals("name is taken once added", 2, players.createAccount("added", "other"));
+
+        players.removePlayer(player.getId());
+        assertNull(players.getPlayer(player.getId()));
+        assertNull(players.getPlayerByName("added"));
+    }
+
+    @Test
+    public void testDirectListChangesAreIndexed() {
+        Player player = new Player("direct", new ArrayList<Progress>(), "pass");
+        Players.getPlayers().add(player);
+
+        assertSame(player, players.getPlayer(player.getId()));
+        assertSame(player, players.getPlayerByName("direct"));
+    }
+
+    @Test
+    public void testRegisterRejectsMissingNames() {
+        assertNull(players.register(null, "pass"));
+        assertNull(players.register("  ", "pass"));
+        assertTrue(Players.getPlayers().isEmpty());
+        assertEquals(4, players.createAccount(null, "pass"));
+    }
 }
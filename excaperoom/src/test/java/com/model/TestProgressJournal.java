@@ -0,0 +1,222 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestProgressJournal {
+
+    private ProgressJournal journal;
+    private File jsonDir;
+    private File snapshotFile;
+    private File journalFile;
+
+    @Before
+    public void setUp() {
+        jsonDir = new File("json");
+        snapshotFile = new File(jsonDir, "players.json");
+        journalFile = new File(jsonDir, "players.journal");
+        journal = ProgressJournal.getInstance();
+        journal.reset();
+        snapshotFile.delete();
+        journalFile.delete();
+        DataWriter.setStorageMode(StorageMode.JOURNAL);
+        journal.setCompactionThreshold(ProgressJournal.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @After
+    public void tearDown() {
+        DataWriter.setStorageMode(StorageMode.SINGLE_FILE);
+        journal.reset();
+        journal.setCompactionThreshold(ProgressJournal.DEFAULT_COMPACTION_THRESHOLD);
+        snapshotFile.delete();
+        journalFile.delete();
+        for (File generation : AtomicFileWriter.generations(snapshotFile)) {
+            generation.delete();
+        }
+        File[] files = jsonDir.listFiles();
+        if (files != null && files.length == 0) {
+            jsonDir.delete();
+        }
+    }
+
+    private Player newPlayer(String name) {
+        ArrayList<Progress> progs = new ArrayList<>();
+        progs.add(new Progress());
+        return new Player(name, progs, "pw");
+    }
+
+    private ArrayList<Player> savedPlayers(Player... list) {
+        ArrayList<Player> players = new ArrayList<>();
+        for (Player p : list) players.add(p);
+        assertTrue(DataWriter.savePlayers(players));
+        return players;
+    }
+
+    @Test
+    public void testMutationAppendsRecordInsteadOfRewritingSnapshot() throws Exception {
+        Player ann = newPlayer("Ann");
+        ArrayList<Player> players = savedPlayers(ann);
+        long snapshotSize = snapshotFile.length();
+
+        ann.getProgress().get(0).setScore(250);
+        ann.getProgress().get(0).addItem(new Item("Tape", "A VHS tape", "Shelf", null));
+        assertTrue(DataWriter.savePlayers(players, new HashSet<UUID>()));
+
+        assertEquals(2, journal.getRecordCount());
+        assertEquals(snapshotSize, snapshotFile.length());
+        String content = new String(Files.readAllBytes(journalFile.toPath()), "UTF-8");
+        assertTrue(content.contains("\"op\":\"score\""));
+        assertTrue(content.contains("Tape"));
+    }
+
+    @Test
+    public void testReplayRestoresChangesAfterSnapshot() {
+        Player ann = newPlayer("Ann");
+        savedPlayers(ann);
+
+        Progress progress = ann.getProgress().get(0);
+        progress.setScore(700);
+        progress.setStrikes(2);
+        progress.addItem(new Item("Tape", "A VHS tape", "Shelf", null));
+        progress.addHint(new Hint("Look under the couch", 5));
+        journal.reset();
+
+        ArrayList<Player> loaded = DataLoader.getPlayers();
+        assertEquals(1, loaded.size());
+        Progress restored = loaded.get(0).getProgress().get(0);
+        assertEquals(700, restored.getCurrentScore());
+        assertEquals(2, restored.getStrikes());
+        assertEquals(1, restored.getInventory().size());
+        assertEquals("Tape", restored.getInventory().get(0).getName());
+        assertEquals(1, restored.getHintsUsed());
+    }
+
+    @Test
+    public void testReplayRestoresNewAccounts() {
+        savedPlayers(newPlayer("Ann"));
+
+        Player ben = newPlayer("Ben");
+        journal.recordNewPlayer(ben);
+        ben.getProgress().get(0).setScore(40);
+        journal.reset();
+
+        ArrayList<Player> loaded = DataLoader.getPlayers();
+        assertEquals(2, loaded.size());
+        assertEquals(ben.getId(), loaded.get(1).getId());
+        assertEquals(40, loaded.get(1).getProgress().get(0).getCurrentScore());
+    }
+
+    @Test
+    public void testCompactionFoldsJournalIntoSnapshot() {
+        Player ann = newPlayer("Ann");
+        ArrayList<Player> players = savedPlayers(ann);
+        journal.setCompactionThreshold(3);
+
+        for (int i = 1; i <= 3; i++) {
+            ann.getProgress().get(0).setScore(i * 10);
+        }
+        assertTrue(DataWriter.savePlayers(players, new HashSet<UUID>()));
+
+        assertEquals(0, journal.getRecordCount());
+        assertFalse(journalFile.exists());
+        journal.reset();
+        assertEquals(30, DataLoader.getPlayers().get(0).getProgress().get(0).getCurrentScore());
+    }
+
+    @Test
+    public void testRecordsAlreadyInSnapshotAreNotReappliedAfterCrash() throws Exception {
+        Player ann = newPlayer("Ann");
+        ArrayList<Player> players = savedPlayers(ann);
+        ann.getProgress().get(0).addItem(new Item("Tape", "", "", null));
+        byte[] journalBeforeCompaction = Files.readAllBytes(journalFile.toPath());
+
+        assertTrue(DataWriter.savePlayers(players));
+        // simulate dying between writing the snapshot and emptying the journal
+        Files.write(journalFile.toPath(), journalBeforeCompaction);
+        journal.reset();
+
+        assertEquals(1, DataLoader.getPlayers().get(0).getProgress().get(0).getInventory().size());
+    }
+
+    @Test
+    public void testSingleFileModeDoesNotJournal() {
+        DataWriter.setStorageMode(StorageMode.SINGLE_FILE);
+        Player ann = newPlayer("Ann");
+        ann.getProgress().get(0).setScore(5);
+
+        assertFalse(journalFile.exists());
+        assertEquals(0, journal.getRecordCount());
+    }
+
+    @Test
+    public void testRecordIsNotBuiltWhenJournalingIsOff() {
+        DataWriter.setStorageMode(StorageMode.SINGLE_FILE);
+        Player ann = newPlayer("Ann");
+        int[] built = new int[1];
+        int[] applied = new int[1];
+        journal.record(ann.getProgress().get(0), () -> {
+            built[0]++;
+            return ProgressJournal.valueRecord("score", 5);
+        }, () -> applied[0]++);
+
+        assertEquals(1, applied[0]);
+        assertEquals(0, built[0]);
+    }
+
+    @Test
+    public void testReplayRestoresRevealedHints() {
+        Player ann = newPlayer("Ann");
+        savedPlayers(ann);
+        Hint revealed = new Hint("Look under the couch", 5);
+        revealed.use();
+        ann.getProgress().get(0).addHint(revealed);
+        ann.getProgress().get(0).addHint(new Hint("Check the tape label", 5));
+        journal.reset();
+
+        ArrayList<Hint> hints = DataLoader.getPlayers().get(0).getProgress().get(0).getStoredHints();
+        assertEquals(2, hints.size());
+        assertTrue(hints.get(0).isUsed());
+        assertFalse(hints.get(1).isUsed());
+    }
+
+    @Test
+    public void testConcurrentChangesToDifferentPlayersAreAllJournaled() throws Exception {
+        Player[] list = new Player[8];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = newPlayer("Player" + i);
+        }
+        savedPlayers(list);
+
+        Thread[] threads = new Thread[list.length];
+        for (int i = 0; i < list.length; i++) {
+            Progress progress = list[i].getProgress().get(0);
+            threads[i] = new Thread(() -> {
+                for (int n = 1; n <= 200; n++) {
+                    progress.setScore(n);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(list.length * 200, journal.getRecordCount());
+        journal.reset();
+
+        ArrayList<Player> loaded = DataLoader.getPlayers();
+        assertEquals(list.length, loaded.size());
+        for (Player player : loaded) {
+            assertEquals(200, player.getProgress().get(0).getCurrentScore());
+        }
+    }
+}
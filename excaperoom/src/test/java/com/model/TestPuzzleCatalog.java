@@ -0,0 +1,228 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPuzzleCatalog {
+
+    private static final String ID_A = "11111111-1111-1111-1111-111111111111";
+    private static final String ID_B = "22222222-2222-2222-2222-222222222222";
+
+    private PuzzleCatalog catalog;
+    private PuzzlesManager manager;
+    private File rooms;
+
+    @Before
+    public void setUp() throws Exception {
+        rooms = File.createTempFile("rooms", ".json");
+        catalog = PuzzleCatalog.getInstance();
+        catalog.setFile(rooms);
+        manager = PuzzlesManager.getInstance();
+        manager.getPuzzles().clear();
+        manager.setCurrentPuzzle(null);
+    }
+
+    @After
+    public void tearDown() {
+        catalog.setFile(new File(DataConstants.PUZZLES_FILE));
+        manager.getPuzzles().clear();
+        manager.setCurrentPuzzle(null);
+        rooms.delete();
+    }
+
+    private void write(String json, long modified) throws Exception {
+        Files.write(rooms.toPath(), json.getBytes("UTF-8"));
+        rooms.setLastModified(modified);
+    }
+
+    private String trivia(String id, String text) {
+        return "{\"type\":\"Trivia\",\"puzzleID\":\"" + id + "\",\"question\":\"" + text + "\",\"correctAnswer\":\"x\"}";
+    }
+
+    @Test
+    public void testRepeatedLoadsDoNotDuplicatePuzzles() throws Exception {
+        write("{\"puzzles\":[" + trivia(ID_A, "a") + "," + trivia(ID_B, "b") + "]}", 1_000_000L);
+        int parses = catalog.getParseCount();
+
+        for (int i = 0; i < 5; i++) {
+            DataLoader.loadPuzzles();
+        }
+
+        assertEquals(2, manager.getPuzzles().size());
+        assertEquals("file should be parsed once", parses + 1, catalog.getParseCount());
+    }
+
+    @Test
+    public void testShippedRoomsKeepPuzzlesThatShareAnId() throws Exception {
+        // the shipped file has a Cipher and a Trivia with the same puzzleID
+        Files.copy(new File("../json/rooms.json").toPath(), rooms.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        catalog.setFile(rooms);
+
+        DataLoader.loadPuzzles();
+        DataLoader.loadPuzzles();
+
+        assertEquals(18, manager.getPuzzles().size());
+        assertEquals(18, catalog.size());
+        assertEquals(18, catalog.newPuzzleSet().size());
+    }
+
+    @Test
+    public void testEntriesSharingAnIdAreKeptAndEditedSeparately() throws Exception {
+        write("[" + trivia(ID_A, "first") + "," + trivia(ID_A, "second") + "]", 1_000_000L);
+        catalog.refresh();
+        catalog.refresh();
+        assertEquals(2, manager.getPuzzles().size());
+        Puzzle first = manager.getPuzzles().get(0);
+
+        write("[" + trivia(ID_A, "first") + "," + trivia(ID_A, "second, edited") + "]", 2_000_000L);
+        catalog.refresh();
+
+        assertEquals(2, manager.getPuzzles().size());
+        assertSame(first, manager.getPuzzleById(UUID.fromString(ID_A)));
+        assertEquals("second, edited", ((Trivia) manager.getPuzzles().get(1)).getTriviaText());
+
+        write("[" + trivia(ID_A, "first") + "]", 3_000_000L);
+        catalog.refresh();
+        assertEquals(1, manager.getPuzzles().size());
+        assertSame(first, manager.getPuzzles().get(0));
+    }
+
+    @Test
+    public void testTouchedFileWithSameContentIsNotReparsed() throws Exception {
+        write("[" + trivia(ID_A, "a") + "]", 1_000_000L);
+        catalog.refresh();
+        int parses = catalog.getParseCount();
+
+        rooms.setLastModified(2_000_000L);
+        catalog.refresh();
+
+        assertEquals(parses, catalog.getParseCount());
+    }
+
+    @Test
+    public void testChangedFileReplacesAndRemovesById() throws Exception {
+        write("[" + trivia(ID_A, "old") + "," + trivia(ID_B, "b") + "]", 1_000_000L);
+        catalog.refresh();
+        manager.setCurrentPuzzle(manager.getPuzzles().get(0));
+
+        write("[" + trivia(ID_A, "new text") + "]", 2_000_000L);
+        catalog.refresh();
+
+        assertEquals(1, manager.getPuzzles().size());
+        Trivia updated = (Trivia) manager.getPuzzleById(UUID.fromString(ID_A));
+        assertEquals("new text", updated.getTriviaText());
+        assertSame("current puzzle follows its replacement", updated, manager.getCurrentPuzzle());
+        assertNull(manager.getPuzzleById(UUID.fromString(ID_B)));
+    }
+
+    @Test
+    public void testInvalidFileKeepsPreviousPuzzles() throws Exception {
+        write("[" + trivia(ID_A, "a") + "]", 1_000_000L);
+        catalog.refresh();
+
+        write("[ not json", 2_000_000L);
+        assertEquals(1, catalog.refresh().size());
+        assertEquals(1, manager.getPuzzles().size());
+    }
+
+    @Test
+    public void testClearedManagerIsRepopulatedWithoutReparsing() throws Exception {
+        write("[" + trivia(ID_A, "a") + "]", 1_000_000L);
+        catalog.refresh();
+        int parses = catalog.getParseCount();
+
+        manager.getPuzzles().clear();
+        catalog.refresh();
+
+        assertEquals(1, manager.getPuzzles().size());
+        assertEquals(parses, catalog.getParseCount());
+    }
+
+    @Test
+    public void testEditedPuzzleIsUpdatedInPlace() throws Exception {
+        write("[" + trivia(ID_A, "old") + "," + trivia(ID_B, "b") + "]", 1_000_000L);
+        catalog.refresh();
+        Puzzle before = manager.getPuzzleById(UUID.fromString(ID_B));
+        int decodes = catalog.getDecodeCount();
+
+        write("[" + trivia(ID_A, "edited") + "," + trivia(ID_B, "b") + "]", 2_000_000L);
+        catalog.refresh();
+
+        Trivia edited = (Trivia) manager.getPuzzleById(UUID.fromString(ID_A));
+        assertEquals("edited", edited.getTriviaText());
+        assertSame("untouched puzzles are kept", before, manager.getPuzzleById(UUID.fromString(ID_B)));
+        assertEquals("only the edited puzzle is decoded", decodes + 1, catalog.getDecodeCount());
+    }
+
+    @Test
+    public void testHintEditKeepsHintObjectAndUsedFlag() throws Exception {
+        write("[{\"type\":\"Riddle\",\"puzzleID\":\"" + ID_A + "\",\"hints\":[{\"text\":\"one\",\"cost\":5}]}]", 1_000_000L);
+        catalog.refresh();
+        Puzzle riddle = manager.getPuzzleById(UUID.fromString(ID_A));
+        Hint hint = riddle.getHints().get(0);
+        hint.markUsed();
+
+        write("[{\"type\":\"Riddle\",\"puzzleID\":\"" + ID_A + "\",\"hints\":[{\"text\":\"one, reworded\",\"cost\":5},{\"text\":\"two\",\"cost\":7}]}]", 2_000_000L);
+        catalog.refresh();
+
+        assertSame(riddle, manager.getPuzzleById(UUID.fromString(ID_A)));
+        assertEquals(2, riddle.getHints().size());
+        assertSame(hint, riddle.getHints().get(0));
+        assertEquals("one, reworded", hint.getText());
+        assertTrue(hint.isUsed());
+    }
+
+    @Test
+    public void testRemovingCurrentPuzzleWaitsUntilItIsNoLongerCurrent() throws Exception {
+        write("[" + trivia(ID_A, "a") + "," + trivia(ID_B, "b") + "]", 1_000_000L);
+        catalog.refresh();
+        Puzzle playing = manager.getPuzzleById(UUID.fromString(ID_B));
+        manager.setCurrentPuzzle(playing);
+
+        write("[" + trivia(ID_A, "a") + "]", 2_000_000L);
+        catalog.refresh();
+        assertSame(playing, manager.getCurrentPuzzle());
+        assertEquals(2, manager.getPuzzles().size());
+
+        manager.setCurrentPuzzle(manager.getPuzzleById(UUID.fromString(ID_A)));
+        catalog.refresh();
+        assertEquals(1, manager.getPuzzles().size());
+    }
+
+    @Test
+    public void testWatcherReloadsAfterFileChange() throws Exception {
+        File dir = Files.createTempDirectory("rooms-watch").toFile();
+        File watched = new File(dir, "rooms.json");
+        Files.write(watched.toPath(), ("[" + trivia(ID_A, "first") + "]").getBytes("UTF-8"));
+        catalog.setFile(watched);
+        catalog.refresh();
+
+        PuzzleCatalogWatcher watcher = new PuzzleCatalogWatcher(catalog, Runnable::run);
+        watcher.setSettleTime(50);
+        try {
+            assertTrue(watcher.start());
+            Thread.sleep(100);
+            Files.write(watched.toPath(), ("[" + trivia(ID_A, "second") + "," + trivia(ID_B, "b") + "]").getBytes("UTF-8"));
+            for (int i = 0; i < 200 && watcher.getReloadCount() == 0; i++) {
+                Thread.sleep(25);
+            }
+            assertTrue(watcher.getReloadCount() >= 1);
+            assertEquals("second", ((Trivia) manager.getPuzzleById(UUID.fromString(ID_A))).getTriviaText());
+            assertEquals(2, manager.getPuzzles().size());
+        } finally {
+            watcher.stop();
+            watched.delete();
+            dir.delete();
+        }
+    }
+}
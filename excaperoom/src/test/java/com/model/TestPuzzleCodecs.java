@@ -0,0 +1,70 @@
+package com.model;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TestPuzzleCodecs {
+
+    private static final String ID = "2b1f6a5e-2c0e-4c8b-9d7c-1a2b3c4d5e6f";
+
+    private Puzzle decode(String json) throws Exception {
+        return PuzzleCodecs.decode((JSONObject) new JSONParser().parse(json));
+    }
+
+    @Test
+    public void testTriviaUsesQuestionAndAnswerFallbacks() throws Exception {
+        Puzzle p = decode("{\"type\":\"Trivia\",\"puzzleID\":\"" + ID + "\",\"question\":\"Q?\",\"answer\":\"A\","
+                + "\"hints\":[{\"id\":\"h1\",\"text\":\"look\",\"cost\":5},\"junk\"]}");
+        assertTrue(p instanceof Trivia);
+        assertEquals("Trivia", p.getType());
+        assertEquals(ID, p.getID().toString());
+        assertEquals("Q?", ((Trivia) p).getTriviaText());
+        assertEquals("A", ((Trivia) p).getCorrectAnswer());
+        assertEquals(1, p.getHints().size());
+        assertEquals("look", p.getHints().get(0).getText());
+        assertEquals(5, p.getHints().get(0).getCost());
+    }
+
+    @Test
+    public void testSpecificKeysWinOverFallbacks() throws Exception {
+        Riddle r = (Riddle) decode("{\"type\":\"Riddle\",\"question\":\"generic\",\"riddleText\":\"specific\","
+                + "\"answer\":\"loose\",\"correctAnswer\":\"exact\"}");
+        assertEquals("specific", r.getRiddleText());
+        assertEquals("exact", r.getCorrectAnswer());
+    }
+
+    @Test
+    public void testCipherReadsShiftFromMeta() throws Exception {
+        Cipher c = (Cipher) decode("{\"type\":\"Cipher\",\"cipherText\":\"KHOOR\",\"correctAnswer\":\"HELLO\",\"meta\":{\"shift\":3}}");
+        assertEquals("KHOOR", c.getCipherText());
+        assertEquals("HELLO", c.getCorrectAnswer());
+        assertEquals(3, c.getShift());
+    }
+
+    @Test
+    public void testMultipleChoiceOptionsAreStrings() throws Exception {
+        MultipleChoice mc = (MultipleChoice) decode("{\"type\":\"MultipleChoice\",\"prompt\":\"Pick\",\"choices\":[\"a\",2],\"correctAnswer\":\"a\"}");
+        assertEquals("Pick", mc.getQuestion());
+        assertEquals(2, mc.getOptions().size());
+        assertEquals("2", mc.getOptions().get(1));
+    }
+
+    @Test
+    public void testUnknownTypeFallsBackToPlainPuzzle() throws Exception {
+        Puzzle p = decode("{\"type\":\"acrostic\",\"puzzleID\":\"not-a-uuid\"}");
+        assertSame(Puzzle.class, p.getClass());
+        assertEquals("acrostic", p.getType());
+        assertTrue("invalid IDs keep the generated one", p.getID() != null);
+    }
+
+    @Test
+    public void testRegistryCoversEverySubclass() {
+        assertTrue(PuzzleCodecs.forType("PixelHunt").create() instanceof PixelHunt);
+        assertTrue(PuzzleCodecs.forType("ItemPuzzle").create() instanceof ItemPuzzle);
+        assertSame(PuzzleCodecs.forType(null), PuzzleCodecs.forType("nope"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSaveCoalescer {
+
+    private SaveCoalescer coalescer;
+    private Players players;
+    private File testDir;
+    private File testFile;
+
+    @Before
+    public void setUp() {
+        testDir = new File("json");
+        if (!testDir.exists()) {
+            testDir.mkdirs();
+        }
+        testFile = new File(testDir, "players.json");
+        coalescer = SaveCoalescer.getInstance();
+        coalescer.flush();
+        coalescer.setFlushDelay(60_000);
+        players = Players.getInstance();
+        players.logout();
+        players.setPlayers(new ArrayList<Player>());
+    }
+
+    @After
+    public void tearDown() {
+        coalescer.flush();
+        coalescer.setFlushDelay(SaveCoalescer.DEFAULT_FLUSH_DELAY_MILLIS);
+        players.logout();
+        players.setPlayers(new ArrayList<Player>());
+        if (testFile.exists()) {
+            testFile.delete();
+        }
+        for (File generation : AtomicFileWriter.generations(testFile)) {
+            generation.delete();
+        }
+        File[] files = testDir.listFiles();
+        if (files != null && files.length == 0) {
+            testDir.delete();
+        }
+    }
+
+    @Test
+    public void testSaveIsDeferredUntilFlush() {
+        players.createAccount("deferred_user", "pw");
+        if (testFile.exists()) testFile.delete();
+
+        players.saveProgress();
+        assertTrue("saveProgress should leave a pending change", coalescer.hasPendingChanges());
+        assertFalse("saveProgress should not write on the calling thread", testFile.exists());
+
+        assertTrue(players.flushProgress());
+        assertFalse(coalescer.hasPendingChanges());
+        assertTrue("flush should write players.json", testFile.exists());
+    }
+
+    @Test
+    public void testBurstOfSavesIsMergedIntoOneFlush() throws Exception {
+        players.createAccount("burst_user", "pw");
+        int before = coalescer.getFlushCount();
+
+        for (int i = 0; i < 20; i++) {
+            players.saveProgress();
+        }
+        coalescer.flush();
+
+        assertEquals("twenty saves should cost one write", before + 1, coalescer.getFlushCount());
+        String content = new String(Files.readAllBytes(testFile.toPath()), "UTF-8");
+        assertTrue(content.contains("burst_user"));
+    }
+
+    @Test
+    public void testFlushWithNothingPendingDoesNotWrite() {
+        int before = coalescer.getFlushCount();
+        assertTrue(coalescer.flush());
+        assertEquals(before, coalescer.getFlushCount());
+    }
+
+    @Test
+    public void testBackgroundFlushHappensAfterDelay() throws Exception {
+        players.createAccount("background_user", "pw");
+        coalescer.flush();
+        testFile.delete();
+
+        int before = coalescer.getFlushCount();
+        coalescer.setFlushDelay(20);
+        players.saveProgress();
+        for (int i = 0; i < 100 && coalescer.getFlushCount() == before; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals("background thread should have flushed the change", before + 1, coalescer.getFlushCount());
+        assertTrue(testFile.exists());
+    }
+
+    @Test
+    public void testZeroDelayWritesSynchronously() {
+        players.createAccount("sync_user", "pw");
+        coalescer.flush();
+        testFile.delete();
+
+        coalescer.setFlushDelay(0);
+        players.saveProgress();
+        assertTrue("zero delay should write before returning", testFile.exists());
+    }
+
+    @Test
+    public void testFailedFlushKeepsChangesPending() throws Exception {
+        players.createAccount("retry_user", "pw");
+        coalescer.flush();
+        testFile.delete();
+
+        // a non-empty directory in the file's place makes the write fail
+        File blocker = new File(testFile, "blocker");
+        assertTrue(blocker.mkdirs());
+        try {
+            players.saveProgress();
+            assertFalse(coalescer.flush());
+            assertTrue("failed changes should stay pending", coalescer.hasPendingChanges());
+        } finally {
+            blocker.delete();
+            testFile.delete();
+        }
+        assertTrue(coalescer.flush());
+        assertFalse(coalescer.hasPendingChanges());
+        String content = new String(Files.readAllBytes(testFile.toPath()), "UTF-8");
+        assertTrue(content.contains("retry_user"));
+    }
+}
@@ -0,0 +1,207 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.model.Leaderboard.LeaderboardEntry;
+
+public class TestScoreRescorer {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+
+    /** A fresh copy of the same three puzzles, with fixed IDs. */
+    private static ArrayList<Puzzle> puzzleSet() {
+        ArrayList<Puzzle> set = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Riddle riddle = new Riddle("Riddle " + i, "answer" + i);
+            riddle.addHint(new Hint("hint " + i, 5, riddle));
+            riddle.setID(new UUID(0, i));
+            set.add(riddle);
+        }
+        return set;
+    }
+
+    /** Plays and records random games until each is over. */
+    private List<SessionLog> recordGames(int count, long seed) {
+        Random random = new Random(seed);
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.setRecording(true);
+        List<SessionLog> logs = new ArrayList<>();
+        for (int game = 0; game < count; game++) {
+            engine.getPlayer().setDisplayName("player" + (game % 5));
+            engine.start(Game.Difficulty.values()[random.nextInt(3)]);
+            while (!engine.isOver()) {
+                now.addAndGet(random.nextInt(90_000) * 1_000_003L);
+                switch (random.nextInt(4)) {
+                    case 0: engine.revealHint(); break;
+                    case 1: engine.submitAnswer("wrong"); break;
+                    default: engine.submitAnswer("answer" + engine.getCurrentPuzzleIndex()); break;
+                }
+            }
+            logs.add(engine.getLog());
+        }
+        return logs;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+    }
+
+    @After
+    public void tearDown() {
+        Leaderboard.getInstance().clearLeaderboard();
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    @Test
+    public void testCurrentRulesReproduceRecordedScores() {
+        List<SessionLog> logs = recordGames(100, 3);
+        List<SessionResult> results = ScoreRescorer.replayAll(logs, () -> new SessionReplayer(puzzleSet()));
+        assertEquals(logs.size(), results.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertTrue(results.get(i).isOver());
+            assertEquals(logs.get(i).getScore(), results.get(i).score(Game.getScoreRules()));
+            assertEquals(logs.get(i).getPlayerName(), results.get(i).getPlayerName());
+        }
+    }
+
+    @Test
+    public void testChangedRulesChangeScores() {
+        ScoreRules rules = Game.getScoreRules();
+        ScoreRules cheaperHints = new ScoreRules(rules.getBaseScore(), rules.getCompletionBonus(),
+                rules.getHintPenalty() - 10, rules.getStrikePenalty(), rules.getTimeBonusPerSecond());
+        List<SessionResult> results = ScoreRescorer.replayAll(recordGames(50, 5),
+                () -> new SessionReplayer(puzzleSet()));
+        List<LeaderboardEntry> before = ScoreRescorer.rescore(results, rules);
+        List<LeaderboardEntry> after = ScoreRescorer.rescore(results, cheaperHints);
+        assertEquals(results.size(), after.size());
+        for (int i = 0; i < results.size(); i++) {
+            SessionResult result = results.get(i);
+            if (before.get(i).getScore() > 0) {
+                assertEquals(before.get(i).getScore() + 10 * result.getHintsUsed(), after.get(i).getScore());
+            }
+            assertEquals(result.getPlayerName(), after.get(i).getPlayerName());
+            assertEquals(result.getDifficulty(), after.get(i).getDifficulty());
+        }
+    }
+
+    @Test
+    public void testLogsOfOtherPuzzlesAreSkipped() {
+        List<SessionLog> logs = new ArrayList<>(recordGames(3, 7));
+        ArrayList<Puzzle> others = puzzleSet();
+        others.get(0).setID(new UUID(1, 0));
+        GameEngine engine = new GameEngine(others, now::get);
+        engine.setRecording(true);
+        engine.start(Game.Difficulty.EASY);
+        engine.quit();
+        logs.add(1, engine.getLog());
+
+        List<SessionResult> results = ScoreRescorer.replayAll(logs, () -> new SessionReplayer(puzzleSet()));
+        assertEquals(3, results.size());
+        assertEquals(logs.get(0).getPlayerName(), results.get(0).getPlayerName());
+        assertEquals(logs.get(2).getPlayerName(), results.get(1).getPlayerName());
+    }
+
+    @Test
+    public void testRebuildMatchesAddingOneByOne() {
+        Random random = new Random(11);
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // few distinct scores and times, so many entries tie
+            entries.add(new LeaderboardEntry("p" + i, random.nextInt(20) * 50, random.nextInt(4),
+                    random.nextInt(5) * 30, Game.Difficulty.values()[random.nextInt(3)], "2026-10-18T00:00:00Z"));
+        }
+        Leaderboard leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        for (LeaderboardEntry entry : entries) {
+            leaderboard.addScore(entry.getPlayerName(), entry.getScore(), entry.getPuzzlesCompleted(),
+                    entry.getTimeTaken(), entry.getDifficulty());
+        }
+        List<String> expected = names(leaderboard.getAllEntries());
+        List<String> expectedHard = names(leaderboard.getEntriesByDifficulty(Game.Difficulty.HARD));
+        int rank = leaderboard.getPlayerRank("p250");
+        int median = leaderboard.getMedianScore(Game.Difficulty.EASY);
+
+        leaderboard.clearLeaderboard();
+        leaderboard.rebuild(entries);
+        assertEquals(entries.size(), leaderboard.size());
+        assertEquals(expected, names(leaderboard.getAllEntries()));
+        assertEquals(expectedHard, names(leaderboard.getEntriesByDifficulty(Game.Difficulty.HARD)));
+        assertEquals(rank, leaderboard.getPlayerRank("p250"));
+        assertEquals(median, leaderboard.getMedianScore(Game.Difficulty.EASY));
+    }
+
+    @Test
+    public void testReplaceGamesKeepsEntriesWithoutRecordings() {
+        Leaderboard leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+        leaderboard.addScore("walk-in", 900, 3, 60, Game.Difficulty.EASY);
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.setRecording(true);
+        List<SessionLog> logs = new ArrayList<>();
+        for (int game = 0; game < 4; game++) {
+            engine.getPlayer().setDisplayName("player" + game);
+            engine.start(Game.Difficulty.MEDIUM);
+            engine.revealHint();
+            for (int i = 0; i < 3; i++) {
+                now.addAndGet(20 * GameTimer.NANOS_PER_SECOND);
+                engine.submitAnswer("answer" + i);
+            }
+            leaderboard.addCurrentGameScore(engine.getGame());
+            logs.add(engine.getLog());
+        }
+        // one recorded game that never reached the board
+        engine.getPlayer().setDisplayName("unposted");
+        engine.start(Game.Difficulty.HARD);
+        engine.quit();
+        logs.add(engine.getLog());
+
+        ScoreRules rules = Game.getScoreRules();
+        ScoreRules cheaperHints = new ScoreRules(rules.getBaseScore(), rules.getCompletionBonus(),
+                rules.getHintPenalty() - 10, rules.getStrikePenalty(), rules.getTimeBonusPerSecond());
+        List<LeaderboardEntry> rescored = ScoreRescorer.rescore(
+                ScoreRescorer.replayAll(logs, () -> new SessionReplayer(puzzleSet())), cheaperHints);
+        assertEquals(4, leaderboard.replaceGames(rescored));
+
+        assertEquals(5, leaderboard.size());
+        assertEquals(900, leaderboard.getPlayerBestScore("walk-in").getScore());
+        assertNull(leaderboard.getPlayerBestScore("unposted"));
+        for (int game = 0; game < 4; game++) {
+            assertEquals(rescored.get(game).getScore(), leaderboard.getPlayerBestScore("player" + game).getScore());
+            assertEquals(logs.get(game).getScore() + 10, rescored.get(game).getScore());
+        }
+    }
+
+    private static List<String> names(List<LeaderboardEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            names.add(entry.getPlayerName());
+        }
+        return names;
+    }
+}
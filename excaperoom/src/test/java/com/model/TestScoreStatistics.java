@@ -0,0 +1,105 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestScoreStatistics {
+
+    private File leaderboardDir;
+    private File originalLeaderboardFile;
+
+    private Leaderboard leaderboard;
+
+    @Before
+    public void setUp() throws Exception {
+        // keep test entries out of the real leaderboard file
+        originalLeaderboardFile = LeaderboardStore.getInstance().getFile();
+        leaderboardDir = Files.createTempDirectory("leaderboard").toFile();
+        LeaderboardStore.getInstance().setFile(new File(leaderboardDir, "leaderboard.jsonl"));
+        leaderboard = Leaderboard.getInstance();
+        leaderboard.clearLeaderboard();
+    }
+
+    @After
+    public void tearDown() {
+        leaderboard.clearLeaderboard();
+        LeaderboardStore.getInstance().setFile(originalLeaderboardFile);
+        Leaderboard.getInstance().reload();
+        File[] files = leaderboardDir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        leaderboardDir.delete();
+    }
+
+    @Test
+    public void testHistogramBucketsAndMerge() {
+        ScoreHistogram a = new ScoreHistogram(100);
+        a.add(0);
+        a.add(99);
+        a.add(250);
+        a.add(-5);
+        ScoreHistogram b = new ScoreHistogram(100);
+        b.add(150);
+        b.add(Integer.MAX_VALUE);
+
+        assertArrayEquals(new long[] { 3, 0, 1 }, a.getCounts());
+        ScoreHistogram merged = a.merged(b);
+        assertEquals(6, merged.getTotal());
+        assertEquals(1, merged.getCount(1));
+        assertEquals(ScoreHistogram.MAX_BUCKETS, merged.getBucketCount());
+        assertEquals(1, merged.getCount(ScoreHistogram.MAX_BUCKETS - 1));
+        assertEquals(4, a.getTotal());
+    }
+
+    @Test
+    public void testMediansAndQuantilesMatchSortedScores() {
+        Random random = new Random(9);
+        Game.Difficulty[] levels = Game.Difficulty.values();
+        ArrayList<Integer> all = new ArrayList<>();
+        ArrayList<Integer> hard = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            int score = random.nextInt(3_000);
+            Game.Difficulty level = levels[i % levels.length];
+            leaderboard.addScore("p" + i, score, 1, random.nextInt(100), level);
+            all.add(score);
+            if (level == Game.Difficulty.HARD) hard.add(score);
+        }
+        Collections.sort(all);
+        Collections.sort(hard);
+        LeaderboardSnapshot snapshot = leaderboard.snapshot();
+
+        assertEquals((int) all.get(250), leaderboard.getMedianScore(null));
+        assertEquals((int) hard.get((hard.size() - 1) / 2), leaderboard.getMedianScore(Game.Difficulty.HARD));
+        assertEquals((int) all.get(0), snapshot.scoreAt(null, 0));
+        assertEquals((int) all.get(500), snapshot.scoreAt(null, 1));
+        assertEquals((int) all.get(450), snapshot.scoreAt(null, 0.9));
+
+        ScoreHistogram histogram = leaderboard.getScoreHistogram(null);
+        assertEquals(501, histogram.getTotal());
+        long inFirstBucket = all.stream().filter(s -> s < Leaderboard.HISTOGRAM_BUCKET_WIDTH).count();
+        assertEquals(inFirstBucket, histogram.getCount(0));
+    }
+
+    @Test
+    public void testPlayerPercentile() {
+        leaderboard.addScore("low", 100, 1, 60, Game.Difficulty.EASY);
+        leaderboard.addScore("mid", 200, 1, 60, Game.Difficulty.MEDIUM);
+        leaderboard.addScore("tie", 200, 1, 60, Game.Difficulty.HARD);
+        leaderboard.addScore("top", 300, 1, 60, Game.Difficulty.HARD);
+
+        assertEquals(0.0, leaderboard.getPlayerPercentile("low"), 1e-9);
+        assertEquals(25.0, leaderboard.getPlayerPercentile("mid"), 1e-9);
+        assertEquals(75.0, leaderboard.getPlayerPercentile("top"), 1e-9);
+        assertEquals(-1.0, leaderboard.getPlayerPercentile("nobody"), 1e-9);
+    }
+}
@@ -0,0 +1,157 @@
+package com.model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSessionRegistry {
+
+    private SessionRegistry registry;
+    private PuzzlesManager manager;
+    private File rooms;
+    private File sessionsFile;
+    private File originalSessionsFile;
+
+    @Before
+    public void setUp() throws Exception {
+        // sessions record their games; keep them out of the real sessions file
+        originalSessionsFile = SessionStore.getInstance().getFile();
+        sessionsFile = File.createTempFile("sessions", ".jsonl");
+        SessionStore.getInstance().setFile(sessionsFile);
+        SaveCoalescer.getInstance().flush();
+        SaveCoalescer.getInstance().setFlushDelay(60_000);
+        registry = SessionRegistry.getInstance();
+        registry.closeAll();
+        Players.getInstance().logout();
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+        manager = PuzzlesManager.getInstance();
+        manager.getPuzzles().clear();
+        manager.setCurrentPuzzle(null);
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"type\":\"Trivia\",\"puzzleID\":\"00000000-0000-0000-0000-00000000000").append(i)
+                .append("\",\"question\":\"Question ").append(i).append("\",\"correctAnswer\":\"answer").append(i)
+                .append("\",\"hints\":[{\"text\":\"hint ").append(i).append("\",\"cost\":5}]}");
+        }
+        json.append(']');
+        rooms = File.createTempFile("rooms", ".json");
+        Files.write(rooms.toPath(), json.toString().getBytes("UTF-8"));
+        PuzzleCatalog.getInstance().setFile(rooms);
+        PuzzleCatalog.getInstance().refresh();
+    }
+
+    @After
+    public void tearDown() {
+        registry.closeAll();
+        SaveCoalescer.getInstance().setFlushDelay(SaveCoalescer.DEFAULT_FLUSH_DELAY_MILLIS);
+        SaveCoalescer.getInstance().flush();
+        Players.getInstance().setPlayers(new ArrayList<Player>());
+        manager.getPuzzles().clear();
+        manager.setCurrentPuzzle(null);
+        PuzzleCatalog.getInstance().setFile(new File(DataConstants.PUZZLES_FILE));
+        rooms.delete();
+        SessionStore.getInstance().setFile(originalSessionsFile);
+        sessionsFile.delete();
+    }
+
+    @Test
+    public void testLoginAndLookup() {
+        GameSession created = registry.createAccount("ann", "pw");
+        assertNotNull(created);
+        assertNull("the facade's current player is untouched", Players.getCurrentPlayer());
+        assertSame(created, registry.get(created.getSessionId()));
+        assertSame("logging in again resumes the open session", created, registry.login("ann", "pw"));
+        assertNull(registry.login("ann", "wrong"));
+        assertNull("names stay unique", registry.createAccount("ann", "other"));
+
+        assertTrue(registry.close(created.getSessionId()));
+        assertNull(registry.get(created.getSessionId()));
+        assertNotSame(created, registry.login("ann", "pw"));
+    }
+
+    @Test
+    public void testSessionsHaveIndependentState() {
+        GameSession ann = registry.createAccount("ann", "pw");
+        GameSession ben = registry.createAccount("ben", "pw");
+        ann.start(Game.Difficulty.EASY);
+        ben.start(Game.Difficulty.HARD);
+
+        assertTrue(ann.completePuzzle());
+        assertTrue(ann.completePuzzle());
+        assertNotNull(ben.revealHint());
+
+        assertEquals("Question 2", ((Trivia) ann.getCurrentPuzzle()).getTriviaText());
+        assertEquals("Question 0", ((Trivia) ben.getCurrentPuzzle()).getTriviaText());
+        assertFalse("puzzle objects are per session", ann.getCurrentPuzzle() == manager.getPuzzles().get(2));
+        assertFalse(ann.getPuzzlesManager().getPuzzles().get(0).getHints().get(0).isUsed());
+        assertEquals(1, ben.getPlayer().getProgress().get(0).getHintsUsed());
+        assertEquals(0, ann.getPlayer().getProgress().get(0).getHintsUsed());
+        assertEquals(Game.Difficulty.HARD, ben.getGame().getDifficulty());
+
+        assertFalse("last puzzle ends the game", ann.completePuzzle());
+        assertTrue(ann.isOver());
+        assertFalse(ben.isOver());
+    }
+
+    @Test
+    public void testConcurrentAccountCreation() throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        List<String> ids = Collections.synchronizedList(new ArrayList<String>());
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int n = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    GameSession session = registry.createAccount("player" + n + "_" + i, "pw");
+                    session.start(Game.Difficulty.MEDIUM);
+                    session.completePuzzle();
+                    ids.add(session.getSessionId());
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, registry.size());
+        assertEquals(threads * perThread, new HashSet<>(ids).size());
+        assertEquals(threads * perThread, Players.getPlayers().size());
+        assertNotNull(Players.getInstance().getPlayerByName("player3_7"));
+    }
+
+    @Test
+    public void testSessionGamesAreRecordedAndReplay() {
+        GameSession session = registry.createAccount("ann", "pw");
+        session.start(Game.Difficulty.EASY);
+        assertNotNull(session.revealHint());
+        assertTrue(session.completePuzzle());
+        assertTrue(session.skipPuzzle());
+        assertFalse(session.completePuzzle());
+        assertTrue(session.isOver());
+
+        List<SessionLog> logs = SessionStore.getInstance().load();
+        assertEquals(1, logs.size());
+        assertEquals("ann", logs.get(0).getPlayerName());
+        assertEquals(session.getScore(), logs.get(0).getScore());
+        assertEquals(session.getScore(), SessionReplayer.fromCatalog().replay(logs.get(0)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class TestSessionReplay {
+
+    /** Recording time, in nanoseconds; starts at an odd reading like a real clock. */
+    private final AtomicLong now = new AtomicLong(987_654_321_123L);
+
+    /** A fresh copy of the same four puzzles, with fixed IDs. */
+    private static ArrayList<Puzzle> puzzleSet() {
+        ArrayList<Puzzle> set = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Riddle riddle = new Riddle("Riddle " + i, "answer" + i);
+            riddle.addHint(new Hint("hint " + i, 5, riddle));
+            set.add(riddle);
+        }
+        set.add(new ItemPuzzle("Locked box", "Key"));
+        for (int i = 0; i < set.size(); i++) {
+            set.get(i).setID(new UUID(0, i));
+        }
+        return set;
+    }
+
+    private void advance(long nanos) {
+        now.addAndGet(nanos);
+    }
+
+    @Test
+    public void testReplayReproducesScoreAndState() {
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.setRecording(true);
+        engine.getPlayer().setDisplayName("ann");
+        engine.start(Game.Difficulty.MEDIUM);
+        advance(7_123_456_789L);
+        engine.submitAnswer("wrong");
+        advance(1_000_000_001L);
+        engine.revealHint();
+        engine.pause();
+        advance(300_000_000_007L);
+        engine.resume();
+        advance(3_333_333_333L);
+        engine.submitAnswer("answer0");
+        advance(12_345L);
+        engine.skip();
+        advance(45_000_000_000L);
+        engine.submitAnswer("answer2");
+        advance(999_999_999L);
+        engine.giveItem(new Item("key", "opens the box", "desk", null));
+        advance(123_456_789L);
+        engine.submitAnswer("");
+        SessionLog log = engine.getLog();
+        int recorded = engine.getScore();
+        assertTrue(engine.getGame().isOver());
+        assertFalse(engine.isWon());
+        assertEquals(recorded, log.getScore());
+        assertEquals(18, log.getEvents().size());
+
+        SessionReplayer replayer = new SessionReplayer(puzzleSet());
+        assertEquals(recorded, replayer.replay(log));
+        GameEngine replayed = replayer.getEngine();
+        assertEquals(engine.getElapsedNanos(), replayed.getElapsedNanos());
+        assertEquals(engine.getCompletedCount(), replayed.getCompletedCount());
+        assertEquals(engine.getStrikes(), replayed.getStrikes());
+        assertEquals(engine.getHintsUsed(), replayed.getHintsUsed());
+        assertEquals("ann", replayed.getPlayer().getDisplayName());
+    }
+
+    @Test
+    public void testRandomGamesRoundTripThroughFile() throws Exception {
+        Random random = new Random(7);
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.setRecording(true);
+        List<SessionLog> logs = new ArrayList<>();
+        for (int game = 0; game < 200; game++) {
+            engine.start(Game.Difficulty.values()[random.nextInt(3)]);
+            while (!engine.isOver()) {
+                advance(random.nextInt(120_000) * 1_000_003L);
+                switch (random.nextInt(6)) {
+                    case 0: engine.revealHint(); break;
+                    case 1: engine.pause(); break;
+                    case 2: engine.resume(); break;
+                    case 3: engine.giveItem(new Item("Key", "", "", null)); break;
+                    case 4: engine.submitAnswer("wrong"); break;
+                    default: engine.submitAnswer("answer" + engine.getCurrentPuzzleIndex()); break;
+                }
+            }
+            logs.add(engine.getLog());
+        }
+
+        File file = File.createTempFile("sessions", ".jsonl");
+        file.deleteOnExit();
+        SessionLog.write(logs, file);
+        List<SessionLog> read = SessionLog.read(file);
+        assertEquals(logs.size(), read.size());
+
+        SessionReplayer replayer = new SessionReplayer(puzzleSet());
+        for (int i = 0; i < logs.size(); i++) {
+            assertEquals(logs.get(i).getScore(), replayer.replay(read.get(i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLogOfOtherPuzzlesIsRejected() {
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.setRecording(true);
+        engine.start(Game.Difficulty.EASY);
+        ArrayList<Puzzle> others = puzzleSet();
+        others.remove(0);
+        new SessionReplayer(others).replay(engine.getLog());
+    }
+
+    @Test
+    public void testNotRecordingByDefault() {
+        GameEngine engine = new GameEngine(puzzleSet(), now::get);
+        engine.start(Game.Difficulty.EASY);
+        assertNull(engine.getLog());
+    }
+
+    @Test
+    public void testReplayerNeedsPuzzlesFromCatalog() {
+        PuzzleCatalog catalog = PuzzleCatalog.getInstance();
+        catalog.setFile(new File("no-such-rooms.json"));
+        try {
+            SessionReplayer.fromCatalog();
+            fail("an empty catalog must not give an empty replayer");
+        } catch (IllegalStateException expected) {
+            // nothing was loaded
+        } finally {
+            catalog.setFile(new File(DataConstants.PUZZLES_FILE));
+        }
+    }
+}